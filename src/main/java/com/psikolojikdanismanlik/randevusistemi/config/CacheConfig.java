@@ -0,0 +1,56 @@
+package com.psikolojikdanismanlik.randevusistemi.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String THERAPIST_PROFILES = "therapistProfiles";
+    public static final String THERAPIST_DIRECTORY = "therapistDirectory";
+    public static final String FREE_BUSY_DAYS = "freeBusyDays";
+    public static final String RECURRING_SLOT_WEEKS = "recurringSlotWeeks";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${app.cache.therapist-profiles.max-size:10000}") long profilesMaxSize,
+                                     @Value("${app.cache.therapist-directory.max-size:500}") long directoryMaxSize,
+                                     @Value("${app.cache.therapists.ttl:10m}") Duration ttl,
+                                     @Value("${app.cache.free-busy-days.max-size:200000}") long freeBusyMaxSize,
+                                     @Value("${app.cache.free-busy-days.ttl:30m}") Duration freeBusyTtl,
+                                     @Value("${app.cache.recurring-slot-weeks.max-size:100000}") long recurringMaxSize,
+                                     @Value("${app.cache.recurring-slot-weeks.ttl:30m}") Duration recurringTtl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Only the caches registered below exist; an unknown cache name fails instead of growing unbounded.
+        cacheManager.setCacheNames(List.of());
+        cacheManager.registerCustomCache(THERAPIST_PROFILES, Caffeine.newBuilder()
+                .maximumSize(profilesMaxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(THERAPIST_DIRECTORY, Caffeine.newBuilder()
+                .maximumSize(directoryMaxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(FREE_BUSY_DAYS, Caffeine.newBuilder()
+                .maximumSize(freeBusyMaxSize)
+                .expireAfterWrite(freeBusyTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(RECURRING_SLOT_WEEKS, Caffeine.newBuilder()
+                .maximumSize(recurringMaxSize)
+                .expireAfterWrite(recurringTtl)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
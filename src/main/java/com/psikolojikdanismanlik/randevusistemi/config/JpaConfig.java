@@ -0,0 +1,23 @@
+package com.psikolojikdanismanlik.randevusistemi.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JpaConfig {
+
+    // Ids come from pooled sequences, so inserts no longer need a round trip each and can be sent as JDBC batches.
+    // spring.jpa.properties still wins for the batching settings; the optimizer is fixed because IdAllocator relies on it.
+    @Bean
+    public HibernatePropertiesCustomizer batchingCustomizer(@Value("${app.jpa.batch-size:50}") int batchSize) {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(batchSize));
+            properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, "true");
+            properties.putIfAbsent(AvailableSettings.ORDER_UPDATES, "true");
+            properties.put(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "pooled-lo");
+        };
+    }
+}
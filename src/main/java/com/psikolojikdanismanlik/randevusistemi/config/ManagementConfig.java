@@ -0,0 +1,68 @@
+package com.psikolojikdanismanlik.randevusistemi.config;
+
+import com.psikolojikdanismanlik.randevusistemi.filter.RequestTraceFilter;
+import com.psikolojikdanismanlik.randevusistemi.metrics.RepositoryTimingInterceptor;
+import com.psikolojikdanismanlik.randevusistemi.trace.RequestTracer;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import javax.sql.DataSource;
+
+@Configuration
+@PropertySource("classpath:management.properties")
+public class ManagementConfig {
+
+    // Replaces Boot's spring.data.repository.invocations (turned off in management.properties), which builds its tags
+    // on every call. The interceptor goes first so transaction and connection handling are inside the measured time.
+    @Bean
+    public static BeanPostProcessor repositoryTimingPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(0, new RepositoryTimingInterceptor(
+                                    meterRegistry.getObject(), repositoryInformation.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Every statement, from JPA and JdbcTemplate alike, goes through the proxy so the request tracer sees it.
+    @Bean
+    public static BeanPostProcessor requestTraceDataSourcePostProcessor(ObjectProvider<RequestTracer> requestTracer,
+                                                                        @Value("${app.trace.enabled:true}") boolean enabled) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (enabled && bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(requestTracer.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestTraceFilter> requestTraceFilter(RequestTracer requestTracer,
+                                                                         @Value("${app.trace.enabled:true}") boolean enabled) {
+        FilterRegistrationBean<RequestTraceFilter> registration = new FilterRegistrationBean<>(new RequestTraceFilter(requestTracer));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        registration.setEnabled(enabled);
+        return registration;
+    }
+}
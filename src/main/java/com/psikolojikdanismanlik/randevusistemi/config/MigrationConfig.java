@@ -0,0 +1,9 @@
+package com.psikolojikdanismanlik.randevusistemi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+@Configuration
+@PropertySource("classpath:migration.properties")
+public class MigrationConfig {
+}
@@ -2,17 +2,22 @@ package com.psikolojikdanismanlik.randevusistemi.config;
 
 import com.psikolojikdanismanlik.randevusistemi.entity.Client;
 import com.psikolojikdanismanlik.randevusistemi.filter.JwtAuthenticationFilter;
+import com.psikolojikdanismanlik.randevusistemi.mapper.UserMapper;
 import com.psikolojikdanismanlik.randevusistemi.repository.ClientRepository;
 import com.psikolojikdanismanlik.randevusistemi.repository.TherapistRepository;
 import com.psikolojikdanismanlik.randevusistemi.repository.UserRepository;
+import com.psikolojikdanismanlik.randevusistemi.security.TimedPasswordEncoder;
 import com.psikolojikdanismanlik.randevusistemi.service.ClientService;
 import com.psikolojikdanismanlik.randevusistemi.service.TherapistService;
 import com.psikolojikdanismanlik.randevusistemi.service.UserService;
 import com.psikolojikdanismanlik.randevusistemi.util.JwtUtil;
-import org.modelmapper.ModelMapper;
+import com.psikolojikdanismanlik.randevusistemi.util.VerifiedTokenCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
@@ -25,6 +30,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -37,13 +43,13 @@ import java.util.List;
 public class SecurityConfig {
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
 
     @Bean
-    public UserDetailsService userDetailsService(UserRepository userRepository, ClientRepository clientRepository, TherapistRepository therapistRepository, ModelMapper modelMapper, PasswordEncoder passwordEncoder, TherapistService therapistService, ClientService clientService, JwtUtil jwtUtil) {
-        return new UserService(userRepository, clientRepository, therapistRepository, modelMapper, passwordEncoder, therapistService, clientService, jwtUtil);
+    public UserDetailsService userDetailsService(UserRepository userRepository, ClientRepository clientRepository, TherapistRepository therapistRepository, UserMapper userMapper, PasswordEncoder passwordEncoder, TherapistService therapistService, ClientService clientService, JwtUtil jwtUtil, VerifiedTokenCache verifiedTokenCache) {
+        return new UserService(userRepository, clientRepository, therapistRepository, userMapper, passwordEncoder, therapistService, clientService, jwtUtil, verifiedTokenCache);
     }
 
     @Bean
@@ -52,8 +58,15 @@ public class SecurityConfig {
     }
 
     @Bean
-    public JwtAuthenticationFilter jwtAuthenticationFilter(UserDetailsService userDetailsService, JwtUtil jwtUtil) {
-        return new JwtAuthenticationFilter(userDetailsService, jwtUtil);
+    public VerifiedTokenCache verifiedTokenCache(JwtUtil jwtUtil, @Value("${app.security.jwt.token-cache-size:10000}") int tokenCacheSize) {
+        return new VerifiedTokenCache(tokenCacheSize, jwtUtil.tokenLifetime());
+    }
+
+    @Bean
+    public JwtAuthenticationFilter jwtAuthenticationFilter(UserDetailsService userDetailsService, JwtUtil jwtUtil,
+                                                           @Value("${app.security.jwt.claims-only:true}") boolean claimsOnly,
+                                                           VerifiedTokenCache verifiedTokenCache, MeterRegistry meterRegistry) {
+        return new JwtAuthenticationFilter(userDetailsService, jwtUtil, claimsOnly, verifiedTokenCache, meterRegistry);
     }
 
     @Bean
@@ -91,21 +104,27 @@ public class SecurityConfig {
                 .cors(Customizer.withDefaults())
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/**").permitAll()
-                        .requestMatchers("/api/client/**").hasAuthority("CLIENT")
-                        .requestMatchers("/api/therapist/**").hasAuthority("THERAPIST")
+                        .requestMatchers("/api/client/**").hasRole("CLIENT")
+                        .requestMatchers("/api/therapist/**").hasRole("THERAPIST")
+                        .requestMatchers(HttpMethod.POST, "/api/therapists/*/availabilities").hasAnyRole("THERAPIST", "ADMIN")
                         .requestMatchers("/api/therapists/**").permitAll()
-                        .requestMatchers("/api/admin/**").hasAuthority("ADMIN")
-                        .requestMatchers(HttpMethod.PUT, "/api/appointments/*/cancel-request").hasAuthority("CLIENT")
-                        .requestMatchers(HttpMethod.PUT, "/api/appointments/*/reschedule").hasAuthority("CLIENT")
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.PUT, "/api/appointments/*/cancel-request").hasRole("CLIENT")
+                        .requestMatchers(HttpMethod.PUT, "/api/appointments/*/reschedule").hasRole("CLIENT")
                         .requestMatchers(HttpMethod.PUT, "/api/users/profile").authenticated()
-                        .requestMatchers(HttpMethod.PUT, "/api/appointments/*/status").hasAuthority("THERAPIST")
+                        .requestMatchers(HttpMethod.PUT, "/api/appointments/*/status").hasAnyRole("THERAPIST", "ADMIN")
                         .requestMatchers(HttpMethod.POST, "/api/feedbacks/appointments/*").hasRole("CLIENT")
                         .requestMatchers(HttpMethod.GET, "/api/users/me").authenticated()
-                        .requestMatchers(HttpMethod.GET, "/api/appointments/{id}").hasAuthority("CLIENT")
-                        .requestMatchers(HttpMethod.POST, "/api/therapists/*/availabilities").hasAuthority("CLIENT")
+                        .requestMatchers(HttpMethod.GET, "/api/appointments/export").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/appointments/therapists/*/export", "/api/appointments/clients/*/export").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/api/appointments/{id}").hasRole("CLIENT")
+                        .requestMatchers(HttpMethod.GET, "/api/appointments/*/cursor").hasRole("CLIENT")
                         .requestMatchers("/api/appointments/**").permitAll()
+                        .requestMatchers("/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
+                .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authenticationProvider(provider)
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
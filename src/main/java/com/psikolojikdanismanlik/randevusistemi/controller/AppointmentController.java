@@ -4,35 +4,48 @@ import com.psikolojikdanismanlik.randevusistemi.dto.request.AppointmentRequest;
 import com.psikolojikdanismanlik.randevusistemi.dto.request.AppointmentStatusUpdateRequest;
 import com.psikolojikdanismanlik.randevusistemi.dto.request.RescheduleRequestDto;
 import com.psikolojikdanismanlik.randevusistemi.dto.response.AppointmentResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.CursorPage;
+import com.psikolojikdanismanlik.randevusistemi.enums.ExportFormat;
+import com.psikolojikdanismanlik.randevusistemi.service.AppointmentExportService;
 import com.psikolojikdanismanlik.randevusistemi.service.AppointmentService;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
+import com.psikolojikdanismanlik.randevusistemi.util.CursorToken;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.AccessDeniedException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/appointments")
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
+    private final AppointmentExportService appointmentExportService;
 
-    public AppointmentController(AppointmentService appointmentService) {
+    public AppointmentController(AppointmentService appointmentService, AppointmentExportService appointmentExportService) {
         this.appointmentService = appointmentService;
+        this.appointmentExportService = appointmentExportService;
     }
 
     @PostMapping
     public ResponseEntity<AppointmentResponseDto> createAppointment(
             @RequestBody AppointmentRequest request,
-            @AuthenticationPrincipal UserDetails userDetails
+            @AuthenticationPrincipal AuthenticatedUser principal
     ) {
-        AppointmentResponseDto appointment = appointmentService.createAppointment(request, userDetails.getUsername());
+        AppointmentResponseDto appointment = appointmentService.createAppointment(request, principal);
         return new ResponseEntity<>(appointment, HttpStatus.CREATED);
     }
 
@@ -40,10 +53,9 @@ public class AppointmentController {
     public ResponseEntity<AppointmentResponseDto> updateStatus(
             @PathVariable Long id,
             @RequestBody AppointmentStatusUpdateRequest request,
-            @AuthenticationPrincipal UserDetails userDetails
+            @AuthenticationPrincipal AuthenticatedUser principal
     ) throws AccessDeniedException {
-        String therapistEmail = userDetails.getUsername();
-        AppointmentResponseDto response = appointmentService.updateStatus(id, request.getStatus(), therapistEmail);
+        AppointmentResponseDto response = appointmentService.updateStatus(id, request.getStatus(), principal);
         return ResponseEntity.ok(response);
     }
 
@@ -51,10 +63,9 @@ public class AppointmentController {
     public ResponseEntity<AppointmentResponseDto> requestRescheduleByClient(
             @PathVariable Long id,
             @RequestBody RescheduleRequestDto request,
-            @AuthenticationPrincipal UserDetails userDetails
+            @AuthenticationPrincipal AuthenticatedUser principal
     ) throws AccessDeniedException {
-        String email = userDetails.getUsername();
-        AppointmentResponseDto response = appointmentService.requestRescheduleByClient(id, request, email);
+        AppointmentResponseDto response = appointmentService.requestRescheduleByClient(id, request, principal);
         return ResponseEntity.ok(response);
     }
 
@@ -62,9 +73,20 @@ public class AppointmentController {
     public ResponseEntity<Page<AppointmentResponseDto>> getAppointmentsByClientId(
             @PathVariable Long id,
             @PageableDefault(size = 5, sort = "createdDate", direction = Sort.Direction.DESC) Pageable pageable,
-            @AuthenticationPrincipal UserDetails userDetails
+            @AuthenticationPrincipal AuthenticatedUser principal
     ) {
-        Page<AppointmentResponseDto> appointments = appointmentService.getAppointmentsByClientId(id, pageable, userDetails.getUsername());
+        Page<AppointmentResponseDto> appointments = appointmentService.getAppointmentsByClientId(id, pageable, principal);
+        return ResponseEntity.ok(appointments);
+    }
+
+    @GetMapping("/{id}/cursor")
+    public ResponseEntity<CursorPage<AppointmentResponseDto>> getAppointmentTimelineByClientId(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorToken.DEFAULT_SIZE) int size,
+            @AuthenticationPrincipal AuthenticatedUser principal
+    ) {
+        CursorPage<AppointmentResponseDto> appointments = appointmentService.getAppointmentTimelineByClientId(id, cursor, size, principal);
         return ResponseEntity.ok(appointments);
     }
 
@@ -79,4 +101,66 @@ public class AppointmentController {
         List<AppointmentResponseDto> response = appointmentService.getPastAppointmentsByClientId(clientId);
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping("/therapists/{therapistId}/export")
+    public void exportAppointmentsOfTherapist(
+            @PathVariable Long therapistId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            HttpServletResponse response
+    ) throws IOException {
+        appointmentExportService.checkTherapistAccess(therapistId, principal);
+        ExportFormat exportFormat = ExportFormat.from(format);
+        try (OutputStream out = exportStream(response, exportFormat, "therapist-" + therapistId, acceptEncoding)) {
+            appointmentExportService.exportForTherapist(therapistId, from, to, exportFormat, out);
+        }
+    }
+
+    @GetMapping("/clients/{clientId}/export")
+    public void exportAppointmentsOfClient(
+            @PathVariable Long clientId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            HttpServletResponse response
+    ) throws IOException {
+        appointmentExportService.checkClientAccess(clientId, principal);
+        ExportFormat exportFormat = ExportFormat.from(format);
+        try (OutputStream out = exportStream(response, exportFormat, "client-" + clientId, acceptEncoding)) {
+            appointmentExportService.exportForClient(clientId, from, to, exportFormat, out);
+        }
+    }
+
+    @GetMapping("/export")
+    public void exportAllAppointments(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            HttpServletResponse response
+    ) throws IOException {
+        appointmentExportService.checkAdminAccess(principal);
+        ExportFormat exportFormat = ExportFormat.from(format);
+        try (OutputStream out = exportStream(response, exportFormat, "all", acceptEncoding)) {
+            appointmentExportService.exportAll(from, to, exportFormat, out);
+        }
+    }
+
+    private OutputStream exportStream(HttpServletResponse response, ExportFormat format, String scope, String acceptEncoding) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"appointments-" + scope + "." + format.getExtension() + "\"");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return new GZIPOutputStream(response.getOutputStream(), 8192);
+        }
+        return response.getOutputStream();
+    }
 }
@@ -1,9 +1,23 @@
 package com.psikolojikdanismanlik.randevusistemi.controller;
 
+import com.psikolojikdanismanlik.randevusistemi.dto.request.AvailabilityExceptionRequest;
 import com.psikolojikdanismanlik.randevusistemi.dto.request.AvailabilityRequest;
+import com.psikolojikdanismanlik.randevusistemi.dto.request.RecurringAvailabilityRequest;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.AvailabilityExceptionResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.AvailabilityImportResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.AvailabilityRangeDeletionResponseDto;
 import com.psikolojikdanismanlik.randevusistemi.dto.response.AvailabilityResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.AvailabilityRuleResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.CursorPage;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.FreeBusyResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.RecurringAvailabilityResponseDto;
 import com.psikolojikdanismanlik.randevusistemi.entity.Availability;
+import com.psikolojikdanismanlik.randevusistemi.service.AvailabilityImportService;
+import com.psikolojikdanismanlik.randevusistemi.service.AvailabilityRuleService;
 import com.psikolojikdanismanlik.randevusistemi.service.AvailabilityService;
+import com.psikolojikdanismanlik.randevusistemi.service.RecurringAvailabilityService;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
+import com.psikolojikdanismanlik.randevusistemi.util.CursorToken;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -12,43 +26,136 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.nio.file.AccessDeniedException;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/therapists/{therapistId}/availabilities")
 public class AvailabilityController {
 
     private final AvailabilityService availabilityService;
+    private final RecurringAvailabilityService recurringAvailabilityService;
+    private final AvailabilityRuleService availabilityRuleService;
+    private final AvailabilityImportService availabilityImportService;
     private static final Logger logger = LoggerFactory.getLogger(AvailabilityController.class);
 
 
-    public AvailabilityController(AvailabilityService availabilityService) {
+    public AvailabilityController(AvailabilityService availabilityService, RecurringAvailabilityService recurringAvailabilityService,
+                                  AvailabilityRuleService availabilityRuleService, AvailabilityImportService availabilityImportService) {
         this.availabilityService = availabilityService;
+        this.recurringAvailabilityService = recurringAvailabilityService;
+        this.availabilityRuleService = availabilityRuleService;
+        this.availabilityImportService = availabilityImportService;
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSlotEvents(@PathVariable Long therapistId) {
+        return availabilityService.subscribeToSlotEvents(therapistId);
     }
 
     @PostMapping
     public ResponseEntity<Availability> addAvailability(
             @PathVariable Long therapistId,
             @RequestBody AvailabilityRequest request,
-            @AuthenticationPrincipal UserDetails userDetails
+            @AuthenticationPrincipal AuthenticatedUser principal
     ) throws AccessDeniedException {
-        Availability availability = availabilityService.addAvailability(therapistId, request, userDetails.getUsername());
+        Availability availability = availabilityService.addAvailability(therapistId, request, principal);
         return new ResponseEntity<>(availability, HttpStatus.CREATED);
     }
 
+    @PostMapping("/recurring")
+    public ResponseEntity<RecurringAvailabilityResponseDto> addRecurringAvailability(
+            @PathVariable Long therapistId,
+            @RequestBody RecurringAvailabilityRequest request,
+            @AuthenticationPrincipal AuthenticatedUser principal
+    ) throws AccessDeniedException {
+        RecurringAvailabilityResponseDto result = recurringAvailabilityService.addRecurringAvailability(therapistId, request, principal);
+        return new ResponseEntity<>(result, HttpStatus.CREATED);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<AvailabilityImportResponseDto> importCalendar(
+            @PathVariable Long therapistId,
+            @RequestParam("file") MultipartFile file,
+            @AuthenticationPrincipal AuthenticatedUser principal
+    ) throws AccessDeniedException {
+        return ResponseEntity.ok(availabilityImportService.importCalendar(therapistId, file, principal));
+    }
+
+    @PostMapping("/rules")
+    public ResponseEntity<List<AvailabilityRuleResponseDto>> addRules(
+            @PathVariable Long therapistId,
+            @RequestBody RecurringAvailabilityRequest request,
+            @AuthenticationPrincipal AuthenticatedUser principal
+    ) throws AccessDeniedException {
+        List<AvailabilityRuleResponseDto> rules = availabilityRuleService.addRules(therapistId, request, principal);
+        return new ResponseEntity<>(rules, HttpStatus.CREATED);
+    }
+
+    @GetMapping("/rules")
+    public ResponseEntity<List<AvailabilityRuleResponseDto>> getRules(@PathVariable Long therapistId) {
+        return ResponseEntity.ok(availabilityRuleService.getRules(therapistId));
+    }
+
+    @DeleteMapping("/rules/{ruleId}")
+    public ResponseEntity<Void> deleteRule(
+            @PathVariable Long therapistId,
+            @PathVariable Long ruleId,
+            @AuthenticationPrincipal AuthenticatedUser principal
+    ) throws AccessDeniedException {
+        availabilityRuleService.deleteRule(therapistId, ruleId, principal);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/exceptions")
+    public ResponseEntity<AvailabilityExceptionResponseDto> addException(
+            @PathVariable Long therapistId,
+            @RequestBody AvailabilityExceptionRequest request,
+            @AuthenticationPrincipal AuthenticatedUser principal
+    ) throws AccessDeniedException {
+        AvailabilityExceptionResponseDto exception = availabilityRuleService.addException(therapistId, request, principal);
+        return new ResponseEntity<>(exception, HttpStatus.CREATED);
+    }
+
+    @GetMapping("/exceptions")
+    public ResponseEntity<List<AvailabilityExceptionResponseDto>> getExceptions(@PathVariable Long therapistId) {
+        return ResponseEntity.ok(availabilityRuleService.getExceptions(therapistId));
+    }
+
+    @DeleteMapping("/exceptions/{exceptionId}")
+    public ResponseEntity<Void> deleteException(
+            @PathVariable Long therapistId,
+            @PathVariable Long exceptionId,
+            @AuthenticationPrincipal AuthenticatedUser principal
+    ) throws AccessDeniedException {
+        availabilityRuleService.deleteException(therapistId, exceptionId, principal);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping
+    public ResponseEntity<AvailabilityRangeDeletionResponseDto> deleteAvailabilitiesBetween(
+            @PathVariable Long therapistId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @AuthenticationPrincipal AuthenticatedUser principal
+    ) throws AccessDeniedException {
+        return ResponseEntity.ok(availabilityService.deleteAvailabilitiesBetween(therapistId, from, to, principal));
+    }
 
     @DeleteMapping("/{availabilityId}")
     public ResponseEntity<Void> deleteAvailability(
             @PathVariable Long therapistId,
             @PathVariable Long availabilityId,
-            @AuthenticationPrincipal UserDetails userDetails
+            @AuthenticationPrincipal AuthenticatedUser principal
     ) throws AccessDeniedException {
-        availabilityService.deleteAvailability(therapistId, availabilityId, userDetails.getUsername());
+        availabilityService.deleteAvailability(therapistId, availabilityId, principal);
         return ResponseEntity.noContent().build();
     }
 
@@ -56,10 +163,9 @@ public class AvailabilityController {
     public ResponseEntity<Boolean> isTherapistAvailable(
             @PathVariable Long therapistId,
             @RequestParam("time") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime time,
-            @AuthenticationPrincipal UserDetails userDetails
+            @AuthenticationPrincipal AuthenticatedUser principal
     ) {
-        String currentEmail = userDetails.getUsername();
-        System.out.println("Kullanıcı sorguladı: " + currentEmail);
+        logger.debug("Kullanıcı [{}] terapistin [{}] {} müsaitliğini sorguladı.", principal.getUsername(), therapistId, time);
 
         boolean available = availabilityService.isTherapistAvailableOn(therapistId, time);
         return ResponseEntity.ok(available);
@@ -69,13 +175,31 @@ public class AvailabilityController {
     public ResponseEntity<Page<AvailabilityResponseDto>> getAvailabilitiesForTherapist(
             @PathVariable Long therapistId,
             @PageableDefault(sort = "startTime", direction = Sort.Direction.ASC) Pageable pageable,
-            @AuthenticationPrincipal UserDetails userDetails
+            @AuthenticationPrincipal AuthenticatedUser principal
     ) {
-        logger.info("Kullanıcı [{}] terapistin [{}] müsaitliklerini sorguladı.", userDetails.getUsername(), therapistId);
+        logger.info("Kullanıcı [{}] terapistin [{}] müsaitliklerini sorguladı.", principal.getUsername(), therapistId);
 
         Page<AvailabilityResponseDto> availabilities = availabilityService.getAvailabilitiesForTherapist(therapistId, pageable);
         return ResponseEntity.ok(availabilities);
     }
-}
 
+    @GetMapping("/free-busy")
+    public ResponseEntity<FreeBusyResponseDto> getFreeBusy(
+            @PathVariable Long therapistId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "15") int bucket
+    ) {
+        return ResponseEntity.ok(availabilityService.getFreeBusy(therapistId, from, to, bucket));
+    }
 
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<AvailabilityResponseDto>> getAvailabilityTimelineForTherapist(
+            @PathVariable Long therapistId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorToken.DEFAULT_SIZE) int size
+    ) {
+        CursorPage<AvailabilityResponseDto> availabilities = availabilityService.getAvailabilityTimelineForTherapist(therapistId, cursor, size);
+        return ResponseEntity.ok(availabilities);
+    }
+}
@@ -3,10 +3,10 @@ package com.psikolojikdanismanlik.randevusistemi.controller;
 import com.psikolojikdanismanlik.randevusistemi.dto.request.ClientRequest;
 import com.psikolojikdanismanlik.randevusistemi.dto.response.ClientResponseDto;
 import com.psikolojikdanismanlik.randevusistemi.service.ClientService;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import java.nio.file.AccessDeniedException;
 
@@ -22,18 +22,18 @@ public class ClientController {
     @PostMapping
     public ResponseEntity<ClientResponseDto> createClient(
             @RequestBody ClientRequest request,
-            @AuthenticationPrincipal UserDetails userDetails
+            @AuthenticationPrincipal AuthenticatedUser principal
     ) throws AccessDeniedException {
-        ClientResponseDto response = clientService.createClient(request, userDetails.getUsername());
+        ClientResponseDto response = clientService.createClient(request, principal);
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteClient(
             @PathVariable Long id,
-            @AuthenticationPrincipal UserDetails userDetails
+            @AuthenticationPrincipal AuthenticatedUser principal
     ) throws AccessDeniedException {
-        clientService.deleteClientById(id, userDetails.getUsername());
+        clientService.deleteClientById(id, principal);
         return ResponseEntity.noContent().build();
     }
 
@@ -2,11 +2,12 @@ package com.psikolojikdanismanlik.randevusistemi.controller;
 
 import com.psikolojikdanismanlik.randevusistemi.dto.request.FeedbackRequestDto;
 import com.psikolojikdanismanlik.randevusistemi.dto.response.FeedbackResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.RatingSummaryDto;
 import com.psikolojikdanismanlik.randevusistemi.service.FeedbackService;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.nio.file.AccessDeniedException;
@@ -25,9 +26,9 @@ public class FeedbackController {
     public ResponseEntity<FeedbackResponseDto> addFeedback(
             @PathVariable Long appointmentId,
             @RequestBody FeedbackRequestDto request,
-            @AuthenticationPrincipal UserDetails userDetails
+            @AuthenticationPrincipal AuthenticatedUser principal
     ) throws AccessDeniedException {
-        FeedbackResponseDto response = feedbackService.addFeedback(appointmentId, request, userDetails.getUsername());
+        FeedbackResponseDto response = feedbackService.addFeedback(appointmentId, request, principal);
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
@@ -35,18 +36,18 @@ public class FeedbackController {
     public ResponseEntity<FeedbackResponseDto> updateFeedback(
             @PathVariable Long appointmentId,
             @RequestBody FeedbackRequestDto request,
-            @AuthenticationPrincipal UserDetails userDetails
+            @AuthenticationPrincipal AuthenticatedUser principal
     ) throws AccessDeniedException {
-        FeedbackResponseDto response = feedbackService.updateFeedback(appointmentId, request, userDetails.getUsername());
+        FeedbackResponseDto response = feedbackService.updateFeedback(appointmentId, request, principal);
         return ResponseEntity.ok(response);
     }
 
     @DeleteMapping("/appointments/{appointmentId}")
     public ResponseEntity<Void> deleteFeedback(
             @PathVariable Long appointmentId,
-            @AuthenticationPrincipal UserDetails userDetails
+            @AuthenticationPrincipal AuthenticatedUser principal
     ) throws AccessDeniedException {
-        feedbackService.deleteFeedback(appointmentId, userDetails.getUsername());
+        feedbackService.deleteFeedback(appointmentId, principal);
         return ResponseEntity.noContent().build();
     }
 
@@ -55,5 +56,9 @@ public class FeedbackController {
         Double average = feedbackService.getAverageRatingForTherapist(therapistId);
         return ResponseEntity.ok(average);
     }
-}
 
+    @GetMapping("/therapists/{therapistId}/rating-summary")
+    public ResponseEntity<RatingSummaryDto> getRatingSummary(@PathVariable Long therapistId) {
+        return ResponseEntity.ok(feedbackService.getRatingSummary(therapistId));
+    }
+}
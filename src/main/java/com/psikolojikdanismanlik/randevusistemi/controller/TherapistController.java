@@ -3,22 +3,30 @@ package com.psikolojikdanismanlik.randevusistemi.controller;
 import com.psikolojikdanismanlik.randevusistemi.dto.request.TherapistRequest;
 import com.psikolojikdanismanlik.randevusistemi.dto.request.TherapistUpdateRequest;
 import com.psikolojikdanismanlik.randevusistemi.dto.response.AppointmentResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.AvailableSlotDto;
 import com.psikolojikdanismanlik.randevusistemi.dto.response.ClientResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.CursorPage;
 import com.psikolojikdanismanlik.randevusistemi.dto.response.TherapistResponseDto;
 import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
 import com.psikolojikdanismanlik.randevusistemi.service.AppointmentService;
+import com.psikolojikdanismanlik.randevusistemi.service.AvailabilityService;
 import com.psikolojikdanismanlik.randevusistemi.service.TherapistService;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
+import com.psikolojikdanismanlik.randevusistemi.util.CursorToken;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import java.nio.file.AccessDeniedException;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
 
 @RestController
@@ -26,26 +34,40 @@ import java.util.List;
 public class TherapistController {
 
     private final TherapistService therapistService;
+    private final AvailabilityService availabilityService;
 
-    public TherapistController(TherapistService therapistService) {this.therapistService = therapistService;}
+    public TherapistController(TherapistService therapistService, AvailabilityService availabilityService) {
+        this.therapistService = therapistService;
+        this.availabilityService = availabilityService;
+    }
 
     @PostMapping
     public ResponseEntity<Therapist> createTherapist(
             @RequestBody TherapistRequest request,
-            @AuthenticationPrincipal UserDetails userDetails
+            @AuthenticationPrincipal AuthenticatedUser principal
     ) {
-        Therapist therapist = therapistService.createTherapist(request, userDetails.getUsername());
+        Therapist therapist = therapistService.createTherapist(request, principal);
         return new ResponseEntity<>(therapist, HttpStatus.CREATED);
     }
 
     @GetMapping("/my-appointments")
     public ResponseEntity<Page<AppointmentResponseDto>> getAppointmentsByLoggedInTherapist(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "5") int size
     ) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdDate").descending());
-        Page<AppointmentResponseDto> response = therapistService.getAppointmentsByTherapistEmail(userDetails.getUsername(), pageable);
+        Page<AppointmentResponseDto> response = therapistService.getAppointmentsForTherapist(principal, pageable);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/my-appointments/cursor")
+    public ResponseEntity<CursorPage<AppointmentResponseDto>> getAppointmentTimelineOfLoggedInTherapist(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorToken.DEFAULT_SIZE) int size
+    ) {
+        CursorPage<AppointmentResponseDto> response = therapistService.getAppointmentTimelineForTherapist(principal, cursor, size);
         return ResponseEntity.ok(response);
     }
 
@@ -53,9 +75,9 @@ public class TherapistController {
     public ResponseEntity<Therapist> updateTherapist(
             @PathVariable Long id,
             @RequestBody TherapistUpdateRequest request,
-            @AuthenticationPrincipal UserDetails userDetails
+            @AuthenticationPrincipal AuthenticatedUser principal
     ) {
-        Therapist updated = therapistService.updateTherapist(id, request, userDetails.getUsername());
+        Therapist updated = therapistService.updateTherapist(id, request, principal);
         return ResponseEntity.ok(updated);
     }
 
@@ -71,9 +93,9 @@ public class TherapistController {
 
     @GetMapping("/clients")
     public ResponseEntity<List<ClientResponseDto>> getClientsOfTherapist(
-            @AuthenticationPrincipal UserDetails userDetails
+            @AuthenticationPrincipal AuthenticatedUser principal
     ) throws AccessDeniedException {
-        List<ClientResponseDto> clients = therapistService.getClientsOfTherapist(userDetails.getUsername());
+        List<ClientResponseDto> clients = therapistService.getClientsOfTherapist(principal);
         return ResponseEntity.ok(clients);
     }
 
@@ -84,11 +106,26 @@ public class TherapistController {
     }
 
     @GetMapping("/me")
-    public ResponseEntity<TherapistResponseDto> getLoggedInTherapist(@AuthenticationPrincipal UserDetails userDetails) {
-        TherapistResponseDto dto = therapistService.getTherapistByEmail(userDetails.getUsername());
+    public ResponseEntity<TherapistResponseDto> getLoggedInTherapist(@AuthenticationPrincipal AuthenticatedUser principal) {
+        TherapistResponseDto dto = therapistService.getCurrentTherapist(principal);
         return ResponseEntity.ok(dto);
     }
 
+    @GetMapping("/available-slots")
+    public ResponseEntity<List<AvailableSlotDto>> searchEarliestSlots(
+            @RequestParam(required = false) String specialization,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) List<DayOfWeek> days,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime timeFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime timeTo,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        List<AvailableSlotDto> slots = availabilityService.searchEarliestSlots(specialization, from, to, days, timeFrom, timeTo, minRating, limit);
+        return ResponseEntity.ok(slots);
+    }
+
     @GetMapping("/search")
     public ResponseEntity<List<TherapistResponseDto>> searchTherapists(@RequestParam("name") String name) {
         List<TherapistResponseDto> results = therapistService.searchTherapistsByName(name);
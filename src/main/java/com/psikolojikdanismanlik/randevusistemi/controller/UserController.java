@@ -6,11 +6,11 @@ import com.psikolojikdanismanlik.randevusistemi.dto.response.UserProfileResponse
 import com.psikolojikdanismanlik.randevusistemi.dto.response.UserResponseDto;
 import com.psikolojikdanismanlik.randevusistemi.enums.Role;
 import com.psikolojikdanismanlik.randevusistemi.service.UserService;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.nio.file.AccessDeniedException;
@@ -29,9 +29,9 @@ public class UserController {
     @GetMapping("/{id}")
     public ResponseEntity<UserResponseDto> getUserById(
             @PathVariable Long id,
-            @AuthenticationPrincipal UserDetails userDetails
+            @AuthenticationPrincipal AuthenticatedUser principal
     ) throws AccessDeniedException {
-        if (!userService.isAdmin(userDetails.getUsername())) {
+        if (!principal.isAdmin()) {
             throw new AccessDeniedException("Yalnızca admin kullanıcılar erişebilir.");
         }
 
@@ -42,26 +42,26 @@ public class UserController {
     @PutMapping("/profile")
     public ResponseEntity<UserProfileResponseDto> updateProfile(
             @RequestBody UserProfileUpdateRequestDto request,
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @AuthenticationPrincipal AuthenticatedUser principal) {
 
-        return ResponseEntity.ok(userService.updateCurrentUser(request, userDetails.getUsername()));
+        return ResponseEntity.ok(userService.updateCurrentUser(request, principal));
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteUser(
             @PathVariable Long id,
-            @AuthenticationPrincipal UserDetails userDetails
+            @AuthenticationPrincipal AuthenticatedUser principal
     ) {
-        userService.deleteUser(id, userDetails.getUsername());
+        userService.deleteUser(id, principal);
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/list")
     public ResponseEntity<Page<UserResponseDto>> getAllUsers(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             Pageable pageable
     ) throws AccessDeniedException {
-        if (!userService.isAdmin(userDetails.getUsername())) {
+        if (!principal.isAdmin()) {
             throw new AccessDeniedException("Yetkisiz erişim.");
         }
         Page<UserResponseDto> users = userService.getAllUsers(pageable);
@@ -71,9 +71,9 @@ public class UserController {
     @GetMapping("/role")
     public ResponseEntity<List<UserResponseDto>> getUsersByRole(
             @RequestParam Role role,
-            @AuthenticationPrincipal UserDetails userDetails
+            @AuthenticationPrincipal AuthenticatedUser principal
     ) throws AccessDeniedException {
-        List<UserResponseDto> users = userService.getUsersByRole(role, userDetails.getUsername());
+        List<UserResponseDto> users = userService.getUsersByRole(role, principal);
         return ResponseEntity.ok(users);
     }
 
@@ -81,15 +81,15 @@ public class UserController {
     public ResponseEntity<UserResponseDto> updateUserRole(
             @PathVariable Long userId,
             @RequestBody UserRoleUpdateRequest request,
-            @AuthenticationPrincipal UserDetails userDetails
+            @AuthenticationPrincipal AuthenticatedUser principal
     ) {
-        UserResponseDto updatedUser = userService.updateUserRole(userId, request, userDetails.getUsername());
+        UserResponseDto updatedUser = userService.updateUserRole(userId, request, principal);
         return ResponseEntity.ok(updatedUser);
     }
 
     @GetMapping("/me")
     public ResponseEntity<UserProfileResponseDto> getCurrentUser(
-            @AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(userService.getCurrentUser(userDetails.getUsername()));
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        return ResponseEntity.ok(userService.getCurrentUser(principal));
     }
 }
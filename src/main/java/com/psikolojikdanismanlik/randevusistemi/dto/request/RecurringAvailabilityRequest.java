@@ -0,0 +1,61 @@
+package com.psikolojikdanismanlik.randevusistemi.dto.request;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class RecurringAvailabilityRequest {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<WeeklyWindowRequest> windows;
+    private int sessionMinutes;
+    private int breakMinutes;
+    private List<LocalDate> exceptions;
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public List<WeeklyWindowRequest> getWindows() {
+        return windows;
+    }
+
+    public void setWindows(List<WeeklyWindowRequest> windows) {
+        this.windows = windows;
+    }
+
+    public int getSessionMinutes() {
+        return sessionMinutes;
+    }
+
+    public void setSessionMinutes(int sessionMinutes) {
+        this.sessionMinutes = sessionMinutes;
+    }
+
+    public int getBreakMinutes() {
+        return breakMinutes;
+    }
+
+    public void setBreakMinutes(int breakMinutes) {
+        this.breakMinutes = breakMinutes;
+    }
+
+    public List<LocalDate> getExceptions() {
+        return exceptions;
+    }
+
+    public void setExceptions(List<LocalDate> exceptions) {
+        this.exceptions = exceptions;
+    }
+}
@@ -0,0 +1,76 @@
+package com.psikolojikdanismanlik.randevusistemi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityImportResponseDto {
+    private int events;
+    // All-day, recurring, cancelled or malformed events; they are not imported.
+    private int ignored;
+    private int created;
+    private int deleted;
+    private int unchanged;
+    // Booked slots that are missing from the file; they are kept.
+    private List<AvailabilityResponseDto> refused;
+    // Events that overlap a kept slot or an earlier event of the file; nothing was inserted for them.
+    private List<AvailabilityResponseDto> conflicts;
+
+    public int getEvents() {
+        return events;
+    }
+
+    public void setEvents(int events) {
+        this.events = events;
+    }
+
+    public int getIgnored() {
+        return ignored;
+    }
+
+    public void setIgnored(int ignored) {
+        this.ignored = ignored;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(int deleted) {
+        this.deleted = deleted;
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public void setUnchanged(int unchanged) {
+        this.unchanged = unchanged;
+    }
+
+    public List<AvailabilityResponseDto> getRefused() {
+        return refused;
+    }
+
+    public void setRefused(List<AvailabilityResponseDto> refused) {
+        this.refused = refused;
+    }
+
+    public List<AvailabilityResponseDto> getConflicts() {
+        return conflicts;
+    }
+
+    public void setConflicts(List<AvailabilityResponseDto> conflicts) {
+        this.conflicts = conflicts;
+    }
+}
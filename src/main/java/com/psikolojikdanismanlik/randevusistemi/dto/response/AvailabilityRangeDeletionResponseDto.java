@@ -0,0 +1,29 @@
+package com.psikolojikdanismanlik.randevusistemi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityRangeDeletionResponseDto {
+    private int deleted;
+    // Booked slots in the range; they were not deleted.
+    private List<AvailabilityResponseDto> booked;
+
+    public int getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(int deleted) {
+        this.deleted = deleted;
+    }
+
+    public List<AvailabilityResponseDto> getBooked() {
+        return booked;
+    }
+
+    public void setBooked(List<AvailabilityResponseDto> booked) {
+        this.booked = booked;
+    }
+}
@@ -0,0 +1,54 @@
+package com.psikolojikdanismanlik.randevusistemi.dto.response;
+
+import java.util.List;
+import java.util.function.Function;
+
+public class CursorPage<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    public static <R, T> CursorPage<T> of(List<R> rows, int size, Function<R, T> mapper, Function<R, String> cursorOf) {
+        CursorPage<T> page = new CursorPage<>();
+        boolean hasNext = rows.size() > size;
+        List<R> visible = hasNext ? rows.subList(0, size) : rows;
+        page.setContent(visible.stream().map(mapper).toList());
+        page.setSize(size);
+        page.setHasNext(hasNext);
+        page.setNextCursor(hasNext ? cursorOf.apply(visible.get(visible.size() - 1)) : null);
+        return page;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,57 @@
+package com.psikolojikdanismanlik.randevusistemi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@NoArgsConstructor
+@AllArgsConstructor
+public class FreeBusyResponseDto {
+    private Long therapistId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private int bucketMinutes;
+    // Alternating busy/free bucket counts from "from", starting with busy (possibly 0).
+    private int[] runs;
+
+    public Long getTherapistId() {
+        return therapistId;
+    }
+
+    public void setTherapistId(Long therapistId) {
+        this.therapistId = therapistId;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+
+    public int getBucketMinutes() {
+        return bucketMinutes;
+    }
+
+    public void setBucketMinutes(int bucketMinutes) {
+        this.bucketMinutes = bucketMinutes;
+    }
+
+    public int[] getRuns() {
+        return runs;
+    }
+
+    public void setRuns(int[] runs) {
+        this.runs = runs;
+    }
+}
@@ -0,0 +1,39 @@
+package com.psikolojikdanismanlik.randevusistemi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringAvailabilityResponseDto {
+    private int created;
+    // Sessions that already exist with the same start and end; the existing slot is returned.
+    private List<AvailabilityResponseDto> skipped;
+    // Sessions that overlap an existing slot or an earlier session of the same request; nothing was inserted for them.
+    private List<AvailabilityResponseDto> conflicts;
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public List<AvailabilityResponseDto> getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(List<AvailabilityResponseDto> skipped) {
+        this.skipped = skipped;
+    }
+
+    public List<AvailabilityResponseDto> getConflicts() {
+        return conflicts;
+    }
+
+    public void setConflicts(List<AvailabilityResponseDto> conflicts) {
+        this.conflicts = conflicts;
+    }
+}
@@ -0,0 +1,65 @@
+package com.psikolojikdanismanlik.randevusistemi.dto.response;
+
+import com.psikolojikdanismanlik.randevusistemi.enums.SlotEventType;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotEventDto {
+    private SlotEventType type;
+    private Long therapistId;
+    private Long availabilityId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private boolean booked;
+
+    public SlotEventType getType() {
+        return type;
+    }
+
+    public void setType(SlotEventType type) {
+        this.type = type;
+    }
+
+    public Long getTherapistId() {
+        return therapistId;
+    }
+
+    public void setTherapistId(Long therapistId) {
+        this.therapistId = therapistId;
+    }
+
+    public Long getAvailabilityId() {
+        return availabilityId;
+    }
+
+    public void setAvailabilityId(Long availabilityId) {
+        this.availabilityId = availabilityId;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public boolean isBooked() {
+        return booked;
+    }
+
+    public void setBooked(boolean booked) {
+        this.booked = booked;
+    }
+}
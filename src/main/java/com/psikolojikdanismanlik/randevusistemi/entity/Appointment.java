@@ -14,13 +14,20 @@ import java.time.LocalDateTime;
 @Setter
 @Getter
 @Entity
-@Table(name = "appointments")
+@Table(
+        name = "appointments",
+        indexes = {
+                @Index(name = "idx_appointments_client_start_id", columnList = "client_id, start_time, id"),
+                @Index(name = "idx_appointments_therapist_start_id", columnList = "therapist_id, start_time, id")
+        }
+)
 public class Appointment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointments_seq")
+    @SequenceGenerator(name = "appointments_seq", sequenceName = "appointments_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(optional = false)
     @JoinColumn(name = "therapist_id")
     private Therapist therapist;
 
@@ -51,6 +58,7 @@ public class Appointment {
     private LocalDateTime requestedRescheduleTime;
 
     @ManyToOne
+    @JoinColumn(name = "availability_id")
     private Availability availability;
 
     @PrePersist
@@ -14,14 +14,19 @@ import java.time.LocalDateTime;
 @Entity
 @Table(
         name = "availabilities",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"therapist_id", "start_time", "end_time"})
+        uniqueConstraints = @UniqueConstraint(columnNames = {"therapist_id", "start_time", "end_time"}),
+        indexes = {
+                @Index(name = "idx_availabilities_therapist_start_id", columnList = "therapist_id, start_time, id"),
+                @Index(name = "idx_availabilities_booked_start", columnList = "booked, start_time")
+        }
 )
 public class Availability {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "availabilities_seq")
+    @SequenceGenerator(name = "availabilities_seq", sequenceName = "availabilities_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(optional = false)
     @JoinColumn(name = "therapist_id")
     private Therapist therapist;
 
@@ -0,0 +1,36 @@
+package com.psikolojikdanismanlik.randevusistemi.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Setter
+@Getter
+@Entity
+@Table(
+        name = "availability_exceptions",
+        indexes = @Index(name = "idx_availability_exceptions_therapist_start", columnList = "therapist_id, start_time")
+)
+public class AvailabilityException {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "availability_exceptions_seq")
+    @SequenceGenerator(name = "availability_exceptions_seq", sequenceName = "availability_exceptions_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "therapist_id", nullable = false)
+    private Therapist therapist;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalDateTime endTime;
+
+    private String reason;
+}
@@ -0,0 +1,52 @@
+package com.psikolojikdanismanlik.randevusistemi.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Setter
+@Getter
+@Entity
+@Table(
+        name = "availability_rules",
+        indexes = @Index(name = "idx_availability_rules_therapist", columnList = "therapist_id")
+)
+public class AvailabilityRule {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "availability_rules_seq")
+    @SequenceGenerator(name = "availability_rules_seq", sequenceName = "availability_rules_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "therapist_id", nullable = false)
+    private Therapist therapist;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "day_of_week", nullable = false)
+    private DayOfWeek dayOfWeek;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalTime endTime;
+
+    @Column(name = "session_minutes", nullable = false)
+    private int sessionMinutes;
+
+    @Column(name = "break_minutes", nullable = false)
+    private int breakMinutes;
+
+    @Column(name = "valid_from", nullable = false)
+    private LocalDate validFrom;
+
+    @Column(name = "valid_until", nullable = false)
+    private LocalDate validUntil;
+}
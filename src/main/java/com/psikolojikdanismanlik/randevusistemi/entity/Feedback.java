@@ -15,7 +15,8 @@ import java.time.LocalDateTime;
 @Table(name = "feedbacks")
 public class Feedback {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "feedbacks_seq")
+    @SequenceGenerator(name = "feedbacks_seq", sequenceName = "feedbacks_seq", allocationSize = 50)
     private Long id;
 
     @Column(columnDefinition = "TEXT")
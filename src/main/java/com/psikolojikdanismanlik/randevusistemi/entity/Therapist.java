@@ -17,10 +17,11 @@ import java.util.List;
 @Table(name = "therapists")
 public class Therapist {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "therapists_seq")
+    @SequenceGenerator(name = "therapists_seq", sequenceName = "therapists_seq", allocationSize = 50)
     private Long id;
 
-    @OneToOne
+    @OneToOne(optional = false)
     @JoinColumn(name = "user_id", referencedColumnName = "id")
     private User user;
 
@@ -41,4 +42,12 @@ public class Therapist {
     @JsonIgnore
     private List<Availability> availabilities = new ArrayList<>();
 
+    @OneToMany(mappedBy = "therapist", cascade = CascadeType.ALL)
+    @JsonIgnore
+    private List<AvailabilityRule> availabilityRules = new ArrayList<>();
+
+    @OneToMany(mappedBy = "therapist", cascade = CascadeType.ALL)
+    @JsonIgnore
+    private List<AvailabilityException> availabilityExceptions = new ArrayList<>();
+
 }
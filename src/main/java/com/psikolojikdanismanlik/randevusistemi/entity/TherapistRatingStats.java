@@ -0,0 +1,52 @@
+package com.psikolojikdanismanlik.randevusistemi.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Setter
+@Getter
+@Entity
+@Table(name = "therapist_rating_stats")
+public class TherapistRatingStats {
+    @Id
+    @Column(name = "therapist_id")
+    private Long therapistId;
+
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "one_star", nullable = false)
+    private long oneStar;
+
+    @Column(name = "two_star", nullable = false)
+    private long twoStar;
+
+    @Column(name = "three_star", nullable = false)
+    private long threeStar;
+
+    @Column(name = "four_star", nullable = false)
+    private long fourStar;
+
+    @Column(name = "five_star", nullable = false)
+    private long fiveStar;
+
+    public long[] getHistogram() {
+        return new long[]{oneStar, twoStar, threeStar, fourStar, fiveStar};
+    }
+
+    public void setHistogram(long[] histogram) {
+        this.oneStar = histogram[0];
+        this.twoStar = histogram[1];
+        this.threeStar = histogram[2];
+        this.fourStar = histogram[3];
+        this.fiveStar = histogram[4];
+    }
+}
@@ -0,0 +1,9 @@
+package com.psikolojikdanismanlik.randevusistemi.enums;
+
+public enum SlotEventType {
+    ADDED,
+    BOOKED,
+    RELEASED,
+    DELETED,
+    RESYNC
+}
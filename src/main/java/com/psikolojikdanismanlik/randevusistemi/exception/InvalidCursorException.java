@@ -0,0 +1,12 @@
+package com.psikolojikdanismanlik.randevusistemi.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException() {
+        super("The pagination cursor is invalid.", null, false, false);
+    }
+}
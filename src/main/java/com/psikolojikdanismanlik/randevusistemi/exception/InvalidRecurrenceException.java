@@ -0,0 +1,12 @@
+package com.psikolojikdanismanlik.randevusistemi.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidRecurrenceException extends RuntimeException {
+
+    public InvalidRecurrenceException(String message) {
+        super(message, null, false, false);
+    }
+}
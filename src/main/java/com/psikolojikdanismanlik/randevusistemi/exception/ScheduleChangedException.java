@@ -0,0 +1,12 @@
+package com.psikolojikdanismanlik.randevusistemi.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ScheduleChangedException extends RuntimeException {
+
+    public ScheduleChangedException() {
+        super("The schedule changed while the calendar was being imported; please retry.", null, false, false);
+    }
+}
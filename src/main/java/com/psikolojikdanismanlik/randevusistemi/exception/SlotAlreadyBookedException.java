@@ -0,0 +1,19 @@
+package com.psikolojikdanismanlik.randevusistemi.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class SlotAlreadyBookedException extends RuntimeException {
+
+    private final Long availabilityId;
+
+    public SlotAlreadyBookedException(Long availabilityId) {
+        super("This time slot is already booked.", null, false, false);
+        this.availabilityId = availabilityId;
+    }
+
+    public Long getAvailabilityId() {
+        return availabilityId;
+    }
+}
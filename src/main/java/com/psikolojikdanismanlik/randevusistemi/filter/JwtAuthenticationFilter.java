@@ -1,27 +1,72 @@
 package com.psikolojikdanismanlik.randevusistemi.filter;
 
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
 import com.psikolojikdanismanlik.randevusistemi.util.JwtUtil;
+import com.psikolojikdanismanlik.randevusistemi.util.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RegexRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // permitAll routes whose handlers never read the authenticated principal.
+    private static final RequestMatcher PUBLIC_ROUTES = new OrRequestMatcher(
+            new AntPathRequestMatcher("/api/auth/**"),
+            new AntPathRequestMatcher("/api/therapists", HttpMethod.GET.name()),
+            new AntPathRequestMatcher("/api/therapists/search", HttpMethod.GET.name()),
+            new RegexRequestMatcher("/api/therapists/\\d+", HttpMethod.GET.name())
+    );
+
     private final UserDetailsService userDetailsService;
     private final JwtUtil jwtUtil;
+    private final boolean claimsOnly;
+    private final VerifiedTokenCache tokenCache;
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
+    private final Timer verifiedTimer;
+    private final Timer rejectedTimer;
+    private final Timer cachedTimer;
 
-    public JwtAuthenticationFilter(UserDetailsService userDetailsService, JwtUtil jwtUtil) {
+    public JwtAuthenticationFilter(UserDetailsService userDetailsService, JwtUtil jwtUtil, boolean claimsOnly, VerifiedTokenCache tokenCache,
+                                   MeterRegistry meterRegistry) {
         this.userDetailsService = userDetailsService;
         this.jwtUtil = jwtUtil;
+        this.claimsOnly = claimsOnly;
+        this.tokenCache = tokenCache;
+        this.verifiedTimer = verifyTimer(meterRegistry, "verified");
+        this.rejectedTimer = verifyTimer(meterRegistry, "rejected");
+        this.cachedTimer = verifyTimer(meterRegistry, "cached");
+    }
+
+    private static Timer verifyTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.jwt.verify")
+                .description("Bearer token verification time")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return PUBLIC_ROUTES.matches(request);
     }
 
     @Override
@@ -29,27 +74,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
-        String path = request.getServletPath();
-        if (path.startsWith("/api/auth")) {
-            filterChain.doFilter(request, response);
-            return;
-        }
-
         final String authHeader = request.getHeader("Authorization");
-        String username = null;
-        String token = null;
 
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-            username = jwtUtil.extractUsername(token);
-        }
-
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            if (jwtUtil.validateToken(token, userDetails)) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = authenticate(authHeader.substring(7));
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                authToken.setDetails(detailsSource.buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
@@ -57,4 +90,46 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails authenticate(String token) {
+        long started = System.nanoTime();
+        String digest = null;
+        if (claimsOnly && tokenCache.isEnabled()) {
+            digest = tokenCache.digest(token);
+            UserDetails cached = tokenCache.get(digest);
+            if (cached != null) {
+                cachedTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                return cached;
+            }
+        }
+
+        Claims claims;
+        AuthenticatedUser principal;
+        try {
+            claims = jwtUtil.parseClaims(token);
+            principal = claimsOnly ? jwtUtil.toPrincipal(claims) : null;
+            verifiedTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        } catch (JwtException | IllegalArgumentException e) {
+            rejectedTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return null;
+        }
+
+        if (principal == null) {
+            try {
+                UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+                return userDetails.getUsername().equals(claims.getSubject()) ? userDetails : null;
+            } catch (UsernameNotFoundException e) {
+                return null;
+            }
+        }
+
+        // The claims carry the role at issue time; a later role change has to send the user through login again.
+        if (tokenCache.isRevoked(principal.getUserId(), claims.getIssuedAt())) {
+            return null;
+        }
+        if (digest != null) {
+            tokenCache.put(digest, principal, claims.getIssuedAt(), claims.getExpiration());
+        }
+        return principal;
+    }
 }
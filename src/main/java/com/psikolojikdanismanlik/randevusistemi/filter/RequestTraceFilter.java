@@ -0,0 +1,31 @@
+package com.psikolojikdanismanlik.randevusistemi.filter;
+
+import com.psikolojikdanismanlik.randevusistemi.trace.RequestTracer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+public class RequestTraceFilter extends OncePerRequestFilter {
+
+    private final RequestTracer requestTracer;
+
+    public RequestTraceFilter(RequestTracer requestTracer) {
+        this.requestTracer = requestTracer;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long started = System.nanoTime();
+        requestTracer.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            requestTracer.end(request, response.getStatus(), started);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.psikolojikdanismanlik.randevusistemi.index;
+
+import com.psikolojikdanismanlik.randevusistemi.entity.Availability;
+import com.psikolojikdanismanlik.randevusistemi.repository.AvailabilityRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory per-therapist slot timelines kept in sync with {@link AvailabilityRepository} writes.
+ * A therapist that is not indexed yet is answered by the supplied repository fallback while
+ * its timeline is loaded in the background. A timeline holds only slots that had not ended when it was
+ * loaded; queries reaching further back use the fallback. Past {@value #MAX_THERAPISTS} therapists the
+ * least recently used timeline is dropped.
+ */
+@Component
+public class AvailabilityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityIndex.class);
+    private static final int MAX_THERAPISTS = 10_000;
+
+    private final AvailabilityRepository availabilityRepository;
+    private final TaskExecutor taskExecutor;
+    private final Map<Long, TherapistTimeline> timelines;
+    private final Map<Long, AtomicLong> writeVersions = new ConcurrentHashMap<>();
+    private final Set<Long> loading = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public AvailabilityIndex(AvailabilityRepository availabilityRepository,
+                             @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        this(availabilityRepository, taskExecutor, MAX_THERAPISTS);
+    }
+
+    AvailabilityIndex(AvailabilityRepository availabilityRepository, TaskExecutor taskExecutor, int maxTherapists) {
+        this.availabilityRepository = availabilityRepository;
+        this.taskExecutor = taskExecutor;
+        // Access order plus removeEldestEntry is an LRU; the lock is held only for the hash lookup and relink.
+        this.timelines = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, TherapistTimeline> eldest) {
+                if (size() <= maxTherapists) {
+                    return false;
+                }
+                writeVersions.remove(eldest.getKey());
+                return true;
+            }
+        });
+    }
+
+    public boolean hasSlotStartingAt(Long therapistId, LocalDateTime time, BooleanSupplier fallback) {
+        TherapistTimeline timeline = timelineOrScheduleLoad(therapistId);
+        long at = TherapistTimeline.toEpochSecond(time);
+        if (timeline == null || !timeline.covers(at)) {
+            return fallback.getAsBoolean();
+        }
+        return timeline.hasSlotStartingAt(at);
+    }
+
+    public boolean hasFreeSlotCovering(Long therapistId, LocalDateTime start, LocalDateTime end, BooleanSupplier fallback) {
+        TherapistTimeline timeline = timelineOrScheduleLoad(therapistId);
+        long from = TherapistTimeline.toEpochSecond(start);
+        if (timeline == null || !timeline.covers(from)) {
+            return fallback.getAsBoolean();
+        }
+        return timeline.hasFreeSlotCovering(from, TherapistTimeline.toEpochSecond(end));
+    }
+
+    public boolean overlapsAnySlot(Long therapistId, LocalDateTime start, LocalDateTime end, BooleanSupplier fallback) {
+        TherapistTimeline timeline = timelineOrScheduleLoad(therapistId);
+        long from = TherapistTimeline.toEpochSecond(start);
+        if (timeline == null || !timeline.covers(from)) {
+            return fallback.getAsBoolean();
+        }
+        return timeline.overlapsAnySlot(from, TherapistTimeline.toEpochSecond(end));
+    }
+
+    public void slotAdded(Availability availability) {
+        long start = TherapistTimeline.toEpochSecond(availability.getStartTime());
+        long end = TherapistTimeline.toEpochSecond(availability.getEndTime());
+        apply(availability.getTherapist().getId(),
+                timeline -> timeline.withSlot(availability.getId(), start, end, availability.isBooked()));
+    }
+
+    public void slotRemoved(Long therapistId, Long availabilityId) {
+        apply(therapistId, timeline -> timeline.withoutSlot(availabilityId));
+    }
+
+    public void slotBooked(Long therapistId, Long availabilityId, boolean booked) {
+        apply(therapistId, timeline -> timeline.withBooked(availabilityId, booked));
+    }
+
+    public void invalidate(Long therapistId) {
+        markWrite(therapistId);
+        timelines.remove(therapistId);
+    }
+
+    private void apply(Long therapistId, UnaryOperator<TherapistTimeline> change) {
+        markWrite(therapistId);
+        timelines.computeIfPresent(therapistId, (id, timeline) -> change.apply(timeline));
+    }
+
+    private TherapistTimeline timelineOrScheduleLoad(Long therapistId) {
+        TherapistTimeline timeline = timelines.get(therapistId);
+        if (timeline == null && loading.add(therapistId)) {
+            try {
+                taskExecutor.execute(() -> load(therapistId));
+            } catch (RuntimeException e) {
+                loading.remove(therapistId);
+                logger.warn("Could not schedule availability index load for therapist {}: {}", therapistId, e.getMessage());
+            }
+        }
+        return timeline;
+    }
+
+    private void load(Long therapistId) {
+        try {
+            long version = writeVersion(therapistId).get();
+            LocalDateTime now = LocalDateTime.now();
+            TherapistTimeline fresh = TherapistTimeline.of(
+                    availabilityRepository.findSlotsByTherapistIdAndEndTimeAfterOrderByStartTimeAscIdAsc(therapistId, now), now);
+            // A write that landed while we were reading makes this snapshot stale; the next miss reloads it.
+            timelines.compute(therapistId, (id, current) -> writeVersion(id).get() == version ? fresh : current);
+        } catch (RuntimeException e) {
+            logger.warn("Could not load availability index for therapist {}: {}", therapistId, e.getMessage());
+        } finally {
+            writeVersions.remove(therapistId);
+            loading.remove(therapistId);
+        }
+    }
+
+    // Versions only matter while a load is in flight; once the timeline is in the map writes go straight to it.
+    private void markWrite(Long therapistId) {
+        if (loading.contains(therapistId)) {
+            writeVersion(therapistId).incrementAndGet();
+        }
+    }
+
+    private AtomicLong writeVersion(Long therapistId) {
+        return writeVersions.computeIfAbsent(therapistId, id -> new AtomicLong());
+    }
+}
@@ -0,0 +1,179 @@
+package com.psikolojikdanismanlik.randevusistemi.index;
+
+import com.psikolojikdanismanlik.randevusistemi.config.CacheConfig;
+import com.psikolojikdanismanlik.randevusistemi.repository.AvailabilityRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.projection.FreeBusyIntervalView;
+import com.psikolojikdanismanlik.randevusistemi.util.WeeklyRecurrence;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Free/busy bitmaps per therapist-day at {@value #RESOLUTION_MINUTES}-minute resolution, cached per (therapist, day).
+ * A bucket is free when a slot or a rule session covers all of it and neither a booked slot nor a live appointment
+ * touches it. Rule changes move the therapist to a new {@link RecurringSlots#generation} and with it to new keys.
+ * Missing days of a range are built from a single query; writes evict the days they touch.
+ */
+@Component
+public class FreeBusyCalendar {
+
+    public static final int RESOLUTION_MINUTES = 5;
+    static final int BUCKETS_PER_DAY = 24 * 60 / RESOLUTION_MINUTES;
+
+    private final AvailabilityRepository availabilityRepository;
+    private final RecurringSlots recurringSlots;
+    private final Cache days;
+    private final Map<Long, AtomicLong> writeVersions = new ConcurrentHashMap<>();
+
+    record DayKey(long therapistId, long rulesGeneration, long epochDay) {
+    }
+
+    public FreeBusyCalendar(AvailabilityRepository availabilityRepository, RecurringSlots recurringSlots, CacheManager cacheManager) {
+        this.availabilityRepository = availabilityRepository;
+        this.recurringSlots = recurringSlots;
+        this.days = cacheManager.getCache(CacheConfig.FREE_BUSY_DAYS);
+    }
+
+    /**
+     * Free time in {@code [from, to)} in buckets of {@code bucketMinutes}, run-length encoded as alternating
+     * busy and free run lengths, starting with a (possibly empty) busy run. Both bounds must be bucket-aligned.
+     */
+    public int[] freeRuns(Long therapistId, LocalDateTime from, LocalDateTime to, int bucketMinutes) {
+        long minutes = Duration.between(from, to).toMinutes();
+        int factor = bucketMinutes / RESOLUTION_MINUTES;
+        LocalDate firstDay = from.toLocalDate();
+        LocalDate lastDay = to.minusNanos(1).toLocalDate();
+        BitSet[] bitmaps = load(therapistId, firstDay, lastDay);
+
+        int buckets = (int) (minutes / bucketMinutes);
+        BitSet free = new BitSet(buckets);
+        int offset = from.getHour() * 60 / RESOLUTION_MINUTES + from.getMinute() / RESOLUTION_MINUTES;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            int position = offset + bucket * factor;
+            BitSet day = bitmaps[position / BUCKETS_PER_DAY];
+            int inDay = position % BUCKETS_PER_DAY;
+            if (day.nextClearBit(inDay) >= inDay + factor) {
+                free.set(bucket);
+            }
+        }
+        return runLengths(free, buckets);
+    }
+
+    public void invalidate(Long therapistId, LocalDateTime start, LocalDateTime end) {
+        writeVersion(therapistId).incrementAndGet();
+        long rulesGeneration = recurringSlots.generation(therapistId);
+        for (LocalDate day = start.toLocalDate(); !day.isAfter(end.minusNanos(1).toLocalDate()); day = day.plusDays(1)) {
+            days.evict(new DayKey(therapistId, rulesGeneration, day.toEpochDay()));
+        }
+    }
+
+    private BitSet[] load(Long therapistId, LocalDate firstDay, LocalDate lastDay) {
+        long rulesGeneration = recurringSlots.generation(therapistId);
+        int count = (int) ChronoUnit.DAYS.between(firstDay, lastDay) + 1;
+        BitSet[] bitmaps = new BitSet[count];
+        int firstMiss = -1;
+        int lastMiss = -1;
+        for (int i = 0; i < count; i++) {
+            long[] words = days.get(new DayKey(therapistId, rulesGeneration, firstDay.toEpochDay() + i), long[].class);
+            if (words != null) {
+                bitmaps[i] = BitSet.valueOf(words);
+            } else {
+                firstMiss = firstMiss < 0 ? i : firstMiss;
+                lastMiss = i;
+            }
+        }
+        if (firstMiss < 0) {
+            return bitmaps;
+        }
+
+        long version = writeVersion(therapistId).get();
+        LocalDateTime missFrom = firstDay.plusDays(firstMiss).atStartOfDay();
+        LocalDateTime missTo = firstDay.plusDays(lastMiss + 1L).atStartOfDay();
+        BitSet[] built = build(missFrom.toLocalDate(), lastMiss - firstMiss + 1,
+                availabilityRepository.findFreeBusyIntervals(therapistId, missFrom, missTo),
+                recurringSlots.slotsBetween(therapistId, missFrom, missTo));
+        boolean current = writeVersion(therapistId).get() == version;
+        for (int i = firstMiss; i <= lastMiss; i++) {
+            if (bitmaps[i] == null) {
+                bitmaps[i] = built[i - firstMiss];
+                if (current) {
+                    days.put(new DayKey(therapistId, rulesGeneration, firstDay.toEpochDay() + i), bitmaps[i].toLongArray());
+                }
+            }
+        }
+        return bitmaps;
+    }
+
+    static BitSet[] build(LocalDate firstDay, int count, List<FreeBusyIntervalView> intervals, List<WeeklyRecurrence.Slot> sessions) {
+        int size = count * BUCKETS_PER_DAY;
+        BitSet available = new BitSet(size);
+        BitSet busy = new BitSet(size);
+        LocalDateTime origin = firstDay.atStartOfDay();
+        for (FreeBusyIntervalView interval : intervals) {
+            long start = Duration.between(origin, interval.getStartTime()).toMinutes();
+            long end = Duration.between(origin, interval.getEndTime()).toMinutes();
+            if (interval.isAvailable()) {
+                set(available, Math.ceilDiv(start, RESOLUTION_MINUTES), Math.floorDiv(end, RESOLUTION_MINUTES), size);
+            }
+            if (interval.isBusy()) {
+                set(busy, Math.floorDiv(start, RESOLUTION_MINUTES), Math.ceilDiv(end, RESOLUTION_MINUTES), size);
+            }
+        }
+        for (WeeklyRecurrence.Slot session : sessions) {
+            long start = Duration.between(origin, session.startTime()).toMinutes();
+            long end = Duration.between(origin, session.endTime()).toMinutes();
+            set(available, Math.ceilDiv(start, RESOLUTION_MINUTES), Math.floorDiv(end, RESOLUTION_MINUTES), size);
+        }
+        available.andNot(busy);
+        BitSet[] bitmaps = new BitSet[count];
+        for (int i = 0; i < count; i++) {
+            bitmaps[i] = available.get(i * BUCKETS_PER_DAY, (i + 1) * BUCKETS_PER_DAY);
+        }
+        return bitmaps;
+    }
+
+    private static void set(BitSet bits, long from, long to, int size) {
+        int start = (int) Math.max(0, from);
+        int end = (int) Math.min(size, to);
+        if (start < end) {
+            bits.set(start, end);
+        }
+    }
+
+    static int[] runLengths(BitSet free, int length) {
+        int[] runs = new int[16];
+        int count = 0;
+        int position = 0;
+        boolean inFree = false;
+        while (position < length) {
+            int next = Math.min(length, inFree ? free.nextClearBit(position) : nextSetBit(free, position, length));
+            if (count == runs.length) {
+                runs = Arrays.copyOf(runs, count * 2);
+            }
+            runs[count++] = next - position;
+            position = next;
+            inFree = !inFree;
+        }
+        return Arrays.copyOf(runs, count);
+    }
+
+    private static int nextSetBit(BitSet bits, int from, int length) {
+        int next = bits.nextSetBit(from);
+        return next < 0 ? length : next;
+    }
+
+    private AtomicLong writeVersion(Long therapistId) {
+        return writeVersions.computeIfAbsent(therapistId, id -> new AtomicLong());
+    }
+}
@@ -0,0 +1,203 @@
+package com.psikolojikdanismanlik.randevusistemi.index;
+
+import com.psikolojikdanismanlik.randevusistemi.config.CacheConfig;
+import com.psikolojikdanismanlik.randevusistemi.entity.AvailabilityException;
+import com.psikolojikdanismanlik.randevusistemi.entity.AvailabilityRule;
+import com.psikolojikdanismanlik.randevusistemi.repository.AvailabilityExceptionRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.AvailabilityRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.AvailabilityRuleRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.projection.AvailabilitySlotView;
+import com.psikolojikdanismanlik.randevusistemi.util.WeeklyRecurrence;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sessions generated on the fly from a therapist's availability rules, minus their exceptions, memoized per
+ * therapist-week. A session only becomes an {@code Availability} row when it is booked; a session that overlaps
+ * any existing row is hidden, so rows always win over rules. Rule and exception changes bump a per-therapist
+ * generation that is part of the cache key, so stale weeks are simply never read again.
+ */
+@Component
+public class RecurringSlots {
+
+    private static final int MAX_SESSIONS_PER_WEEK = 7 * 24 * 60;
+
+    private final AvailabilityRuleRepository availabilityRuleRepository;
+    private final AvailabilityExceptionRepository availabilityExceptionRepository;
+    private final AvailabilityRepository availabilityRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final Cache weeks;
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    record WeekKey(long therapistId, long generation, long mondayEpochDay) {
+    }
+
+    public RecurringSlots(AvailabilityRuleRepository availabilityRuleRepository,
+                          AvailabilityExceptionRepository availabilityExceptionRepository,
+                          AvailabilityRepository availabilityRepository, AvailabilityIndex availabilityIndex,
+                          CacheManager cacheManager) {
+        this.availabilityRuleRepository = availabilityRuleRepository;
+        this.availabilityExceptionRepository = availabilityExceptionRepository;
+        this.availabilityRepository = availabilityRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.weeks = cacheManager.getCache(CacheConfig.RECURRING_SLOT_WEEKS);
+    }
+
+    /**
+     * Rule sessions starting in {@code [from, to)} in start order, whether or not a row overlaps them.
+     */
+    public List<WeeklyRecurrence.Slot> slotsBetween(Long therapistId, LocalDateTime from, LocalDateTime to) {
+        List<WeeklyRecurrence.Slot> slots = new ArrayList<>();
+        for (List<WeeklyRecurrence.Slot> week : load(therapistId, from.toLocalDate(), to.minusNanos(1).toLocalDate())) {
+            for (WeeklyRecurrence.Slot slot : week) {
+                if (!slot.startTime().isBefore(from) && slot.startTime().isBefore(to)) {
+                    slots.add(slot);
+                }
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Rule sessions starting in {@code [from, to)} that no existing row overlaps.
+     */
+    public List<WeeklyRecurrence.Slot> openSlotsBetween(Long therapistId, LocalDateTime from, LocalDateTime to) {
+        List<WeeklyRecurrence.Slot> slots = slotsBetween(therapistId, from, to);
+        if (slots.isEmpty()) {
+            return slots;
+        }
+        List<AvailabilitySlotView> rows = availabilityRepository
+                .findSlotsByTherapistIdAndStartTimeLessThanAndEndTimeGreaterThanOrderByStartTimeAsc(
+                        therapistId, slots.get(slots.size() - 1).endTime(), from);
+        List<WeeklyRecurrence.Slot> open = new ArrayList<>(slots.size());
+        // Sessions never overlap each other, so their ends rise with their starts and one sweep over the rows will do.
+        int next = 0;
+        LocalDateTime rowsEnd = LocalDateTime.MIN;
+        for (WeeklyRecurrence.Slot slot : slots) {
+            while (next < rows.size() && rows.get(next).getStartTime().isBefore(slot.endTime())) {
+                LocalDateTime end = rows.get(next++).getEndTime();
+                rowsEnd = end.isAfter(rowsEnd) ? end : rowsEnd;
+            }
+            if (!rowsEnd.isAfter(slot.startTime())) {
+                open.add(slot);
+            }
+        }
+        return open;
+    }
+
+    public Optional<WeeklyRecurrence.Slot> slotStartingAt(Long therapistId, LocalDateTime start) {
+        return slotsBetween(therapistId, start, start.plusNanos(1)).stream().findFirst();
+    }
+
+    public Optional<WeeklyRecurrence.Slot> openSlotStartingAt(Long therapistId, LocalDateTime start) {
+        return slotStartingAt(therapistId, start).filter(slot -> isOpen(therapistId, slot));
+    }
+
+    public Optional<WeeklyRecurrence.Slot> openSlotCovering(Long therapistId, LocalDateTime start, LocalDateTime end) {
+        return slotsBetween(therapistId, start.toLocalDate().atStartOfDay(), start.plusNanos(1)).stream()
+                .filter(slot -> !slot.endTime().isBefore(end))
+                .filter(slot -> isOpen(therapistId, slot))
+                .findFirst();
+    }
+
+    public long generation(Long therapistId) {
+        return generations.computeIfAbsent(therapistId, id -> new AtomicLong()).get();
+    }
+
+    public void invalidate(Long therapistId) {
+        generations.computeIfAbsent(therapistId, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    public boolean isOpen(Long therapistId, WeeklyRecurrence.Slot slot) {
+        return !availabilityIndex.overlapsAnySlot(therapistId, slot.startTime(), slot.endTime(),
+                () -> availabilityRepository.existsByTherapistIdAndStartTimeLessThanAndEndTimeGreaterThan(
+                        therapistId, slot.endTime(), slot.startTime()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<WeeklyRecurrence.Slot>> load(Long therapistId, LocalDate firstDay, LocalDate lastDay) {
+        long generation = generation(therapistId);
+        LocalDate firstMonday = firstDay.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        int count = (int) ChronoUnit.WEEKS.between(firstMonday, lastDay) + 1;
+        List<List<WeeklyRecurrence.Slot>> loaded = new ArrayList<>(count);
+        int firstMiss = -1;
+        int lastMiss = -1;
+        for (int i = 0; i < count; i++) {
+            List<WeeklyRecurrence.Slot> week = weeks.get(key(therapistId, generation, firstMonday.plusWeeks(i)), List.class);
+            loaded.add(week);
+            if (week == null) {
+                firstMiss = firstMiss < 0 ? i : firstMiss;
+                lastMiss = i;
+            }
+        }
+        if (firstMiss < 0) {
+            return loaded;
+        }
+
+        LocalDate missFrom = firstMonday.plusWeeks(firstMiss);
+        LocalDate missUntil = firstMonday.plusWeeks(lastMiss).plusDays(6);
+        List<AvailabilityRule> rules = availabilityRuleRepository
+                .findByTherapistIdAndValidFromLessThanEqualAndValidUntilGreaterThanEqual(therapistId, missUntil, missFrom);
+        List<AvailabilityException> exceptions = rules.isEmpty() ? List.of() : availabilityExceptionRepository
+                .findByTherapistIdAndStartTimeLessThanAndEndTimeGreaterThan(therapistId, missUntil.plusDays(2).atStartOfDay(), missFrom.atStartOfDay());
+        for (int i = firstMiss; i <= lastMiss; i++) {
+            if (loaded.get(i) == null) {
+                LocalDate monday = firstMonday.plusWeeks(i);
+                List<WeeklyRecurrence.Slot> week = build(monday, rules, exceptions);
+                weeks.put(key(therapistId, generation, monday), week);
+                loaded.set(i, week);
+            }
+        }
+        return loaded;
+    }
+
+    static List<WeeklyRecurrence.Slot> build(LocalDate monday, List<AvailabilityRule> rules, List<AvailabilityException> exceptions) {
+        List<WeeklyRecurrence.Slot> sessions = new ArrayList<>();
+        for (AvailabilityRule rule : rules) {
+            WeeklyRecurrence recurrence = new WeeklyRecurrence(rule.getValidFrom(), rule.getValidUntil(),
+                    List.of(new WeeklyRecurrence.Window(rule.getDayOfWeek(), rule.getStartTime(), rule.getEndTime())),
+                    rule.getSessionMinutes(), rule.getBreakMinutes(), null);
+            sessions.addAll(recurrence.expand(monday, monday.plusDays(6), MAX_SESSIONS_PER_WEEK));
+        }
+        sessions.sort(Comparator.comparing(WeeklyRecurrence.Slot::startTime).thenComparing(WeeklyRecurrence.Slot::endTime));
+
+        List<WeeklyRecurrence.Slot> week = new ArrayList<>(sessions.size());
+        LocalDateTime keptUntil = LocalDateTime.MIN;
+        for (WeeklyRecurrence.Slot session : sessions) {
+            // Overlapping rules keep the earliest session; exceptions remove every session they touch.
+            if (session.startTime().isBefore(keptUntil) || isExcepted(session, exceptions)) {
+                continue;
+            }
+            week.add(session);
+            keptUntil = session.endTime();
+        }
+        return List.copyOf(week);
+    }
+
+    private static boolean isExcepted(WeeklyRecurrence.Slot session, List<AvailabilityException> exceptions) {
+        for (AvailabilityException exception : exceptions) {
+            if (exception.getStartTime().isBefore(session.endTime()) && exception.getEndTime().isAfter(session.startTime())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static WeekKey key(Long therapistId, long generation, LocalDate monday) {
+        return new WeekKey(therapistId, generation, monday.toEpochDay());
+    }
+}
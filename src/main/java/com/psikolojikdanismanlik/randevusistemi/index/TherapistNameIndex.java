@@ -0,0 +1,398 @@
+package com.psikolojikdanismanlik.randevusistemi.index;
+
+import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
+import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import com.psikolojikdanismanlik.randevusistemi.repository.TherapistRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.projection.TherapistDirectoryView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/**
+ * In-memory bigram/trigram index over therapist names, folded so that "IŞIK", "Işık" and "isik" match alike.
+ * Searches return {@code null} until the initial load has finished; callers then use the database query instead.
+ */
+@Component
+public class TherapistNameIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TherapistNameIndex.class);
+    private static final Locale TURKISH = Locale.forLanguageTag("tr");
+    private static final Comparator<Match> RANKING = Comparator.comparingInt(Match::rank)
+            .thenComparingInt(match -> match.entry().folded().length())
+            .thenComparing(match -> match.entry().folded())
+            .thenComparing(match -> match.entry().id());
+
+    private final TherapistRepository therapistRepository;
+    private final TaskExecutor taskExecutor;
+    // Readers take one snapshot; writers build the next one and publish it with a single volatile write.
+    private volatile Snapshot snapshot = new Snapshot(new Entry[0], Map.of());
+    private Map<Long, Integer> ordinals = new HashMap<>();
+    private int nextOrdinal;
+    private volatile boolean ready;
+    // Writes that arrive before the initial load finishes; replayed on top of the loaded snapshot.
+    private final Map<Long, Optional<Entry>> pendingWrites = new LinkedHashMap<>();
+
+    public TherapistNameIndex(TherapistRepository therapistRepository,
+                              @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        this.therapistRepository = therapistRepository;
+        this.taskExecutor = taskExecutor;
+    }
+
+    public record Entry(Long id, String fullName, String specialization, String experience, String folded) {
+    }
+
+    private record Match(Entry entry, int rank) {
+    }
+
+    // Entries by dense ordinal; postings hold sorted ordinals so a candidate costs an array read, not a map lookup.
+    // Neither is modified once published.
+    private record Snapshot(Entry[] slots, Map<Long, int[]> postings) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        taskExecutor.execute(() -> {
+            try {
+                replaceAll(therapistRepository.findDirectoryEntries());
+            } catch (RuntimeException e) {
+                logger.warn("Could not load therapist name index: {}", e.getMessage());
+            }
+        });
+    }
+
+    public void replaceAll(List<? extends TherapistDirectoryView> rows) {
+        Entry[] freshSlots = new Entry[rows.size()];
+        Map<Long, Integer> freshOrdinals = new HashMap<>(rows.size() * 2);
+        Map<Long, IntList> grams = new HashMap<>();
+        int ordinal = 0;
+        for (TherapistDirectoryView row : rows) {
+            Entry entry = entry(row.getId(), row.getFullName(), row.getSpecialization(), row.getExperience());
+            freshSlots[ordinal] = entry;
+            freshOrdinals.put(entry.id(), ordinal);
+            for (long gram : grams(entry.folded())) {
+                grams.computeIfAbsent(gram, key -> new IntList()).add(ordinal);
+            }
+            ordinal++;
+        }
+        Map<Long, int[]> freshPostings = new HashMap<>(grams.size() * 2);
+        grams.forEach((gram, list) -> freshPostings.put(gram, list.toArray()));
+
+        synchronized (this) {
+            snapshot = new Snapshot(freshSlots, freshPostings);
+            ordinals = freshOrdinals;
+            nextOrdinal = ordinal;
+            pendingWrites.forEach((id, entry) -> {
+                if (entry.isPresent()) {
+                    putEntry(entry.get());
+                } else {
+                    removeEntry(id);
+                }
+            });
+            pendingWrites.clear();
+            ready = true;
+        }
+        logger.info("Therapist name index loaded with {} therapists", freshOrdinals.size());
+    }
+
+    public synchronized void put(Therapist therapist) {
+        if (therapist.getUser() == null || therapist.getUser().getRole() != Role.THERAPIST) {
+            remove(therapist.getId());
+            return;
+        }
+        String fullName = therapist.getUser().getFullName();
+        Entry entry = entry(therapist.getId(), fullName, therapist.getSpecialization(), therapist.getExperience());
+        if (!ready) {
+            pendingWrites.put(entry.id(), Optional.of(entry));
+        }
+        putEntry(entry);
+    }
+
+    public synchronized void remove(Long therapistId) {
+        if (!ready) {
+            pendingWrites.put(therapistId, Optional.empty());
+        }
+        removeEntry(therapistId);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Up to {@code limit} matches whose folded name contains the folded query, ranked exact name first, then
+     * name prefix, then word prefix, then any substring. Returns {@code null} while the index is not loaded.
+     */
+    public List<Entry> search(String query, int limit) {
+        if (!ready) {
+            return null;
+        }
+        String folded = fold(query);
+        if (folded.isEmpty()) {
+            return null;
+        }
+        Snapshot current = snapshot;
+        Entry[] currentSlots = current.slots();
+        PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        if (folded.length() < 2) {
+            for (Entry entry : currentSlots) {
+                if (entry != null) {
+                    offer(best, limit, entry, folded);
+                }
+            }
+        } else {
+            for (int ordinal : candidates(current.postings(), folded)) {
+                Entry entry = ordinal < currentSlots.length ? currentSlots[ordinal] : null;
+                if (entry != null) {
+                    offer(best, limit, entry, folded);
+                }
+            }
+        }
+        Entry[] result = new Entry[best.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = best.poll().entry();
+        }
+        return Arrays.asList(result);
+    }
+
+    private static int[] candidates(Map<Long, int[]> currentPostings, String folded) {
+        long[] gramsOfQuery = folded.length() == 2
+                ? new long[]{bigram(folded.charAt(0), folded.charAt(1))}
+                : trigrams(folded);
+        int[][] lists = new int[gramsOfQuery.length][];
+        for (int i = 0; i < gramsOfQuery.length; i++) {
+            int[] ordinalsOfGram = currentPostings.get(gramsOfQuery[i]);
+            if (ordinalsOfGram == null) {
+                return new int[0];
+            }
+            lists[i] = ordinalsOfGram;
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+        int[] result = lists[0];
+        for (int i = 1; i < lists.length && result.length > 0; i++) {
+            result = intersect(result, lists[i]);
+        }
+        return result;
+    }
+
+    private static void offer(PriorityQueue<Match> best, int limit, Entry entry, String folded) {
+        int at = entry.folded().indexOf(folded);
+        if (at < 0) {
+            return;
+        }
+        int rank = rank(entry.folded(), folded, at);
+        if (best.size() == limit) {
+            Match worst = best.peek();
+            if (rank > worst.rank() || (rank == worst.rank() && entry.folded().length() > worst.entry().folded().length())) {
+                return;
+            }
+        }
+        best.offer(new Match(entry, rank));
+        if (best.size() > limit) {
+            best.poll();
+        }
+    }
+
+    private static int rank(String name, String folded, int firstAt) {
+        if (name.length() == folded.length()) {
+            return 0;
+        }
+        if (firstAt == 0) {
+            return 1;
+        }
+        for (int at = firstAt; at >= 0; at = name.indexOf(folded, at + 1)) {
+            if (name.charAt(at - 1) == ' ') {
+                return 2;
+            }
+        }
+        return 3;
+    }
+
+    private void putEntry(Entry entry) {
+        Snapshot current = snapshot;
+        Integer ordinal = ordinals.get(entry.id());
+        if (ordinal == null) {
+            ordinal = nextOrdinal++;
+            ordinals.put(entry.id(), ordinal);
+        }
+        Entry[] slots = current.slots();
+        Entry previous = ordinal < slots.length ? slots[ordinal] : null;
+        slots = Arrays.copyOf(slots, ordinal < slots.length ? slots.length : Math.max(16, slots.length * 2));
+        slots[ordinal] = entry;
+        Map<Long, int[]> postings = current.postings();
+        if (previous == null || !previous.folded().equals(entry.folded())) {
+            postings = new HashMap<>(postings);
+            int at = ordinal;
+            if (previous != null) {
+                for (long gram : grams(previous.folded())) {
+                    postings.computeIfPresent(gram, (key, list) -> without(list, at));
+                }
+            }
+            for (long gram : grams(entry.folded())) {
+                postings.merge(gram, new int[]{at}, (list, single) -> with(list, at));
+            }
+        }
+        snapshot = new Snapshot(slots, postings);
+    }
+
+    private void removeEntry(Long therapistId) {
+        Integer ordinal = ordinals.remove(therapistId);
+        if (ordinal == null) {
+            return;
+        }
+        Snapshot current = snapshot;
+        Entry previous = current.slots()[ordinal];
+        if (previous == null) {
+            return;
+        }
+        Entry[] slots = current.slots().clone();
+        slots[ordinal] = null;
+        Map<Long, int[]> postings = new HashMap<>(current.postings());
+        for (long gram : grams(previous.folded())) {
+            postings.computeIfPresent(gram, (key, list) -> without(list, ordinal));
+        }
+        snapshot = new Snapshot(slots, postings);
+    }
+
+    private static Entry entry(Long id, String fullName, String specialization, String experience) {
+        return new Entry(id, fullName, specialization, experience, fold(fullName));
+    }
+
+    /**
+     * Lower-cases with Turkish rules (I to ı, İ to i), then drops diacritics and maps ı to i,
+     * so a query typed on a non-Turkish keyboard still matches. Non-alphanumerics collapse to single spaces.
+     */
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text.toLowerCase(TURKISH), Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (c == '\u0131') {
+                c = 'i';
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && !folded.isEmpty()) {
+                    folded.append(' ');
+                }
+                pendingSpace = false;
+                folded.append(c);
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return folded.toString();
+    }
+
+    private static long[] grams(String folded) {
+        int bigrams = Math.max(0, folded.length() - 1);
+        int trigrams = Math.max(0, folded.length() - 2);
+        long[] grams = new long[bigrams + trigrams];
+        int n = 0;
+        for (int i = 0; i + 1 < folded.length(); i++) {
+            grams[n++] = bigram(folded.charAt(i), folded.charAt(i + 1));
+        }
+        for (int i = 0; i + 2 < folded.length(); i++) {
+            grams[n++] = trigram(folded.charAt(i), folded.charAt(i + 1), folded.charAt(i + 2));
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    private static long[] trigrams(String folded) {
+        long[] grams = new long[folded.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = trigram(folded.charAt(i), folded.charAt(i + 1), folded.charAt(i + 2));
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    private static long bigram(char a, char b) {
+        return (2L << 48) | ((long) a << 16) | b;
+    }
+
+    private static long trigram(char a, char b, char c) {
+        return (3L << 48) | ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    private static int[] with(int[] list, int ordinal) {
+        int at = Arrays.binarySearch(list, ordinal);
+        if (at >= 0) {
+            return list;
+        }
+        int insertAt = -at - 1;
+        int[] result = new int[list.length + 1];
+        System.arraycopy(list, 0, result, 0, insertAt);
+        result[insertAt] = ordinal;
+        System.arraycopy(list, insertAt, result, insertAt + 1, list.length - insertAt);
+        return result;
+    }
+
+    private static int[] without(int[] list, int ordinal) {
+        int at = Arrays.binarySearch(list, ordinal);
+        if (at < 0) {
+            return list;
+        }
+        if (list.length == 1) {
+            return null;
+        }
+        int[] result = new int[list.length - 1];
+        System.arraycopy(list, 0, result, 0, at);
+        System.arraycopy(list, at + 1, result, at, list.length - at - 1);
+        return result;
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
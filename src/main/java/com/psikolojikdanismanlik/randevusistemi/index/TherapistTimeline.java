@@ -0,0 +1,166 @@
+package com.psikolojikdanismanlik.randevusistemi.index;
+
+import com.psikolojikdanismanlik.randevusistemi.repository.projection.AvailabilitySlotView;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable, start-ordered snapshot of one therapist's slots as parallel primitive arrays of epoch seconds.
+ * Every mutation returns a new instance, so readers never need a lock. Only slots ending after the
+ * horizon were loaded, so a query starting before it cannot be answered from the snapshot.
+ */
+final class TherapistTimeline {
+
+    private final long[] ids;
+    private final long[] starts;
+    private final long[] ends;
+    private final boolean[] booked;
+    // maxEnds[i] is the latest end among slots 0..i, which lets backward scans stop early.
+    private final long[] maxEnds;
+    private final long horizon;
+
+    private TherapistTimeline(long[] ids, long[] starts, long[] ends, boolean[] booked, long horizon) {
+        this.ids = ids;
+        this.starts = starts;
+        this.ends = ends;
+        this.booked = booked;
+        this.horizon = horizon;
+        this.maxEnds = new long[ends.length];
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < ends.length; i++) {
+            max = Math.max(max, ends[i]);
+            maxEnds[i] = max;
+        }
+    }
+
+    static TherapistTimeline of(List<AvailabilitySlotView> slots, LocalDateTime horizon) {
+        int n = slots.size();
+        long[] ids = new long[n];
+        long[] starts = new long[n];
+        long[] ends = new long[n];
+        boolean[] booked = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            AvailabilitySlotView slot = slots.get(i);
+            ids[i] = slot.getId();
+            starts[i] = toEpochSecond(slot.getStartTime());
+            ends[i] = toEpochSecond(slot.getEndTime());
+            booked[i] = slot.isBooked();
+        }
+        return new TherapistTimeline(ids, starts, ends, booked, toEpochSecond(horizon));
+    }
+
+    static long toEpochSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    boolean covers(long start) {
+        return start >= horizon;
+    }
+
+    boolean hasSlotStartingAt(long time) {
+        int i = firstStartAtOrAfter(time);
+        return i < starts.length && starts[i] == time;
+    }
+
+    boolean hasFreeSlotCovering(long start, long end) {
+        for (int i = firstStartAtOrAfter(start + 1) - 1; i >= 0 && maxEnds[i] >= end; i--) {
+            if (!booked[i] && ends[i] >= end) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean overlapsAnySlot(long start, long end) {
+        for (int i = firstStartAtOrAfter(end) - 1; i >= 0 && maxEnds[i] > start; i--) {
+            if (ends[i] > start) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    TherapistTimeline withSlot(long id, long start, long end, boolean isBooked) {
+        TherapistTimeline base = indexOf(id) >= 0 ? withoutSlot(id) : this;
+        int n = base.ids.length;
+        int at = base.firstStartAtOrAfter(start);
+        while (at < n && base.starts[at] == start && base.ids[at] < id) {
+            at++;
+        }
+        long[] newIds = insert(base.ids, at, id);
+        long[] newStarts = insert(base.starts, at, start);
+        long[] newEnds = insert(base.ends, at, end);
+        boolean[] newBooked = new boolean[n + 1];
+        System.arraycopy(base.booked, 0, newBooked, 0, at);
+        newBooked[at] = isBooked;
+        System.arraycopy(base.booked, at, newBooked, at + 1, n - at);
+        return new TherapistTimeline(newIds, newStarts, newEnds, newBooked, base.horizon);
+    }
+
+    TherapistTimeline withoutSlot(long id) {
+        int at = indexOf(id);
+        if (at < 0) {
+            return this;
+        }
+        int n = ids.length;
+        boolean[] newBooked = new boolean[n - 1];
+        System.arraycopy(booked, 0, newBooked, 0, at);
+        System.arraycopy(booked, at + 1, newBooked, at, n - at - 1);
+        return new TherapistTimeline(remove(ids, at), remove(starts, at), remove(ends, at), newBooked, horizon);
+    }
+
+    TherapistTimeline withBooked(long id, boolean isBooked) {
+        int at = indexOf(id);
+        if (at < 0 || booked[at] == isBooked) {
+            return this;
+        }
+        boolean[] newBooked = Arrays.copyOf(booked, booked.length);
+        newBooked[at] = isBooked;
+        return new TherapistTimeline(ids, starts, ends, newBooked, horizon);
+    }
+
+    private int firstStartAtOrAfter(long time) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int indexOf(long id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long[] insert(long[] source, int at, long value) {
+        long[] target = new long[source.length + 1];
+        System.arraycopy(source, 0, target, 0, at);
+        target[at] = value;
+        System.arraycopy(source, at, target, at + 1, source.length - at);
+        return target;
+    }
+
+    private static long[] remove(long[] source, int at) {
+        long[] target = new long[source.length - 1];
+        System.arraycopy(source, 0, target, 0, at);
+        System.arraycopy(source, at + 1, target, at, source.length - at - 1);
+        return target;
+    }
+}
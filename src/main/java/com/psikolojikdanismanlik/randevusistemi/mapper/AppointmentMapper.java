@@ -0,0 +1,35 @@
+package com.psikolojikdanismanlik.randevusistemi.mapper;
+
+import com.psikolojikdanismanlik.randevusistemi.dto.response.AppointmentResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.entity.Appointment;
+import com.psikolojikdanismanlik.randevusistemi.repository.projection.AppointmentListView;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Named;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+@Mapper(config = MappingConfig.class)
+public interface AppointmentMapper {
+
+    DateTimeFormatter START_TIME_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+
+    // clientName stays unset: the booking path holds the client as an uninitialized reference.
+    @Mapping(target = "therapistId", source = "therapist.id")
+    @Mapping(target = "clientId", source = "client.id")
+    @Mapping(target = "therapistName", source = "therapist.user.fullName")
+    @Mapping(target = "clientName", ignore = true)
+    @Mapping(target = "formattedStartTime", source = "startTime", qualifiedByName = "formatStartTime")
+    AppointmentResponseDto toDto(Appointment appointment);
+
+    @Mapping(target = "therapistName", defaultValue = "N/A")
+    @Mapping(target = "clientName", defaultValue = "Unknown")
+    @Mapping(target = "formattedStartTime", source = "startTime", qualifiedByName = "formatStartTime")
+    AppointmentResponseDto toDto(AppointmentListView appointment);
+
+    @Named("formatStartTime")
+    default String formatStartTime(LocalDateTime startTime) {
+        return startTime != null ? startTime.format(START_TIME_FORMAT) : "Unknown";
+    }
+}
@@ -0,0 +1,30 @@
+package com.psikolojikdanismanlik.randevusistemi.mapper;
+
+import com.psikolojikdanismanlik.randevusistemi.dto.response.AvailabilityExceptionResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.AvailabilityResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.AvailabilityRuleResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.AvailableSlotDto;
+import com.psikolojikdanismanlik.randevusistemi.entity.Availability;
+import com.psikolojikdanismanlik.randevusistemi.entity.AvailabilityException;
+import com.psikolojikdanismanlik.randevusistemi.entity.AvailabilityRule;
+import com.psikolojikdanismanlik.randevusistemi.repository.projection.AvailabilitySlotView;
+import com.psikolojikdanismanlik.randevusistemi.repository.projection.SlotSearchView;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = MappingConfig.class)
+public interface AvailabilityMapper {
+
+    @Mapping(target = "therapistId", source = "therapist.id")
+    AvailabilityResponseDto toDto(Availability availability);
+
+    AvailabilityResponseDto toDto(AvailabilitySlotView slot, Long therapistId);
+
+    AvailableSlotDto toDto(SlotSearchView slot);
+
+    @Mapping(target = "therapistId", source = "therapist.id")
+    AvailabilityRuleResponseDto toDto(AvailabilityRule rule);
+
+    @Mapping(target = "therapistId", source = "therapist.id")
+    AvailabilityExceptionResponseDto toDto(AvailabilityException exception);
+}
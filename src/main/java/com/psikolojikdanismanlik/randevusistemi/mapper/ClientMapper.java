@@ -0,0 +1,15 @@
+package com.psikolojikdanismanlik.randevusistemi.mapper;
+
+import com.psikolojikdanismanlik.randevusistemi.dto.response.ClientResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.entity.Client;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = MappingConfig.class)
+public interface ClientMapper {
+
+    @Mapping(target = "fullName", source = "user.fullName")
+    @Mapping(target = "email", source = "user.email")
+    @Mapping(target = "phoneNumber", source = "user.phoneNumber")
+    ClientResponseDto toDto(Client client);
+}
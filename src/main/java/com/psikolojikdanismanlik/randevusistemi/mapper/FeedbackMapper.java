@@ -0,0 +1,11 @@
+package com.psikolojikdanismanlik.randevusistemi.mapper;
+
+import com.psikolojikdanismanlik.randevusistemi.dto.response.FeedbackResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.entity.Feedback;
+import org.mapstruct.Mapper;
+
+@Mapper(config = MappingConfig.class)
+public interface FeedbackMapper {
+
+    FeedbackResponseDto toDto(Feedback feedback);
+}
@@ -0,0 +1,12 @@
+package com.psikolojikdanismanlik.randevusistemi.mapper;
+
+import org.mapstruct.MapperConfig;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Shared settings for the generated mappers: Spring beans, and a compile error for any DTO property left unmapped.
+ */
+@MapperConfig(componentModel = MappingConstants.ComponentModel.SPRING, unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface MappingConfig {
+}
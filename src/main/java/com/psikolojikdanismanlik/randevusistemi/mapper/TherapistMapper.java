@@ -0,0 +1,21 @@
+package com.psikolojikdanismanlik.randevusistemi.mapper;
+
+import com.psikolojikdanismanlik.randevusistemi.dto.response.TherapistResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
+import com.psikolojikdanismanlik.randevusistemi.index.TherapistNameIndex;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = MappingConfig.class)
+public interface TherapistMapper {
+
+    @Mapping(target = "fullName", source = "user.fullName")
+    TherapistResponseDto toDto(Therapist therapist);
+
+    @Mapping(target = "fullName", source = "user.fullName")
+    @Mapping(target = "about", ignore = true)
+    TherapistResponseDto toDirectoryDto(Therapist therapist);
+
+    @Mapping(target = "about", ignore = true)
+    TherapistResponseDto toDirectoryDto(TherapistNameIndex.Entry entry);
+}
@@ -0,0 +1,30 @@
+package com.psikolojikdanismanlik.randevusistemi.mapper;
+
+import com.psikolojikdanismanlik.randevusistemi.dto.request.UserRegisterRequest;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.UserProfileResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.UserResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.entity.User;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = MappingConfig.class)
+public interface UserMapper {
+
+    UserResponseDto toDto(User user);
+
+    // Therapist details are filled in by the caller, and only for therapists.
+    @Mapping(target = "userId", source = "id")
+    @Mapping(target = "therapistId", source = "therapist.id")
+    @Mapping(target = "specialization", ignore = true)
+    @Mapping(target = "experience", ignore = true)
+    @Mapping(target = "about", ignore = true)
+    UserProfileResponseDto toProfile(User user);
+
+    // The password is encoded by the caller.
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "password", ignore = true)
+    @Mapping(target = "client", ignore = true)
+    @Mapping(target = "therapist", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    User fromRegistration(UserRegisterRequest request);
+}
@@ -0,0 +1,59 @@
+package com.psikolojikdanismanlik.randevusistemi.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times booking attempts as {@value #NAME}, tagged with the endpoint and the outcome; the count of each timer is the
+ * number of attempts with that outcome. All timers are registered up front, so recording looks up an array slot.
+ */
+@Component
+public class BookingMetrics {
+
+    public static final String NAME = "appointments.booking";
+
+    public enum Endpoint {
+        BOOK("POST /api/appointments"),
+        RESCHEDULE("PUT /api/appointments/{id}/reschedule");
+
+        private final String tag;
+
+        Endpoint(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    public enum Outcome {
+        /** The appointment was created or the reschedule request recorded. */
+        SUCCESS,
+        /** The slot was booked by someone else first. */
+        CONFLICT,
+        /** The slot does not exist, is blacked out or the therapist is not available at the requested time. */
+        UNAVAILABLE,
+        /** The caller may not book or reschedule this appointment. */
+        DENIED,
+        ERROR
+    }
+
+    private final Timer[][] timers = new Timer[Endpoint.values().length][Outcome.values().length];
+
+    public BookingMetrics(MeterRegistry meterRegistry) {
+        for (Endpoint endpoint : Endpoint.values()) {
+            for (Outcome outcome : Outcome.values()) {
+                timers[endpoint.ordinal()][outcome.ordinal()] = Timer.builder(NAME)
+                        .description("Booking attempts by endpoint and outcome")
+                        .tag("endpoint", endpoint.tag)
+                        .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    public void record(Endpoint endpoint, Outcome outcome, long startedNanos) {
+        timers[endpoint.ordinal()][outcome.ordinal()].record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,64 @@
+package com.psikolojikdanismanlik.randevusistemi.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every method of one repository as {@value #NAME}, tagged with the repository, the method and the outcome.
+ * The timers of a method are created on its first call and looked up by {@link Method} afterwards, so a call does
+ * not build tags. Only the call is timed; a returned {@code Stream} is read after it.
+ */
+public class RepositoryTimingInterceptor implements MethodInterceptor {
+
+    public static final String NAME = "repository.invocations";
+
+    private record Timers(Timer success, Timer error) {
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final String repository;
+    private final ConcurrentMap<Method, Timers> timers = new ConcurrentHashMap<>();
+
+    public RepositoryTimingInterceptor(MeterRegistry meterRegistry, Class<?> repositoryInterface) {
+        this.meterRegistry = meterRegistry;
+        this.repository = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        Timers methodTimers = timers.get(method);
+        if (methodTimers == null) {
+            methodTimers = timers.computeIfAbsent(method, this::register);
+        }
+        long started = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            methodTimers.success().record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            methodTimers.error().record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Timers register(Method method) {
+        return new Timers(timer(method, "success"), timer(method, "error"));
+    }
+
+    private Timer timer(Method method, String outcome) {
+        return Timer.builder(NAME)
+                .description("Repository method latency")
+                .tag("repository", repository)
+                .tag("method", method.getName())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
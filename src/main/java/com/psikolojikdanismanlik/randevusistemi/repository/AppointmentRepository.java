@@ -1,19 +1,58 @@
 package com.psikolojikdanismanlik.randevusistemi.repository;
 
 import com.psikolojikdanismanlik.randevusistemi.entity.Appointment;
+import com.psikolojikdanismanlik.randevusistemi.repository.projection.AppointmentListView;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
-    Page<Appointment> findByClientId(Long clientId, Pageable pageable);
     List<Appointment> findByTherapistId(Long therapistId);
     void deleteAllByTherapistId(Long therapistId);
-    Page<Appointment> findByTherapistId(Long therapistId, Pageable pageable);
-    List<Appointment> findByClientIdAndStartTimeAfterOrderByStartTimeAsc(Long clientId, LocalDateTime now);
-    List<Appointment> findByClientIdAndEndTimeBeforeOrderByStartTimeDesc(Long clientId, LocalDateTime now);
 
+    String LIST_VIEW_SELECT = "SELECT a.id AS id, t.id AS therapistId, c.id AS clientId, a.startTime AS startTime, "
+            + "a.createdDate AS createdDate, a.status AS status, tu.fullName AS therapistName, cu.fullName AS clientName "
+            + "FROM Appointment a LEFT JOIN a.therapist t LEFT JOIN t.user tu LEFT JOIN a.client c LEFT JOIN c.user cu ";
+
+    @Query(value = LIST_VIEW_SELECT + "WHERE c.id = :clientId",
+            countQuery = "SELECT COUNT(a) FROM Appointment a WHERE a.client.id = :clientId")
+    Page<AppointmentListView> findListByClientId(@Param("clientId") Long clientId, Pageable pageable);
+
+    @Query(value = LIST_VIEW_SELECT + "WHERE t.id = :therapistId",
+            countQuery = "SELECT COUNT(a) FROM Appointment a WHERE a.therapist.id = :therapistId")
+    Page<AppointmentListView> findListByTherapistId(@Param("therapistId") Long therapistId, Pageable pageable);
+
+    @Query(LIST_VIEW_SELECT + "WHERE c.id = :clientId ORDER BY a.startTime DESC, a.id DESC")
+    List<AppointmentListView> findTimelineByClientId(@Param("clientId") Long clientId, Limit limit);
+
+    @Query(LIST_VIEW_SELECT + "WHERE c.id = :clientId "
+            + "AND (a.startTime < :startTime OR (a.startTime = :startTime AND a.id < :id)) "
+            + "ORDER BY a.startTime DESC, a.id DESC")
+    List<AppointmentListView> findTimelineByClientIdBefore(@Param("clientId") Long clientId,
+                                                           @Param("startTime") LocalDateTime startTime,
+                                                           @Param("id") Long id,
+                                                           Limit limit);
+
+    @Query(LIST_VIEW_SELECT + "WHERE t.id = :therapistId ORDER BY a.startTime DESC, a.id DESC")
+    List<AppointmentListView> findTimelineByTherapistId(@Param("therapistId") Long therapistId, Limit limit);
+
+    @Query(LIST_VIEW_SELECT + "WHERE t.id = :therapistId "
+            + "AND (a.startTime < :startTime OR (a.startTime = :startTime AND a.id < :id)) "
+            + "ORDER BY a.startTime DESC, a.id DESC")
+    List<AppointmentListView> findTimelineByTherapistIdBefore(@Param("therapistId") Long therapistId,
+                                                              @Param("startTime") LocalDateTime startTime,
+                                                              @Param("id") Long id,
+                                                              Limit limit);
+
+    @Query(LIST_VIEW_SELECT + "WHERE c.id = :clientId AND a.startTime > :now ORDER BY a.startTime ASC")
+    List<AppointmentListView> findUpcomingListByClientId(@Param("clientId") Long clientId, @Param("now") LocalDateTime now);
+
+    @Query(LIST_VIEW_SELECT + "WHERE c.id = :clientId AND a.endTime < :now ORDER BY a.startTime DESC")
+    List<AppointmentListView> findPastListByClientId(@Param("clientId") Long clientId, @Param("now") LocalDateTime now);
 }
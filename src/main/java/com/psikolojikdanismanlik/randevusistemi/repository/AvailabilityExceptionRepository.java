@@ -0,0 +1,14 @@
+package com.psikolojikdanismanlik.randevusistemi.repository;
+
+import com.psikolojikdanismanlik.randevusistemi.entity.AvailabilityException;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AvailabilityExceptionRepository extends JpaRepository<AvailabilityException, Long> {
+    List<AvailabilityException> findByTherapistIdOrderByStartTimeAsc(Long therapistId);
+    List<AvailabilityException> findByTherapistIdAndStartTimeLessThanAndEndTimeGreaterThan(Long therapistId, LocalDateTime before, LocalDateTime after);
+    boolean existsByTherapistIdAndStartTimeLessThanAndEndTimeGreaterThan(Long therapistId, LocalDateTime before, LocalDateTime after);
+    boolean existsByTherapistIdAndStartTimeLessThanEqualAndEndTimeGreaterThan(Long therapistId, LocalDateTime at, LocalDateTime after);
+}
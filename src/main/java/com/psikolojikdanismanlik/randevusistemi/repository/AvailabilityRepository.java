@@ -2,14 +2,123 @@ package com.psikolojikdanismanlik.randevusistemi.repository;
 
 import com.psikolojikdanismanlik.randevusistemi.entity.Availability;
 import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
+import com.psikolojikdanismanlik.randevusistemi.repository.projection.AvailabilitySlotView;
+import com.psikolojikdanismanlik.randevusistemi.repository.projection.FreeBusyIntervalView;
+import com.psikolojikdanismanlik.randevusistemi.repository.projection.SlotSearchView;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
 
 public interface AvailabilityRepository extends JpaRepository<Availability, Long> {
     boolean existsByTherapistIdAndStartTime(Long therapistId, LocalDateTime startTime);
-    Page<Availability> findByTherapistIdOrderByStartTimeAsc(Long therapistId, Pageable pageable);
+    boolean existsByTherapistIdAndStartTimeLessThanAndEndTimeGreaterThan(Long therapistId, LocalDateTime before, LocalDateTime after);
+    List<AvailabilitySlotView> findSlotsByTherapistIdAndBookedTrueAndStartTimeLessThanAndEndTimeGreaterThanOrderByStartTimeAsc(Long therapistId, LocalDateTime before, LocalDateTime after);
+
+    // Unbooked slots overlapping a blackout (availability exception) are hidden; booked ones stay visible.
+    @Query(value = "SELECT a FROM Availability a WHERE a.therapist.id = :therapistId AND (a.booked = true OR NOT EXISTS ("
+            + "SELECT e.id FROM AvailabilityException e WHERE e.therapist.id = :therapistId "
+            + "AND e.startTime < a.endTime AND e.endTime > a.startTime)) ORDER BY a.startTime ASC",
+            countQuery = "SELECT COUNT(a) FROM Availability a WHERE a.therapist.id = :therapistId AND (a.booked = true OR NOT EXISTS ("
+                    + "SELECT e.id FROM AvailabilityException e WHERE e.therapist.id = :therapistId "
+                    + "AND e.startTime < a.endTime AND e.endTime > a.startTime))")
+    Page<Availability> findVisibleByTherapistId(@Param("therapistId") Long therapistId, Pageable pageable);
     boolean existsByTherapistAndStartTimeLessThanEqualAndEndTimeGreaterThanEqualAndBookedFalse(Therapist therapist, LocalDateTime startTime, LocalDateTime endTime);
+    List<AvailabilitySlotView> findSlotsByTherapistIdOrderByStartTimeAscIdAsc(Long therapistId);
+    List<AvailabilitySlotView> findSlotsByTherapistIdOrderByStartTimeAscIdAsc(Long therapistId, Limit limit);
+    List<AvailabilitySlotView> findSlotsByTherapistIdAndEndTimeAfterOrderByStartTimeAscIdAsc(Long therapistId, LocalDateTime endTime);
+    List<AvailabilitySlotView> findSlotsByTherapistIdAndStartTimeLessThanAndEndTimeGreaterThanOrderByStartTimeAsc(Long therapistId, LocalDateTime before, LocalDateTime after);
+
+    @Query("SELECT a.id AS id, a.startTime AS startTime, a.endTime AS endTime, a.booked AS booked "
+            + "FROM Availability a WHERE a.therapist.id = :therapistId "
+            + "AND (a.startTime > :startTime OR (a.startTime = :startTime AND a.id > :id)) "
+            + "ORDER BY a.startTime ASC, a.id ASC")
+    List<AvailabilitySlotView> findSlotsByTherapistIdAfter(@Param("therapistId") Long therapistId,
+                                                           @Param("startTime") LocalDateTime startTime,
+                                                           @Param("id") Long id,
+                                                           Limit limit);
+
+    // Slots mark time as available (and busy when booked) unless a blackout hides them; live appointments mark it busy.
+    @Query(value = "SELECT v.start_time AS startTime, v.end_time AS endTime, "
+            + "(v.booked OR NOT (EXISTS (SELECT 1 FROM availability_exceptions e WHERE e.therapist_id = v.therapist_id "
+            + "AND e.start_time < v.end_time AND e.end_time > v.start_time))) AS available, v.booked AS busy "
+            + "FROM availabilities v WHERE v.therapist_id = :therapistId AND v.start_time < :to AND v.end_time > :from "
+            + "UNION ALL "
+            + "SELECT a.start_time, a.end_time, FALSE, TRUE "
+            + "FROM appointments a WHERE a.therapist_id = :therapistId AND a.start_time < :to AND a.end_time > :from "
+            + "AND a.status NOT IN ('CANCELLED_BY_CLIENT', 'CANCELLED_BY_THERAPIST')", nativeQuery = true)
+    List<FreeBusyIntervalView> findFreeBusyIntervals(@Param("therapistId") Long therapistId,
+                                                     @Param("from") LocalDateTime from,
+                                                     @Param("to") LocalDateTime to);
+
+    // Walks idx_availabilities_unbooked_start in start order and stops after the limit; the filters are checked per row.
+    @Query(value = "SELECT v.id AS id, v.therapist_id AS therapistId, u.full_name AS therapistName, "
+            + "t.specialization AS specialization, v.start_time AS startTime, v.end_time AS endTime, "
+            + "CASE WHEN s.rating_count > 0 THEN CAST(s.rating_sum AS DOUBLE PRECISION) / s.rating_count END AS averageRating "
+            + "FROM availabilities v "
+            + "JOIN therapists t ON t.id = v.therapist_id "
+            + "JOIN users u ON u.id = t.user_id "
+            + "LEFT JOIN therapist_rating_stats s ON s.therapist_id = t.id "
+            + "WHERE v.booked = FALSE AND v.start_time >= :from AND v.start_time < :to "
+            + "AND LOWER(t.specialization) LIKE :specialization "
+            + "AND EXTRACT(ISODOW FROM v.start_time) IN (:days) "
+            + "AND CAST(v.start_time AS TIME) >= :timeFrom AND (:timeTo = :timeFrom OR CAST(v.start_time AS TIME) < :timeTo) "
+            + "AND (:minRating <= 0 OR (s.rating_count > 0 AND s.rating_sum >= :minRating * s.rating_count)) "
+            + "AND NOT (EXISTS (SELECT 1 FROM availability_exceptions e WHERE e.therapist_id = v.therapist_id "
+            + "AND e.start_time < v.end_time AND e.end_time > v.start_time)) "
+            + "ORDER BY v.start_time, v.id", nativeQuery = true)
+    List<SlotSearchView> searchFreeSlots(@Param("specialization") String specialization,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to,
+                                         @Param("days") Collection<Integer> days,
+                                         @Param("timeFrom") LocalTime timeFrom,
+                                         @Param("timeTo") LocalTime timeTo,
+                                         @Param("minRating") double minRating,
+                                         Limit limit);
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Availability a SET a.booked = true WHERE a.id = :id AND a.booked = false")
+    int claimIfFree(@Param("id") Long id);
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Availability a WHERE a.id = :id AND a.booked = false")
+    int deleteIfFree(@Param("id") Long id);
+
+    // Run in the transaction of the delete that follows: the foreign key refuses a slot any appointment still points at.
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE appointments SET availability_id = NULL WHERE availability_id = :id "
+            + "AND status IN ('CANCELLED_BY_CLIENT', 'CANCELLED_BY_THERAPIST')", nativeQuery = true)
+    int detachCancelledAppointments(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE appointments SET availability_id = NULL "
+            + "WHERE status IN ('CANCELLED_BY_CLIENT', 'CANCELLED_BY_THERAPIST') AND availability_id IN "
+            + "(SELECT v.id FROM availabilities v WHERE v.therapist_id = :therapistId AND v.booked = FALSE "
+            + "AND v.start_time < :to AND v.end_time > :from)", nativeQuery = true)
+    int detachCancelledAppointmentsBetween(@Param("therapistId") Long therapistId,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to);
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Availability a WHERE a.therapist.id = :therapistId AND a.booked = false "
+            + "AND a.startTime < :to AND a.endTime > :from")
+    int deleteUnbookedBetween(@Param("therapistId") Long therapistId,
+                              @Param("from") LocalDateTime from,
+                              @Param("to") LocalDateTime to);
 
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Availability a SET a.booked = false WHERE a.id = :id AND a.booked = true")
+    int release(@Param("id") Long id);
 }
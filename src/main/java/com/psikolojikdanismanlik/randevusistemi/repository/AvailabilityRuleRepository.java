@@ -0,0 +1,12 @@
+package com.psikolojikdanismanlik.randevusistemi.repository;
+
+import com.psikolojikdanismanlik.randevusistemi.entity.AvailabilityRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AvailabilityRuleRepository extends JpaRepository<AvailabilityRule, Long> {
+    List<AvailabilityRule> findByTherapistIdOrderByIdAsc(Long therapistId);
+    List<AvailabilityRule> findByTherapistIdAndValidFromLessThanEqualAndValidUntilGreaterThanEqual(Long therapistId, LocalDate lastDay, LocalDate firstDay);
+}
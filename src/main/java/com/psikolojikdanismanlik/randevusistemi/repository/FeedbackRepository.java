@@ -1,11 +1,16 @@
 package com.psikolojikdanismanlik.randevusistemi.repository;
 
 import com.psikolojikdanismanlik.randevusistemi.entity.Feedback;
+import com.psikolojikdanismanlik.randevusistemi.repository.projection.RatingCountView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
+
 public interface FeedbackRepository extends JpaRepository<Feedback, Long> {
-    @Query("SELECT AVG(f.rating) FROM Feedback f WHERE f.appointment.therapist.id = :therapistId")
-    Double findAverageRatingByTherapistId(@Param("therapistId") Long therapistId);
+    @Query("SELECT a.therapist.id AS therapistId, f.rating AS rating, COUNT(f) AS count "
+            + "FROM Feedback f JOIN f.appointment a "
+            + "WHERE a.therapist.id BETWEEN :fromId AND :toId GROUP BY a.therapist.id, f.rating")
+    List<RatingCountView> countRatingsByTherapistIdBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
 }
@@ -0,0 +1,41 @@
+package com.psikolojikdanismanlik.randevusistemi.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+
+/**
+ * Hands out entity ids for rows written with plain JDBC. Entities use pooled-lo sequences with an increment of
+ * {@value #ALLOCATION_SIZE}: each sequence value {@code v} reserves {@code [v, v + ALLOCATION_SIZE)}, the same way
+ * Hibernate reads it, so ids allocated here never collide with ids Hibernate allocates.
+ */
+@Component
+public class IdAllocator {
+
+    public static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Dialect dialect;
+
+    public IdAllocator(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+
+    public PrimitiveIterator.OfLong allocate(String sequence, int count) {
+        String nextValue = dialect.getSequenceSupport().getSequenceNextValString(sequence);
+        long[] ids = new long[count];
+        for (int reserved = 0; reserved < count; reserved += ALLOCATION_SIZE) {
+            long first = jdbcTemplate.queryForObject(nextValue, Long.class);
+            for (int i = reserved; i < Math.min(count, reserved + ALLOCATION_SIZE); i++) {
+                ids[i] = first + i - reserved;
+            }
+        }
+        return Arrays.stream(ids).iterator();
+    }
+}
@@ -0,0 +1,37 @@
+package com.psikolojikdanismanlik.randevusistemi.repository;
+
+import com.psikolojikdanismanlik.randevusistemi.entity.TherapistRatingStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface TherapistRatingStatsRepository extends JpaRepository<TherapistRatingStats, Long> {
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE TherapistRatingStats s SET s.ratingCount = s.ratingCount + :count, s.ratingSum = s.ratingSum + :sum, "
+            + "s.oneStar = s.oneStar + :one, s.twoStar = s.twoStar + :two, s.threeStar = s.threeStar + :three, "
+            + "s.fourStar = s.fourStar + :four, s.fiveStar = s.fiveStar + :five WHERE s.therapistId = :therapistId")
+    int applyDelta(@Param("therapistId") Long therapistId, @Param("count") long count, @Param("sum") long sum,
+                   @Param("one") long one, @Param("two") long two, @Param("three") long three,
+                   @Param("four") long four, @Param("five") long five);
+
+    // Concurrent first writes for a therapist both get here; the loser waits for the winner's row instead of failing.
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO therapist_rating_stats (therapist_id, rating_count, rating_sum, one_star, two_star, "
+            + "three_star, four_star, five_star) VALUES (:therapistId, 0, 0, 0, 0, 0, 0, 0) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertEmptyIfAbsent(@Param("therapistId") Long therapistId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM TherapistRatingStats s WHERE s.therapistId BETWEEN :fromId AND :toId")
+    List<TherapistRatingStats> findAllForUpdateByTherapistIdBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Modifying
+    @Query("DELETE FROM TherapistRatingStats s WHERE s.therapistId NOT IN (SELECT t.id FROM Therapist t)")
+    int deleteOrphans();
+}
@@ -1,6 +1,7 @@
 package com.psikolojikdanismanlik.randevusistemi.repository;
 
 import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,6 +9,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.List;
 import java.util.Optional;
 import com.psikolojikdanismanlik.randevusistemi.entity.User;
+import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import com.psikolojikdanismanlik.randevusistemi.repository.projection.TherapistDirectoryView;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -15,6 +18,18 @@ public interface TherapistRepository extends JpaRepository<Therapist, Long> {
     Optional<Therapist> findByUserEmail(String email);
     Page<Therapist> findAll(Pageable pageable);
     Optional<Therapist> findByUser(User user);
-    @Query("SELECT t FROM Therapist t WHERE LOWER(t.user.fullName) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<Therapist> searchByFullName(@Param("name") String name);
+    Page<Therapist> findByUserRole(Role role, Pageable pageable);
+    @Query("SELECT t FROM Therapist t WHERE t.user.role = com.psikolojikdanismanlik.randevusistemi.enums.Role.THERAPIST "
+            + "AND LOWER(t.user.fullName) LIKE LOWER(CONCAT('%', :name, '%'))")
+    List<Therapist> searchByFullName(@Param("name") String name, Limit limit);
+
+    @Query("SELECT t.id AS id, u.fullName AS fullName, t.specialization AS specialization, t.experience AS experience "
+            + "FROM Therapist t JOIN t.user u WHERE u.role = com.psikolojikdanismanlik.randevusistemi.enums.Role.THERAPIST")
+    List<TherapistDirectoryView> findDirectoryEntries();
+
+    @Query("SELECT t.id FROM Therapist t ORDER BY t.id")
+    List<Long> findAllIds();
+
+    @Query("SELECT t.id FROM Therapist t WHERE t.id BETWEEN :fromId AND :toId")
+    List<Long> findIdsBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
 }
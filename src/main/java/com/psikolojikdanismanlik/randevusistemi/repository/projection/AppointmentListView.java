@@ -0,0 +1,17 @@
+package com.psikolojikdanismanlik.randevusistemi.repository.projection;
+
+import com.psikolojikdanismanlik.randevusistemi.enums.Status;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public interface AppointmentListView {
+    Long getId();
+    Long getTherapistId();
+    Long getClientId();
+    LocalDateTime getStartTime();
+    LocalDate getCreatedDate();
+    Status getStatus();
+    String getTherapistName();
+    String getClientName();
+}
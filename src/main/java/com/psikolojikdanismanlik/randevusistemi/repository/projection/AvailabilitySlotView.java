@@ -0,0 +1,10 @@
+package com.psikolojikdanismanlik.randevusistemi.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface AvailabilitySlotView {
+    Long getId();
+    LocalDateTime getStartTime();
+    LocalDateTime getEndTime();
+    boolean isBooked();
+}
@@ -0,0 +1,7 @@
+package com.psikolojikdanismanlik.randevusistemi.repository.projection;
+
+public interface RatingCountView {
+    Long getTherapistId();
+    Integer getRating();
+    Long getCount();
+}
@@ -0,0 +1,13 @@
+package com.psikolojikdanismanlik.randevusistemi.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface SlotSearchView {
+    Long getId();
+    Long getTherapistId();
+    String getTherapistName();
+    String getSpecialization();
+    Double getAverageRating();
+    LocalDateTime getStartTime();
+    LocalDateTime getEndTime();
+}
@@ -0,0 +1,8 @@
+package com.psikolojikdanismanlik.randevusistemi.repository.projection;
+
+public interface TherapistDirectoryView {
+    Long getId();
+    String getFullName();
+    String getSpecialization();
+    String getExperience();
+}
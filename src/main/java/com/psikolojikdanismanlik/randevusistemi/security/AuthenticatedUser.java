@@ -0,0 +1,107 @@
+package com.psikolojikdanismanlik.randevusistemi.security;
+
+import com.psikolojikdanismanlik.randevusistemi.entity.Client;
+import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
+import com.psikolojikdanismanlik.randevusistemi.entity.User;
+import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+public class AuthenticatedUser implements UserDetails {
+
+    private final Long userId;
+    private final String email;
+    private final String password;
+    private final Role role;
+    private final Long clientId;
+    private final Long therapistId;
+    private final List<GrantedAuthority> authorities;
+
+    public AuthenticatedUser(Long userId, String email, String password, Role role, Long clientId, Long therapistId) {
+        this.userId = userId;
+        this.email = email;
+        this.password = password;
+        this.role = role;
+        this.clientId = clientId;
+        this.therapistId = therapistId;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(
+                user.getId(),
+                user.getEmail(),
+                user.getPassword(),
+                user.getRole(),
+                user.getClient() != null ? user.getClient().getId() : null,
+                user.getTherapist() != null ? user.getTherapist().getId() : null
+        );
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public Long getClientId() {
+        return clientId;
+    }
+
+    public Long getTherapistId() {
+        return therapistId;
+    }
+
+    public boolean isAdmin() {
+        return role == Role.ADMIN;
+    }
+
+    public boolean isClient() {
+        return role == Role.CLIENT;
+    }
+
+    public boolean isTherapist() {
+        return role == Role.THERAPIST;
+    }
+
+    public boolean isOwnerOf(Client client) {
+        if (client == null) {
+            return false;
+        }
+        if (clientId != null) {
+            return clientId.equals(client.getId());
+        }
+        return client.getUser() != null && email.equals(client.getUser().getEmail());
+    }
+
+    public boolean isOwnerOf(Therapist therapist) {
+        if (therapist == null) {
+            return false;
+        }
+        if (therapistId != null) {
+            return therapistId.equals(therapist.getId());
+        }
+        return therapist.getUser() != null && email.equals(therapist.getUser().getEmail());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
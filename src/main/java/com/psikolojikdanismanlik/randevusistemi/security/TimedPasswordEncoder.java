@@ -0,0 +1,62 @@
+package com.psikolojikdanismanlik.randevusistemi.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the wrapped encoder as {@code auth.password.encode} and {@code auth.password.matches}; BCrypt is the most
+ * expensive step of registration and login, and its cost factor is what these timers are for.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer encode;
+    private final Timer match;
+    private final Timer mismatch;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encode = Timer.builder("auth.password.encode")
+                .description("Password hashing time")
+                .register(meterRegistry);
+        this.match = matches(meterRegistry, "match");
+        this.mismatch = matches(meterRegistry, "mismatch");
+    }
+
+    private static Timer matches(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.password.matches")
+                .description("Password verification time")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long started = System.nanoTime();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            encode.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long started = System.nanoTime();
+        boolean matches = false;
+        try {
+            matches = delegate.matches(rawPassword, encodedPassword);
+            return matches;
+        } finally {
+            (matches ? match : mismatch).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
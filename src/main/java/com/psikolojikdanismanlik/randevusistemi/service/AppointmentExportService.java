@@ -0,0 +1,224 @@
+package com.psikolojikdanismanlik.randevusistemi.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.psikolojikdanismanlik.randevusistemi.enums.ExportFormat;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes appointments straight from a forward-only JDBC cursor to the response stream, one row at a time,
+ * so memory stays flat whatever the row count. The read-only transaction keeps the cursor open on PostgreSQL,
+ * which only honours the fetch size when autocommit is off.
+ */
+@Service
+public class AppointmentExportService {
+
+    private static final String[] COLUMNS = {
+            "id", "startTime", "endTime", "status", "therapistId", "therapistName",
+            "clientId", "clientName", "clientEmail", "createdAt", "rating"
+    };
+    private static final String SELECT = "SELECT a.id, a.start_time, a.end_time, a.status, a.therapist_id, tu.full_name, "
+            + "a.client_id, cu.full_name, cu.email, a.created_at, f.rating "
+            + "FROM appointments a "
+            + "LEFT JOIN therapists t ON t.id = a.therapist_id LEFT JOIN users tu ON tu.id = t.user_id "
+            + "LEFT JOIN clients c ON c.id = a.client_id LEFT JOIN users cu ON cu.id = c.user_id "
+            + "LEFT JOIN feedbacks f ON f.appointment_id = a.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public AppointmentExportService(DataSource dataSource, ObjectMapper objectMapper,
+                                    @Value("${app.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.objectMapper = objectMapper;
+    }
+
+    public void checkTherapistAccess(Long therapistId, AuthenticatedUser principal) {
+        if (principal == null || !(principal.isAdmin() || therapistId.equals(principal.getTherapistId()))) {
+            throw new AccessDeniedException("You can only export your own appointments.\n");
+        }
+    }
+
+    public void checkClientAccess(Long clientId, AuthenticatedUser principal) {
+        if (principal == null || !(principal.isAdmin() || clientId.equals(principal.getClientId()))) {
+            throw new AccessDeniedException("You can only export your own appointments.\n");
+        }
+    }
+
+    public void checkAdminAccess(AuthenticatedUser principal) {
+        if (principal == null || !principal.isAdmin()) {
+            throw new AccessDeniedException("Only an admin can export all appointments.\n");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportForTherapist(Long therapistId, LocalDateTime from, LocalDateTime to, ExportFormat format, OutputStream out) throws IOException {
+        return export("a.therapist_id = ?", therapistId, from, to, "a.start_time, a.id", format, out);
+    }
+
+    @Transactional(readOnly = true)
+    public long exportForClient(Long clientId, LocalDateTime from, LocalDateTime to, ExportFormat format, OutputStream out) throws IOException {
+        return export("a.client_id = ?", clientId, from, to, "a.start_time, a.id", format, out);
+    }
+
+    @Transactional(readOnly = true)
+    public long exportAll(LocalDateTime from, LocalDateTime to, ExportFormat format, OutputStream out) throws IOException {
+        return export(null, null, from, to, "a.id", format, out);
+    }
+
+    private long export(String ownerCondition, Long ownerId, LocalDateTime from, LocalDateTime to, String orderBy,
+                        ExportFormat format, OutputStream out) throws IOException {
+        List<String> conditions = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        if (ownerCondition != null) {
+            conditions.add(ownerCondition);
+            args.add(ownerId);
+        }
+        if (from != null) {
+            conditions.add("a.start_time >= ?");
+            args.add(from);
+        }
+        if (to != null) {
+            conditions.add("a.start_time < ?");
+            args.add(to);
+        }
+        String sql = SELECT + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions)) + " ORDER BY " + orderBy;
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        RowWriter rowWriter = format == ExportFormat.NDJSON ? new NdjsonRowWriter(writer) : new CsvRowWriter(writer);
+        long[] rows = new long[1];
+        try {
+            jdbcTemplate.query(sql, (RowCallbackHandler) resultSet -> {
+                try {
+                    rowWriter.write(resultSet);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            }, args.toArray());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        rowWriter.finish();
+        writer.flush();
+        return rows[0];
+    }
+
+    private interface RowWriter {
+        void write(ResultSet resultSet) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write(String.join(",", COLUMNS));
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(ResultSet resultSet) throws SQLException, IOException {
+            for (int i = 1; i <= COLUMNS.length; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                Object value = value(resultSet, i);
+                if (value instanceof String text) {
+                    writeText(text);
+                } else if (value != null) {
+                    writer.write(value.toString());
+                }
+            }
+            writer.write('\n');
+        }
+
+        private void writeText(String text) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < text.length() && !quote; i++) {
+                char c = text.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(text);
+                return;
+            }
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void finish() {
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ResultSet resultSet) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 1; i <= COLUMNS.length; i++) {
+                Object value = value(resultSet, i);
+                generator.writeFieldName(COLUMNS[i - 1]);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Long number) {
+                    generator.writeNumber(number);
+                } else if (value instanceof Integer number) {
+                    generator.writeNumber(number);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static Object value(ResultSet resultSet, int column) throws SQLException {
+        Object value = switch (column) {
+            case 1, 5, 7 -> resultSet.getLong(column);
+            case 2, 3, 10 -> resultSet.getObject(column, LocalDateTime.class);
+            case 11 -> resultSet.getInt(column);
+            default -> resultSet.getString(column);
+        };
+        return resultSet.wasNull() ? null : value;
+    }
+}
@@ -3,17 +3,29 @@ package com.psikolojikdanismanlik.randevusistemi.service;
 import com.psikolojikdanismanlik.randevusistemi.dto.request.AppointmentRequest;
 import com.psikolojikdanismanlik.randevusistemi.dto.request.RescheduleRequestDto;
 import com.psikolojikdanismanlik.randevusistemi.dto.response.AppointmentResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.CursorPage;
 import com.psikolojikdanismanlik.randevusistemi.entity.*;
-import com.psikolojikdanismanlik.randevusistemi.enums.Role;
 import com.psikolojikdanismanlik.randevusistemi.enums.Status;
+import com.psikolojikdanismanlik.randevusistemi.exception.InvalidCursorException;
+import com.psikolojikdanismanlik.randevusistemi.exception.SlotAlreadyBookedException;
+import com.psikolojikdanismanlik.randevusistemi.index.AvailabilityIndex;
+import com.psikolojikdanismanlik.randevusistemi.index.FreeBusyCalendar;
+import com.psikolojikdanismanlik.randevusistemi.index.RecurringSlots;
+import com.psikolojikdanismanlik.randevusistemi.mapper.AppointmentMapper;
+import com.psikolojikdanismanlik.randevusistemi.metrics.BookingMetrics;
 import com.psikolojikdanismanlik.randevusistemi.repository.*;
-import org.modelmapper.ModelMapper;
+import com.psikolojikdanismanlik.randevusistemi.repository.projection.AppointmentListView;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
+import com.psikolojikdanismanlik.randevusistemi.stream.SlotEventHub;
+import com.psikolojikdanismanlik.randevusistemi.util.CursorToken;
+import com.psikolojikdanismanlik.randevusistemi.util.WeeklyRecurrence;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import java.nio.file.AccessDeniedException;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 @Service
@@ -22,29 +34,58 @@ public class AppointmentService {
     private final AppointmentRepository appointmentRepository;
     private final ClientRepository clientRepository;
     private final AvailabilityRepository availabilityRepository;
-    private final ModelMapper modelMapper;
-    private final UserRepository userRepository;
+    private final AppointmentMapper appointmentMapper;
+    private final AvailabilityIndex availabilityIndex;
+    private final SlotEventHub slotEventHub;
+    private final FreeBusyCalendar freeBusyCalendar;
+    private final TherapistRepository therapistRepository;
+    private final RecurringSlots recurringSlots;
+    private final AvailabilityExceptionRepository availabilityExceptionRepository;
+    private final BookingMetrics bookingMetrics;
 
-    public AppointmentService(AppointmentRepository appointmentRepository, ClientRepository clientRepository, AvailabilityRepository availabilityRepository, ModelMapper modelMapper, UserRepository userRepository) {
+    public AppointmentService(AppointmentRepository appointmentRepository, ClientRepository clientRepository, AvailabilityRepository availabilityRepository, AppointmentMapper appointmentMapper, AvailabilityIndex availabilityIndex, SlotEventHub slotEventHub, FreeBusyCalendar freeBusyCalendar, TherapistRepository therapistRepository, RecurringSlots recurringSlots, AvailabilityExceptionRepository availabilityExceptionRepository, BookingMetrics bookingMetrics) {
         this.appointmentRepository = appointmentRepository;
         this.clientRepository = clientRepository;
-        this.userRepository = userRepository;
         this.availabilityRepository = availabilityRepository;
-        this.modelMapper = modelMapper;
+        this.appointmentMapper = appointmentMapper;
+        this.availabilityIndex = availabilityIndex;
+        this.slotEventHub = slotEventHub;
+        this.freeBusyCalendar = freeBusyCalendar;
+        this.therapistRepository = therapistRepository;
+        this.recurringSlots = recurringSlots;
+        this.availabilityExceptionRepository = availabilityExceptionRepository;
+        this.bookingMetrics = bookingMetrics;
     }
 
-    public AppointmentResponseDto createAppointment(AppointmentRequest request, String clientEmail) {
+    public AppointmentResponseDto createAppointment(AppointmentRequest request, AuthenticatedUser principal) {
+        long started = System.nanoTime();
+        BookingMetrics.Outcome outcome = BookingMetrics.Outcome.ERROR;
         try {
-            User user = userRepository.findByEmail(clientEmail).orElseThrow(() -> new RuntimeException("User not found."));
-            if (user.getRole() != Role.CLIENT) {
+            if (!principal.isClient()) {
+                outcome = BookingMetrics.Outcome.DENIED;
                 throw new RuntimeException("Only clients can create an appointment\n.");
             }
-            Client client = clientRepository.findByUserId(user.getId()).orElseThrow(() -> new RuntimeException("Client information not found."));
-            Availability availability = availabilityRepository.findById(request.getAvailabilityId())
-                    .orElseThrow(() -> new RuntimeException("Selected availability information not found\n."));
-            if (availability.isBooked()) {
-                throw new RuntimeException("This time slot is already booked.");
+            Client client = principal.getClientId() != null
+                    ? clientRepository.getReferenceById(principal.getClientId())
+                    : clientRepository.findByUserId(principal.getUserId()).orElseThrow(() -> new RuntimeException("Client information not found."));
+            Availability availability;
+            outcome = BookingMetrics.Outcome.UNAVAILABLE;
+            if (request.getAvailabilityId() != null) {
+                availability = availabilityRepository.findById(request.getAvailabilityId())
+                        .orElseThrow(() -> new RuntimeException("Selected availability information not found\n."));
+                if (isBlackedOut(availability.getTherapist().getId(), availability.getStartTime(), availability.getEndTime())) {
+                    throw new RuntimeException("The selected slot falls in a period the therapist is unavailable.\n");
+                }
+                if (availability.isBooked() || availabilityRepository.claimIfFree(availability.getId()) == 0) {
+                    throw new SlotAlreadyBookedException(availability.getId());
+                }
+            } else {
+                availability = claimRecurringSlot(request.getTherapistId(), request.getStartTime());
             }
+            outcome = BookingMetrics.Outcome.ERROR;
+            Long therapistId = availability.getTherapist().getId();
+            availabilityIndex.slotBooked(therapistId, availability.getId(), true);
+            freeBusyCalendar.invalidate(therapistId, availability.getStartTime(), availability.getEndTime());
             Appointment appointment = new Appointment();
             appointment.setClient(client);
             appointment.setTherapist(availability.getTherapist());
@@ -53,38 +94,73 @@ public class AppointmentService {
             appointment.setEndTime(availability.getEndTime());
             appointment.setStatus(Status.PENDING);
             appointment.setCreatedAt(LocalDateTime.now());
-            availability.setBooked(true);
-            availabilityRepository.save(availability);
-            appointmentRepository.save(appointment);
-            return modelMapper.map(appointment, AppointmentResponseDto.class);
+            try {
+                appointmentRepository.save(appointment);
+            } catch (DataIntegrityViolationException e) {
+                releaseSlot(availability);
+                throw new SlotAlreadyBookedException(availability.getId());
+            } catch (RuntimeException e) {
+                releaseSlot(availability);
+                throw e;
+            }
+            slotEventHub.slotBooked(availability, true);
+            outcome = BookingMetrics.Outcome.SUCCESS;
+            return appointmentMapper.toDto(appointment);
+        } catch (SlotAlreadyBookedException e) {
+            outcome = BookingMetrics.Outcome.CONFLICT;
+            throw e;
         } catch (RuntimeException e) {
             throw new RuntimeException("Could not create an appointment:\n " + e.getMessage());
         } catch (Exception e) {
             throw new RuntimeException("Error occured. " + e.getMessage());
+        } finally {
+            bookingMetrics.record(BookingMetrics.Endpoint.BOOK, outcome, started);
         }
     }
 
-    public AppointmentResponseDto updateStatus(Long id, Status status, String requesterEmail) throws AccessDeniedException {
+    public AppointmentResponseDto updateStatus(Long id, Status status, AuthenticatedUser principal) throws AccessDeniedException {
         try {
             Appointment appointment = appointmentRepository.findById(id)
                     .orElseThrow(() -> new RuntimeException("Appointment not found."));
 
-            String therapistEmailFromDb = appointment.getTherapist().getUser().getEmail();
-
-            User requester = userRepository.findByEmail(requesterEmail)
-                    .orElseThrow(() -> new RuntimeException("User not found."));
-
-            boolean isTherapistOwner = therapistEmailFromDb.equals(requesterEmail);
-            boolean isAdmin = requester.getRole() == Role.ADMIN;
+            boolean isTherapistOwner = principal.isOwnerOf(appointment.getTherapist());
+            boolean isAdmin = principal.isAdmin();
 
             if (!isTherapistOwner && !isAdmin) {
                 throw new AccessDeniedException("You do not have permission to update this appointment.\n");
             }
+            // The slot link stays on a cancelled appointment; only the move into or out of a cancellation frees or takes it.
+            Availability slot = appointment.getAvailability();
+            boolean releases = slot != null && isCancellation(status) && !isCancellation(appointment.getStatus());
+            boolean reclaims = slot != null && !isCancellation(status) && isCancellation(appointment.getStatus());
+            if (reclaims && availabilityRepository.claimIfFree(slot.getId()) == 0) {
+                throw new SlotAlreadyBookedException(slot.getId());
+            }
             appointment.setStatus(status);
-            Appointment updated = appointmentRepository.save(appointment);
-            return modelMapper.map(updated, AppointmentResponseDto.class);
+            Appointment updated;
+            try {
+                updated = appointmentRepository.save(appointment);
+            } catch (RuntimeException e) {
+                if (reclaims) {
+                    releaseSlot(slot);
+                }
+                if (reclaims && e instanceof DataIntegrityViolationException) {
+                    throw new SlotAlreadyBookedException(slot.getId());
+                }
+                throw e;
+            }
+            if (releases) {
+                releaseSlot(slot);
+            } else if (reclaims) {
+                availabilityIndex.slotBooked(slot.getTherapist().getId(), slot.getId(), true);
+                freeBusyCalendar.invalidate(slot.getTherapist().getId(), slot.getStartTime(), slot.getEndTime());
+                slotEventHub.slotBooked(slot, true);
+            } else if (updated.getStartTime() != null && updated.getEndTime() != null) {
+                freeBusyCalendar.invalidate(updated.getTherapist().getId(), updated.getStartTime(), updated.getEndTime());
+            }
+            return appointmentMapper.toDto(updated);
 
-        } catch (AccessDeniedException e) {
+        } catch (AccessDeniedException | SlotAlreadyBookedException e) {
             throw e;
         } catch (RuntimeException e) {
             throw new RuntimeException("An error occurred while updating the appointment status:\n " + e.getMessage());
@@ -93,56 +169,117 @@ public class AppointmentService {
         }
     }
 
-    public AppointmentResponseDto requestRescheduleByClient(Long appointmentId, RescheduleRequestDto request, String clientEmail) throws AccessDeniedException {
+    // A rule session becomes a booked row; the unique (therapist, start, end) constraint stops a second booking.
+    private Availability claimRecurringSlot(Long therapistId, LocalDateTime startTime) {
+        if (therapistId == null || startTime == null) {
+            throw new RuntimeException("Selected availability information not found\n.");
+        }
+        WeeklyRecurrence.Slot session = recurringSlots.slotStartingAt(therapistId, startTime)
+                .orElseThrow(() -> new RuntimeException("Selected availability information not found\n."));
+        if (!recurringSlots.isOpen(therapistId, session)) {
+            throw new SlotAlreadyBookedException(null);
+        }
+        Availability availability = new Availability();
+        availability.setTherapist(therapistRepository.findById(therapistId)
+                .orElseThrow(() -> new RuntimeException("Therapist not found.")));
+        availability.setStartTime(session.startTime());
+        availability.setEndTime(session.endTime());
+        availability.setBooked(true);
+        try {
+            availability = availabilityRepository.saveAndFlush(availability);
+        } catch (DataIntegrityViolationException e) {
+            throw new SlotAlreadyBookedException(null);
+        }
+        availabilityIndex.slotAdded(availability);
+        return availability;
+    }
+
+    private boolean isBlackedOut(Long therapistId, LocalDateTime startTime, LocalDateTime endTime) {
+        return availabilityExceptionRepository.existsByTherapistIdAndStartTimeLessThanAndEndTimeGreaterThan(therapistId, endTime, startTime);
+    }
+
+    private void releaseSlot(Availability availability) {
+        availabilityRepository.release(availability.getId());
+        availabilityIndex.slotBooked(availability.getTherapist().getId(), availability.getId(), false);
+        freeBusyCalendar.invalidate(availability.getTherapist().getId(), availability.getStartTime(), availability.getEndTime());
+        slotEventHub.slotBooked(availability, false);
+    }
+
+    private boolean isCancellation(Status status) {
+        return status == Status.CANCELLED_BY_CLIENT || status == Status.CANCELLED_BY_THERAPIST;
+    }
+
+    public AppointmentResponseDto requestRescheduleByClient(Long appointmentId, RescheduleRequestDto request, AuthenticatedUser principal) throws AccessDeniedException {
+        long started = System.nanoTime();
+        BookingMetrics.Outcome outcome = BookingMetrics.Outcome.ERROR;
         try {
             Appointment appointment = appointmentRepository.findById(appointmentId)
                     .orElseThrow(() -> new RuntimeException("Appointment not found"));
-            String emailFromDb = appointment.getClient().getUser().getEmail();
-            if (!emailFromDb.equals(clientEmail)) {
+            if (!principal.isOwnerOf(appointment.getClient())) {
                 throw new AccessDeniedException("You are not authorized to reschedule this appointment.\n");}
             if (request.getNewTime() == null) {
                 throw new RuntimeException("The new requested time cannot be empty.\n");}
             LocalDateTime endTime = request.getNewTime().plusHours(1);
-            boolean isAvailable = availabilityRepository
-                    .existsByTherapistAndStartTimeLessThanEqualAndEndTimeGreaterThanEqualAndBookedFalse(
-                            appointment.getTherapist(), request.getNewTime(), endTime
-                    );
+            boolean isAvailable = availabilityIndex.hasFreeSlotCovering(
+                    appointment.getTherapist().getId(), request.getNewTime(), endTime,
+                    () -> availabilityRepository
+                            .existsByTherapistAndStartTimeLessThanEqualAndEndTimeGreaterThanEqualAndBookedFalse(
+                                    appointment.getTherapist(), request.getNewTime(), endTime
+                            ))
+                    || recurringSlots.openSlotCovering(appointment.getTherapist().getId(), request.getNewTime(), endTime).isPresent();
+            isAvailable = isAvailable && !isBlackedOut(appointment.getTherapist().getId(), request.getNewTime(), endTime);
             if (!isAvailable) {
+                outcome = BookingMetrics.Outcome.UNAVAILABLE;
                 throw new RuntimeException("The new requested time is not suitable for the therapist.\n");}
             appointment.setStatus(Status.RESCHEDULE_REQUESTED_BY_CLIENT);
             appointment.setRequestedRescheduleTime(request.getNewTime());
             Appointment updated = appointmentRepository.save(appointment);
-            return modelMapper.map(updated, AppointmentResponseDto.class);
+            outcome = BookingMetrics.Outcome.SUCCESS;
+            return appointmentMapper.toDto(updated);
 
         } catch (AccessDeniedException e) {
+            outcome = BookingMetrics.Outcome.DENIED;
             throw e;
         } catch (RuntimeException e) {
             throw new RuntimeException("An error occurred during the appointment rescheduling request:\n " + e.getMessage());
         } catch (Exception e) {
             throw new RuntimeException("Error occurred: " + e.getMessage());
+        } finally {
+            bookingMetrics.record(BookingMetrics.Endpoint.RESCHEDULE, outcome, started);
         }
     }
 
-    public Page<AppointmentResponseDto> getAppointmentsByClientId(Long clientId, Pageable pageable, String clientEmail) {
+    public Page<AppointmentResponseDto> getAppointmentsByClientId(Long clientId, Pageable pageable, AuthenticatedUser principal) {
         try {
-            User user = userRepository.findByEmail(clientEmail)
-                    .orElseThrow(() -> new RuntimeException("User not found."));
+            checkClientAccess(clientId, principal);
 
-            if (!user.getRole().equals(Role.CLIENT)) {
-                throw new AccessDeniedException("Only clients can view their own appointments.\n");
-            }
+            Page<AppointmentListView> page = appointmentRepository.findListByClientId(clientId, pageable);
 
-            Client client = clientRepository.findById(clientId)
-                    .orElseThrow(() -> new RuntimeException("Client not found."));
+            return page.map(appointmentMapper::toDto);
 
-            if (!client.getUser().getEmail().equals(clientEmail)) {
-                throw new AccessDeniedException("You can only view your own appointments.\n");
-            }
+        } catch (AccessDeniedException e) {
+            throw new RuntimeException("Unauthorized access:\n " + e.getMessage());
+        } catch (Exception e) {
+            throw new RuntimeException("An error occurred while fetching appointments:\n " + e.getMessage());
+        }
+    }
+
+    public CursorPage<AppointmentResponseDto> getAppointmentTimelineByClientId(Long clientId, String cursor, int size, AuthenticatedUser principal) {
+        try {
+            checkClientAccess(clientId, principal);
 
-            Page<Appointment> page = appointmentRepository.findByClientId(clientId, pageable);
+            CursorToken after = CursorToken.decode(cursor);
+            int pageSize = CursorToken.clampSize(size);
+            Limit limit = Limit.of(pageSize + 1);
+            List<AppointmentListView> rows = after == null
+                    ? appointmentRepository.findTimelineByClientId(clientId, limit)
+                    : appointmentRepository.findTimelineByClientIdBefore(clientId, after.startTime(), after.id(), limit);
 
-            return page.map(this::mapToDto);
+            return CursorPage.of(rows, pageSize, appointmentMapper::toDto,
+                    row -> new CursorToken(row.getStartTime(), row.getId()).encode());
 
+        } catch (InvalidCursorException e) {
+            throw e;
         } catch (AccessDeniedException e) {
             throw new RuntimeException("Unauthorized access:\n " + e.getMessage());
         } catch (Exception e) {
@@ -150,39 +287,29 @@ public class AppointmentService {
         }
     }
 
-    private AppointmentResponseDto mapToDto(Appointment appointment) {
-        AppointmentResponseDto dto = new AppointmentResponseDto();
-        dto.setId(appointment.getId());
-        dto.setTherapistId(appointment.getTherapist() != null ? appointment.getTherapist().getId() : null);
-        dto.setClientId(appointment.getClient() != null ? appointment.getClient().getId() : null);
-        dto.setStartTime(appointment.getStartTime());
-        dto.setCreatedDate(appointment.getCreatedDate());
-        dto.setStatus(String.valueOf(appointment.getStatus()));
-
-        if (appointment.getTherapist() != null && appointment.getTherapist().getUser() != null) {
-            dto.setTherapistName(appointment.getTherapist().getUser().getFullName());
-        } else {
-            dto.setTherapistName("N/A");
+    private void checkClientAccess(Long clientId, AuthenticatedUser principal) throws AccessDeniedException {
+        if (!principal.isClient()) {
+            throw new AccessDeniedException("Only clients can view their own appointments.\n");
         }
 
-        if (appointment.getStartTime() != null) {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
-            dto.setFormattedStartTime(appointment.getStartTime().format(formatter));
-        } else {
-            dto.setFormattedStartTime("Unknown");
-        }
+        boolean isOwner = principal.getClientId() != null
+                ? principal.getClientId().equals(clientId)
+                : principal.isOwnerOf(clientRepository.findById(clientId)
+                        .orElseThrow(() -> new RuntimeException("Client not found.")));
 
-        return dto;
+        if (!isOwner) {
+            throw new AccessDeniedException("You can only view your own appointments.\n");
+        }
     }
 
     public List<AppointmentResponseDto> getFutureAppointmentsByClientId(Long clientId) {
         try {
             LocalDateTime now = LocalDateTime.now();
-            List<Appointment> appointments = appointmentRepository
-                    .findByClientIdAndStartTimeAfterOrderByStartTimeAsc(clientId, now);
+            List<AppointmentListView> appointments = appointmentRepository
+                    .findUpcomingListByClientId(clientId, now);
 
             return appointments.stream()
-                    .map(this::mapToDto)
+                    .map(appointmentMapper::toDto)
                     .toList();
         } catch (Exception e) {
             throw new RuntimeException("An error occurred while fetching upcoming appointments:\n " + e.getMessage());
@@ -193,11 +320,11 @@ public class AppointmentService {
     public List<AppointmentResponseDto> getPastAppointmentsByClientId(Long clientId) {
         try {
             LocalDateTime now = LocalDateTime.now();
-            List<Appointment> appointments = appointmentRepository
-                    .findByClientIdAndEndTimeBeforeOrderByStartTimeDesc(clientId, now);
+            List<AppointmentListView> appointments = appointmentRepository
+                    .findPastListByClientId(clientId, now);
 
             return appointments.stream()
-                    .map(this::mapToDto)
+                    .map(appointmentMapper::toDto)
                     .toList();
         } catch (Exception e) {
             throw new RuntimeException("An error occurred while retrieving past appointments:\n " + e.getMessage());
@@ -0,0 +1,211 @@
+package com.psikolojikdanismanlik.randevusistemi.service;
+
+import com.psikolojikdanismanlik.randevusistemi.dto.response.AvailabilityImportResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.AvailabilityResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
+import com.psikolojikdanismanlik.randevusistemi.exception.InvalidCalendarFileException;
+import com.psikolojikdanismanlik.randevusistemi.exception.ScheduleChangedException;
+import com.psikolojikdanismanlik.randevusistemi.index.AvailabilityIndex;
+import com.psikolojikdanismanlik.randevusistemi.index.FreeBusyCalendar;
+import com.psikolojikdanismanlik.randevusistemi.mapper.AvailabilityMapper;
+import com.psikolojikdanismanlik.randevusistemi.repository.AvailabilityRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.IdAllocator;
+import com.psikolojikdanismanlik.randevusistemi.repository.TherapistRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.projection.AvailabilitySlotView;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
+import com.psikolojikdanismanlik.randevusistemi.stream.SlotEventHub;
+import com.psikolojikdanismanlik.randevusistemi.util.IcsReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Replaces a therapist's slots in the time span of an uploaded iCalendar file with the file's events. Slots with the
+ * same start and end are kept, missing unbooked ones are deleted and new events are inserted, all in JDBC batches in
+ * one transaction. Booked slots are never deleted, and slots outside the span of the file are not touched.
+ */
+@Service
+public class AvailabilityImportService {
+
+    private static final String DETACH = "UPDATE appointments SET availability_id = NULL WHERE availability_id = ? "
+            + "AND status IN ('CANCELLED_BY_CLIENT', 'CANCELLED_BY_THERAPIST')";
+    private static final String DELETE = "DELETE FROM availabilities WHERE id = ? AND booked = FALSE";
+
+    private final TherapistRepository therapistRepository;
+    private final AvailabilityRepository availabilityRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final FreeBusyCalendar freeBusyCalendar;
+    private final SlotEventHub slotEventHub;
+    private final AvailabilityMapper availabilityMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final IdAllocator idAllocator;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxEvents;
+    private final int batchSize;
+
+    private record Plan(List<AvailabilitySlotView> deletes, List<IcsReader.Event> inserts, int unchanged,
+                        List<AvailabilityResponseDto> refused, List<AvailabilityResponseDto> conflicts) {
+    }
+
+    public AvailabilityImportService(TherapistRepository therapistRepository, AvailabilityRepository availabilityRepository,
+                                     AvailabilityIndex availabilityIndex, FreeBusyCalendar freeBusyCalendar,
+                                     SlotEventHub slotEventHub, AvailabilityMapper availabilityMapper,
+                                     JdbcTemplate jdbcTemplate, IdAllocator idAllocator, PlatformTransactionManager transactionManager,
+                                     @Value("${app.availability.import.max-events:20000}") int maxEvents,
+                                     @Value("${app.availability.batch-size:500}") int batchSize) {
+        this.therapistRepository = therapistRepository;
+        this.availabilityRepository = availabilityRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.freeBusyCalendar = freeBusyCalendar;
+        this.slotEventHub = slotEventHub;
+        this.availabilityMapper = availabilityMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxEvents = maxEvents;
+        this.batchSize = batchSize;
+    }
+
+    public AvailabilityImportResponseDto importCalendar(Long therapistId, MultipartFile file, AuthenticatedUser principal) throws AccessDeniedException {
+        try {
+            Therapist therapist = therapistRepository.findById(therapistId)
+                    .orElseThrow(() -> new RuntimeException("Therapist not found."));
+            if (principal == null || !(principal.isAdmin() || principal.isOwnerOf(therapist))) {
+                throw new AccessDeniedException("Only the therapist or the admin can import availability.\n");
+            }
+            if (file == null || file.isEmpty()) {
+                throw new InvalidCalendarFileException("The calendar file is empty.");
+            }
+
+            List<IcsReader.Event> events = new ArrayList<>();
+            int ignored;
+            try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+                ignored = IcsReader.read(reader, ZoneId.systemDefault(), event -> {
+                    if (events.size() == maxEvents) {
+                        throw new InvalidCalendarFileException("The calendar has more than " + maxEvents + " events.");
+                    }
+                    events.add(event);
+                });
+            }
+            events.sort(Comparator.comparing(IcsReader.Event::startTime).thenComparing(IcsReader.Event::endTime));
+            int parsed = events.size();
+            if (events.isEmpty()) {
+                return new AvailabilityImportResponseDto(0, ignored, 0, 0, 0, List.of(), List.of());
+            }
+            LocalDateTime from = events.get(0).startTime();
+            LocalDateTime to = events.stream().map(IcsReader.Event::endTime).max(Comparator.naturalOrder()).orElseThrow();
+
+            Plan plan = transactionTemplate.execute(status -> apply(therapistId, events, from, to));
+            if (!plan.deletes().isEmpty() || !plan.inserts().isEmpty()) {
+                availabilityIndex.invalidate(therapistId);
+                freeBusyCalendar.invalidate(therapistId, from, to);
+                slotEventHub.resync(therapistId);
+            }
+            return new AvailabilityImportResponseDto(parsed, ignored, plan.inserts().size(), plan.deletes().size(),
+                    plan.unchanged(), plan.refused(), plan.conflicts());
+
+        } catch (AccessDeniedException | InvalidCalendarFileException | ScheduleChangedException e) {
+            throw e;
+        } catch (DataIntegrityViolationException e) {
+            throw new ScheduleChangedException();
+        } catch (IOException e) {
+            throw new RuntimeException("An error occurred while reading the calendar file: " + e.getMessage());
+        } catch (RuntimeException e) {
+            throw new RuntimeException("An error occurred while importing the calendar:\n " + e.getMessage());
+        }
+    }
+
+    private Plan apply(Long therapistId, List<IcsReader.Event> events, LocalDateTime from, LocalDateTime to) {
+        Set<IcsReader.Event> wanted = new HashSet<>(events);
+        Set<IcsReader.Event> present = new HashSet<>();
+        NavigableMap<LocalDateTime, List<AvailabilitySlotView>> kept = new TreeMap<>();
+        Duration longest = Duration.ZERO;
+        List<AvailabilitySlotView> deletes = new ArrayList<>();
+        List<AvailabilityResponseDto> refused = new ArrayList<>();
+        for (AvailabilitySlotView slot : availabilityRepository
+                .findSlotsByTherapistIdAndStartTimeLessThanAndEndTimeGreaterThanOrderByStartTimeAsc(therapistId, to, from)) {
+            IcsReader.Event same = new IcsReader.Event(slot.getStartTime(), slot.getEndTime());
+            if (!wanted.contains(same) && !slot.isBooked()) {
+                deletes.add(slot);
+                continue;
+            }
+            if (wanted.contains(same)) {
+                present.add(same);
+            } else {
+                refused.add(availabilityMapper.toDto(slot, therapistId));
+            }
+            kept.computeIfAbsent(slot.getStartTime(), start -> new ArrayList<>()).add(slot);
+            Duration length = Duration.between(slot.getStartTime(), slot.getEndTime());
+            longest = length.compareTo(longest) > 0 ? length : longest;
+        }
+
+        List<IcsReader.Event> inserts = new ArrayList<>();
+        List<AvailabilityResponseDto> conflicts = new ArrayList<>();
+        LocalDateTime insertedUntil = LocalDateTime.MIN;
+        IcsReader.Event previous = null;
+        for (IcsReader.Event event : events) {
+            if (event.equals(previous) || present.contains(event)) {
+                previous = event;
+                continue;
+            }
+            previous = event;
+            boolean overlaps = event.startTime().isBefore(insertedUntil);
+            // Only kept slots starting less than the longest kept slot before this event can reach into it.
+            for (Map.Entry<LocalDateTime, List<AvailabilitySlotView>> entry
+                    : kept.subMap(event.startTime().minus(longest), false, event.endTime(), false).entrySet()) {
+                for (AvailabilitySlotView slot : entry.getValue()) {
+                    overlaps |= slot.getEndTime().isAfter(event.startTime());
+                }
+            }
+            if (overlaps) {
+                conflicts.add(new AvailabilityResponseDto(null, therapistId, event.startTime(), event.endTime(), false));
+            } else {
+                inserts.add(event);
+                insertedUntil = event.endTime().isAfter(insertedUntil) ? event.endTime() : insertedUntil;
+            }
+        }
+
+        jdbcTemplate.batchUpdate(DETACH, deletes, batchSize, (statement, slot) -> statement.setLong(1, slot.getId()));
+        int[][] deleted = jdbcTemplate.batchUpdate(DELETE, deletes, batchSize,
+                (statement, slot) -> statement.setLong(1, slot.getId()));
+        for (int[] batch : deleted) {
+            for (int count : batch) {
+                if (count == 0) {
+                    // The slot was booked after it was read; inserts planned around its absence are rolled back.
+                    throw new ScheduleChangedException();
+                }
+            }
+        }
+        PrimitiveIterator.OfLong ids = idAllocator.allocate(RecurringAvailabilityService.SEQUENCE, inserts.size());
+        jdbcTemplate.batchUpdate(RecurringAvailabilityService.INSERT, inserts, batchSize, (statement, event) -> {
+            statement.setLong(1, ids.nextLong());
+            statement.setLong(2, therapistId);
+            statement.setTimestamp(3, Timestamp.valueOf(event.startTime()));
+            statement.setTimestamp(4, Timestamp.valueOf(event.endTime()));
+        });
+        return new Plan(deletes, inserts, present.size(), refused, conflicts);
+    }
+}
@@ -0,0 +1,162 @@
+package com.psikolojikdanismanlik.randevusistemi.service;
+
+import com.psikolojikdanismanlik.randevusistemi.dto.request.AvailabilityExceptionRequest;
+import com.psikolojikdanismanlik.randevusistemi.dto.request.RecurringAvailabilityRequest;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.AvailabilityExceptionResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.AvailabilityRuleResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.entity.AvailabilityException;
+import com.psikolojikdanismanlik.randevusistemi.entity.AvailabilityRule;
+import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
+import com.psikolojikdanismanlik.randevusistemi.exception.InvalidDateRangeException;
+import com.psikolojikdanismanlik.randevusistemi.exception.InvalidRecurrenceException;
+import com.psikolojikdanismanlik.randevusistemi.index.RecurringSlots;
+import com.psikolojikdanismanlik.randevusistemi.mapper.AvailabilityMapper;
+import com.psikolojikdanismanlik.randevusistemi.repository.AvailabilityExceptionRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.AvailabilityRuleRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.TherapistRepository;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
+import com.psikolojikdanismanlik.randevusistemi.stream.SlotEventHub;
+import com.psikolojikdanismanlik.randevusistemi.util.WeeklyRecurrence;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.AccessDeniedException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores weekly availability rules and their exceptions. Sessions are generated from them at read time by
+ * {@link RecurringSlots}; nothing is materialized here. Exceptions double as blackout periods (e.g. a vacation):
+ * they also hide the unbooked slots they overlap.
+ */
+@Service
+public class AvailabilityRuleService {
+
+    private final TherapistRepository therapistRepository;
+    private final AvailabilityRuleRepository availabilityRuleRepository;
+    private final AvailabilityExceptionRepository availabilityExceptionRepository;
+    private final AvailabilityMapper availabilityMapper;
+    private final RecurringSlots recurringSlots;
+    private final SlotEventHub slotEventHub;
+
+    public AvailabilityRuleService(TherapistRepository therapistRepository, AvailabilityRuleRepository availabilityRuleRepository,
+                                   AvailabilityExceptionRepository availabilityExceptionRepository, AvailabilityMapper availabilityMapper,
+                                   RecurringSlots recurringSlots, SlotEventHub slotEventHub) {
+        this.therapistRepository = therapistRepository;
+        this.availabilityRuleRepository = availabilityRuleRepository;
+        this.availabilityExceptionRepository = availabilityExceptionRepository;
+        this.availabilityMapper = availabilityMapper;
+        this.recurringSlots = recurringSlots;
+        this.slotEventHub = slotEventHub;
+    }
+
+    public List<AvailabilityRuleResponseDto> addRules(Long therapistId, RecurringAvailabilityRequest request, AuthenticatedUser principal) throws AccessDeniedException {
+        try {
+            Therapist therapist = ownedTherapist(therapistId, principal);
+            WeeklyRecurrence recurrence = RecurringAvailabilityService.toRecurrence(request);
+
+            List<AvailabilityRule> rules = new ArrayList<>();
+            for (WeeklyRecurrence.Window window : recurrence.windows()) {
+                rules.add(new AvailabilityRule(null, therapist, window.dayOfWeek(), window.startTime(), window.endTime(),
+                        recurrence.sessionMinutes(), recurrence.breakMinutes(), recurrence.startDate(), recurrence.endDate()));
+            }
+            List<AvailabilityException> skippedDays = new ArrayList<>();
+            for (LocalDate day : recurrence.skippedDates()) {
+                skippedDays.add(new AvailabilityException(null, therapist, day.atStartOfDay(), day.plusDays(1).atStartOfDay(), null));
+            }
+            List<AvailabilityRule> saved = availabilityRuleRepository.saveAll(rules);
+            availabilityExceptionRepository.saveAll(skippedDays);
+            rulesChanged(therapistId);
+            return saved.stream().map(availabilityMapper::toDto).toList();
+
+        } catch (AccessDeniedException | InvalidRecurrenceException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new RuntimeException("An error occurred while adding availability rules:\n " + e.getMessage());
+        }
+    }
+
+    public List<AvailabilityRuleResponseDto> getRules(Long therapistId) {
+        try {
+            return availabilityRuleRepository.findByTherapistIdOrderByIdAsc(therapistId).stream()
+                    .map(availabilityMapper::toDto)
+                    .toList();
+        } catch (Exception e) {
+            throw new RuntimeException("An error occurred while retrieving availability rules: " + e.getMessage());
+        }
+    }
+
+    public void deleteRule(Long therapistId, Long ruleId, AuthenticatedUser principal) throws AccessDeniedException {
+        try {
+            ownedTherapist(therapistId, principal);
+            AvailabilityRule rule = availabilityRuleRepository.findById(ruleId)
+                    .filter(found -> found.getTherapist().getId().equals(therapistId))
+                    .orElseThrow(() -> new RuntimeException("Availability rule not found."));
+            availabilityRuleRepository.delete(rule);
+            rulesChanged(therapistId);
+
+        } catch (AccessDeniedException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new RuntimeException("An error occurred while deleting the availability rule: " + e.getMessage());
+        }
+    }
+
+    public AvailabilityExceptionResponseDto addException(Long therapistId, AvailabilityExceptionRequest request, AuthenticatedUser principal) throws AccessDeniedException {
+        try {
+            Therapist therapist = ownedTherapist(therapistId, principal);
+            if (request.getStartTime() == null || request.getEndTime() == null || !request.getStartTime().isBefore(request.getEndTime())) {
+                throw new InvalidDateRangeException("The exception must start before it ends.");
+            }
+            AvailabilityException saved = availabilityExceptionRepository.save(
+                    new AvailabilityException(null, therapist, request.getStartTime(), request.getEndTime(), request.getReason()));
+            rulesChanged(therapistId);
+            return availabilityMapper.toDto(saved);
+
+        } catch (AccessDeniedException | InvalidDateRangeException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new RuntimeException("An error occurred while adding the availability exception: " + e.getMessage());
+        }
+    }
+
+    public List<AvailabilityExceptionResponseDto> getExceptions(Long therapistId) {
+        try {
+            return availabilityExceptionRepository.findByTherapistIdOrderByStartTimeAsc(therapistId).stream()
+                    .map(availabilityMapper::toDto)
+                    .toList();
+        } catch (Exception e) {
+            throw new RuntimeException("An error occurred while retrieving availability exceptions: " + e.getMessage());
+        }
+    }
+
+    public void deleteException(Long therapistId, Long exceptionId, AuthenticatedUser principal) throws AccessDeniedException {
+        try {
+            ownedTherapist(therapistId, principal);
+            AvailabilityException exception = availabilityExceptionRepository.findById(exceptionId)
+                    .filter(found -> found.getTherapist().getId().equals(therapistId))
+                    .orElseThrow(() -> new RuntimeException("Availability exception not found."));
+            availabilityExceptionRepository.delete(exception);
+            rulesChanged(therapistId);
+
+        } catch (AccessDeniedException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new RuntimeException("An error occurred while deleting the availability exception: " + e.getMessage());
+        }
+    }
+
+    private Therapist ownedTherapist(Long therapistId, AuthenticatedUser principal) throws AccessDeniedException {
+        Therapist therapist = therapistRepository.findById(therapistId)
+                .orElseThrow(() -> new RuntimeException("Therapist not found."));
+        if (principal == null || !(principal.isAdmin() || principal.isOwnerOf(therapist))) {
+            throw new AccessDeniedException("Only the therapist or the admin can change availability rules.\n");
+        }
+        return therapist;
+    }
+
+    private void rulesChanged(Long therapistId) {
+        recurringSlots.invalidate(therapistId);
+        slotEventHub.resync(therapistId);
+    }
+}
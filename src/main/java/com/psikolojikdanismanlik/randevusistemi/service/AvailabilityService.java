@@ -1,40 +1,97 @@
 package com.psikolojikdanismanlik.randevusistemi.service;
 
 import com.psikolojikdanismanlik.randevusistemi.dto.request.AvailabilityRequest;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.AvailabilityRangeDeletionResponseDto;
 import com.psikolojikdanismanlik.randevusistemi.dto.response.AvailabilityResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.AvailableSlotDto;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.CursorPage;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.FreeBusyResponseDto;
 import com.psikolojikdanismanlik.randevusistemi.entity.Availability;
 import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
-import com.psikolojikdanismanlik.randevusistemi.entity.User;
-import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import com.psikolojikdanismanlik.randevusistemi.exception.InvalidCursorException;
+import com.psikolojikdanismanlik.randevusistemi.exception.InvalidDateRangeException;
+import com.psikolojikdanismanlik.randevusistemi.exception.SlotAlreadyBookedException;
+import com.psikolojikdanismanlik.randevusistemi.index.AvailabilityIndex;
+import com.psikolojikdanismanlik.randevusistemi.index.FreeBusyCalendar;
+import com.psikolojikdanismanlik.randevusistemi.index.RecurringSlots;
+import com.psikolojikdanismanlik.randevusistemi.mapper.AvailabilityMapper;
+import com.psikolojikdanismanlik.randevusistemi.repository.AvailabilityExceptionRepository;
 import com.psikolojikdanismanlik.randevusistemi.repository.AvailabilityRepository;
 import com.psikolojikdanismanlik.randevusistemi.repository.TherapistRepository;
-import com.psikolojikdanismanlik.randevusistemi.repository.UserRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.projection.AvailabilitySlotView;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
+import com.psikolojikdanismanlik.randevusistemi.stream.SlotEventHub;
+import com.psikolojikdanismanlik.randevusistemi.util.CursorToken;
+import com.psikolojikdanismanlik.randevusistemi.util.WeeklyRecurrence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.nio.file.AccessDeniedException;
+import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
 
 @Service
 public class AvailabilityService {
 
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityService.class);
+
     private final AvailabilityRepository availabilityRepository;
     private final TherapistRepository therapistRepository;
-    private final UserRepository userRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final AvailabilityMapper availabilityMapper;
+    private final SlotEventHub slotEventHub;
+    private final FreeBusyCalendar freeBusyCalendar;
+    private final RecurringSlots recurringSlots;
+    private final AvailabilityExceptionRepository availabilityExceptionRepository;
+    private final int freeBusyMaxDays;
+    private final int slotSearchMaxDays;
+    private final int slotSearchMaxResults;
+    private final int rulesHorizonDays;
 
 
-    public AvailabilityService(AvailabilityRepository availabilityRepository, TherapistRepository therapistRepository, UserRepository userRepository) {
+    public AvailabilityService(AvailabilityRepository availabilityRepository, TherapistRepository therapistRepository, AvailabilityIndex availabilityIndex, AvailabilityMapper availabilityMapper, SlotEventHub slotEventHub, FreeBusyCalendar freeBusyCalendar, RecurringSlots recurringSlots,
+                               AvailabilityExceptionRepository availabilityExceptionRepository,
+                               @Value("${app.free-busy.max-days:120}") int freeBusyMaxDays,
+                               @Value("${app.slot-search.max-days:90}") int slotSearchMaxDays,
+                               @Value("${app.slot-search.max-results:50}") int slotSearchMaxResults,
+                               @Value("${app.availability.rules.horizon-days:90}") int rulesHorizonDays) {
         this.availabilityRepository = availabilityRepository;
         this.therapistRepository = therapistRepository;
-        this.userRepository = userRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.availabilityMapper = availabilityMapper;
+        this.slotEventHub = slotEventHub;
+        this.freeBusyCalendar = freeBusyCalendar;
+        this.recurringSlots = recurringSlots;
+        this.availabilityExceptionRepository = availabilityExceptionRepository;
+        this.freeBusyMaxDays = freeBusyMaxDays;
+        this.slotSearchMaxDays = slotSearchMaxDays;
+        this.slotSearchMaxResults = slotSearchMaxResults;
+        this.rulesHorizonDays = rulesHorizonDays;
     }
 
-    public Availability addAvailability(Long therapistId, AvailabilityRequest request, String requesterEmail) throws AccessDeniedException {
-        try {
-            User user = userRepository.findByEmail(requesterEmail)
-                    .orElseThrow(() -> new RuntimeException("User not found."));
+    public SseEmitter subscribeToSlotEvents(Long therapistId) {
+        return slotEventHub.subscribe(therapistId);
+    }
 
-            if (user.getRole() != Role.ADMIN && user.getRole() != Role.THERAPIST) {
+    public Availability addAvailability(Long therapistId, AvailabilityRequest request, AuthenticatedUser principal) throws AccessDeniedException {
+        try {
+            if (!principal.isAdmin() && !principal.isTherapist()) {
                 throw new AccessDeniedException("Only the therapist or the admin can add availability.\n");
             }
 
@@ -46,7 +103,11 @@ public class AvailabilityService {
             availability.setStartTime(request.getStartTime());
             availability.setEndTime(request.getEndTime());
 
-            return availabilityRepository.save(availability);
+            Availability saved = availabilityRepository.save(availability);
+            availabilityIndex.slotAdded(saved);
+            freeBusyCalendar.invalidate(therapistId, saved.getStartTime(), saved.getEndTime());
+            slotEventHub.slotAdded(saved);
+            return saved;
 
         } catch (AccessDeniedException e) {
             throw e;
@@ -57,15 +118,15 @@ public class AvailabilityService {
         }
     }
 
-
-    public void deleteAvailability(Long therapistId, Long availabilityId, String therapistEmail) throws AccessDeniedException {
+    @Transactional
+    public void deleteAvailability(Long therapistId, Long availabilityId, AuthenticatedUser principal) throws AccessDeniedException {
         try {
-            Therapist therapist = therapistRepository.findById(therapistId)
-                    .orElseThrow(() -> new RuntimeException("Therapist not found."));
+            boolean isOwner = principal.getTherapistId() != null
+                    ? principal.getTherapistId().equals(therapistId)
+                    : principal.isOwnerOf(therapistRepository.findById(therapistId)
+                            .orElseThrow(() -> new RuntimeException("Therapist not found.")));
 
-            String emailFromDb = therapist.getUser().getEmail();
-
-            if (!emailFromDb.equals(therapistEmail)) {
+            if (!isOwner) {
                 throw new AccessDeniedException("You do not have permission to delete this availability.\n");
             }
 
@@ -76,9 +137,15 @@ public class AvailabilityService {
                 throw new AccessDeniedException("You do not have permission to delete this availability.\n");
             }
 
-            availabilityRepository.delete(availability);
+            availabilityRepository.detachCancelledAppointments(availabilityId);
+            if (availabilityRepository.deleteIfFree(availabilityId) == 0) {
+                throw new SlotAlreadyBookedException(availabilityId);
+            }
+            availabilityIndex.slotRemoved(therapistId, availabilityId);
+            freeBusyCalendar.invalidate(therapistId, availability.getStartTime(), availability.getEndTime());
+            slotEventHub.slotDeleted(therapistId, availabilityId);
 
-        } catch (AccessDeniedException e) {
+        } catch (AccessDeniedException | SlotAlreadyBookedException e) {
             throw e;
         } catch (RuntimeException e) {
             throw new RuntimeException("An error occurred while deleting availability: " + e.getMessage());
@@ -87,29 +154,155 @@ public class AvailabilityService {
         }
     }
 
+    // One set-based DELETE for every unbooked slot overlapping [from, to); booked ones are left and returned.
+    @Transactional
+    public AvailabilityRangeDeletionResponseDto deleteAvailabilitiesBetween(Long therapistId, LocalDateTime from, LocalDateTime to,
+                                                                            AuthenticatedUser principal) throws AccessDeniedException {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new InvalidDateRangeException("The range must start before it ends.");
+        }
+        try {
+            Therapist therapist = therapistRepository.findById(therapistId)
+                    .orElseThrow(() -> new RuntimeException("Therapist not found."));
+            if (principal == null || !(principal.isAdmin() || principal.isOwnerOf(therapist))) {
+                throw new AccessDeniedException("You do not have permission to delete this availability.\n");
+            }
+
+            availabilityRepository.detachCancelledAppointmentsBetween(therapistId, from, to);
+            int deleted = availabilityRepository.deleteUnbookedBetween(therapistId, from, to);
+            List<AvailabilityResponseDto> booked = availabilityRepository
+                    .findSlotsByTherapistIdAndBookedTrueAndStartTimeLessThanAndEndTimeGreaterThanOrderByStartTimeAsc(therapistId, to, from)
+                    .stream()
+                    .map(slot -> availabilityMapper.toDto(slot, therapistId))
+                    .toList();
+            if (deleted > 0) {
+                availabilityIndex.invalidate(therapistId);
+                freeBusyCalendar.invalidate(therapistId, from, to);
+                slotEventHub.resync(therapistId);
+            }
+            return new AvailabilityRangeDeletionResponseDto(deleted, booked);
+
+        } catch (AccessDeniedException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new RuntimeException("An error occurred while deleting availability: " + e.getMessage());
+        }
+    }
+
     public boolean isTherapistAvailableOn(Long therapistId, LocalDateTime desiredTime) {
         try {
-            return availabilityRepository.existsByTherapistIdAndStartTime(therapistId, desiredTime);
+            return (availabilityIndex.hasSlotStartingAt(therapistId, desiredTime,
+                    () -> availabilityRepository.existsByTherapistIdAndStartTime(therapistId, desiredTime))
+                    || recurringSlots.openSlotStartingAt(therapistId, desiredTime).isPresent())
+                    && !availabilityExceptionRepository.existsByTherapistIdAndStartTimeLessThanEqualAndEndTimeGreaterThan(
+                            therapistId, desiredTime, desiredTime);
         } catch (Exception e) {
-            System.err.println("An error occurred while checking therapist availability: " + e.getMessage());
+            logger.error("An error occurred while checking availability of therapist {} at {}", therapistId, desiredTime, e);
             return false;
         }
     }
 
+    public FreeBusyResponseDto getFreeBusy(Long therapistId, LocalDateTime from, LocalDateTime to, int bucketMinutes) {
+        if (bucketMinutes != 5 && bucketMinutes != 15) {
+            throw new InvalidDateRangeException("The bucket size must be 5 or 15 minutes.");
+        }
+        LocalDateTime start = alignDown(from, bucketMinutes);
+        LocalDateTime end = alignDown(to.plusMinutes(bucketMinutes).minusNanos(1), bucketMinutes);
+        if (!start.isBefore(end) || Duration.between(start, end).toDays() >= freeBusyMaxDays) {
+            throw new InvalidDateRangeException("The range must be non-empty and shorter than " + freeBusyMaxDays + " days.");
+        }
+        return new FreeBusyResponseDto(therapistId, start, end, bucketMinutes,
+                freeBusyCalendar.freeRuns(therapistId, start, end, bucketMinutes));
+    }
+
+    public List<AvailableSlotDto> searchEarliestSlots(String specialization, LocalDateTime from, LocalDateTime to,
+                                                      Collection<DayOfWeek> days, LocalTime timeFrom, LocalTime timeTo,
+                                                      Double minRating, int limit) {
+        LocalDateTime start = from != null ? from : LocalDateTime.now();
+        LocalDateTime end = to != null ? to : start.plusDays(slotSearchMaxDays);
+        if (!start.isBefore(end) || Duration.between(start, end).toDays() > slotSearchMaxDays) {
+            throw new InvalidDateRangeException("The range must be non-empty and at most " + slotSearchMaxDays + " days long.");
+        }
+        LocalTime dayFrom = timeFrom != null ? timeFrom : LocalTime.MIDNIGHT;
+        // Midnight as the end of the window means "until the end of the day"; the query treats timeTo == timeFrom alike.
+        LocalTime dayTo = timeTo == null || timeTo.equals(LocalTime.MIDNIGHT) ? dayFrom : timeTo;
+        if (dayTo.isBefore(dayFrom)) {
+            throw new InvalidDateRangeException("The time-of-day window must end after it starts.");
+        }
+        try {
+            String pattern = specialization == null || specialization.isBlank()
+                    ? "%" : "%" + specialization.trim().toLowerCase(Locale.ROOT) + "%";
+            List<Integer> isoDays = (days == null || days.isEmpty() ? EnumSet.allOf(DayOfWeek.class) : days).stream()
+                    .map(DayOfWeek::getValue)
+                    .toList();
+            int size = Math.max(1, Math.min(limit, slotSearchMaxResults));
+
+            return availabilityRepository.searchFreeSlots(pattern, start, end, isoDays, dayFrom, dayTo,
+                            minRating != null ? minRating : 0, Limit.of(size))
+                    .stream()
+                    .map(availabilityMapper::toDto)
+                    .toList();
+        } catch (Exception e) {
+            throw new RuntimeException("An error occurred while searching available slots: " + e.getMessage());
+        }
+    }
+
+    private static LocalDateTime alignDown(LocalDateTime time, int bucketMinutes) {
+        LocalDateTime minute = time.truncatedTo(ChronoUnit.MINUTES);
+        return minute.minusMinutes(minute.getMinute() % bucketMinutes);
+    }
+
     public Page<AvailabilityResponseDto> getAvailabilitiesForTherapist(Long therapistId, Pageable pageable) {
         try {
-            Page<Availability> availabilities = availabilityRepository
-                    .findByTherapistIdOrderByStartTimeAsc(therapistId, pageable);
-
-            return availabilities.map(av -> {
-                AvailabilityResponseDto dto = new AvailabilityResponseDto();
-                dto.setId(av.getId());
-                dto.setStartTime(av.getStartTime());
-                dto.setEndTime(av.getEndTime());
-                dto.setTherapistId(av.getTherapist().getId());
-                dto.setBooked(av.isBooked());
-                return dto;
-            });
+            LocalDateTime now = LocalDateTime.now();
+            List<WeeklyRecurrence.Slot> sessions = recurringSlots.openSlotsBetween(therapistId, now, now.plusDays(rulesHorizonDays));
+            if (sessions.isEmpty()) {
+                Page<Availability> availabilities = availabilityRepository
+                        .findVisibleByTherapistId(therapistId, pageable);
+
+                return availabilities.map(availabilityMapper::toDto);
+            }
+
+            // Rule sessions up to the horizon are merged into the rows by start time; rows are read up to the page end.
+            int offset = (int) pageable.getOffset();
+            int end = offset + pageable.getPageSize();
+            Page<Availability> rows = availabilityRepository.findVisibleByTherapistId(therapistId, PageRequest.of(0, end));
+            List<AvailabilityResponseDto> merged = new ArrayList<>(end);
+            int next = 0;
+            for (Availability row : rows.getContent()) {
+                while (next < sessions.size() && sessions.get(next).startTime().isBefore(row.getStartTime())) {
+                    merged.add(toDto(therapistId, sessions.get(next++)));
+                }
+                merged.add(availabilityMapper.toDto(row));
+            }
+            while (next < sessions.size() && merged.size() < end) {
+                merged.add(toDto(therapistId, sessions.get(next++)));
+            }
+            List<AvailabilityResponseDto> content = offset < merged.size()
+                    ? merged.subList(offset, Math.min(end, merged.size())) : List.of();
+            return new PageImpl<>(content, pageable, rows.getTotalElements() + sessions.size());
+        } catch (Exception e) {
+            throw new RuntimeException("An error occurred while retrieving the therapist's availability: " + e.getMessage());
+        }
+    }
+
+    private static AvailabilityResponseDto toDto(Long therapistId, WeeklyRecurrence.Slot session) {
+        return new AvailabilityResponseDto(null, therapistId, session.startTime(), session.endTime(), false);
+    }
+
+    public CursorPage<AvailabilityResponseDto> getAvailabilityTimelineForTherapist(Long therapistId, String cursor, int size) {
+        try {
+            CursorToken after = CursorToken.decode(cursor);
+            int pageSize = CursorToken.clampSize(size);
+            Limit limit = Limit.of(pageSize + 1);
+            List<AvailabilitySlotView> rows = after == null
+                    ? availabilityRepository.findSlotsByTherapistIdOrderByStartTimeAscIdAsc(therapistId, limit)
+                    : availabilityRepository.findSlotsByTherapistIdAfter(therapistId, after.startTime(), after.id(), limit);
+
+            return CursorPage.of(rows, pageSize, slot -> availabilityMapper.toDto(slot, therapistId),
+                    slot -> new CursorToken(slot.getStartTime(), slot.getId()).encode());
+        } catch (InvalidCursorException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("An error occurred while retrieving the therapist's availability: " + e.getMessage());
         }
@@ -5,9 +5,11 @@ import com.psikolojikdanismanlik.randevusistemi.dto.request.ClientUpdateRequest;
 import com.psikolojikdanismanlik.randevusistemi.dto.response.ClientResponseDto;
 import com.psikolojikdanismanlik.randevusistemi.entity.Client;
 import com.psikolojikdanismanlik.randevusistemi.entity.User;
+import com.psikolojikdanismanlik.randevusistemi.mapper.ClientMapper;
 import com.psikolojikdanismanlik.randevusistemi.repository.ClientRepository;
 import com.psikolojikdanismanlik.randevusistemi.repository.UserRepository;
-import org.modelmapper.ModelMapper;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
+import com.psikolojikdanismanlik.randevusistemi.util.VerifiedTokenCache;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import java.nio.file.AccessDeniedException;
@@ -18,20 +20,22 @@ public class ClientService {
 
     private final UserRepository userRepository;
     private final ClientRepository clientRepository;
-    private final ModelMapper modelMapper;
+    private final ClientMapper clientMapper;
+    private final VerifiedTokenCache verifiedTokenCache;
 
-    public ClientService(UserRepository userRepository, ClientRepository clientRepository, ModelMapper modelMapper) {
+    public ClientService(UserRepository userRepository, ClientRepository clientRepository, ClientMapper clientMapper, VerifiedTokenCache verifiedTokenCache) {
         this.userRepository = userRepository;
         this.clientRepository = clientRepository;
-        this.modelMapper = modelMapper;
+        this.clientMapper = clientMapper;
+        this.verifiedTokenCache = verifiedTokenCache;
     }
 
-    public ClientResponseDto createClient(ClientRequest request, String currentEmail) throws AccessDeniedException {
+    public ClientResponseDto createClient(ClientRequest request, AuthenticatedUser principal) throws AccessDeniedException {
         try {
             User user = userRepository.findById(request.getUserId()).orElseThrow(() -> new RuntimeException("User not found."));
 
-            boolean isOwner = user.getEmail().equals(currentEmail);
-            boolean isAdmin = isAdmin(currentEmail);
+            boolean isOwner = user.getId().equals(principal.getUserId());
+            boolean isAdmin = principal.isAdmin();
 
             if (!isOwner && !isAdmin) {
                 throw new AccessDeniedException("You are not authorized to perform this operation.");
@@ -55,15 +59,15 @@ public class ClientService {
         }
     }
 
-    public void deleteClientById(Long clientId, String currentEmail) throws AccessDeniedException {
+    public void deleteClientById(Long clientId, AuthenticatedUser principal) throws AccessDeniedException {
         try {
             Client client = clientRepository.findById(clientId)
                     .orElseThrow(() -> new RuntimeException("Client not found."));
 
             User clientUser = client.getUser();
 
-            boolean isOwner = clientUser.getEmail().equals(currentEmail);
-            boolean isAdmin = isAdmin(currentEmail);
+            boolean isOwner = principal.isOwnerOf(client);
+            boolean isAdmin = principal.isAdmin();
 
             if (!isOwner && !isAdmin) {
                 throw new AccessDeniedException("You are not authorized to perform this operation.");
@@ -71,6 +75,7 @@ public class ClientService {
 
             userRepository.delete(clientUser);
             clientRepository.delete(client);
+            verifiedTokenCache.revokeAll(clientUser.getId());
 
         } catch (AccessDeniedException e) {
             throw e;
@@ -79,17 +84,11 @@ public class ClientService {
         }
     }
 
-    private boolean isAdmin(String email) {
-        return userRepository.findByEmail(email)
-                .map(user -> user.getRole().name().equals("ADMIN"))
-                .orElse(false);
-    }
-
     public ClientResponseDto getClientByUserId(Long userId) {
         try {
             Client client = clientRepository.findByUserId(userId)
                     .orElseThrow(() -> new RuntimeException("Client not found."));
-            return modelMapper.map(client, ClientResponseDto.class);
+            return clientMapper.toDto(client);
         } catch (Exception e) {
             throw new RuntimeException("An error occurred while retrieving client information: " + e.getMessage());
         }
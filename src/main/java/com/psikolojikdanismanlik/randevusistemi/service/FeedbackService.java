@@ -2,15 +2,16 @@ package com.psikolojikdanismanlik.randevusistemi.service;
 
 import com.psikolojikdanismanlik.randevusistemi.dto.request.FeedbackRequestDto;
 import com.psikolojikdanismanlik.randevusistemi.dto.response.FeedbackResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.RatingSummaryDto;
 import com.psikolojikdanismanlik.randevusistemi.entity.Appointment;
 import com.psikolojikdanismanlik.randevusistemi.entity.Feedback;
-import com.psikolojikdanismanlik.randevusistemi.entity.User;
-import com.psikolojikdanismanlik.randevusistemi.enums.Role;
 import com.psikolojikdanismanlik.randevusistemi.enums.Status;
+import com.psikolojikdanismanlik.randevusistemi.mapper.FeedbackMapper;
 import com.psikolojikdanismanlik.randevusistemi.repository.AppointmentRepository;
 import com.psikolojikdanismanlik.randevusistemi.repository.FeedbackRepository;
-import com.psikolojikdanismanlik.randevusistemi.repository.UserRepository;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.nio.file.AccessDeniedException;
 import java.time.LocalDateTime;
@@ -20,21 +21,23 @@ public class FeedbackService {
 
     private final AppointmentRepository appointmentRepository;
     private final FeedbackRepository feedbackRepository;
-    private final UserRepository userRepository;
+    private final RatingStatsService ratingStatsService;
+    private final FeedbackMapper feedbackMapper;
 
-    public FeedbackService(AppointmentRepository appointmentRepository, FeedbackRepository feedbackRepository, UserRepository userRepository) {
+    public FeedbackService(AppointmentRepository appointmentRepository, FeedbackRepository feedbackRepository, RatingStatsService ratingStatsService, FeedbackMapper feedbackMapper) {
         this.appointmentRepository = appointmentRepository;
         this.feedbackRepository = feedbackRepository;
-        this.userRepository = userRepository;
+        this.ratingStatsService = ratingStatsService;
+        this.feedbackMapper = feedbackMapper;
     }
 
-    public FeedbackResponseDto addFeedback(Long appointmentId, FeedbackRequestDto request, String clientEmail) throws AccessDeniedException {
+    @Transactional
+    public FeedbackResponseDto addFeedback(Long appointmentId, FeedbackRequestDto request, AuthenticatedUser principal) throws AccessDeniedException {
         try {
             Appointment appointment = appointmentRepository.findById(appointmentId)
                     .orElseThrow(() -> new RuntimeException("Appointment not found."));
 
-            String appointmentClientEmail = appointment.getClient().getUser().getEmail();
-            if (!appointmentClientEmail.equals(clientEmail)) {
+            if (!principal.isOwnerOf(appointment.getClient())) {
                 throw new AccessDeniedException("You are not authorized to comment on this appointment.");
             }
             if (appointment.getStatus() != Status.COMPLETED) {
@@ -43,6 +46,7 @@ public class FeedbackService {
             if (appointment.getFeedback() != null) {
                 throw new RuntimeException("There are already comments for this appointment.");
             }
+            checkRating(request.getRating());
             Feedback feedback = new Feedback();
             feedback.setComment(request.getComment());
             feedback.setRating(request.getRating());
@@ -51,7 +55,8 @@ public class FeedbackService {
             feedback.setAppointment(appointment);
             appointment.setFeedback(feedback);
             appointmentRepository.save(appointment);
-            return mapToResponse(feedback);
+            ratingStatsService.recordAdded(appointment.getTherapist().getId(), feedback.getRating());
+            return feedbackMapper.toDto(feedback);
         } catch (AccessDeniedException e) {
             throw e;
         } catch (RuntimeException e) {
@@ -61,7 +66,8 @@ public class FeedbackService {
         }
     }
 
-    public void deleteFeedback(Long appointmentId, String requesterEmail) throws AccessDeniedException {
+    @Transactional
+    public void deleteFeedback(Long appointmentId, AuthenticatedUser principal) throws AccessDeniedException {
         try {
             Appointment appointment = appointmentRepository.findById(appointmentId).orElseThrow(() -> new RuntimeException("Appointment not found."));
             Feedback feedback = appointment.getFeedback();
@@ -70,15 +76,14 @@ public class FeedbackService {
                 throw new RuntimeException("No comments found to delete.");
             }
 
-            String feedbackOwnerEmail = feedback.getClient().getUser().getEmail();
-            User requester = userRepository.findByEmail(requesterEmail).orElseThrow(() -> new RuntimeException("User not found."));
-            boolean isFeedbackOwner = feedbackOwnerEmail.equals(requesterEmail);
-            boolean isAdmin = requester.getRole() == Role.ADMIN;
+            boolean isFeedbackOwner = principal.isOwnerOf(feedback.getClient());
+            boolean isAdmin = principal.isAdmin();
             if (!isFeedbackOwner && !isAdmin) {
                 throw new AccessDeniedException("You do not have permission to delete this comment.");
             }
             appointment.setFeedback(null);
-            appointmentRepository.save(appointment);
+            feedbackRepository.delete(feedback);
+            ratingStatsService.recordRemoved(appointment.getTherapist().getId(), feedback.getRating());
 
         } catch (AccessDeniedException e) {
             throw e;
@@ -89,21 +94,25 @@ public class FeedbackService {
         }
     }
 
-    public FeedbackResponseDto updateFeedback(Long appointmentId, FeedbackRequestDto request, String clientEmail) throws AccessDeniedException {
+    @Transactional
+    public FeedbackResponseDto updateFeedback(Long appointmentId, FeedbackRequestDto request, AuthenticatedUser principal) throws AccessDeniedException {
         try {
-            Appointment appointment = getAuthorizedCompletedAppointment(appointmentId, clientEmail);
+            Appointment appointment = getAuthorizedCompletedAppointment(appointmentId, principal);
 
             Feedback feedback = appointment.getFeedback();
             if (feedback == null) {
                 throw new RuntimeException("There is no comment yet on this appointment, you must create one first.");
             }
 
+            checkRating(request.getRating());
+            Integer previousRating = feedback.getRating();
             feedback.setComment(request.getComment());
             feedback.setRating((int) request.getRating());
             feedback.setCreatedAt(LocalDateTime.now());
 
             appointmentRepository.save(appointment);
-            return mapToResponse(feedback);
+            ratingStatsService.recordChanged(appointment.getTherapist().getId(), previousRating, feedback.getRating());
+            return feedbackMapper.toDto(feedback);
 
         } catch (AccessDeniedException e) {
             throw e;
@@ -114,13 +123,12 @@ public class FeedbackService {
         }
     }
 
-    private Appointment getAuthorizedCompletedAppointment(Long appointmentId, String clientEmail) throws AccessDeniedException {
+    private Appointment getAuthorizedCompletedAppointment(Long appointmentId, AuthenticatedUser principal) throws AccessDeniedException {
         try {
             Appointment appointment = appointmentRepository.findById(appointmentId)
                     .orElseThrow(() -> new RuntimeException("Appointment not found."));
 
-            String email = appointment.getClient().getUser().getEmail();
-            if (!email.equals(clientEmail)) {
+            if (!principal.isOwnerOf(appointment.getClient())) {
                 throw new AccessDeniedException("You do not have access to this appointment.");
             }
 
@@ -138,23 +146,27 @@ public class FeedbackService {
         }
     }
 
-    private FeedbackResponseDto mapToResponse(Feedback feedback) {
-        FeedbackResponseDto response = new FeedbackResponseDto();
-        response.setId(feedback.getId());
-        response.setComment(feedback.getComment());
-        response.setRating(feedback.getRating());
-        response.setCreatedAt(feedback.getCreatedAt());
-        return response;
+    private void checkRating(int rating) {
+        if (rating < 1 || rating > 5) {
+            throw new RuntimeException("Rating must be between 1 and 5.");
+        }
     }
 
     public Double getAverageRatingForTherapist(Long therapistId) {
         try {
-            Double avg = feedbackRepository.findAverageRatingByTherapistId(therapistId);
-            return avg != null ? Math.round(avg * 10.0) / 10.0 : 0.0;
+            return ratingStatsService.getAverageRating(therapistId);
         } catch (RuntimeException e) {
             throw new RuntimeException("An error occurred while calculating the average score: " + e.getMessage());
         } catch (Exception e) {
             throw new RuntimeException("Error occurred. " + e.getMessage());
         }
     }
+
+    public RatingSummaryDto getRatingSummary(Long therapistId) {
+        try {
+            return ratingStatsService.getRatingSummary(therapistId);
+        } catch (Exception e) {
+            throw new RuntimeException("An error occurred while loading the rating summary: " + e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,229 @@
+package com.psikolojikdanismanlik.randevusistemi.service;
+
+import com.psikolojikdanismanlik.randevusistemi.dto.response.RatingSummaryDto;
+import com.psikolojikdanismanlik.randevusistemi.entity.TherapistRatingStats;
+import com.psikolojikdanismanlik.randevusistemi.repository.FeedbackRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.TherapistRatingStatsRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.TherapistRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.projection.RatingCountView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps one {@link TherapistRatingStats} row per therapist so that averages are read without aggregating feedback.
+ * Feedback writes apply deltas inside their own transaction, which the record methods join; {@link #reconcile()}
+ * rebuilds the rows from {@code feedbacks}.
+ */
+@Service
+public class RatingStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RatingStatsService.class);
+
+    private final TherapistRatingStatsRepository ratingStatsRepository;
+    private final FeedbackRepository feedbackRepository;
+    private final TherapistRepository therapistRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    private final int chunkSize;
+
+    public RatingStatsService(TherapistRatingStatsRepository ratingStatsRepository, FeedbackRepository feedbackRepository,
+                              TherapistRepository therapistRepository, PlatformTransactionManager transactionManager,
+                              @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                              @Value("${app.ratings.reconcile.chunk-size:500}") int chunkSize) {
+        this.ratingStatsRepository = ratingStatsRepository;
+        this.feedbackRepository = feedbackRepository;
+        this.therapistRepository = therapistRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
+        this.chunkSize = chunkSize;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAdded(Long therapistId, Integer rating) {
+        if (rating != null) {
+            apply(therapistId, 1, rating, rating, null);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRemoved(Long therapistId, Integer rating) {
+        if (rating != null) {
+            apply(therapistId, -1, -rating, null, rating);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChanged(Long therapistId, Integer oldRating, Integer newRating) {
+        if (oldRating == null) {
+            recordAdded(therapistId, newRating);
+        } else if (newRating == null) {
+            recordRemoved(therapistId, oldRating);
+        } else if (!oldRating.equals(newRating)) {
+            apply(therapistId, 0, newRating - oldRating, newRating, oldRating);
+        }
+    }
+
+    public double getAverageRating(Long therapistId) {
+        return ratingStatsRepository.findById(therapistId)
+                .map(RatingStatsService::average)
+                .orElse(0.0);
+    }
+
+    public RatingSummaryDto getRatingSummary(Long therapistId) {
+        TherapistRatingStats stats = ratingStatsRepository.findById(therapistId)
+                .orElseGet(() -> emptyStats(therapistId));
+        RatingSummaryDto summary = new RatingSummaryDto();
+        summary.setTherapistId(therapistId);
+        summary.setAverageRating(average(stats));
+        summary.setRatingCount(stats.getRatingCount());
+        summary.setHistogram(stats.getHistogram());
+        return summary;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        taskExecutor.execute(this::reconcile);
+    }
+
+    /**
+     * Rebuilds every therapist's row from {@code feedbacks}, one transaction per chunk of therapist ids.
+     * Each chunk locks its rows first, so deltas from concurrent feedback writes wait instead of being overwritten.
+     */
+    @Scheduled(cron = "${app.ratings.reconcile.cron:0 30 3 * * *}")
+    public synchronized void reconcile() {
+        try {
+            long started = System.nanoTime();
+            transactionTemplate.executeWithoutResult(status -> ratingStatsRepository.deleteOrphans());
+            List<Long> therapistIds = therapistRepository.findAllIds();
+            List<CompletableFuture<Integer>> chunks = new ArrayList<>();
+            for (int from = 0; from < therapistIds.size(); from += chunkSize) {
+                Long fromId = therapistIds.get(from);
+                Long toId = therapistIds.get(Math.min(from + chunkSize, therapistIds.size()) - 1);
+                chunks.add(CompletableFuture.supplyAsync(
+                        () -> transactionTemplate.execute(status -> reconcileRange(fromId, toId)), taskExecutor));
+            }
+            int written = 0;
+            for (CompletableFuture<Integer> chunk : chunks) {
+                written += chunk.join();
+            }
+            logger.info("Reconciled rating stats for {} therapists in {} chunks ({} rows written) in {} ms",
+                    therapistIds.size(), chunks.size(), written, (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            logger.warn("Rating reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    private void apply(Long therapistId, long count, long sum, Integer added, Integer removed) {
+        long[] histogram = new long[5];
+        if (added != null && added >= 1 && added <= 5) {
+            histogram[added - 1]++;
+        }
+        if (removed != null && removed >= 1 && removed <= 5) {
+            histogram[removed - 1]--;
+        }
+        int updated = ratingStatsRepository.applyDelta(therapistId, count, sum,
+                histogram[0], histogram[1], histogram[2], histogram[3], histogram[4]);
+        if (updated == 0) {
+            // No row yet for this therapist; the pending feedback change is already flushed, so rebuild it in full.
+            reconcileRange(therapistId, therapistId);
+        }
+    }
+
+    private int reconcileRange(Long fromId, Long toId) {
+        Map<Long, TherapistRatingStats> existing = lockStats(fromId, toId);
+
+        Map<Long, TherapistRatingStats> expected = new HashMap<>();
+        Set<Long> created = new HashSet<>();
+        boolean missing = false;
+        for (Long therapistId : therapistRepository.findIdsBetween(fromId, toId)) {
+            expected.put(therapistId, emptyStats(therapistId));
+            // Missing rows are inserted without racing a concurrent first feedback, then locked and filled in like
+            // the others, so a delta that lands in between is counted rather than overwritten.
+            if (!existing.containsKey(therapistId)) {
+                missing = true;
+                if (ratingStatsRepository.insertEmptyIfAbsent(therapistId) > 0) {
+                    created.add(therapistId);
+                }
+            }
+        }
+        if (missing) {
+            existing = lockStats(fromId, toId);
+        }
+        for (RatingCountView row : feedbackRepository.countRatingsByTherapistIdBetween(fromId, toId)) {
+            TherapistRatingStats stats = expected.get(row.getTherapistId());
+            if (stats == null || row.getRating() == null) {
+                continue;
+            }
+            int rating = row.getRating();
+            stats.setRatingCount(stats.getRatingCount() + row.getCount());
+            stats.setRatingSum(stats.getRatingSum() + rating * row.getCount());
+            if (rating >= 1 && rating <= 5) {
+                long[] histogram = stats.getHistogram();
+                histogram[rating - 1] += row.getCount();
+                stats.setHistogram(histogram);
+            }
+        }
+
+        int written = 0;
+        for (TherapistRatingStats stats : expected.values()) {
+            TherapistRatingStats current = existing.get(stats.getTherapistId());
+            boolean corrected = current != null && !sameCounts(current, stats);
+            if (corrected) {
+                current.setRatingCount(stats.getRatingCount());
+                current.setRatingSum(stats.getRatingSum());
+                current.setHistogram(stats.getHistogram());
+            }
+            if (corrected || created.contains(stats.getTherapistId())) {
+                written++;
+            }
+        }
+        return written;
+    }
+
+    private Map<Long, TherapistRatingStats> lockStats(Long fromId, Long toId) {
+        return ratingStatsRepository.findAllForUpdateByTherapistIdBetween(fromId, toId)
+                .stream()
+                .collect(Collectors.toMap(TherapistRatingStats::getTherapistId, Function.identity()));
+    }
+
+    private static boolean sameCounts(TherapistRatingStats a, TherapistRatingStats b) {
+        return a.getRatingCount() == b.getRatingCount()
+                && a.getRatingSum() == b.getRatingSum()
+                && Arrays.equals(a.getHistogram(), b.getHistogram());
+    }
+
+    private static TherapistRatingStats emptyStats(Long therapistId) {
+        TherapistRatingStats stats = new TherapistRatingStats();
+        stats.setTherapistId(therapistId);
+        return stats;
+    }
+
+    private static double average(TherapistRatingStats stats) {
+        if (stats.getRatingCount() <= 0) {
+            return 0.0;
+        }
+        return Math.round(stats.getRatingSum() * 10.0 / stats.getRatingCount()) / 10.0;
+    }
+}
@@ -0,0 +1,179 @@
+package com.psikolojikdanismanlik.randevusistemi.service;
+
+import com.psikolojikdanismanlik.randevusistemi.dto.request.RecurringAvailabilityRequest;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.AvailabilityResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.RecurringAvailabilityResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
+import com.psikolojikdanismanlik.randevusistemi.exception.InvalidRecurrenceException;
+import com.psikolojikdanismanlik.randevusistemi.index.AvailabilityIndex;
+import com.psikolojikdanismanlik.randevusistemi.index.FreeBusyCalendar;
+import com.psikolojikdanismanlik.randevusistemi.mapper.AvailabilityMapper;
+import com.psikolojikdanismanlik.randevusistemi.repository.AvailabilityRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.IdAllocator;
+import com.psikolojikdanismanlik.randevusistemi.repository.TherapistRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.projection.AvailabilitySlotView;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
+import com.psikolojikdanismanlik.randevusistemi.stream.SlotEventHub;
+import com.psikolojikdanismanlik.randevusistemi.util.WeeklyRecurrence;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.AccessDeniedException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Expands a weekly recurrence into sessions, sorts them against the therapist's existing slots and inserts the new
+ * ones in JDBC batches. Caches and subscribers are refreshed only after the insert has committed.
+ */
+@Service
+public class RecurringAvailabilityService {
+
+    static final String INSERT = "INSERT INTO availabilities (id, therapist_id, start_time, end_time, booked) VALUES (?, ?, ?, ?, FALSE)";
+    static final String SEQUENCE = "availabilities_seq";
+
+    private final TherapistRepository therapistRepository;
+    private final AvailabilityRepository availabilityRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final FreeBusyCalendar freeBusyCalendar;
+    private final SlotEventHub slotEventHub;
+    private final AvailabilityMapper availabilityMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final IdAllocator idAllocator;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxSlots;
+    private final int batchSize;
+
+    public RecurringAvailabilityService(TherapistRepository therapistRepository, AvailabilityRepository availabilityRepository,
+                                        AvailabilityIndex availabilityIndex, FreeBusyCalendar freeBusyCalendar,
+                                        SlotEventHub slotEventHub, AvailabilityMapper availabilityMapper,
+                                        JdbcTemplate jdbcTemplate, IdAllocator idAllocator, PlatformTransactionManager transactionManager,
+                                        @Value("${app.availability.recurrence.max-slots:5000}") int maxSlots,
+                                        @Value("${app.availability.batch-size:500}") int batchSize) {
+        this.therapistRepository = therapistRepository;
+        this.availabilityRepository = availabilityRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.freeBusyCalendar = freeBusyCalendar;
+        this.slotEventHub = slotEventHub;
+        this.availabilityMapper = availabilityMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxSlots = maxSlots;
+        this.batchSize = batchSize;
+    }
+
+    public RecurringAvailabilityResponseDto addRecurringAvailability(Long therapistId, RecurringAvailabilityRequest request,
+                                                                     AuthenticatedUser principal) throws AccessDeniedException {
+        try {
+            Therapist therapist = therapistRepository.findById(therapistId)
+                    .orElseThrow(() -> new RuntimeException("Therapist not found."));
+            if (principal == null || !(principal.isAdmin() || principal.isOwnerOf(therapist))) {
+                throw new AccessDeniedException("Only the therapist or the admin can add availability.\n");
+            }
+
+            WeeklyRecurrence recurrence = toRecurrence(request);
+            List<WeeklyRecurrence.Slot> sessions = new ArrayList<>(recurrence.expand(recurrence.startDate(), recurrence.endDate(), maxSlots));
+            sessions.sort(Comparator.comparing(WeeklyRecurrence.Slot::startTime));
+            if (sessions.isEmpty()) {
+                return new RecurringAvailabilityResponseDto(0, List.of(), List.of());
+            }
+            LocalDateTime from = sessions.get(0).startTime();
+            LocalDateTime to = sessions.stream().map(WeeklyRecurrence.Slot::endTime).max(Comparator.naturalOrder()).orElseThrow();
+
+            RecurringAvailabilityResponseDto result = transactionTemplate.execute(status -> insert(therapistId, sessions, from, to));
+            if (result.getCreated() > 0) {
+                availabilityIndex.invalidate(therapistId);
+                freeBusyCalendar.invalidate(therapistId, from, to);
+                slotEventHub.resync(therapistId);
+            }
+            return result;
+
+        } catch (AccessDeniedException | InvalidRecurrenceException e) {
+            throw e;
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("The schedule changed while the recurrence was being added; please retry.");
+        } catch (RuntimeException e) {
+            throw new RuntimeException("An error occurred while adding recurring availability:\n " + e.getMessage());
+        }
+    }
+
+    private RecurringAvailabilityResponseDto insert(Long therapistId, List<WeeklyRecurrence.Slot> sessions,
+                                                    LocalDateTime from, LocalDateTime to) {
+        NavigableMap<LocalDateTime, List<AvailabilitySlotView>> existing = new TreeMap<>();
+        Duration longest = Duration.ZERO;
+        for (AvailabilitySlotView slot : availabilityRepository
+                .findSlotsByTherapistIdAndStartTimeLessThanAndEndTimeGreaterThanOrderByStartTimeAsc(therapistId, to, from)) {
+            existing.computeIfAbsent(slot.getStartTime(), start -> new ArrayList<>()).add(slot);
+            Duration length = Duration.between(slot.getStartTime(), slot.getEndTime());
+            longest = length.compareTo(longest) > 0 ? length : longest;
+        }
+
+        List<WeeklyRecurrence.Slot> created = new ArrayList<>();
+        List<AvailabilityResponseDto> skipped = new ArrayList<>();
+        List<AvailabilityResponseDto> conflicts = new ArrayList<>();
+        Set<WeeklyRecurrence.Slot> seen = new HashSet<>();
+        LocalDateTime createdUntil = LocalDateTime.MIN;
+        for (WeeklyRecurrence.Slot session : sessions) {
+            if (!seen.add(session)) {
+                continue;
+            }
+            AvailabilitySlotView same = null;
+            boolean overlaps = session.startTime().isBefore(createdUntil);
+            // Only slots starting less than the longest existing slot before this session can reach into it.
+            for (Map.Entry<LocalDateTime, List<AvailabilitySlotView>> entry
+                    : existing.subMap(session.startTime().minus(longest), false, session.endTime(), false).entrySet()) {
+                for (AvailabilitySlotView slot : entry.getValue()) {
+                    if (slot.getStartTime().equals(session.startTime()) && slot.getEndTime().equals(session.endTime())) {
+                        same = slot;
+                    } else if (slot.getEndTime().isAfter(session.startTime())) {
+                        overlaps = true;
+                    }
+                }
+            }
+            if (same != null) {
+                skipped.add(availabilityMapper.toDto(same, therapistId));
+            } else if (overlaps) {
+                conflicts.add(new AvailabilityResponseDto(null, therapistId, session.startTime(), session.endTime(), false));
+            } else {
+                created.add(session);
+                createdUntil = session.endTime();
+            }
+        }
+
+        PrimitiveIterator.OfLong ids = idAllocator.allocate(SEQUENCE, created.size());
+        jdbcTemplate.batchUpdate(INSERT, created, batchSize, (statement, session) -> {
+            statement.setLong(1, ids.nextLong());
+            statement.setLong(2, therapistId);
+            statement.setTimestamp(3, Timestamp.valueOf(session.startTime()));
+            statement.setTimestamp(4, Timestamp.valueOf(session.endTime()));
+        });
+        return new RecurringAvailabilityResponseDto(created.size(), skipped, conflicts);
+    }
+
+    static WeeklyRecurrence toRecurrence(RecurringAvailabilityRequest request) {
+        if (request.getWindows() == null) {
+            throw new InvalidRecurrenceException("The recurrence needs at least one weekly window.");
+        }
+        return new WeeklyRecurrence(request.getStartDate(), request.getEndDate(),
+                request.getWindows().stream()
+                        .map(window -> new WeeklyRecurrence.Window(window.getDayOfWeek(), window.getStartTime(), window.getEndTime()))
+                        .toList(),
+                request.getSessionMinutes(), request.getBreakMinutes(),
+                request.getExceptions() == null ? null : new HashSet<>(request.getExceptions()));
+    }
+}
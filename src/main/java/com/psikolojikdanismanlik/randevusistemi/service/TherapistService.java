@@ -1,25 +1,40 @@
 package com.psikolojikdanismanlik.randevusistemi.service;
 
+import com.psikolojikdanismanlik.randevusistemi.config.CacheConfig;
 import com.psikolojikdanismanlik.randevusistemi.dto.request.TherapistRequest;
 import com.psikolojikdanismanlik.randevusistemi.dto.request.TherapistUpdateRequest;
 import com.psikolojikdanismanlik.randevusistemi.dto.response.AppointmentResponseDto;
 import com.psikolojikdanismanlik.randevusistemi.dto.response.ClientResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.CursorPage;
 import com.psikolojikdanismanlik.randevusistemi.dto.response.TherapistResponseDto;
 import com.psikolojikdanismanlik.randevusistemi.entity.Appointment;
 import com.psikolojikdanismanlik.randevusistemi.entity.Client;
 import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
 import com.psikolojikdanismanlik.randevusistemi.entity.User;
 import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import com.psikolojikdanismanlik.randevusistemi.exception.InvalidCursorException;
+import com.psikolojikdanismanlik.randevusistemi.index.TherapistNameIndex;
+import com.psikolojikdanismanlik.randevusistemi.mapper.AppointmentMapper;
+import com.psikolojikdanismanlik.randevusistemi.mapper.TherapistMapper;
 import com.psikolojikdanismanlik.randevusistemi.repository.AppointmentRepository;
 import com.psikolojikdanismanlik.randevusistemi.repository.TherapistRepository;
 import com.psikolojikdanismanlik.randevusistemi.repository.UserRepository;
-import org.modelmapper.ModelMapper;
+import com.psikolojikdanismanlik.randevusistemi.repository.projection.AppointmentListView;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
+import com.psikolojikdanismanlik.randevusistemi.util.CursorToken;
+import com.psikolojikdanismanlik.randevusistemi.util.VerifiedTokenCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import java.nio.file.AccessDeniedException;
-import java.time.format.DateTimeFormatter;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
@@ -29,29 +44,36 @@ import java.util.stream.Collectors;
 @Service
 public class TherapistService {
 
+    private static final Logger logger = LoggerFactory.getLogger(TherapistService.class);
+
     private final TherapistRepository therapistRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final AppointmentRepository appointmentRepository;
-    private final ModelMapper modelMapper;
+    private final TherapistMapper therapistMapper;
+    private final AppointmentMapper appointmentMapper;
+    private final TherapistNameIndex therapistNameIndex;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final int maxSearchResults;
 
 
-    public TherapistService(TherapistRepository therapistRepository, UserRepository userRepository, PasswordEncoder passwordEncoder, AppointmentRepository appointmentRepository, ModelMapper modelMapper) {
+    public TherapistService(TherapistRepository therapistRepository, UserRepository userRepository, PasswordEncoder passwordEncoder, AppointmentRepository appointmentRepository, TherapistMapper therapistMapper, AppointmentMapper appointmentMapper, TherapistNameIndex therapistNameIndex,
+                            VerifiedTokenCache verifiedTokenCache, @Value("${app.search.therapists.max-results:50}") int maxSearchResults) {
         this.therapistRepository = therapistRepository;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.appointmentRepository = appointmentRepository;
-        this.modelMapper = modelMapper;
+        this.therapistMapper = therapistMapper;
+        this.appointmentMapper = appointmentMapper;
+        this.therapistNameIndex = therapistNameIndex;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.maxSearchResults = maxSearchResults;
     }
 
-    public Therapist createTherapist(TherapistRequest request, String requesterEmail) {
+    @CacheEvict(cacheNames = CacheConfig.THERAPIST_DIRECTORY, allEntries = true)
+    public Therapist createTherapist(TherapistRequest request, AuthenticatedUser principal) {
         try {
-            User requester = userRepository.findByEmail(requesterEmail)
-                    .orElseThrow(() -> new RuntimeException("No logged in user found."));
-
-            boolean isAdmin = requester.getRole() == Role.ADMIN;
-
-            if (!isAdmin && !Objects.equals(request.getUserId(), requester.getId())) {
+            if (!principal.isAdmin() && !Objects.equals(request.getUserId(), principal.getUserId())) {
                 throw new AccessDeniedException("You are not authorized to perform this operation.");
             }
             User user = userRepository.findById(request.getUserId())
@@ -63,7 +85,9 @@ public class TherapistService {
             therapist.setExperience(request.getExperience());
             therapist.setAbout(request.getAbout());
 
-            return therapistRepository.save(therapist);
+            Therapist saved = therapistRepository.save(therapist);
+            therapistNameIndex.put(saved);
+            return saved;
 
         } catch (AccessDeniedException e) {
             throw new RuntimeException("Unauthorized access: " + e.getMessage());
@@ -72,12 +96,16 @@ public class TherapistService {
         }
     }
 
-    public Therapist updateTherapist(Long therapistId, TherapistUpdateRequest request, String currentEmail) {
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.THERAPIST_PROFILES, key = "#therapistId"),
+            @CacheEvict(cacheNames = CacheConfig.THERAPIST_DIRECTORY, allEntries = true)
+    })
+    public Therapist updateTherapist(Long therapistId, TherapistUpdateRequest request, AuthenticatedUser principal) {
         try {
             Therapist therapist = therapistRepository.findById(therapistId).orElseThrow(() -> new RuntimeException("Therapist not found."));
             User user = therapist.getUser();
-            boolean isOwner = user.getEmail().equals(currentEmail);
-            boolean isAdmin = isAdmin(currentEmail);
+            boolean isOwner = principal.isOwnerOf(therapist);
+            boolean isAdmin = principal.isAdmin();
 
             if (!isOwner && !isAdmin) {
                 throw new AccessDeniedException("You are not authorized to perform this operation.");
@@ -88,11 +116,16 @@ public class TherapistService {
                 user.setPassword(passwordEncoder.encode(request.getPassword()));
             }
             userRepository.save(user);
+            if (request.getPassword() != null && !request.getPassword().isBlank()) {
+                verifiedTokenCache.revoke(user.getId());
+            }
             therapist.setSpecialization(request.getSpecialization());
             therapist.setExperience(request.getExperience());
             therapist.setAbout(request.getAbout());
 
-            return therapistRepository.save(therapist);
+            Therapist saved = therapistRepository.save(therapist);
+            therapistNameIndex.put(saved);
+            return saved;
 
         } catch (AccessDeniedException e) {
             throw new RuntimeException("Unauthorized access: " + e.getMessage());
@@ -101,75 +134,75 @@ public class TherapistService {
         }
     }
 
-    private boolean isAdmin(String email) {
-        return userRepository.findByEmail(email)
-                .map(user -> user.getRole().name().equals("ADMIN"))
-                .orElse(false);
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.THERAPIST_PROFILES, key = "#therapist.id"),
+            @CacheEvict(cacheNames = CacheConfig.THERAPIST_DIRECTORY, allEntries = true)
+    })
+    public void refreshInDirectory(Therapist therapist) {
+        therapistNameIndex.put(therapist);
     }
 
-    public Page<AppointmentResponseDto> getAppointmentsByTherapistEmail(String email, Pageable pageable) {
-        try {
-            Therapist therapist = therapistRepository.findByUserEmail(email)
-                    .orElseThrow(() -> new RuntimeException("Therapist not found."));
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.THERAPIST_PROFILES, key = "#therapistId"),
+            @CacheEvict(cacheNames = CacheConfig.THERAPIST_DIRECTORY, allEntries = true)
+    })
+    public void evictFromDirectory(Long therapistId) {
+        therapistNameIndex.remove(therapistId);
+    }
 
-            Page<Appointment> page = appointmentRepository.findByTherapistId(therapist.getId(), pageable);
+    private Long resolveTherapistId(AuthenticatedUser principal) {
+        if (principal.getTherapistId() != null) {
+            return principal.getTherapistId();
+        }
+        return therapistRepository.findByUserEmail(principal.getUsername())
+                .map(Therapist::getId)
+                .orElseThrow(() -> new RuntimeException("Therapist not found."));
+    }
 
-            return page.map(this::mapToDto);
+    public Page<AppointmentResponseDto> getAppointmentsForTherapist(AuthenticatedUser principal, Pageable pageable) {
+        try {
+            Page<AppointmentListView> page = appointmentRepository.findListByTherapistId(resolveTherapistId(principal), pageable);
+
+            return page.map(appointmentMapper::toDto);
 
         } catch (Exception e) {
             throw new RuntimeException("An error occurred while fetching therapist appointments: " + e.getMessage());
         }
     }
 
-    private AppointmentResponseDto mapToDto(Appointment appointment) {
-        AppointmentResponseDto dto = new AppointmentResponseDto();
-        dto.setId(appointment.getId());
-        dto.setTherapistId(appointment.getTherapist().getId());
-        dto.setClientId(appointment.getClient().getId());
-        dto.setStartTime(appointment.getStartTime());
-        dto.setCreatedDate(appointment.getCreatedDate());
-        dto.setStatus(appointment.getStatus().toString());
-
-        if (appointment.getClient() != null && appointment.getClient().getUser() != null) {
-            dto.setClientName(appointment.getClient().getUser().getFullName());
-        } else {
-            dto.setClientName("Unknown");
-        }
-
-        if (appointment.getStartTime() != null) {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
-            dto.setFormattedStartTime(appointment.getStartTime().format(formatter));
-        } else {
-            dto.setFormattedStartTime("Unknown");
+    public CursorPage<AppointmentResponseDto> getAppointmentTimelineForTherapist(AuthenticatedUser principal, String cursor, int size) {
+        try {
+            Long therapistId = resolveTherapistId(principal);
+            CursorToken after = CursorToken.decode(cursor);
+            int pageSize = CursorToken.clampSize(size);
+            Limit limit = Limit.of(pageSize + 1);
+            List<AppointmentListView> rows = after == null
+                    ? appointmentRepository.findTimelineByTherapistId(therapistId, limit)
+                    : appointmentRepository.findTimelineByTherapistIdBefore(therapistId, after.startTime(), after.id(), limit);
+
+            return CursorPage.of(rows, pageSize, appointmentMapper::toDto,
+                    row -> new CursorToken(row.getStartTime(), row.getId()).encode());
+
+        } catch (InvalidCursorException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("An error occurred while fetching therapist appointments: " + e.getMessage());
         }
-
-        return dto;
     }
 
+    @Cacheable(cacheNames = CacheConfig.THERAPIST_DIRECTORY, key = "#pageable")
     public Page<TherapistResponseDto> getAllTherapists(Pageable pageable) {
-        Page<Therapist> therapists = therapistRepository.findAll(pageable);
-
-        return therapists.map(t -> {
-            TherapistResponseDto dto = new TherapistResponseDto();
-            dto.setId(t.getId());
-            dto.setFullName(t.getUser().getFullName());
-            dto.setSpecialization(t.getSpecialization());
-            dto.setExperience(t.getExperience());
-            return dto;
-        });
+        Page<Therapist> therapists = therapistRepository.findByUserRole(Role.THERAPIST, pageable);
+
+        return therapists.map(therapistMapper::toDirectoryDto);
     }
 
-    public List<ClientResponseDto> getClientsOfTherapist(String currentEmail) throws AccessDeniedException {
+    public List<ClientResponseDto> getClientsOfTherapist(AuthenticatedUser principal) throws AccessDeniedException {
         try {
-            Therapist therapist = therapistRepository.findByUserEmail(currentEmail)
-                    .orElseThrow(() -> new RuntimeException("Therapist not found."));
-
-            boolean isOwner = therapist.getUser().getEmail().equals(currentEmail);
-            boolean isAdmin = isAdmin(currentEmail);
-            if (!isOwner && !isAdmin) {
+            if (!principal.isTherapist() && !principal.isAdmin()) {
                 throw new AccessDeniedException("You are not authorized to perform this operation.");
             }
-            List<Appointment> appointments = appointmentRepository.findByTherapistId(therapist.getId());
+            List<Appointment> appointments = appointmentRepository.findByTherapistId(resolveTherapistId(principal));
             Set<Client> uniqueClients = appointments.stream().map(Appointment::getClient).collect(Collectors.toSet());
 
             return uniqueClients.stream()
@@ -191,43 +224,41 @@ public class TherapistService {
         }
     }
 
+    @Cacheable(cacheNames = CacheConfig.THERAPIST_PROFILES, key = "#id")
     public TherapistResponseDto getTherapistById(Long id) {
         try {
             Therapist therapist = therapistRepository.findById(id)
                     .orElseThrow(() -> new RuntimeException("Therapist not found."));
 
-            TherapistResponseDto dto = modelMapper.map(therapist, TherapistResponseDto.class);
-            dto.setFullName(therapist.getUser().getFullName());
-
-            return dto;
+            return therapistMapper.toDto(therapist);
         } catch (Exception e) {
             throw new RuntimeException("An error occurred while fetching the therapist: " + e.getMessage());
         }
     }
 
-    public TherapistResponseDto getTherapistByEmail(String email) {
+    public TherapistResponseDto getCurrentTherapist(AuthenticatedUser principal) {
         try {
-            Therapist therapist = therapistRepository.findByUserEmail(email)
-                    .orElseThrow(() -> new RuntimeException("No therapists were found registered with this email address: " + email));
+            Therapist therapist = (principal.getTherapistId() != null
+                    ? therapistRepository.findById(principal.getTherapistId())
+                    : therapistRepository.findByUserEmail(principal.getUsername()))
+                    .orElseThrow(() -> new RuntimeException("No therapists were found registered with this email address: " + principal.getUsername()));
 
-            return modelMapper.map(therapist, TherapistResponseDto.class);
+            return therapistMapper.toDto(therapist);
         } catch (Exception e) {
-            System.err.println("Therapist information could not be obtained: " + e.getMessage());
+            logger.warn("Therapist information could not be obtained for {}", principal.getUsername(), e);
             throw new RuntimeException("An error occurred while retrieving therapist information.");
         }
     }
 
     public List<TherapistResponseDto> searchTherapistsByName(String name) {
-        List<Therapist> therapists = therapistRepository.searchByFullName(name);
-
-        return therapists.stream().map(therapist -> {
-            TherapistResponseDto dto = new TherapistResponseDto();
-            dto.setId(therapist.getId());
-            dto.setFullName(therapist.getUser().getFullName());
-            dto.setSpecialization(therapist.getSpecialization());
-            dto.setExperience(therapist.getExperience());
-            return dto;
-        }).collect(Collectors.toList());
+        List<TherapistNameIndex.Entry> hits = therapistNameIndex.search(name, maxSearchResults);
+        if (hits != null) {
+            return hits.stream().map(therapistMapper::toDirectoryDto).collect(Collectors.toList());
+        }
+
+        List<Therapist> therapists = therapistRepository.searchByFullName(name, Limit.of(maxSearchResults));
+
+        return therapists.stream().map(therapistMapper::toDirectoryDto).collect(Collectors.toList());
     }
 
 }
@@ -7,14 +7,15 @@ import com.psikolojikdanismanlik.randevusistemi.dto.response.UserResponseDto;
 import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
 import com.psikolojikdanismanlik.randevusistemi.entity.User;
 import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import com.psikolojikdanismanlik.randevusistemi.mapper.UserMapper;
 import com.psikolojikdanismanlik.randevusistemi.repository.ClientRepository;
 import com.psikolojikdanismanlik.randevusistemi.repository.TherapistRepository;
 import com.psikolojikdanismanlik.randevusistemi.repository.UserRepository;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
 import com.psikolojikdanismanlik.randevusistemi.util.JwtUtil;
-import org.modelmapper.ModelMapper;
+import com.psikolojikdanismanlik.randevusistemi.util.VerifiedTokenCache;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -30,21 +31,23 @@ public class UserService implements UserDetailsService {
     private final UserRepository userRepository;
     private final ClientRepository clientRepository;
     private final TherapistRepository therapistRepository;
-    private final ModelMapper modelMapper;
+    private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
     private final TherapistService therapistService;
     private final ClientService clientService;
     private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
 
-    public UserService(UserRepository userRepository, ClientRepository clientRepository, TherapistRepository therapistRepository, ModelMapper modelMapper, PasswordEncoder passwordEncoder, TherapistService therapistService, ClientService clientService, JwtUtil jwtUtil) {
+    public UserService(UserRepository userRepository, ClientRepository clientRepository, TherapistRepository therapistRepository, UserMapper userMapper, PasswordEncoder passwordEncoder, TherapistService therapistService, ClientService clientService, JwtUtil jwtUtil, VerifiedTokenCache verifiedTokenCache) {
         this.userRepository = userRepository;
         this.clientRepository = clientRepository;
         this.therapistRepository = therapistRepository;
-        this.modelMapper = modelMapper;
+        this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
         this.therapistService = therapistService;
         this.clientService = clientService;
         this.jwtUtil = jwtUtil;
+        this.verifiedTokenCache = verifiedTokenCache;
     }
 
     public UserResponseDto register(UserRegisterRequest request) {
@@ -52,9 +55,10 @@ public class UserService implements UserDetailsService {
             if (userRepository.existsByEmail(request.getEmail())) {
                 throw new IllegalArgumentException("This email address is already registered.");
             }
-            User user = modelMapper.map(request, User.class);
+            User user = userMapper.fromRegistration(request);
             user.setPassword(passwordEncoder.encode(request.getPassword()));
             userRepository.save(user);
+            AuthenticatedUser principal = AuthenticatedUser.of(user);
 
             if (user.getRole() == Role.THERAPIST) {
                 TherapistRequest therapistRequest = new TherapistRequest();
@@ -62,14 +66,14 @@ public class UserService implements UserDetailsService {
                 therapistRequest.setSpecialization("Not specified");
                 therapistRequest.setExperience("Not specified");
                 therapistRequest.setAbout("The profile has not been created yet.");
-                therapistService.createTherapist(therapistRequest, user.getEmail());
+                therapistService.createTherapist(therapistRequest, principal);
             } else if (user.getRole() == Role.CLIENT) {
                 ClientRequest clientRequest = new ClientRequest();
                 clientRequest.setUserId(user.getId());
 
-                clientService.createClient(clientRequest, user.getEmail());
+                clientService.createClient(clientRequest, principal);
             }
-            return modelMapper.map(user, UserResponseDto.class);
+            return userMapper.toDto(user);
 
         } catch (Exception e) {
             throw new RuntimeException("An error occurred during registration: " + e.getMessage());
@@ -91,13 +95,11 @@ public class UserService implements UserDetailsService {
             response.setUserId(user.getId());
             response.setRole(Role.valueOf(user.getRole().name()));
 
-            if (user.getRole() == Role.CLIENT) {
-                clientRepository.findByUserId(user.getId())
-                        .ifPresent(client -> response.setClientId(client.getId()));
+            if (user.getRole() == Role.CLIENT && user.getClient() != null) {
+                response.setClientId(user.getClient().getId());
             }
-            if (user.getRole() == Role.THERAPIST) {
-                therapistRepository.findByUser(user)
-                        .ifPresent(therapist -> response.setTherapistId(therapist.getId()));
+            if (user.getRole() == Role.THERAPIST && user.getTherapist() != null) {
+                response.setTherapistId(user.getTherapist().getId());
             }
             return response;
 
@@ -106,33 +108,34 @@ public class UserService implements UserDetailsService {
         }
     }
 
-    public UserProfileResponseDto getCurrentUser(String email) {
+    public UserProfileResponseDto getCurrentUser(AuthenticatedUser principal) {
         try {
-            User user = userRepository.findByEmail(email)
+            User user = userRepository.findById(principal.getUserId())
                     .orElseThrow(() -> new RuntimeException("User not found."));
+            return toProfile(user);
+        } catch (Exception e) {
+            throw new RuntimeException("An error occurred while retrieving user information: " + e.getMessage());
+        }
+    }
 
-            UserProfileResponseDto dto = modelMapper.map(user, UserProfileResponseDto.class);
-            dto.setUserId(user.getId());
-            dto.setRole(user.getRole());
+    private UserProfileResponseDto toProfile(User user) {
+        UserProfileResponseDto dto = userMapper.toProfile(user);
 
-            if (user.getRole() == Role.THERAPIST) {
-                Therapist therapist = therapistRepository.findByUser(user).orElse(null);
-                if (therapist != null) {
-                    dto.setTherapistId(therapist.getId());
-                    dto.setSpecialization(therapist.getSpecialization());
-                    dto.setExperience(therapist.getExperience());
-                    dto.setAbout(therapist.getAbout());
-                }
+        if (user.getRole() == Role.THERAPIST) {
+            Therapist therapist = user.getTherapist();
+            if (therapist != null) {
+                dto.setTherapistId(therapist.getId());
+                dto.setSpecialization(therapist.getSpecialization());
+                dto.setExperience(therapist.getExperience());
+                dto.setAbout(therapist.getAbout());
             }
-            return dto;
-        } catch (Exception e) {
-            throw new RuntimeException("An error occurred while retrieving user information: " + e.getMessage());
         }
+        return dto;
     }
 
-    public UserProfileResponseDto updateCurrentUser(UserProfileUpdateRequestDto request, String email) {
+    public UserProfileResponseDto updateCurrentUser(UserProfileUpdateRequestDto request, AuthenticatedUser principal) {
         try {
-            User user = userRepository.findByEmail(email)
+            User user = userRepository.findById(principal.getUserId())
                     .orElseThrow(() -> new RuntimeException("User not found."));
 
             if (request.getFullName() != null) user.setFullName(request.getFullName());
@@ -141,9 +144,14 @@ public class UserService implements UserDetailsService {
                 user.setPassword(passwordEncoder.encode(request.getPassword()));
             }
             userRepository.save(user);
+            if (request.getPassword() != null && !request.getPassword().isBlank()) {
+                verifiedTokenCache.revoke(user.getId());
+            }
             if (user.getRole() == Role.THERAPIST) {
-                Therapist therapist = therapistRepository.findByUser(user)
-                        .orElseThrow(() -> new RuntimeException("Therapist not found."));
+                Therapist therapist = user.getTherapist();
+                if (therapist == null) {
+                    throw new RuntimeException("Therapist not found.");
+                }
 
                 if (request.getSpecialization() != null)
                     therapist.setSpecialization(request.getSpecialization());
@@ -153,37 +161,39 @@ public class UserService implements UserDetailsService {
                     therapist.setAbout(request.getAbout());
 
                 therapistRepository.save(therapist);
+                therapistService.refreshInDirectory(therapist);
             }
-            return getCurrentUser(email);
+            return toProfile(user);
         } catch (Exception e) {
             throw new RuntimeException("An error occurred while updating the profile: " + e.getMessage());
         }
     }
 
-    public void deleteUser(Long userId, String currentEmail) {
+    public void deleteUser(Long userId, AuthenticatedUser principal) {
         try {
-            User userToDelete = userRepository.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("User not found."));
-
-            User currentUser = userRepository.findByEmail(currentEmail)
-                    .orElseThrow(() -> new RuntimeException("Valid user not found."));
+            boolean isOwner = userId.equals(principal.getUserId());
 
-            boolean isOwner = userToDelete.getEmail().equals(currentEmail);
-            boolean isAdmin = currentUser.getRole().name().equals("ADMIN");
-
-            if (!isOwner && !isAdmin) {
+            if (!isOwner && !principal.isAdmin()) {
                 throw new AccessDeniedException("You are not authorized to perform this operation.");
             }
 
+            User userToDelete = userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found."));
+
             if (userToDelete.getClient() != null) {
                 clientRepository.deleteById(userToDelete.getClient().getId());
             }
 
-            if (userToDelete.getTherapist() != null) {
-                therapistRepository.deleteById(userToDelete.getTherapist().getId());
+            Long therapistId = userToDelete.getTherapist() != null ? userToDelete.getTherapist().getId() : null;
+            if (therapistId != null) {
+                therapistRepository.deleteById(therapistId);
             }
 
             userRepository.deleteById(userId);
+            verifiedTokenCache.revokeAll(userId);
+            if (therapistId != null) {
+                therapistService.evictFromDirectory(therapistId);
+            }
         } catch (Exception e) {
             throw new RuntimeException("An error occurred while deleting the user: " + e.getMessage());
         }
@@ -193,7 +203,7 @@ public class UserService implements UserDetailsService {
         try {
             User user = userRepository.findById(id)
                     .orElseThrow(() -> new RuntimeException("User not found."));
-            return modelMapper.map(user, UserResponseDto.class);
+            return userMapper.toDto(user);
         } catch (Exception e) {
             throw new RuntimeException("Error while fetching user: " + e.getMessage());
         }
@@ -202,30 +212,21 @@ public class UserService implements UserDetailsService {
     public Page<UserResponseDto> getAllUsers(Pageable pageable) {
         try {
             return userRepository.findAll(pageable)
-                    .map(user -> modelMapper.map(user, UserResponseDto.class));
+                    .map(user -> userMapper.toDto(user));
         } catch (Exception e) {
             throw new RuntimeException("Error while fetching users: " + e.getMessage());
         }
     }
 
-    public boolean isAdmin(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found."));
-        return user.getRole() == Role.ADMIN;
-    }
-
-    public List<UserResponseDto> getUsersByRole(Role role, String requesterEmail) throws AccessDeniedException {
+    public List<UserResponseDto> getUsersByRole(Role role, AuthenticatedUser principal) throws AccessDeniedException {
         try {
-            User requester = userRepository.findByEmail(requesterEmail)
-                    .orElseThrow(() -> new RuntimeException("The user who made the request could not be found."));
-
-            if (requester.getRole() != Role.ADMIN) {
+            if (!principal.isAdmin()) {
                 throw new AccessDeniedException("Unauthorized access.");
             }
 
             List<User> users = userRepository.findByRole(role);
             return users.stream()
-                    .map(user -> modelMapper.map(user, UserResponseDto.class))
+                    .map(user -> userMapper.toDto(user))
                     .collect(Collectors.toList());
         } catch (AccessDeniedException e) {
             throw e;
@@ -234,17 +235,28 @@ public class UserService implements UserDetailsService {
         }
     }
 
-    public UserResponseDto updateUserRole(Long userId, UserRoleUpdateRequest request, String requesterEmail) {
+    public UserResponseDto updateUserRole(Long userId, UserRoleUpdateRequest request, AuthenticatedUser principal) {
         try {
-            if (!isAdmin(requesterEmail)) {
+            if (!principal.isAdmin()) {
                 throw new AccessDeniedException("Unauthorized access.");
             }
             User user = userRepository.findById(userId)
                     .orElseThrow(() -> new RuntimeException("User not found."));
 
+            Role previousRole = user.getRole();
             user.setRole(request.getNewRole());
             userRepository.save(user);
-            return modelMapper.map(user, UserResponseDto.class);
+            verifiedTokenCache.revoke(user.getId());
+            // The directory only lists users whose role is THERAPIST.
+            Therapist therapist = user.getTherapist();
+            if (therapist != null && previousRole != user.getRole()) {
+                if (user.getRole() == Role.THERAPIST) {
+                    therapistService.refreshInDirectory(therapist);
+                } else if (previousRole == Role.THERAPIST) {
+                    therapistService.evictFromDirectory(therapist.getId());
+                }
+            }
+            return userMapper.toDto(user);
 
         } catch (AccessDeniedException e) {
             throw new RuntimeException("Unauthorized access: " + e.getMessage());
@@ -258,11 +270,7 @@ public class UserService implements UserDetailsService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getPassword(),
-                List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))
-        );
+        return AuthenticatedUser.of(user);
     }
 }
 
@@ -0,0 +1,274 @@
+package com.psikolojikdanismanlik.randevusistemi.stream;
+
+import com.psikolojikdanismanlik.randevusistemi.dto.response.SlotEventDto;
+import com.psikolojikdanismanlik.randevusistemi.entity.Availability;
+import com.psikolojikdanismanlik.randevusistemi.enums.SlotEventType;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Fans slot changes out to the SSE subscribers of each therapist. Every subscriber buffers at most one pending
+ * event per slot (later changes coalesce into it) and at most {@code bufferSize} slots; a subscriber that falls
+ * further behind has its buffer dropped and gets a single RESYNC event telling it to reload the calendar.
+ * Sends run on virtual threads so that a consumer blocked on a full socket only parks its own drain.
+ */
+@Component
+public class SlotEventHub {
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Executor executor;
+    private final int bufferSize;
+    private final long timeoutMillis;
+
+    @Autowired
+    public SlotEventHub(@Value("${app.slots.stream.buffer-size:128}") int bufferSize,
+                        @Value("${app.slots.stream.timeout-ms:1800000}") long timeoutMillis) {
+        this(Executors.newVirtualThreadPerTaskExecutor(), bufferSize, timeoutMillis);
+    }
+
+    SlotEventHub(Executor executor, int bufferSize, long timeoutMillis) {
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public SseEmitter subscribe(Long therapistId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        register(therapistId, emitter);
+        return emitter;
+    }
+
+    void register(Long therapistId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(therapistId, emitter);
+        subscribers.computeIfAbsent(therapistId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        subscriber.heartbeat();
+    }
+
+    public void slotAdded(Availability availability) {
+        publish(event(SlotEventType.ADDED, availability, availability.isBooked()));
+    }
+
+    public void slotBooked(Availability availability, boolean booked) {
+        publish(event(booked ? SlotEventType.BOOKED : SlotEventType.RELEASED, availability, booked));
+    }
+
+    public void slotDeleted(Long therapistId, Long availabilityId) {
+        publish(new SlotEventDto(SlotEventType.DELETED, therapistId, availabilityId, null, null, false));
+    }
+
+    /**
+     * Tells every subscriber of the therapist to reload the calendar, for bulk changes that are not worth
+     * sending slot by slot.
+     */
+    public void resync(Long therapistId) {
+        Set<Subscriber> current = subscribers.get(therapistId);
+        if (current != null) {
+            current.forEach(Subscriber::resync);
+        }
+    }
+
+    public int subscriberCount(Long therapistId) {
+        Set<Subscriber> current = subscribers.get(therapistId);
+        return current == null ? 0 : current.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.slots.stream.heartbeat-ms:20000}")
+    public void heartbeat() {
+        subscribers.values().forEach(current -> current.forEach(Subscriber::heartbeat));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(current -> current.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribers.clear();
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void publish(SlotEventDto event) {
+        Set<Subscriber> current = subscribers.get(event.getTherapistId());
+        if (current != null) {
+            current.forEach(subscriber -> subscriber.offer(event));
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.close();
+        subscribers.computeIfPresent(subscriber.therapistId, (id, current) -> {
+            current.remove(subscriber);
+            return current.isEmpty() ? null : current;
+        });
+    }
+
+    private static SlotEventDto event(SlotEventType type, Availability availability, boolean booked) {
+        return new SlotEventDto(type, availability.getTherapist().getId(), availability.getId(),
+                availability.getStartTime(), availability.getEndTime(), booked);
+    }
+
+    /**
+     * The change a subscriber still has to see once {@code next} follows {@code previous} on the same slot,
+     * or {@code null} when the two cancel out.
+     */
+    static SlotEventDto coalesce(SlotEventDto previous, SlotEventDto next) {
+        if (previous == null) {
+            return next;
+        }
+        if (previous.getType() == SlotEventType.ADDED) {
+            if (next.getType() == SlotEventType.DELETED) {
+                return null;
+            }
+            return new SlotEventDto(SlotEventType.ADDED, next.getTherapistId(), next.getAvailabilityId(),
+                    previous.getStartTime(), previous.getEndTime(), next.isBooked());
+        }
+        if (next.getStartTime() == null) {
+            return new SlotEventDto(next.getType(), next.getTherapistId(), next.getAvailabilityId(),
+                    previous.getStartTime(), previous.getEndTime(), next.isBooked());
+        }
+        return next;
+    }
+
+    private final class Subscriber {
+
+        private final Long therapistId;
+        private final SseEmitter emitter;
+        private final Map<Long, SlotEventDto> pending = new LinkedHashMap<>();
+        private boolean resync;
+        private boolean heartbeat;
+        private boolean draining;
+        private boolean closed;
+        private long sequence;
+
+        Subscriber(Long therapistId, SseEmitter emitter) {
+            this.therapistId = therapistId;
+            this.emitter = emitter;
+        }
+
+        void offer(SlotEventDto event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (!resync) {
+                    SlotEventDto merged = coalesce(pending.get(event.getAvailabilityId()), event);
+                    if (merged == null) {
+                        pending.remove(event.getAvailabilityId());
+                    } else {
+                        pending.put(event.getAvailabilityId(), merged);
+                    }
+                    if (pending.size() > bufferSize) {
+                        pending.clear();
+                        resync = true;
+                    }
+                }
+                if (!startDrain()) {
+                    return;
+                }
+            }
+            executor.execute(this::drain);
+        }
+
+        void resync() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                pending.clear();
+                resync = true;
+                if (!startDrain()) {
+                    return;
+                }
+            }
+            executor.execute(this::drain);
+        }
+
+        void heartbeat() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                heartbeat = true;
+                if (!startDrain()) {
+                    return;
+                }
+            }
+            executor.execute(this::drain);
+        }
+
+        synchronized void close() {
+            closed = true;
+            pending.clear();
+        }
+
+        private boolean startDrain() {
+            if (draining) {
+                return false;
+            }
+            draining = true;
+            return true;
+        }
+
+        private void drain() {
+            while (true) {
+                List<SlotEventDto> batch;
+                boolean sendResync;
+                boolean sendHeartbeat;
+                synchronized (this) {
+                    if (closed || (pending.isEmpty() && !resync && !heartbeat)) {
+                        draining = false;
+                        return;
+                    }
+                    batch = new ArrayList<>(pending.values());
+                    pending.clear();
+                    sendResync = resync;
+                    sendHeartbeat = heartbeat && batch.isEmpty() && !resync;
+                    resync = false;
+                    heartbeat = false;
+                }
+                try {
+                    if (sendResync) {
+                        send(new SlotEventDto(SlotEventType.RESYNC, therapistId, null, null, null, false));
+                    }
+                    for (SlotEventDto event : batch) {
+                        send(event);
+                    }
+                    if (sendHeartbeat) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    remove(this);
+                    synchronized (this) {
+                        draining = false;
+                    }
+                    return;
+                }
+            }
+        }
+
+        private void send(SlotEventDto event) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(++sequence))
+                    .name(event.getType().name().toLowerCase())
+                    .data(event, MediaType.APPLICATION_JSON));
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.psikolojikdanismanlik.randevusistemi.trace;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The SQL one request ran, kept because the request was slower than the threshold or was sampled. {@code handler}
+ * is the controller method and {@code route} its mapping pattern; both are null when no handler was matched.
+ */
+public record RequestTrace(long id, Instant startedAt, String method, String uri, String route, String handler,
+                           int status, long durationMicros, boolean slow, long sqlMicros, int droppedStatements,
+                           List<Statement> statements) {
+
+    public record Statement(String sql, int binds, int batchSize, long micros, boolean failed) {
+    }
+}
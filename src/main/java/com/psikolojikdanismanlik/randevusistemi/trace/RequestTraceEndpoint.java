@@ -0,0 +1,35 @@
+package com.psikolojikdanismanlik.randevusistemi.trace;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code GET /actuator/requesttraces} lists the traces in the buffer, newest first;
+ * {@code POST /actuator/requesttraces} appends the ones not dumped yet to the trace file.
+ */
+@Component
+@Endpoint(id = "requesttraces")
+public class RequestTraceEndpoint {
+
+    private final RequestTracer requestTracer;
+    private final TraceFileWriter traceFileWriter;
+
+    public RequestTraceEndpoint(RequestTracer requestTracer, TraceFileWriter traceFileWriter) {
+        this.requestTracer = requestTracer;
+        this.traceFileWriter = traceFileWriter;
+    }
+
+    @ReadOperation
+    public List<RequestTrace> traces() {
+        return requestTracer.recent();
+    }
+
+    @WriteOperation
+    public TraceFileWriter.Dump dump() {
+        return traceFileWriter.write(requestTracer.recent());
+    }
+}
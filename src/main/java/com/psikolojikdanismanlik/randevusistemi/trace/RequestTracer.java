@@ -0,0 +1,153 @@
+package com.psikolojikdanismanlik.randevusistemi.trace;
+
+import jakarta.servlet.http.HttpServletRequest;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the statements each request runs on its own thread and keeps the trace of requests slower than
+ * {@code app.trace.slow-threshold}, plus a {@code app.trace.sample-rate} share of the others, in a ring buffer.
+ * Statements go into arrays that every thread allocates once and reuses, so a fast request that is not sampled
+ * costs two clock reads per statement and allocates nothing here.
+ */
+@Component
+public class RequestTracer implements QueryExecutionListener {
+
+    private final ThreadLocal<ActiveTrace> current;
+    private final TraceRingBuffer<RequestTrace> traces;
+    private final AtomicLong ids = new AtomicLong();
+    private final long slowThresholdNanos;
+    private final double sampleRate;
+
+    public RequestTracer(@Value("${app.trace.slow-threshold:500ms}") Duration slowThreshold,
+                         @Value("${app.trace.sample-rate:0.01}") double sampleRate,
+                         @Value("${app.trace.buffer-size:256}") int bufferSize,
+                         @Value("${app.trace.max-statements:200}") int maxStatements) {
+        this.current = ThreadLocal.withInitial(() -> new ActiveTrace(maxStatements));
+        this.traces = new TraceRingBuffer<>(bufferSize);
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.sampleRate = sampleRate;
+    }
+
+    public void begin() {
+        current.get().begin();
+    }
+
+    /**
+     * Ends the trace of the request running on this thread and keeps it if it was slow or is sampled.
+     */
+    public void end(HttpServletRequest request, int status, long startedNanos) {
+        ActiveTrace trace = current.get();
+        long elapsed = System.nanoTime() - startedNanos;
+        boolean slow = elapsed >= slowThresholdNanos;
+        if (trace.active && (slow || ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+            traces.add(trace.toTrace(ids.incrementAndGet(), request, status, elapsed, slow));
+        }
+        trace.end();
+    }
+
+    public List<RequestTrace> recent() {
+        return traces.newestFirst();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        ActiveTrace trace = current.get();
+        if (trace.active) {
+            trace.statementStarted = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        ActiveTrace trace = current.get();
+        if (trace.active) {
+            trace.statementFinished(execInfo, queryInfoList, System.nanoTime() - trace.statementStarted);
+        }
+    }
+
+    private static final class ActiveTrace {
+
+        private final String[] sql;
+        private final int[] binds;
+        private final int[] batchSizes;
+        private final long[] nanos;
+        private final boolean[] failed;
+        private boolean active;
+        private int count;
+        private int dropped;
+        private long sqlNanos;
+        private long statementStarted;
+
+        ActiveTrace(int capacity) {
+            sql = new String[capacity];
+            binds = new int[capacity];
+            batchSizes = new int[capacity];
+            nanos = new long[capacity];
+            failed = new boolean[capacity];
+        }
+
+        void begin() {
+            active = true;
+            count = 0;
+            dropped = 0;
+            sqlNanos = 0;
+        }
+
+        void end() {
+            active = false;
+            Arrays.fill(sql, 0, count, null);
+        }
+
+        void statementFinished(ExecutionInfo execInfo, List<QueryInfo> queries, long elapsed) {
+            sqlNanos += elapsed;
+            if (count == sql.length || queries.isEmpty()) {
+                dropped++;
+                return;
+            }
+            // A plain statement batch runs several queries; only the first one's text is kept.
+            int parameters = 0;
+            for (int i = 0; i < queries.size(); i++) {
+                List<List<ParameterSetOperation>> parameterSets = queries.get(i).getParametersList();
+                for (int j = 0; j < parameterSets.size(); j++) {
+                    parameters += parameterSets.get(j).size();
+                }
+            }
+            sql[count] = queries.get(0).getQuery();
+            binds[count] = parameters;
+            batchSizes[count] = execInfo.isBatch() ? Math.max(execInfo.getBatchSize(), queries.size()) : 1;
+            nanos[count] = elapsed;
+            failed[count] = !execInfo.isSuccess();
+            count++;
+        }
+
+        RequestTrace toTrace(long id, HttpServletRequest request, int status, long elapsed, boolean slow) {
+            List<RequestTrace.Statement> statements = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                statements.add(new RequestTrace.Statement(sql[i], binds[i], batchSizes[i], nanos[i] / 1_000, failed[i]));
+            }
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+            String handlerName = handler instanceof HandlerMethod method
+                    ? method.getBeanType().getSimpleName() + "." + method.getMethod().getName()
+                    : null;
+            return new RequestTrace(id, Instant.now().minusNanos(elapsed), request.getMethod(), request.getRequestURI(),
+                    route == null ? null : route.toString(), handlerName, status, elapsed / 1_000, slow,
+                    sqlNanos / 1_000, dropped, List.copyOf(statements));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.psikolojikdanismanlik.randevusistemi.trace;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends traces as JSON lines to {@code request-traces.jsonl} in {@code app.trace.dump.directory}. Traces written by
+ * an earlier dump are skipped. Once the file is larger than {@code max-file-size} bytes it is renamed to
+ * {@code request-traces.1.jsonl}, the older files shift up by one and the oldest beyond {@code max-files} is deleted.
+ */
+@Component
+public class TraceFileWriter {
+
+    private static final String FILE_NAME = "request-traces";
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final long maxFileSize;
+    private final int maxFiles;
+    private long lastWrittenId;
+
+    public record Dump(String file, int written) {
+    }
+
+    public TraceFileWriter(ObjectMapper objectMapper,
+                           @Value("${app.trace.dump.directory:traces}") Path directory,
+                           @Value("${app.trace.dump.max-file-size:10485760}") long maxFileSize,
+                           @Value("${app.trace.dump.max-files:5}") int maxFiles) {
+        this.objectMapper = objectMapper;
+        this.directory = directory;
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = maxFiles;
+    }
+
+    public synchronized Dump write(List<RequestTrace> newestFirst) {
+        Path file = directory.resolve(FILE_NAME + ".jsonl");
+        try {
+            Files.createDirectories(directory);
+            if (Files.exists(file) && Files.size(file) > maxFileSize) {
+                rotate(file);
+            }
+            int written = 0;
+            long newest = lastWrittenId;
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (int i = newestFirst.size() - 1; i >= 0; i--) {
+                    RequestTrace trace = newestFirst.get(i);
+                    if (trace.id() <= lastWrittenId) {
+                        continue;
+                    }
+                    writer.write(objectMapper.writeValueAsString(trace));
+                    writer.newLine();
+                    newest = Math.max(newest, trace.id());
+                    written++;
+                }
+            }
+            lastWrittenId = newest;
+            return new Dump(file.toAbsolutePath().toString(), written);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write request traces to " + file.toAbsolutePath(), e);
+        }
+    }
+
+    private void rotate(Path file) throws IOException {
+        Files.deleteIfExists(rotated(maxFiles - 1));
+        for (int i = maxFiles - 2; i >= 1; i--) {
+            if (Files.exists(rotated(i))) {
+                Files.move(rotated(i), rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 1) {
+            Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(file);
+        }
+    }
+
+    private Path rotated(int index) {
+        return directory.resolve(FILE_NAME + "." + index + ".jsonl");
+    }
+}
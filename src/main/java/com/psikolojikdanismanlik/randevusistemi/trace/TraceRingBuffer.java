@@ -0,0 +1,44 @@
+package com.psikolojikdanismanlik.randevusistemi.trace;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the last {@code capacity} items, rounded up to a power of two. Writers claim a slot with one atomic
+ * increment and never wait on each other or on readers; a reader racing a writer may see the newer item in a slot.
+ */
+public class TraceRingBuffer<T> {
+
+    private final AtomicReferenceArray<T> slots;
+    private final int mask;
+    private final AtomicLong written = new AtomicLong();
+
+    public TraceRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public void add(T item) {
+        slots.set((int) (written.getAndIncrement() & mask), item);
+    }
+
+    public List<T> newestFirst() {
+        long end = written.get();
+        long start = Math.max(0, end - slots.length());
+        List<T> items = new ArrayList<>((int) (end - start));
+        for (long i = end - 1; i >= start; i--) {
+            T item = slots.get((int) (i & mask));
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+}
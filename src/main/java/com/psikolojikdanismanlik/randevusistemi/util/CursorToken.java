@@ -0,0 +1,43 @@
+package com.psikolojikdanismanlik.randevusistemi.util;
+
+import com.psikolojikdanismanlik.randevusistemi.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination on {@code (start_time, id)}.
+ */
+public record CursorToken(LocalDateTime startTime, Long id) {
+
+    // A String so the controllers can use it as the size request parameter default.
+    public static final String DEFAULT_SIZE = "20";
+    public static final int MAX_SIZE = 100;
+
+    public String encode() {
+        String raw = startTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorToken decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new InvalidCursorException();
+            }
+            return new CursorToken(LocalDateTime.parse(raw.substring(0, separator)), Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+}
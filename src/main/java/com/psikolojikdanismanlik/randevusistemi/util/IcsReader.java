@@ -0,0 +1,188 @@
+package com.psikolojikdanismanlik.randevusistemi.util;
+
+import com.psikolojikdanismanlik.randevusistemi.exception.InvalidCalendarFileException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Reads the timed VEVENTs of an iCalendar (RFC 5545) stream line by line, so only the event being parsed is held in
+ * memory. All-day, recurring and cancelled events are not turned into slots; they are counted as ignored instead.
+ */
+public final class IcsReader {
+
+    public record Event(LocalDateTime startTime, LocalDateTime endTime) {
+    }
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss", Locale.ROOT);
+
+    private final ZoneId zone;
+    private final Consumer<Event> consumer;
+    private int depth;
+    private boolean calendar;
+    private boolean inEvent;
+    private int eventDepth;
+    private int ignored;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Duration duration;
+    private boolean skip;
+
+    private IcsReader(ZoneId zone, Consumer<Event> consumer) {
+        this.zone = zone;
+        this.consumer = consumer;
+    }
+
+    /**
+     * Hands every timed event to {@code consumer}, converted to local times in {@code zone}, and returns the number
+     * of events that were ignored.
+     */
+    public static int read(Reader source, ZoneId zone, Consumer<Event> consumer) throws IOException {
+        IcsReader reader = new IcsReader(zone, consumer);
+        BufferedReader lines = new BufferedReader(source);
+        StringBuilder logical = null;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            // A line starting with a space or tab continues the previous one (RFC 5545, 3.1).
+            if (logical != null && !line.isEmpty() && (line.charAt(0) == ' ' || line.charAt(0) == '\t')) {
+                logical.append(line, 1, line.length());
+                continue;
+            }
+            if (logical != null) {
+                reader.property(logical.toString());
+            }
+            logical = new StringBuilder(line);
+        }
+        if (logical != null) {
+            reader.property(logical.toString());
+        }
+        if (!reader.calendar) {
+            throw new InvalidCalendarFileException("The file is not an iCalendar file.");
+        }
+        return reader.ignored;
+    }
+
+    private void property(String line) {
+        int colon = valueSeparator(line);
+        if (colon < 0) {
+            return;
+        }
+        int nameEnd = line.indexOf(';');
+        nameEnd = nameEnd < 0 || nameEnd > colon ? colon : nameEnd;
+        String name = line.substring(0, nameEnd).trim().toUpperCase(Locale.ROOT);
+        String params = line.substring(nameEnd, colon);
+        String value = line.substring(colon + 1).trim();
+
+        switch (name) {
+            case "BEGIN" -> begin(value.toUpperCase(Locale.ROOT));
+            case "END" -> end(value.toUpperCase(Locale.ROOT));
+            default -> {
+                if (inEvent && depth == eventDepth) {
+                    eventProperty(name, params, value);
+                }
+            }
+        }
+    }
+
+    private void begin(String component) {
+        depth++;
+        if (component.equals("VCALENDAR")) {
+            calendar = true;
+        } else if (component.equals("VEVENT") && !inEvent) {
+            inEvent = true;
+            eventDepth = depth;
+            start = null;
+            end = null;
+            duration = null;
+            skip = false;
+        }
+    }
+
+    private void end(String component) {
+        if (inEvent && depth == eventDepth && component.equals("VEVENT")) {
+            inEvent = false;
+            LocalDateTime until = end != null ? end : duration != null && start != null ? start.plus(duration) : null;
+            if (skip || start == null || until == null || !start.isBefore(until)) {
+                ignored++;
+            } else {
+                consumer.accept(new Event(start, until));
+            }
+        }
+        depth = Math.max(0, depth - 1);
+    }
+
+    private void eventProperty(String name, String params, String value) {
+        try {
+            switch (name) {
+                case "DTSTART" -> start = dateTime(params, value);
+                case "DTEND" -> end = dateTime(params, value);
+                case "DURATION" -> duration = Duration.parse(value);
+                case "RRULE", "RDATE" -> skip = true;
+                case "STATUS" -> skip |= value.equalsIgnoreCase("CANCELLED");
+                default -> {
+                }
+            }
+        } catch (DateTimeException e) {
+            skip = true;
+        }
+    }
+
+    // Returns null for all-day (VALUE=DATE) values, which do not describe a session.
+    private LocalDateTime dateTime(String params, String value) {
+        String upperParams = params.toUpperCase(Locale.ROOT);
+        if (upperParams.contains("VALUE=DATE") && !upperParams.contains("VALUE=DATE-TIME") || value.indexOf('T') < 0) {
+            skip = true;
+            return null;
+        }
+        if (value.endsWith("Z") || value.endsWith("z")) {
+            return LocalDateTime.parse(value.substring(0, value.length() - 1), DATE_TIME)
+                    .atOffset(ZoneOffset.UTC).atZoneSameInstant(zone).toLocalDateTime();
+        }
+        LocalDateTime local = LocalDateTime.parse(value, DATE_TIME);
+        String tzid = parameter(params, "TZID");
+        if (tzid == null) {
+            return local;
+        }
+        try {
+            return local.atZone(ZoneId.of(tzid)).withZoneSameInstant(zone).toLocalDateTime();
+        } catch (DateTimeException e) {
+            // Custom VTIMEZONE ids (e.g. Outlook's) are not resolved; such times are read as local.
+            return local;
+        }
+    }
+
+    private static String parameter(String params, String name) {
+        for (String param : params.split(";")) {
+            int equals = param.indexOf('=');
+            if (equals > 0 && param.substring(0, equals).trim().equalsIgnoreCase(name)) {
+                String value = param.substring(equals + 1).trim();
+                return value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")
+                        ? value.substring(1, value.length() - 1) : value;
+            }
+        }
+        return null;
+    }
+
+    // The first colon outside a quoted parameter value separates the value.
+    private static int valueSeparator(String line) {
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ':' && !quoted) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -1,11 +1,14 @@
 package com.psikolojikdanismanlik.randevusistemi.util;
 
 import com.psikolojikdanismanlik.randevusistemi.entity.User;
+import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
 import java.util.List;
 
@@ -13,10 +16,8 @@ public class JwtUtil {
 
     private final String jwtSecret = "gizliAnahtarEnAz32KarakterUzunlugundaGizli";
     private final long jwtExpirationMs = 86400000;
-
-    private Key getKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
-    }
+    private final Key key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
 
     public String generateToken(User user) {
         return Jwts.builder()
@@ -24,25 +25,50 @@ public class JwtUtil {
                 .claim("userId", user.getId())
                 .claim("userRole", user.getRole().name())
                 .claim("authorities", List.of(user.getRole().name()))
+                .claim("clientId", user.getClient() != null ? user.getClient().getId() : null)
+                .claim("therapistId", user.getTherapist() != null ? user.getTherapist().getId() : null)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(getKey(), SignatureAlgorithm.HS256)
+                .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        return Jwts.parserBuilder().setSigningKey(getKey()).build()
-                .parseClaimsJws(token).getBody().getSubject();
+    public Duration tokenLifetime() {
+        return Duration.ofMillis(jwtExpirationMs);
     }
 
-    public boolean validateToken(String token, UserDetails userDetails) {
-        String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isExpired(token);
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
-    private boolean isExpired(String token) {
-        return Jwts.parserBuilder().setSigningKey(getKey()).build()
-                .parseClaimsJws(token).getBody().getExpiration().before(new Date());
+    public AuthenticatedUser toPrincipal(Claims claims) {
+        Long userId = claims.get("userId", Long.class);
+        String role = claims.get("userRole", String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+        Role parsedRole;
+        try {
+            parsedRole = Role.valueOf(role);
+        } catch (IllegalArgumentException e) {
+            throw new MalformedJwtException("Unknown role claim: " + role);
+        }
+        return new AuthenticatedUser(
+                userId,
+                claims.getSubject(),
+                "",
+                parsedRole,
+                claims.get("clientId", Long.class),
+                claims.get("therapistId", Long.class)
+        );
     }
-}
 
+    public String extractUsername(String token) {
+        return parseClaims(token).getSubject();
+    }
+
+    public boolean validateToken(String token, UserDetails userDetails) {
+        Claims claims = parseClaims(token);
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
+    }
+}
@@ -0,0 +1,110 @@
+package com.psikolojikdanismanlik.randevusistemi.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded map from the SHA-256 digest of an already verified JWT to the principal built from its claims.
+ * Entries never outlive the token's own expiry. It also remembers, for one token lifetime, which users had
+ * their role or password changed or were deleted, so tokens issued before that stop authenticating.
+ */
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private final int maxEntries;
+    private final Cache<String, Entry> entries;
+    private final Cache<Long, Long> revokedBefore;
+
+    public VerifiedTokenCache(int maxEntries, Duration tokenLifetime) {
+        this.maxEntries = maxEntries;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(Math.max(maxEntries, 0))
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String digest, Entry entry, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(entry.expiresAtMillis - System.currentTimeMillis(), 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String digest, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(digest, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String digest, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        this.revokedBefore = Caffeine.newBuilder()
+                .expireAfterWrite(tokenLifetime)
+                .build();
+    }
+
+    public String digest(String token) {
+        return Base64.getEncoder().encodeToString(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    public AuthenticatedUser get(String digest) {
+        Entry entry = entries.getIfPresent(digest);
+        if (entry == null) {
+            return null;
+        }
+        if (isRevoked(entry.principal.getUserId(), entry.issuedAtMillis)) {
+            entries.invalidate(digest);
+            return null;
+        }
+        return entry.principal;
+    }
+
+    public void put(String digest, AuthenticatedUser principal, Date issuedAt, Date expiresAt) {
+        if (isEnabled()) {
+            entries.put(digest, new Entry(principal, issuedAt.getTime(), expiresAt.getTime()));
+        }
+    }
+
+    public boolean isEnabled() {
+        return maxEntries > 0;
+    }
+
+    // iat only has whole seconds, so a token from the second of the change itself still passes.
+    public void revoke(Long userId) {
+        revokedBefore.put(userId, System.currentTimeMillis() / 1000 * 1000);
+        entries.asMap().values().removeIf(entry -> userId.equals(entry.principal.getUserId()));
+    }
+
+    // For deleted users: ids are never reused, so every token they hold can be refused, whatever its iat.
+    public void revokeAll(Long userId) {
+        revokedBefore.put(userId, Long.MAX_VALUE);
+        entries.asMap().values().removeIf(entry -> userId.equals(entry.principal.getUserId()));
+    }
+
+    public boolean isRevoked(Long userId, Date issuedAt) {
+        return isRevoked(userId, issuedAt != null ? issuedAt.getTime() : Long.MIN_VALUE);
+    }
+
+    private boolean isRevoked(Long userId, long issuedAtMillis) {
+        Long cutoff = revokedBefore.getIfPresent(userId);
+        return cutoff != null && issuedAtMillis < cutoff;
+    }
+
+    private record Entry(AuthenticatedUser principal, long issuedAtMillis, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,79 @@
+package com.psikolojikdanismanlik.randevusistemi.util;
+
+import com.psikolojikdanismanlik.randevusistemi.exception.InvalidRecurrenceException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A weekly schedule between two dates: on each matching day, every window is cut into back-to-back sessions
+ * separated by a break. A window ending at midnight runs to the end of its day.
+ */
+public record WeeklyRecurrence(LocalDate startDate, LocalDate endDate, List<Window> windows,
+                               int sessionMinutes, int breakMinutes, Set<LocalDate> skippedDates) {
+
+    public record Window(DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime) {
+
+        LocalDateTime end(LocalDate day) {
+            return endTime.equals(LocalTime.MIDNIGHT) ? day.plusDays(1).atStartOfDay() : day.atTime(endTime);
+        }
+    }
+
+    public record Slot(LocalDateTime startTime, LocalDateTime endTime) {
+    }
+
+    public WeeklyRecurrence {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new InvalidRecurrenceException("The recurrence needs a start date on or before its end date.");
+        }
+        if (sessionMinutes <= 0 || breakMinutes < 0) {
+            throw new InvalidRecurrenceException("The session length must be positive and the break non-negative.");
+        }
+        if (windows == null || windows.isEmpty()) {
+            throw new InvalidRecurrenceException("The recurrence needs at least one weekly window.");
+        }
+        for (Window window : windows) {
+            if (window.dayOfWeek() == null || window.startTime() == null || window.endTime() == null
+                    || !window.startTime().isBefore(window.endTime()) && !window.endTime().equals(LocalTime.MIDNIGHT)) {
+                throw new InvalidRecurrenceException("Every window needs a day of week and a start time before its end time.");
+            }
+        }
+        windows = windows.stream().sorted(Comparator.comparing(Window::startTime)).toList();
+        skippedDates = skippedDates == null ? Set.of() : Set.copyOf(skippedDates);
+    }
+
+    /**
+     * Sessions starting on days in {@code [firstDay, lastDay]} that also fall inside the recurrence, in start order.
+     * Fails once more than {@code maxSlots} sessions would be produced.
+     */
+    public List<Slot> expand(LocalDate firstDay, LocalDate lastDay, int maxSlots) {
+        List<Slot> slots = new ArrayList<>();
+        LocalDate to = lastDay.isAfter(endDate) ? endDate : lastDay;
+        for (LocalDate day = firstDay.isBefore(startDate) ? startDate : firstDay; !day.isAfter(to); day = day.plusDays(1)) {
+            if (skippedDates.contains(day)) {
+                continue;
+            }
+            for (Window window : windows) {
+                if (window.dayOfWeek() != day.getDayOfWeek()) {
+                    continue;
+                }
+                LocalDateTime windowEnd = window.end(day);
+                for (LocalDateTime start = day.atTime(window.startTime());
+                     !start.plusMinutes(sessionMinutes).isAfter(windowEnd);
+                     start = start.plusMinutes(sessionMinutes + breakMinutes)) {
+                    if (slots.size() == maxSlots) {
+                        throw new InvalidRecurrenceException("The recurrence produces more than " + maxSlots + " sessions.");
+                    }
+                    slots.add(new Slot(start, start.plusMinutes(sessionMinutes)));
+                }
+            }
+        }
+        return slots;
+    }
+}
@@ -0,0 +1,73 @@
+-- Schema as Hibernate created it before migrations took over. Databases that already have it are baselined at
+-- this version (spring.flyway.baseline-on-migrate) and only run the later scripts.
+
+create table if not exists users (
+    id bigint generated by default as identity,
+    birth_date date not null,
+    created_at timestamp(6) not null,
+    email varchar(255) not null unique,
+    full_name varchar(255) not null,
+    gender varchar(255) check (gender in ('MALE','FEMALE','OTHER')),
+    password varchar(255) not null,
+    phone_number varchar(255),
+    role varchar(255) not null check (role in ('CLIENT','THERAPIST','ADMIN')),
+    primary key (id)
+);
+
+create table if not exists clients (
+    id bigint generated by default as identity,
+    user_id bigint unique,
+    primary key (id)
+);
+
+create table if not exists therapists (
+    id bigint generated by default as identity,
+    user_id bigint unique,
+    about TEXT not null,
+    experience varchar(255) not null,
+    specialization varchar(255) not null,
+    primary key (id)
+);
+
+create table if not exists availabilities (
+    id bigint generated by default as identity,
+    therapist_id bigint,
+    start_time timestamp(6) not null,
+    end_time timestamp(6) not null,
+    booked boolean not null,
+    primary key (id),
+    unique (therapist_id, start_time, end_time)
+);
+
+create table if not exists appointments (
+    id bigint generated by default as identity,
+    therapist_id bigint,
+    client_id bigint,
+    availability_id bigint,
+    start_time timestamp(6) not null,
+    end_time timestamp(6) not null,
+    requested_reschedule_time timestamp(6),
+    created_date date not null,
+    created_at timestamp(6),
+    status varchar(255) not null check (status in ('SCHEDULED','COMPLETED','CANCELLED_BY_CLIENT','CANCELLED_BY_THERAPIST','NO_SHOW','RESCHEDULE_REQUESTED_BY_CLIENT','RESCHEDULED','PENDING_APPROVAL','IN_PROGRESS','CANCEL_REQUESTED_BY_CLIENT','PENDING')),
+    primary key (id)
+);
+
+create table if not exists feedbacks (
+    id bigint generated by default as identity,
+    appointment_id bigint unique,
+    client_id bigint,
+    rating integer,
+    comment TEXT,
+    created_at timestamp(6) not null,
+    primary key (id)
+);
+
+alter table if exists appointments add constraint FKrqts74b4amy3m501ltegeqhbh foreign key (availability_id) references availabilities;
+alter table if exists appointments add constraint FKfbl6cciquyyvv5s1e31qmflkb foreign key (client_id) references clients;
+alter table if exists appointments add constraint FKt9kynq9p3p6fkv75m6q0twil6 foreign key (therapist_id) references therapists;
+alter table if exists availabilities add constraint FK8pgahr6y77qjmqgfmxh9uw9kp foreign key (therapist_id) references therapists;
+alter table if exists clients add constraint FKtiuqdledq2lybrds2k3rfqrv4 foreign key (user_id) references users;
+alter table if exists feedbacks add constraint FK58uid2ow3xl8erqdy5qy7prkm foreign key (appointment_id) references appointments;
+alter table if exists feedbacks add constraint FKjl6ggk5fjfudwi5g2ljwohxqf foreign key (client_id) references clients;
+alter table if exists therapists add constraint FK7u36hld47n6nrdc0s1idu2dhw foreign key (user_id) references users;
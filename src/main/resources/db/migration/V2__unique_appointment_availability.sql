@@ -0,0 +1,2 @@
+-- One appointment per slot, backing the conditional claim in AppointmentService.createAppointment.
+create unique index if not exists uk_appointments_availability on appointments (availability_id);
@@ -0,0 +1,5 @@
+-- Keyset pagination of appointment and availability timelines: (owner, start_time, id) matches the seek predicate
+-- and the sort order.
+create index if not exists idx_appointments_client_start_id on appointments (client_id, start_time, id);
+create index if not exists idx_appointments_therapist_start_id on appointments (therapist_id, start_time, id);
+create index if not exists idx_availabilities_therapist_start_id on availabilities (therapist_id, start_time, id);
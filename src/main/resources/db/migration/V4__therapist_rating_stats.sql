@@ -0,0 +1,12 @@
+-- Per-therapist rating aggregates, maintained by RatingStatsService as feedback is written.
+create table if not exists therapist_rating_stats (
+    therapist_id bigint not null,
+    rating_count bigint not null,
+    rating_sum bigint not null,
+    one_star bigint not null,
+    two_star bigint not null,
+    three_star bigint not null,
+    four_star bigint not null,
+    five_star bigint not null,
+    primary key (therapist_id)
+);
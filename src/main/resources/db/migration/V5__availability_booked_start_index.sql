@@ -0,0 +1,2 @@
+-- Earliest free slot search across all therapists walks slots by (booked, start_time).
+create index if not exists idx_availabilities_booked_start on availabilities (booked, start_time);
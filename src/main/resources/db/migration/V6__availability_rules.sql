@@ -0,0 +1,26 @@
+-- Weekly availability rules expanded at read time, and the dates excluded from them.
+create table if not exists availability_rules (
+    id bigint generated by default as identity,
+    therapist_id bigint not null,
+    day_of_week varchar(255) not null check (day_of_week in ('MONDAY','TUESDAY','WEDNESDAY','THURSDAY','FRIDAY','SATURDAY','SUNDAY')),
+    start_time time(6) not null,
+    end_time time(6) not null,
+    session_minutes integer not null,
+    break_minutes integer not null,
+    valid_from date not null,
+    valid_until date not null,
+    primary key (id),
+    constraint FK5o8kmx2o4k4mokwfdbp7rp2k9 foreign key (therapist_id) references therapists
+);
+
+create table if not exists availability_exceptions (
+    id bigint generated by default as identity,
+    therapist_id bigint not null,
+    start_time timestamp(6) not null,
+    end_time timestamp(6) not null,
+    primary key (id),
+    constraint FK28qurf8257aqld6a704lqc5tn foreign key (therapist_id) references therapists
+);
+
+create index if not exists idx_availability_exceptions_therapist_start on availability_exceptions (therapist_id, start_time);
+create index if not exists idx_availability_rules_therapist on availability_rules (therapist_id);
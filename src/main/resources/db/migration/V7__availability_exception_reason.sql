@@ -0,0 +1,2 @@
+-- Blackouts entered by therapists carry an optional reason.
+alter table availability_exceptions add column if not exists reason varchar(255);
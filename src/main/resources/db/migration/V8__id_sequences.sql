@@ -0,0 +1,10 @@
+-- Pooled id sequences (see JpaConfig and IdAllocator); the increment must match allocationSize on the entities.
+
+create sequence if not exists users_seq start with 1 increment by 50;
+create sequence if not exists clients_seq start with 1 increment by 50;
+create sequence if not exists therapists_seq start with 1 increment by 50;
+create sequence if not exists availabilities_seq start with 1 increment by 50;
+create sequence if not exists availability_exceptions_seq start with 1 increment by 50;
+create sequence if not exists availability_rules_seq start with 1 increment by 50;
+create sequence if not exists appointments_seq start with 1 increment by 50;
+create sequence if not exists feedbacks_seq start with 1 increment by 50;
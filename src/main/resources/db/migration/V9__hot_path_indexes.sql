@@ -0,0 +1,12 @@
+-- appointments(client_id, start_time) and appointments(therapist_id, start_time) are the prefixes of the
+-- *_start_id indexes from V3, and clients.user_id, therapists.user_id and feedbacks.appointment_id are indexed by
+-- their unique constraints, so only the filters without a usable index are added here.
+
+-- Past appointments of a client (end_time < now).
+create index if not exists idx_appointments_client_end on appointments (client_id, end_time);
+
+-- Booked or unbooked slots of one therapist in a time range.
+create index if not exists idx_availabilities_therapist_booked_start on availabilities (therapist_id, booked, start_time);
+
+-- Admin user listing by role.
+create index if not exists idx_users_role on users (role);
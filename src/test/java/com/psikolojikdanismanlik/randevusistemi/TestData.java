@@ -0,0 +1,59 @@
+package com.psikolojikdanismanlik.randevusistemi;
+
+import com.psikolojikdanismanlik.randevusistemi.entity.Client;
+import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
+import com.psikolojikdanismanlik.randevusistemi.entity.User;
+import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+/**
+ * Entities with every required column filled in, and the cleanup for tests that commit to the shared test database.
+ */
+public final class TestData {
+
+    // Children before parents, so the foreign keys hold while the rows go.
+    private static final String[] TABLES = {
+            "feedbacks", "appointments", "therapist_rating_stats", "availability_exceptions", "availability_rules",
+            "availabilities", "therapists", "clients", "users"
+    };
+
+    private TestData() {
+    }
+
+    public static User newUser(String email, Role role) {
+        return newUser(email, email, role);
+    }
+
+    public static User newUser(String email, String fullName, Role role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setFullName(fullName);
+        user.setPassword("secret");
+        user.setRole(role);
+        user.setBirthDate(LocalDate.of(1990, 1, 1));
+        return user;
+    }
+
+    public static Therapist newTherapist(User user) {
+        Therapist therapist = new Therapist();
+        therapist.setUser(user);
+        therapist.setSpecialization("Specialization");
+        therapist.setExperience("Experience");
+        therapist.setAbout("About");
+        return therapist;
+    }
+
+    public static Client newClient(User user) {
+        Client client = new Client();
+        client.setUser(user);
+        return client;
+    }
+
+    public static void deleteAll(JdbcTemplate jdbcTemplate) {
+        for (String table : TABLES) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+}
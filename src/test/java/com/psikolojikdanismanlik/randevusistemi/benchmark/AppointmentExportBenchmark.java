@@ -0,0 +1,107 @@
+package com.psikolojikdanismanlik.randevusistemi.benchmark;
+
+import com.psikolojikdanismanlik.randevusistemi.enums.ExportFormat;
+import com.psikolojikdanismanlik.randevusistemi.service.AppointmentExportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static com.psikolojikdanismanlik.randevusistemi.TestData.deleteAll;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exports every generated appointment through {@link AppointmentExportService} into a discarding stream and
+ * samples the retained heap (after a full GC) every {@value #SAMPLE_BYTES} bytes written; the retained heap
+ * must stay flat while rows stream. Sized with {@code -Dexport.therapists}. Run with
+ * {@code mvn test -Pbenchmark -Dtest=AppointmentExportBenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class AppointmentExportBenchmark {
+
+    private static final int THERAPISTS = Integer.getInteger("export.therapists", 400);
+    private static final long SAMPLE_BYTES = 2L * 1024 * 1024;
+    private static final long ALLOWED_GROWTH = 32L * 1024 * 1024;
+
+    @Autowired
+    private AppointmentExportService appointmentExportService;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void exportStreamsWithFlatHeap() throws Exception {
+        DatasetGenerator.Summary dataset = new DatasetGenerator(dataSource,
+                new DatasetGenerator.Spec(42, THERAPISTS, THERAPISTS * 20, LocalDate.now(), 26, 8, 8, 0.6, 0.55, 5_000)).generate();
+        System.out.printf("export dataset: %s%n", dataset);
+
+        for (ExportFormat format : ExportFormat.values()) {
+            export(format, false);
+            export(format, true);
+        }
+    }
+
+    private void export(ExportFormat format, boolean gzip) throws Exception {
+        HeapSampler sampler = new HeapSampler();
+        long began = System.nanoTime();
+        long rows;
+        try (OutputStream out = gzip ? new GZIPOutputStream(sampler, 8192) : sampler) {
+            rows = appointmentExportService.exportAll(null, null, format, out);
+        }
+        double seconds = (System.nanoTime() - began) / 1_000_000_000.0;
+
+        long baseline = sampler.samples.get(0);
+        long peak = sampler.samples.stream().mapToLong(Long::longValue).max().orElse(baseline);
+        System.out.printf("export [%s%s]: %d rows, %.1f MB, %.0f rows/s, retained heap %d -> peak %d MB over %d samples%n",
+                format, gzip ? "+gzip" : "", rows, sampler.written / 1_048_576.0, rows / seconds,
+                baseline / 1_048_576, peak / 1_048_576, sampler.samples.size());
+        assertThat(peak - baseline).isLessThan(ALLOWED_GROWTH);
+    }
+
+    private static final class HeapSampler extends OutputStream {
+
+        private final List<Long> samples = new ArrayList<>();
+        private long written;
+        private long nextSample;
+
+        HeapSampler() {
+            sample();
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            written += length;
+            if (written >= nextSample) {
+                sample();
+            }
+        }
+
+        private void sample() {
+            System.gc();
+            Runtime runtime = Runtime.getRuntime();
+            samples.add(runtime.totalMemory() - runtime.freeMemory());
+            nextSample = written + SAMPLE_BYTES;
+        }
+    }
+}
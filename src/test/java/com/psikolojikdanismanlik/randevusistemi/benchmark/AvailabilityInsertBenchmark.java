@@ -0,0 +1,104 @@
+package com.psikolojikdanismanlik.randevusistemi.benchmark;
+
+import com.psikolojikdanismanlik.randevusistemi.entity.Availability;
+import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
+import com.psikolojikdanismanlik.randevusistemi.entity.User;
+import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import com.psikolojikdanismanlik.randevusistemi.repository.TherapistRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static com.psikolojikdanismanlik.randevusistemi.TestData.deleteAll;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newTherapist;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newUser;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Persists {@value #DEFAULT_ROWS} availabilities through the entity manager, {@code -Dinsert.chunk} rows per
+ * transaction with a flush and clear after each chunk, and prints rows/s once with JDBC batching turned off for the
+ * session and once with the configured batch size. With IDENTITY ids Hibernate has to run every insert on its own to
+ * read the generated key, so both runs match; with pooled sequences the second one goes out as JDBC batches.
+ * Sized with {@code -Dinsert.rows}. Run with {@code mvn test -Pbenchmark -Dtest=AvailabilityInsertBenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class AvailabilityInsertBenchmark {
+
+    private static final int DEFAULT_ROWS = 100_000;
+    private static final int ROWS = Integer.getInteger("insert.rows", DEFAULT_ROWS);
+    private static final int CHUNK = Integer.getInteger("insert.chunk", 1_000);
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TherapistRepository therapistRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void insertAvailabilities() {
+        Therapist therapist = therapist();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        LocalDateTime origin = LocalDate.now().plusDays(1).atStartOfDay();
+
+        // A short warm-up run, so class loading and JIT do not count against the measured ones.
+        insert(transactionTemplate, therapist, origin.minusYears(10), Math.min(ROWS, 5 * CHUNK), null);
+        for (Integer batchSize : new Integer[]{1, null}) {
+            jdbcTemplate.update("DELETE FROM availabilities");
+            long began = System.nanoTime();
+            insert(transactionTemplate, therapist, origin, ROWS, batchSize);
+            double seconds = (System.nanoTime() - began) / 1_000_000_000.0;
+
+            System.out.printf("availability inserts [%s]: %d rows in %.2f s, %.0f rows/s%n",
+                    batchSize == null ? "batched" : "unbatched", ROWS, seconds, ROWS / seconds);
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM availabilities", Long.class)).isEqualTo(ROWS);
+        }
+    }
+
+    private void insert(TransactionTemplate transactionTemplate, Therapist therapist, LocalDateTime origin, int rows, Integer batchSize) {
+        for (int from = 0; from < rows; from += CHUNK) {
+            int first = from;
+            int last = Math.min(rows, from + CHUNK);
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                Therapist owner = entityManager.getReference(Therapist.class, therapist.getId());
+                for (int i = first; i < last; i++) {
+                    Availability availability = new Availability();
+                    availability.setTherapist(owner);
+                    availability.setStartTime(origin.plusMinutes(60L * i));
+                    availability.setEndTime(origin.plusMinutes(60L * i + 50));
+                    entityManager.persist(availability);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+    }
+
+    private Therapist therapist() {
+        User user = newUser("insert-benchmark@test.local", "Insert Benchmark", Role.THERAPIST);
+        Therapist therapist = newTherapist(userRepository.save(user));
+        return therapistRepository.save(therapist);
+    }
+}
@@ -0,0 +1,119 @@
+package com.psikolojikdanismanlik.randevusistemi.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file against a baseline and exits with status 1 when any benchmark regressed by more
+ * than the tolerance, either in its primary score or in {@code gc.alloc.rate.norm}.
+ * Usage: {@code BaselineDiff <baseline.json> <result.json> [tolerance, default 0.10]}.
+ */
+public final class BaselineDiff {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+    // Allocation differences this small are JIT noise (one boxed value, one array header) rather than a regression.
+    private static final double ALLOCATION_FLOOR_BYTES = 16;
+
+    private BaselineDiff() {
+    }
+
+    record Score(String mode, double score, String unit, Double allocation) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineDiff <baseline.json> <result.json> [tolerance]");
+            System.exit(2);
+        }
+        File baselineFile = new File(args[0]);
+        if (!baselineFile.isFile()) {
+            System.err.println("No baseline at " + baselineFile + "; rerun the suite with -Djmh.result=" + args[0] + " to create one.");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+        Map<String, Score> baseline = read(baselineFile);
+        Map<String, Score> current = read(new File(args[1]));
+
+        List<String> regressions = new ArrayList<>();
+        System.out.printf("%-90s %14s %14s %8s %12s %12s%n", "Benchmark", "baseline", "current", "change", "B/op before", "B/op after");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %8s%n", entry.getKey(), "-", now.score(), "new");
+                continue;
+            }
+            boolean higherIsBetter = now.mode().equals("thrpt");
+            double change = (now.score() - before.score()) / before.score();
+            double worse = higherIsBetter ? -change : change;
+            if (worse > tolerance) {
+                regressions.add(entry.getKey() + ": score " + percent(change));
+            }
+            if (before.allocation() != null && now.allocation() != null
+                    && now.allocation() - before.allocation() > ALLOCATION_FLOOR_BYTES
+                    && now.allocation() > before.allocation() * (1 + tolerance)) {
+                regressions.add(entry.getKey() + ": allocation " + format(before.allocation()) + " -> " + format(now.allocation()) + " B/op");
+            }
+            System.out.printf("%-90s %14.3f %14.3f %8s %12s %12s%n", entry.getKey(), before.score(), now.score(),
+                    percent(change), format(before.allocation()), format(now.allocation()));
+        }
+        for (String key : baseline.keySet()) {
+            if (!current.containsKey(key)) {
+                System.out.printf("%-90s %14.3f %14s %8s%n", key, baseline.get(key).score(), "-", "missing");
+            }
+        }
+
+        if (regressions.isEmpty()) {
+            System.out.println("No regressions beyond " + percent(tolerance) + ".");
+            return;
+        }
+        System.out.println("Regressions beyond " + percent(tolerance) + ":");
+        regressions.forEach(regression -> System.out.println("  " + regression));
+        System.exit(1);
+    }
+
+    static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            JsonNode primary = run.path("primaryMetric");
+            JsonNode allocation = run.path("secondaryMetrics").path(ALLOCATION);
+            scores.put(key(run), new Score(
+                    run.path("mode").asText(),
+                    primary.path("score").asDouble(),
+                    primary.path("scoreUnit").asText(),
+                    allocation.isMissingNode() ? null : allocation.path("score").asDouble()));
+        }
+        return scores;
+    }
+
+    private static String key(JsonNode run) {
+        String benchmark = run.path("benchmark").asText().replace("com.psikolojikdanismanlik.randevusistemi.benchmark.", "");
+        JsonNode params = run.path("params");
+        if (params.isMissingNode() || params.isEmpty()) {
+            return benchmark;
+        }
+        Map<String, String> sorted = new TreeMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> fields = params.fields(); fields.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            sorted.put(field.getKey(), field.getValue().asText());
+        }
+        return benchmark + sorted;
+    }
+
+    private static String percent(double ratio) {
+        return String.format("%+.1f%%", ratio * 100);
+    }
+
+    private static String format(Double bytes) {
+        return bytes == null ? "-" : String.format("%.0f", bytes);
+    }
+}
@@ -0,0 +1,132 @@
+package com.psikolojikdanismanlik.randevusistemi.benchmark;
+
+import com.psikolojikdanismanlik.randevusistemi.dto.request.AppointmentRequest;
+import com.psikolojikdanismanlik.randevusistemi.entity.Availability;
+import com.psikolojikdanismanlik.randevusistemi.entity.Client;
+import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
+import com.psikolojikdanismanlik.randevusistemi.entity.User;
+import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import com.psikolojikdanismanlik.randevusistemi.exception.SlotAlreadyBookedException;
+import com.psikolojikdanismanlik.randevusistemi.repository.AppointmentRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.AvailabilityRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.ClientRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.TherapistRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.UserRepository;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
+import com.psikolojikdanismanlik.randevusistemi.service.AppointmentService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newTherapist;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newUser;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 500 clients race for 10 freshly published slots. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class BookingContentionBenchmark {
+
+    private static final int CLIENTS = 500;
+    private static final int SLOTS = 10;
+
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private TherapistRepository therapistRepository;
+    @Autowired
+    private AvailabilityRepository availabilityRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Test
+    void clientsRacingForFewSlots() throws Exception {
+        race("warmup");
+        race("measured");
+    }
+
+    private void race(String round) throws Exception {
+        Therapist therapist = newTherapist(userRepository.save(newUser(round + ".therapist@bench.local", Role.THERAPIST)));
+        therapist.setSpecialization("Bench");
+        therapist = therapistRepository.save(therapist);
+
+        List<Long> slotIds = new ArrayList<>();
+        LocalDateTime weekStart = LocalDateTime.now().plusWeeks(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        for (int i = 0; i < SLOTS; i++) {
+            Availability availability = new Availability();
+            availability.setTherapist(therapist);
+            availability.setStartTime(weekStart.plusHours(i));
+            availability.setEndTime(weekStart.plusHours(i + 1));
+            slotIds.add(availabilityRepository.save(availability).getId());
+        }
+
+        List<AuthenticatedUser> principals = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            Client client = new Client();
+            User user = userRepository.save(newUser(round + ".client" + i + "@bench.local", Role.CLIENT));
+            client.setUser(user);
+            clientRepository.save(client);
+            principals.add(new AuthenticatedUser(user.getId(), user.getEmail(), "", Role.CLIENT, client.getId(), null));
+        }
+
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            AuthenticatedUser principal = principals.get(i);
+            Long slotId = slotIds.get(i % SLOTS);
+            pool.execute(() -> {
+                AppointmentRequest request = new AppointmentRequest();
+                request.setAvailabilityId(slotId);
+                try {
+                    start.await();
+                    appointmentService.createAppointment(request, principal);
+                    booked.incrementAndGet();
+                } catch (SlotAlreadyBookedException e) {
+                    conflicts.incrementAndGet();
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                }
+            });
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        long elapsedNanos = System.nanoTime() - began;
+
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("booking contention [%s]: %d clients, %d slots, %.1f ms, %.0f attempts/s, booked=%d, conflicts=%d, errors=%d%n",
+                round, CLIENTS, SLOTS, elapsedNanos / 1_000_000.0, CLIENTS / seconds, booked.get(), conflicts.get(), errors.get());
+
+        Map<Long, Long> appointmentsPerSlot = appointmentRepository.findAll().stream()
+                .filter(a -> a.getAvailability() != null && slotIds.contains(a.getAvailability().getId()))
+                .collect(Collectors.groupingBy(a -> a.getAvailability().getId(), Collectors.counting()));
+        assertThat(booked.get()).isEqualTo(SLOTS);
+        assertThat(conflicts.get()).isEqualTo(CLIENTS - SLOTS);
+        assertThat(errors.get()).isZero();
+        assertThat(appointmentsPerSlot).hasSize(SLOTS).allSatisfy((slot, count) -> assertThat(count).isEqualTo(1L));
+    }
+
+}
@@ -0,0 +1,408 @@
+package com.psikolojikdanismanlik.randevusistemi.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Replays client and therapist traffic through the real controllers (security filter chain included)
+ * on the embedded H2 database: onboarding via {@code /api/auth}, then each scenario's weighted mix of
+ * directory browsing, booking, status updates and feedback. Per scenario it prints HdrHistogram latency
+ * percentiles, throughput, error rate and double-booking violations, and writes them to {@code load.report}
+ * so two builds can be compared. Run with {@code mvn test -Pbenchmark -Dtest=BookingLoadBenchmark}, sized with
+ * {@code -Dload.therapists -Dload.clients -Dload.slots -Dload.threads -Dload.requests -Dload.scenarios},
+ * and a mix overridden per scenario with e.g. {@code -Dload.mix.mixed=DIRECTORY:50,BOOK:50}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingLoadBenchmark {
+
+    private static final int THERAPISTS = Integer.getInteger("load.therapists", 10);
+    private static final int CLIENTS = Integer.getInteger("load.clients", 40);
+    private static final int SLOTS_PER_THERAPIST = Integer.getInteger("load.slots", 30);
+    private static final int THREADS = Integer.getInteger("load.threads", 8);
+    private static final int REQUESTS = Integer.getInteger("load.requests", 1500);
+    private static final String SCENARIOS = System.getProperty("load.scenarios", "browse,booking-rush,mixed");
+    private static final String REPORT = System.getProperty("load.report", "target/load-report.json");
+    private static final String PASSWORD = "load-test-password";
+    private static final String[] NAMES = {
+            "Ayşe Yılmaz", "Mehmet Kaya", "Zeynep Demir", "Ali Şahin", "Elif Çelik",
+            "Mustafa Yıldız", "Özlem Öztürk", "Can Aydın", "Işıl Arslan", "Deniz Doğan"
+    };
+    private static final Map<String, String> DEFAULT_MIXES = Map.of(
+            "browse", "DIRECTORY:40,PROFILE:25,SEARCH:20,AVAILABILITY:15",
+            "booking-rush", "BOOK:70,AVAILABILITY:20,DIRECTORY:10",
+            "mixed", "DIRECTORY:25,PROFILE:10,SEARCH:10,AVAILABILITY:10,BOOK:20,STATUS:15,FEEDBACK:10"
+    );
+
+    enum Operation {
+        REGISTER, LOGIN, PUBLISH, DIRECTORY, PROFILE, SEARCH, AVAILABILITY, BOOK, STATUS, FEEDBACK
+    }
+
+    private record Account(String token, Long id) {
+    }
+
+    private record Booking(Long appointmentId, int client, int therapist) {
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String run = Long.toString(System.currentTimeMillis(), 36);
+    private final List<Account> therapists = new ArrayList<>();
+    private final List<Account> clients = new ArrayList<>();
+    private final List<Long> slots = new ArrayList<>();
+    private final List<Integer> slotOwners = new ArrayList<>();
+    private final Set<Long> bookedSlots = ConcurrentHashMap.newKeySet();
+    private final Queue<Booking> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Booking> completed = new ConcurrentLinkedQueue<>();
+
+    @Test
+    void replayBookingTraffic() throws Exception {
+        List<Map<String, Object>> reports = new ArrayList<>();
+        reports.add(onboard());
+        for (String scenario : SCENARIOS.split(",")) {
+            reports.add(runScenario(scenario.trim()));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("therapists", THERAPISTS);
+        report.put("clients", CLIENTS);
+        report.put("slotsPerTherapist", SLOTS_PER_THERAPIST);
+        report.put("threads", THREADS);
+        report.put("requestsPerScenario", REQUESTS);
+        report.put("scenarios", reports);
+        File file = new File(REPORT);
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+        System.out.println("load report written to " + file.getAbsolutePath());
+
+        for (Map<String, Object> scenario : reports) {
+            assertThat(scenario.get("doubleBookings")).as("double bookings in %s", scenario.get("scenario")).isEqualTo(0L);
+            assertThat(scenario.get("errors")).as("errors in %s", scenario.get("scenario")).isEqualTo(0L);
+        }
+    }
+
+    private Map<String, Object> onboard() throws Exception {
+        Stats stats = new Stats();
+        long began = System.nanoTime();
+        for (int i = 0; i < THERAPISTS; i++) {
+            therapists.add(null);
+        }
+        for (int i = 0; i < CLIENTS; i++) {
+            clients.add(null);
+        }
+        parallel(THERAPISTS + CLIENTS, i -> {
+            boolean therapist = i < THERAPISTS;
+            int index = therapist ? i : i - THERAPISTS;
+            String email = run + (therapist ? ".therapist" : ".client") + index + "@load.local";
+            Account account = register(stats, email, NAMES[i % NAMES.length] + " " + index, therapist ? "THERAPIST" : "CLIENT");
+            if (account != null) {
+                (therapist ? therapists : clients).set(index, account);
+            }
+        });
+
+        LocalDateTime firstSlot = LocalDateTime.now().plusDays(7).truncatedTo(ChronoUnit.HOURS);
+        for (int t = 0; t < THERAPISTS; t++) {
+            Account therapist = therapists.get(t);
+            if (therapist == null) {
+                continue;
+            }
+            for (int s = 0; s < SLOTS_PER_THERAPIST; s++) {
+                LocalDateTime start = firstSlot.plusHours(s);
+                JsonNode slot = call(stats, Operation.PUBLISH, post("/api/therapists/" + therapist.id() + "/availabilities"),
+                        therapist.token(), Map.of("startTime", start.toString(), "endTime", start.plusMinutes(50).toString()));
+                if (slot != null) {
+                    slots.add(slot.get("id").asLong());
+                    slotOwners.add(t);
+                }
+            }
+        }
+        return stats.report("onboarding", System.nanoTime() - began, doubleBookings());
+    }
+
+    private Account register(Stats stats, String email, String fullName, String role) {
+        Map<String, Object> registration = new LinkedHashMap<>();
+        registration.put("fullName", fullName);
+        registration.put("email", email);
+        registration.put("password", PASSWORD);
+        registration.put("phoneNumber", "5550000000");
+        registration.put("birthDate", "1990-01-01");
+        registration.put("gender", "FEMALE");
+        registration.put("role", role);
+        if (call(stats, Operation.REGISTER, post("/api/auth/register"), null, registration) == null) {
+            return null;
+        }
+        JsonNode login = call(stats, Operation.LOGIN, post("/api/auth/login"), null, Map.of("email", email, "password", PASSWORD));
+        if (login == null) {
+            return null;
+        }
+        String idField = role.equals("THERAPIST") ? "therapistId" : "clientId";
+        return new Account(login.get("token").asText(), login.get(idField).asLong());
+    }
+
+    private Map<String, Object> runScenario(String scenario) throws Exception {
+        String mix = System.getProperty("load.mix." + scenario, DEFAULT_MIXES.get(scenario));
+        assertThat(mix).as("mix for scenario %s", scenario).isNotNull();
+        Operation[] wheel = wheel(mix);
+        Stats stats = new Stats();
+        long before = doubleBookings();
+        long began = System.nanoTime();
+        parallel(REQUESTS, i -> perform(stats, wheel[ThreadLocalRandom.current().nextInt(wheel.length)]));
+        long elapsed = System.nanoTime() - began;
+        return stats.report(scenario, elapsed, doubleBookings() - before);
+    }
+
+    private static Operation[] wheel(String mix) {
+        List<Operation> wheel = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            Operation operation = Operation.valueOf(parts[0].trim());
+            for (int i = Integer.parseInt(parts[1].trim()); i > 0; i--) {
+                wheel.add(operation);
+            }
+        }
+        return wheel.toArray(Operation[]::new);
+    }
+
+    private void perform(Stats stats, Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Account therapist = therapists.get(random.nextInt(THERAPISTS));
+        Account client = clients.get(random.nextInt(CLIENTS));
+        switch (operation) {
+            case DIRECTORY -> call(stats, operation, get("/api/therapists").param("page", Integer.toString(random.nextInt(3)))
+                    .param("size", "10"), null, null);
+            case PROFILE -> call(stats, operation, get("/api/therapists/" + therapist.id()), null, null);
+            case SEARCH -> {
+                String name = NAMES[random.nextInt(NAMES.length)];
+                call(stats, operation, get("/api/therapists/search").param("name", name.substring(0, 3 + random.nextInt(name.length() - 3))), null, null);
+            }
+            case AVAILABILITY -> call(stats, operation, get("/api/therapists/" + therapist.id() + "/availabilities/cursor")
+                    .param("size", "20"), client.token(), null);
+            case BOOK -> book(stats, random.nextInt(CLIENTS));
+            case STATUS -> {
+                Booking booking = scheduled.poll();
+                if (booking == null) {
+                    perform(stats, Operation.DIRECTORY);
+                    return;
+                }
+                JsonNode updated = call(stats, operation, put("/api/appointments/" + booking.appointmentId() + "/status"),
+                        therapists.get(booking.therapist()).token(), Map.of("status", "COMPLETED"));
+                if (updated != null) {
+                    completed.add(booking);
+                }
+            }
+            case FEEDBACK -> {
+                Booking booking = completed.poll();
+                if (booking == null) {
+                    perform(stats, Operation.DIRECTORY);
+                    return;
+                }
+                call(stats, operation, post("/api/feedbacks/appointments/" + booking.appointmentId()),
+                        clients.get(booking.client()).token(), Map.of("comment", "Load test session", "rating", 1 + random.nextInt(5)));
+            }
+            default -> throw new IllegalArgumentException("Operation not replayed in scenarios: " + operation);
+        }
+    }
+
+    private void book(Stats stats, int clientIndex) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int slotIndex = random.nextInt(slots.size());
+        for (int attempt = 0; attempt < 8 && bookedSlots.contains(slots.get(slotIndex)); attempt++) {
+            slotIndex = random.nextInt(slots.size());
+        }
+        Long slotId = slots.get(slotIndex);
+        JsonNode appointment = call(stats, Operation.BOOK, post("/api/appointments"), clients.get(clientIndex).token(),
+                Map.of("availabilityId", slotId));
+        if (appointment != null) {
+            bookedSlots.add(slotId);
+            scheduled.add(new Booking(appointment.get("id").asLong(), clientIndex, slotOwners.get(slotIndex)));
+        }
+    }
+
+    /**
+     * Returns the response body of a 2xx call, {@code null} otherwise. A 409 on booking is the expected
+     * outcome of losing a race for a slot and is counted as a conflict, not an error.
+     */
+    private JsonNode call(Stats stats, Operation operation, MockHttpServletRequestBuilder request, String token, Object body) {
+        if (token != null) {
+            request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+        long began = System.nanoTime();
+        int status;
+        String content;
+        try {
+            if (body != null) {
+                request.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsBytes(body));
+            }
+            MockHttpServletResponse response = mockMvc.perform(request).andReturn().getResponse();
+            status = response.getStatus();
+            content = response.getContentAsString();
+        } catch (Exception e) {
+            status = 500;
+            content = null;
+        }
+        stats.record(operation, System.nanoTime() - began, status);
+        if (status < 200 || status >= 300) {
+            return null;
+        }
+        try {
+            return content == null || content.isEmpty() ? objectMapper.nullNode() : objectMapper.readTree(content);
+        } catch (Exception e) {
+            return objectMapper.nullNode();
+        }
+    }
+
+    private long doubleBookings() {
+        Long sharedSlots = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT availability_id FROM appointments WHERE availability_id IS NOT NULL "
+                        + "GROUP BY availability_id HAVING COUNT(*) > 1) shared", Long.class);
+        Long overlaps = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM appointments a JOIN appointments b ON a.therapist_id = b.therapist_id AND a.id < b.id "
+                        + "AND a.start_time < b.end_time AND b.start_time < a.end_time "
+                        + "WHERE a.status NOT LIKE 'CANCEL%' AND b.status NOT LIKE 'CANCEL%'", Long.class);
+        return sharedSlots + overlaps;
+    }
+
+    private static void parallel(int tasks, Task task) throws Exception {
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(pool.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < tasks; i = next.getAndIncrement()) {
+                        task.run(i);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Task {
+        void run(int index) throws Exception;
+    }
+
+    private static final class Stats {
+
+        private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+        private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+        private final LongAdder conflicts = new LongAdder();
+
+        Stats() {
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new ConcurrentHistogram(3));
+                errors.put(operation, new LongAdder());
+            }
+        }
+
+        void record(Operation operation, long nanos, int status) {
+            latencies.get(operation).recordValue(nanos);
+            if (operation == Operation.BOOK && status == 409) {
+                conflicts.increment();
+            } else if (status >= 400) {
+                errors.get(operation).increment();
+            }
+        }
+
+        Map<String, Object> report(String scenario, long elapsedNanos, long doubleBookings) {
+            double seconds = elapsedNanos / 1_000_000_000.0;
+            long total = 0;
+            long failed = 0;
+            Map<String, Object> operations = new LinkedHashMap<>();
+            StringBuilder table = new StringBuilder();
+            for (Operation operation : Operation.values()) {
+                Histogram histogram = latencies.get(operation);
+                long count = histogram.getTotalCount();
+                if (count == 0) {
+                    continue;
+                }
+                long operationErrors = errors.get(operation).sum();
+                total += count;
+                failed += operationErrors;
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("count", count);
+                row.put("errors", operationErrors);
+                row.put("p50Ms", millis(histogram.getValueAtPercentile(50)));
+                row.put("p90Ms", millis(histogram.getValueAtPercentile(90)));
+                row.put("p99Ms", millis(histogram.getValueAtPercentile(99)));
+                row.put("p999Ms", millis(histogram.getValueAtPercentile(99.9)));
+                row.put("maxMs", millis(histogram.getMaxValue()));
+                operations.put(operation.name(), row);
+                table.append(String.format("  %-12s %7d %6d %9.2f %9.2f %9.2f %9.2f %9.2f%n", operation, count, operationErrors,
+                        row.get("p50Ms"), row.get("p90Ms"), row.get("p99Ms"), row.get("p999Ms"), row.get("maxMs")));
+            }
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("scenario", scenario);
+            report.put("requests", total);
+            report.put("elapsedMs", millis(elapsedNanos));
+            report.put("throughputPerSecond", total / seconds);
+            report.put("errors", failed);
+            report.put("errorRate", total == 0 ? 0.0 : (double) failed / total);
+            report.put("bookingConflicts", conflicts.sum());
+            report.put("doubleBookings", doubleBookings);
+            report.put("operations", operations);
+
+            System.out.printf("load scenario [%s]: %d requests in %.1f ms, %.0f req/s, errors=%d (%.2f%%), conflicts=%d, double bookings=%d%n",
+                    scenario, total, elapsedNanos / 1_000_000.0, total / seconds, failed,
+                    100.0 * (double) report.get("errorRate"), conflicts.sum(), doubleBookings);
+            System.out.printf("  %-12s %7s %6s %9s %9s %9s %9s %9s%n", "operation", "count", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+            System.out.print(table);
+            return report;
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
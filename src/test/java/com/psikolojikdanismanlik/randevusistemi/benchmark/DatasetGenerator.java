@@ -0,0 +1,441 @@
+package com.psikolojikdanismanlik.randevusistemi.benchmark;
+
+import com.psikolojikdanismanlik.randevusistemi.enums.Gender;
+import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import com.psikolojikdanismanlik.randevusistemi.enums.Status;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Fills users, clients, therapists, availabilities, appointments, feedbacks and therapist_rating_stats with
+ * consistent synthetic rows: every booked availability backs exactly one live appointment, cancelled
+ * appointments release their slot, feedback exists only on COMPLETED appointments and the rating aggregates
+ * match the feedback written. Rows are streamed through JDBC batches, or {@code COPY ... FROM STDIN} on
+ * PostgreSQL, and are identical for the same {@link Spec}. Ids continue after the rows already present and the
+ * sequences are moved past them.
+ * <p>
+ * Against a database whose schema the application has created:
+ * {@code mvn -Pbenchmark test-compile exec:exec@dataset -Ddataset.url=jdbc:postgresql://localhost/randevu
+ * -Ddataset.user=... -Ddataset.password=... -Ddataset.therapists=2000 -Ddataset.clients=200000}.
+ * Generated users log in with {@value #PASSWORD}.
+ */
+public final class DatasetGenerator {
+
+    public static final String PASSWORD = "password";
+
+    private static final String[] FIRST_NAMES = {
+            "Ayşe", "Fatma", "Emine", "Hatice", "Zeynep", "Elif", "Şule", "Gül", "Özlem", "Çiğdem",
+            "Mehmet", "Mustafa", "Ahmet", "Ali", "Hüseyin", "İbrahim", "İsmail", "Ömer", "Uğur", "Oğuz",
+            "Işıl", "Irmak", "Ilgın", "Sıla", "Buğra", "Doğan", "Ege", "Kaan", "Cem", "Deniz"
+    };
+    private static final String[] LAST_NAMES = {
+            "Yılmaz", "Kaya", "Demir", "Şahin", "Çelik", "Yıldız", "Yıldırım", "Öztürk", "Aydın", "Özdemir",
+            "Arslan", "Doğan", "Kılıç", "Aslan", "Çetin", "Kara", "Koç", "Kurt", "Özkan", "Şimşek",
+            "Işık", "Güneş", "Akgül", "Ergün", "Bulut", "Erdoğan", "Tekin", "Uçar", "İnce", "Karaca"
+    };
+    private static final String[] SPECIALIZATIONS = {
+            "Clinical Psychology", "Child and Adolescent Psychology", "Couples Therapy", "Family Therapy",
+            "Cognitive Behavioral Therapy", "Trauma and EMDR", "Addiction", "Anxiety Disorders"
+    };
+    private static final String[] COMMENTS = {
+            "Very helpful session.", "I felt heard.", "Good listener, practical advice.",
+            "Session started late.", "Would book again.", "Not what I expected."
+    };
+    private static final Status[] PAST_STATUSES = {
+            Status.COMPLETED, Status.NO_SHOW, Status.CANCELLED_BY_CLIENT, Status.CANCELLED_BY_THERAPIST, Status.RESCHEDULED
+    };
+    private static final int[] PAST_WEIGHTS = {72, 6, 12, 5, 5};
+    private static final Status[] FUTURE_STATUSES = {
+            Status.SCHEDULED, Status.PENDING_APPROVAL, Status.RESCHEDULE_REQUESTED_BY_CLIENT,
+            Status.CANCEL_REQUESTED_BY_CLIENT, Status.CANCELLED_BY_CLIENT, Status.CANCELLED_BY_THERAPIST
+    };
+    private static final int[] FUTURE_WEIGHTS = {55, 25, 5, 5, 7, 3};
+    private static final int[] RATING_WEIGHTS = {5, 7, 13, 30, 45};
+    private static final int ROSTER_SIZE = 24;
+
+    /**
+     * Dataset shape. {@code anchor} splits past from future appointments; the same spec always yields the same rows.
+     */
+    public record Spec(long seed, int therapists, int clients, LocalDate anchor, int weeksBack, int weeksAhead,
+                       int slotsPerDay, double occupancy, double feedbackRate, int batchSize) {
+
+        public static Spec of(long seed, int therapists, int clients) {
+            return new Spec(seed, therapists, clients, LocalDate.now(), 26, 8, 8, 0.6, 0.55, 5_000);
+        }
+
+        /** Availabilities written by this spec, roughly: working days times slots per day per therapist. */
+        public long estimatedAvailabilities() {
+            return (long) therapists * (weeksBack + weeksAhead) * 4 * slotsPerDay;
+        }
+    }
+
+    public record Summary(long users, long therapists, long clients, long availabilities, long appointments,
+                          long feedbacks, long elapsedMillis) {
+    }
+
+    private static final String[] TABLES = {"users", "therapists", "clients", "availabilities", "appointments", "feedbacks"};
+
+    private final DataSource dataSource;
+    private final Spec spec;
+
+    public DatasetGenerator(DataSource dataSource, Spec spec) {
+        this.dataSource = dataSource;
+        this.spec = spec;
+    }
+
+    public Summary generate() throws SQLException {
+        long began = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(spec.seed());
+        String passwordHash = new BCryptPasswordEncoder().encode(PASSWORD);
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            Map<String, Long> nextIds = new HashMap<>();
+            for (String table : TABLES) {
+                nextIds.put(table, Math.max(maxId(connection, table) + 1, nextSequenceValue(connection, table)));
+            }
+            long firstUser = nextIds.get("users");
+            long firstTherapist = nextIds.get("therapists");
+            long firstClient = nextIds.get("clients");
+            long firstAvailability = nextIds.get("availabilities");
+            long firstAppointment = nextIds.get("appointments");
+            long firstFeedback = nextIds.get("feedbacks");
+
+            try (Sinks sinks = new Sinks(connection, spec.batchSize())) {
+                Sink users = sinks.open("users", "id", "full_name", "email", "password", "phone_number", "gender", "role", "birth_date", "created_at");
+                Sink therapists = sinks.open("therapists", "id", "user_id", "specialization", "experience", "about");
+                Sink clients = sinks.open("clients", "id", "user_id");
+                Sink availabilities = sinks.open("availabilities", "id", "therapist_id", "start_time", "end_time", "booked");
+                Sink appointments = sinks.open("appointments", "id", "therapist_id", "client_id", "status", "start_time", "end_time",
+                        "created_at", "created_date", "requested_reschedule_time", "availability_id");
+                Sink feedbacks = sinks.open("feedbacks", "id", "comment", "rating", "created_at", "appointment_id", "client_id");
+                Sink ratingStats = sinks.open("therapist_rating_stats", "therapist_id", "rating_count", "rating_sum",
+                        "one_star", "two_star", "three_star", "four_star", "five_star");
+
+                LocalDateTime registeredFrom = spec.anchor().minusWeeks(spec.weeksBack() + 52L).atStartOfDay();
+                long userId = firstUser;
+                for (int t = 0; t < spec.therapists(); t++, userId++) {
+                    users.add(user(random, userId, Role.THERAPIST, passwordHash, registeredFrom));
+                    therapists.add(firstTherapist + t, userId, SPECIALIZATIONS[random.nextInt(SPECIALIZATIONS.length)],
+                            (1 + random.nextInt(30)) + " years", "Generated profile #" + (firstTherapist + t));
+                    sinks.flushIfFull();
+                }
+                for (int c = 0; c < spec.clients(); c++, userId++) {
+                    users.add(user(random, userId, Role.CLIENT, passwordHash, registeredFrom));
+                    clients.add(firstClient + c, userId);
+                    sinks.flushIfFull();
+                }
+
+                LocalDateTime now = spec.anchor().atTime(12, 0);
+                LocalDate firstDay = spec.anchor().minusWeeks(spec.weeksBack()).with(DayOfWeek.MONDAY);
+                LocalDate lastDay = spec.anchor().plusWeeks(spec.weeksAhead());
+                long availabilityId = firstAvailability;
+                long appointmentId = firstAppointment;
+                long feedbackId = firstFeedback;
+                for (int t = 0; t < spec.therapists(); t++) {
+                    long therapistId = firstTherapist + t;
+                    double popularity = Math.min(0.98, spec.occupancy() * (0.4 + 1.2 * random.nextDouble()));
+                    int workingDays = 0b11111 & ~(1 << random.nextInt(5)) & ~(random.nextBoolean() ? 1 << random.nextInt(5) : 0);
+                    int firstHour = 8 + random.nextInt(3);
+                    long[] roster = new long[ROSTER_SIZE];
+                    for (int r = 0; r < ROSTER_SIZE; r++) {
+                        roster[r] = firstClient + random.nextInt(spec.clients());
+                    }
+                    long[] histogram = new long[5];
+
+                    for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+                        int weekday = day.getDayOfWeek().getValue() - 1;
+                        if (weekday > 4 || (workingDays & (1 << weekday)) == 0) {
+                            continue;
+                        }
+                        for (int s = 0; s < spec.slotsPerDay(); s++) {
+                            LocalDateTime start = day.atTime(firstHour + s, 0);
+                            LocalDateTime end = start.plusMinutes(50);
+                            long slotId = availabilityId++;
+                            if (random.nextDouble() >= popularity) {
+                                availabilities.add(slotId, therapistId, start, end, false);
+                                continue;
+                            }
+                            boolean past = start.isBefore(now);
+                            Status status = pick(random, past ? PAST_STATUSES : FUTURE_STATUSES, past ? PAST_WEIGHTS : FUTURE_WEIGHTS);
+                            boolean released = status == Status.CANCELLED_BY_CLIENT || status == Status.CANCELLED_BY_THERAPIST;
+                            long clientId = random.nextInt(5) == 0 ? firstClient + random.nextInt(spec.clients()) : roster[random.nextInt(ROSTER_SIZE)];
+                            LocalDateTime createdAt = start.minusDays(1 + random.nextInt(30)).minusMinutes(random.nextInt(600));
+                            LocalDateTime rescheduleTo = status == Status.RESCHEDULE_REQUESTED_BY_CLIENT ? start.plusDays(1 + random.nextInt(7)) : null;
+
+                            availabilities.add(slotId, therapistId, start, end, !released);
+                            long id = appointmentId++;
+                            appointments.add(id, therapistId, clientId, status.name(), start, end, createdAt, createdAt.toLocalDate(),
+                                    rescheduleTo, released ? null : slotId);
+                            if (status == Status.COMPLETED && random.nextDouble() < spec.feedbackRate()) {
+                                int rating = 1 + pickIndex(random, RATING_WEIGHTS);
+                                histogram[rating - 1]++;
+                                feedbacks.add(feedbackId++, COMMENTS[random.nextInt(COMMENTS.length)], rating,
+                                        end.plusHours(random.nextInt(72)), id, clientId);
+                            }
+                            sinks.flushIfFull();
+                        }
+                    }
+                    long count = histogram[0] + histogram[1] + histogram[2] + histogram[3] + histogram[4];
+                    long sum = histogram[0] + 2 * histogram[1] + 3 * histogram[2] + 4 * histogram[3] + 5 * histogram[4];
+                    ratingStats.add(therapistId, count, sum, histogram[0], histogram[1], histogram[2], histogram[3], histogram[4]);
+                }
+                sinks.flush();
+
+                nextIds.put("users", userId);
+                nextIds.put("therapists", firstTherapist + spec.therapists());
+                nextIds.put("clients", firstClient + spec.clients());
+                nextIds.put("availabilities", availabilityId);
+                nextIds.put("appointments", appointmentId);
+                nextIds.put("feedbacks", feedbackId);
+            }
+            restartSequences(connection, nextIds);
+            connection.commit();
+
+            return new Summary(nextIds.get("users") - firstUser, spec.therapists(), spec.clients(),
+                    nextIds.get("availabilities") - firstAvailability, nextIds.get("appointments") - firstAppointment,
+                    nextIds.get("feedbacks") - firstFeedback, (System.nanoTime() - began) / 1_000_000);
+        }
+    }
+
+    private Object[] user(SplittableRandom random, long id, Role role, String passwordHash, LocalDateTime registeredFrom) {
+        String fullName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        Gender gender = Gender.values()[pickIndex(random, new int[]{48, 48, 4})];
+        LocalDate birthDate = LocalDate.of(1950 + random.nextInt(55), 1 + random.nextInt(12), 1 + random.nextInt(28));
+        return new Object[]{id, fullName, role.name().toLowerCase() + id + "@dataset.local", passwordHash,
+                "5" + (100_000_000 + random.nextInt(900_000_000)), gender.name(), role.name(), birthDate,
+                registeredFrom.plusMinutes(random.nextInt(365 * 24 * 60))};
+    }
+
+    private static Status pick(SplittableRandom random, Status[] values, int[] weights) {
+        return values[pickIndex(random, weights)];
+    }
+
+    private static int pickIndex(SplittableRandom random, int[] weights) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int roll = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            roll -= weights[i];
+            if (roll < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private static long maxId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    // Ids come from pooled-lo sequences: a running application may hold a block below the next sequence value, so
+    // generated ids start at that value at the earliest, and the sequence is moved past them afterwards.
+    private static long nextSequenceValue(Connection connection, String table) throws SQLException {
+        boolean postgres = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres");
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(postgres
+                     ? "SELECT nextval('" + table + "_seq')"
+                     : "SELECT NEXT VALUE FOR " + table + "_seq")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static void restartSequences(Connection connection, Map<String, Long> nextIds) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (Map.Entry<String, Long> next : nextIds.entrySet()) {
+                statement.execute("ALTER SEQUENCE " + next.getKey() + "_seq RESTART WITH " + next.getValue());
+            }
+        }
+    }
+
+    private interface Sink {
+        void add(Object... values) throws SQLException;
+    }
+
+    /**
+     * Buffers rows per table and writes them in declaration order, so a flushed child row never precedes its parent.
+     */
+    private static final class Sinks implements AutoCloseable {
+
+        private final Connection connection;
+        private final int batchSize;
+        private final CopyManager copyManager;
+        private final Map<String, Buffer> buffers = new LinkedHashMap<>();
+        private int pending;
+
+        Sinks(Connection connection, int batchSize) throws SQLException {
+            this.connection = connection;
+            this.batchSize = batchSize;
+            this.copyManager = connection.isWrapperFor(PGConnection.class)
+                    ? connection.unwrap(PGConnection.class).getCopyAPI()
+                    : null;
+        }
+
+        Sink open(String table, String... columns) throws SQLException {
+            Buffer buffer = copyManager != null ? new CopyBuffer(table, columns) : new BatchBuffer(table, columns);
+            buffers.put(table, buffer);
+            return values -> {
+                buffer.add(values);
+                pending++;
+            };
+        }
+
+        void flushIfFull() throws SQLException {
+            if (pending >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() throws SQLException {
+            for (Buffer buffer : buffers.values()) {
+                buffer.flush();
+            }
+            connection.commit();
+            pending = 0;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            for (Buffer buffer : buffers.values()) {
+                buffer.close();
+            }
+        }
+
+        private interface Buffer extends AutoCloseable {
+            void add(Object[] values) throws SQLException;
+
+            void flush() throws SQLException;
+
+            @Override
+            void close() throws SQLException;
+        }
+
+        private final class BatchBuffer implements Buffer {
+
+            private final PreparedStatement statement;
+            private int rows;
+
+            BatchBuffer(String table, String[] columns) throws SQLException {
+                this.statement = connection.prepareStatement("INSERT INTO " + table + " (" + String.join(", ", columns)
+                        + ") VALUES (" + "?, ".repeat(columns.length - 1) + "?)");
+            }
+
+            @Override
+            public void add(Object[] values) throws SQLException {
+                for (int i = 0; i < values.length; i++) {
+                    if (values[i] == null) {
+                        statement.setNull(i + 1, Types.NULL);
+                    } else {
+                        statement.setObject(i + 1, values[i]);
+                    }
+                }
+                statement.addBatch();
+                rows++;
+            }
+
+            @Override
+            public void flush() throws SQLException {
+                if (rows > 0) {
+                    statement.executeBatch();
+                    rows = 0;
+                }
+            }
+
+            @Override
+            public void close() throws SQLException {
+                statement.close();
+            }
+        }
+
+        private final class CopyBuffer implements Buffer {
+
+            private final String sql;
+            private final StringBuilder csv = new StringBuilder();
+
+            CopyBuffer(String table, String[] columns) {
+                this.sql = "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)";
+            }
+
+            @Override
+            public void add(Object[] values) {
+                for (int i = 0; i < values.length; i++) {
+                    if (i > 0) {
+                        csv.append(',');
+                    }
+                    Object value = values[i];
+                    if (value instanceof String text) {
+                        csv.append('"').append(text.replace("\"", "\"\"")).append('"');
+                    } else if (value != null) {
+                        csv.append(value);
+                    }
+                }
+                csv.append('\n');
+            }
+
+            @Override
+            public void flush() throws SQLException {
+                if (csv.isEmpty()) {
+                    return;
+                }
+                try {
+                    copyManager.copyIn(sql, new StringReader(csv.toString()));
+                } catch (IOException e) {
+                    throw new SQLException("COPY failed: " + sql, e);
+                }
+                csv.setLength(0);
+            }
+
+            @Override
+            public void close() {
+            }
+        }
+    }
+
+    /**
+     * Arguments are {@code key=value} pairs: url, user, password, therapists, clients, seed.
+     */
+    public static void main(String[] args) throws SQLException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(options.get("url"),
+                options.getOrDefault("user", ""), options.getOrDefault("password", ""));
+        Spec spec = Spec.of(Long.parseLong(options.getOrDefault("seed", "42")),
+                Integer.parseInt(options.getOrDefault("therapists", "2000")),
+                Integer.parseInt(options.getOrDefault("clients", "200000")));
+        System.out.printf("generating about %,d availabilities for %,d therapists and %,d clients (seed %d)%n",
+                spec.estimatedAvailabilities(), spec.therapists(), spec.clients(), spec.seed());
+        Summary summary = new DatasetGenerator(dataSource, spec).generate();
+        System.out.println(summary);
+    }
+}
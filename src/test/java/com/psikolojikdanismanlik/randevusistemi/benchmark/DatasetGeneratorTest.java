@@ -0,0 +1,74 @@
+package com.psikolojikdanismanlik.randevusistemi.benchmark;
+
+import com.psikolojikdanismanlik.randevusistemi.config.MigrationConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(MigrationConfig.class)
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:dataset;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DatasetGeneratorTest {
+
+    private static final DatasetGenerator.Spec SPEC =
+            new DatasetGenerator.Spec(7, 12, 60, LocalDate.of(2025, 3, 12), 4, 2, 6, 0.6, 0.55, 97);
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void generatesConsistentReproducibleRows() throws Exception {
+        DatasetGenerator.Summary first = new DatasetGenerator(dataSource, SPEC).generate();
+
+        assertThat(count("SELECT COUNT(*) FROM users")).isEqualTo(first.users()).isEqualTo(72);
+        assertThat(count("SELECT COUNT(*) FROM availabilities")).isEqualTo(first.availabilities()).isPositive();
+        assertThat(count("SELECT COUNT(*) FROM appointments")).isEqualTo(first.appointments()).isPositive();
+        assertThat(count("SELECT COUNT(*) FROM feedbacks")).isEqualTo(first.feedbacks()).isPositive();
+
+        assertThat(count("SELECT COUNT(*) FROM availabilities v WHERE v.booked <> "
+                + "(EXISTS (SELECT 1 FROM appointments a WHERE a.availability_id = v.id))")).isZero();
+        assertThat(count("SELECT COUNT(*) FROM appointments WHERE availability_id IS NULL "
+                + "AND status NOT IN ('CANCELLED_BY_CLIENT', 'CANCELLED_BY_THERAPIST')")).isZero();
+        assertThat(count("SELECT COUNT(*) FROM appointments a JOIN availabilities v ON v.id = a.availability_id "
+                + "WHERE v.therapist_id <> a.therapist_id OR v.start_time <> a.start_time")).isZero();
+        assertThat(count("SELECT COUNT(*) FROM feedbacks f JOIN appointments a ON a.id = f.appointment_id "
+                + "WHERE a.status <> 'COMPLETED' OR f.client_id <> a.client_id")).isZero();
+        assertThat(count("SELECT COUNT(*) FROM therapist_rating_stats s WHERE s.rating_count <> "
+                + "(SELECT COUNT(*) FROM feedbacks f JOIN appointments a ON a.id = f.appointment_id WHERE a.therapist_id = s.therapist_id) "
+                + "OR s.rating_sum <> (SELECT COALESCE(SUM(f.rating), 0) FROM feedbacks f JOIN appointments a ON a.id = f.appointment_id "
+                + "WHERE a.therapist_id = s.therapist_id)")).isZero();
+
+        List<String> firstRows = appointmentFingerprint(0);
+        DatasetGenerator.Summary second = new DatasetGenerator(dataSource, SPEC).generate();
+        assertThat(second.appointments()).isEqualTo(first.appointments());
+        assertThat(appointmentFingerprint(first.appointments())).isEqualTo(firstRows);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private List<String> appointmentFingerprint(long skip) {
+        return jdbcTemplate.queryForList("SELECT CONCAT(a.status, '|', a.start_time, '|', a.client_id - c.first_id, '|', "
+                        + "a.therapist_id - t.first_id, '|', COALESCE(f.rating, 0)) FROM appointments a "
+                        + "LEFT JOIN feedbacks f ON f.appointment_id = a.id "
+                        + "CROSS JOIN (SELECT MIN(id) first_id FROM clients WHERE id > ?) c "
+                        + "CROSS JOIN (SELECT MIN(id) first_id FROM therapists WHERE id > ?) t "
+                        + "ORDER BY a.id OFFSET ? ROWS FETCH NEXT ? ROWS ONLY",
+                String.class, skip == 0 ? 0 : SPEC.clients(), skip == 0 ? 0 : SPEC.therapists(), skip, 1_000_000);
+    }
+}
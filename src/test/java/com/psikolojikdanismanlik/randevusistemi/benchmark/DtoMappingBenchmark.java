@@ -0,0 +1,137 @@
+package com.psikolojikdanismanlik.randevusistemi.benchmark;
+
+import com.psikolojikdanismanlik.randevusistemi.dto.response.AppointmentResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.ClientResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.TherapistResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.UserResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.entity.Appointment;
+import com.psikolojikdanismanlik.randevusistemi.entity.Availability;
+import com.psikolojikdanismanlik.randevusistemi.entity.Client;
+import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
+import com.psikolojikdanismanlik.randevusistemi.entity.User;
+import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import com.psikolojikdanismanlik.randevusistemi.enums.Status;
+import com.psikolojikdanismanlik.randevusistemi.mapper.AppointmentMapper;
+import com.psikolojikdanismanlik.randevusistemi.mapper.AppointmentMapperImpl;
+import com.psikolojikdanismanlik.randevusistemi.mapper.ClientMapper;
+import com.psikolojikdanismanlik.randevusistemi.mapper.ClientMapperImpl;
+import com.psikolojikdanismanlik.randevusistemi.mapper.TherapistMapper;
+import com.psikolojikdanismanlik.randevusistemi.mapper.TherapistMapperImpl;
+import com.psikolojikdanismanlik.randevusistemi.mapper.UserMapper;
+import com.psikolojikdanismanlik.randevusistemi.mapper.UserMapperImpl;
+import com.psikolojikdanismanlik.randevusistemi.repository.projection.AppointmentListView;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Entity to response DTO mapping: the generated mappers against the {@code ModelMapper} default configuration
+ * the services used before. APPOINTMENT_ROW is the list-endpoint path, mapping an {@link AppointmentListView} row. Entities are plain objects here, so ModelMapper's walk over the lazy therapist
+ * collections costs no queries; in the application each touched collection was also a load.
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="DtoMappingBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @Param({"MODELMAPPER", "GENERATED"})
+    public String mapper;
+
+    @Param({"APPOINTMENT", "APPOINTMENT_ROW", "THERAPIST", "CLIENT", "USER"})
+    public String target;
+
+    private Supplier<Object> mapping;
+
+    private record Row(Long getId, Long getTherapistId, Long getClientId, LocalDateTime getStartTime,
+                       LocalDate getCreatedDate, Status getStatus, String getTherapistName, String getClientName)
+            implements AppointmentListView {
+    }
+
+    @Setup
+    public void setUp() {
+        User therapistUser = user(1L, "Zeynep Yılmaz", Role.THERAPIST);
+        Therapist therapist = new Therapist();
+        therapist.setId(2L);
+        therapist.setUser(therapistUser);
+        therapist.setSpecialization("Bilişsel davranışçı terapi");
+        therapist.setExperience("12 yıl");
+        therapist.setAbout("Yetişkin ve ergenlerle çalışıyor.");
+        therapistUser.setTherapist(therapist);
+
+        User clientUser = user(3L, "Ahmet Kaya", Role.CLIENT);
+        Client client = new Client();
+        client.setId(4L);
+        client.setUser(clientUser);
+        clientUser.setClient(client);
+
+        Availability availability = new Availability();
+        availability.setId(6L);
+        availability.setTherapist(therapist);
+        availability.setStartTime(LocalDateTime.of(2025, 3, 10, 14, 0));
+        availability.setEndTime(availability.getStartTime().plusHours(1));
+        therapist.getAvailabilities().add(availability);
+
+        Appointment appointment = new Appointment();
+        appointment.setId(5L);
+        appointment.setTherapist(therapist);
+        appointment.setClient(client);
+        appointment.setAvailability(availability);
+        appointment.setStatus(Status.PENDING);
+        appointment.setStartTime(availability.getStartTime());
+        appointment.setEndTime(availability.getEndTime());
+        appointment.setCreatedDate(LocalDate.of(2025, 3, 1));
+        therapist.getAppointments().add(appointment);
+        client.getAppointments().add(appointment);
+        Row row = new Row(appointment.getId(), therapist.getId(), client.getId(), appointment.getStartTime(),
+                appointment.getCreatedDate(), appointment.getStatus(), therapistUser.getFullName(), clientUser.getFullName());
+
+        if (mapper.equals("MODELMAPPER")) {
+            ModelMapper modelMapper = new ModelMapper();
+            mapping = switch (target) {
+                case "APPOINTMENT" -> () -> modelMapper.map(appointment, AppointmentResponseDto.class);
+                case "APPOINTMENT_ROW" -> () -> modelMapper.map(row, AppointmentResponseDto.class);
+                case "THERAPIST" -> () -> modelMapper.map(therapist, TherapistResponseDto.class);
+                case "CLIENT" -> () -> modelMapper.map(client, ClientResponseDto.class);
+                case "USER" -> () -> modelMapper.map(clientUser, UserResponseDto.class);
+                default -> throw new IllegalArgumentException(target);
+            };
+            return;
+        }
+        AppointmentMapper appointmentMapper = new AppointmentMapperImpl();
+        TherapistMapper therapistMapper = new TherapistMapperImpl();
+        ClientMapper clientMapper = new ClientMapperImpl();
+        UserMapper userMapper = new UserMapperImpl();
+        mapping = switch (target) {
+            case "APPOINTMENT" -> () -> appointmentMapper.toDto(appointment);
+            case "APPOINTMENT_ROW" -> () -> appointmentMapper.toDto(row);
+            case "THERAPIST" -> () -> therapistMapper.toDto(therapist);
+            case "CLIENT" -> () -> clientMapper.toDto(client);
+            case "USER" -> () -> userMapper.toDto(clientUser);
+            default -> throw new IllegalArgumentException(target);
+        };
+    }
+
+    @Benchmark
+    public Object map() {
+        return mapping.get();
+    }
+
+    private static User user(Long id, String fullName, Role role) {
+        User user = new User();
+        user.setId(id);
+        user.setFullName(fullName);
+        user.setEmail("user" + id + "@bench.local");
+        user.setPhoneNumber("+90 555 000 00 0" + id);
+        user.setRole(role);
+        user.setBirthDate(LocalDate.of(1990, 1, 1));
+        return user;
+    }
+}
@@ -0,0 +1,126 @@
+package com.psikolojikdanismanlik.randevusistemi.benchmark;
+
+import com.psikolojikdanismanlik.randevusistemi.entity.User;
+import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import com.psikolojikdanismanlik.randevusistemi.filter.JwtAuthenticationFilter;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
+import com.psikolojikdanismanlik.randevusistemi.util.JwtUtil;
+import com.psikolojikdanismanlik.randevusistemi.util.VerifiedTokenCache;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating one request in {@link JwtAuthenticationFilter}.
+ * LEGACY replays the pre-claims filter (key rebuilt per parse, token parsed twice, user lookup);
+ * the user lookup is an in-memory map here, so a real database round trip would widen the gap.
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="JwtAuthenticationFilterBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"LEGACY", "LOOKUP", "CLAIMS", "CLAIMS_CACHED"})
+    public String mode;
+
+    private Filter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private final FilterChain chain = (req, res) -> { };
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil();
+        User user = new User();
+        user.setId(42L);
+        user.setEmail("client@bench.local");
+        user.setRole(Role.CLIENT);
+        String token = jwtUtil.generateToken(user);
+
+        UserDetails userDetails = new AuthenticatedUser(user.getId(), user.getEmail(), "hash", Role.CLIENT, 7L, null);
+        UserDetailsService userDetailsService = username -> userDetails;
+
+        filter = switch (mode) {
+            case "LEGACY" -> new LegacyFilter(userDetailsService);
+            case "LOOKUP" -> new JwtAuthenticationFilter(userDetailsService, jwtUtil, false, new VerifiedTokenCache(0, jwtUtil.tokenLifetime()), new SimpleMeterRegistry());
+            case "CLAIMS" -> new JwtAuthenticationFilter(userDetailsService, jwtUtil, true, new VerifiedTokenCache(0, jwtUtil.tokenLifetime()), new SimpleMeterRegistry());
+            case "CLAIMS_CACHED" -> new JwtAuthenticationFilter(userDetailsService, jwtUtil, true, new VerifiedTokenCache(10_000, jwtUtil.tokenLifetime()), new SimpleMeterRegistry());
+            default -> throw new IllegalArgumentException(mode);
+        };
+
+        request = new MockHttpServletRequest("GET", "/api/appointments/clients/1/future");
+        request.setServletPath("/api/appointments/clients/1/future");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object authenticateRequest() throws ServletException, IOException {
+        filter.doFilter(request, response, chain);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    static final class LegacyFilter extends OncePerRequestFilter {
+
+        private final UserDetailsService userDetailsService;
+
+        LegacyFilter(UserDetailsService userDetailsService) {
+            this.userDetailsService = userDetailsService;
+        }
+
+        private Key getKey() {
+            return Keys.hmacShaKeyFor("gizliAnahtarEnAz32KarakterUzunlugundaGizli".getBytes());
+        }
+
+        private String extractUsername(String token) {
+            return Jwts.parserBuilder().setSigningKey(getKey()).build()
+                    .parseClaimsJws(token).getBody().getSubject();
+        }
+
+        private boolean isExpired(String token) {
+            return Jwts.parserBuilder().setSigningKey(getKey()).build()
+                    .parseClaimsJws(token).getBody().getExpiration().before(new Date());
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request,
+                                        HttpServletResponse response,
+                                        FilterChain filterChain) throws ServletException, IOException {
+            String token = request.getHeader("Authorization").substring(7);
+            String username = extractUsername(token);
+            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            if (extractUsername(token).equals(userDetails.getUsername()) && !isExpired(token)) {
+                UsernamePasswordAuthenticationToken authToken =
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+            }
+            filterChain.doFilter(request, response);
+        }
+    }
+}
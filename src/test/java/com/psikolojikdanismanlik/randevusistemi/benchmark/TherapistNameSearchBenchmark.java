@@ -0,0 +1,121 @@
+package com.psikolojikdanismanlik.randevusistemi.benchmark;
+
+import com.psikolojikdanismanlik.randevusistemi.index.TherapistNameIndex;
+import com.psikolojikdanismanlik.randevusistemi.repository.projection.TherapistDirectoryView;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TherapistNameIndex} against the {@code LOWER(full_name) LIKE LOWER('%name%')} query it replaces,
+ * over 100k therapists in an in-memory H2 database (no network round trip, so the gap is a lower bound).
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="TherapistNameSearchBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TherapistNameSearchBenchmark {
+
+    private static final int THERAPISTS = 100_000;
+    private static final String[] FIRST_NAMES = {
+            "Ayşe", "Fatma", "Emine", "Hatice", "Zeynep", "Elif", "Şule", "Gül", "Özlem", "Çiğdem",
+            "Mehmet", "Mustafa", "Ahmet", "Ali", "Hüseyin", "İbrahim", "İsmail", "Ömer", "Uğur", "Oğuz",
+            "Işıl", "Irmak", "Ilgın", "Sıla", "Buğra", "Doğan", "Ege", "Kaan", "Cem", "Deniz"
+    };
+    private static final String[] LAST_NAMES = {
+            "Yılmaz", "Kaya", "Demir", "Şahin", "Çelik", "Yıldız", "Yıldırım", "Öztürk", "Aydın", "Özdemir",
+            "Arslan", "Doğan", "Kılıç", "Aslan", "Çetin", "Kara", "Koç", "Kurt", "Özkan", "Şimşek",
+            "Işık", "Güneş", "Akgül", "Ergün", "Bulut", "Erdoğan", "Tekin", "Uçar", "İnce", "Karaca"
+    };
+
+    @Param({"yıl", "ayse kaya", "ISIK", "zeynep özk"})
+    public String query;
+
+    @Param({"INDEX", "LIKE"})
+    public String mode;
+
+    private Connection connection;
+    private PreparedStatement likeQuery;
+    private TherapistNameIndex index;
+
+    private record Row(Long getId, String getFullName, String getSpecialization, String getExperience)
+            implements TherapistDirectoryView {
+    }
+
+    @Setup
+    public void setUp() throws SQLException {
+        Random random = new Random(42);
+        List<Row> rows = new ArrayList<>(THERAPISTS);
+        for (long id = 1; id <= THERAPISTS; id++) {
+            String fullName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " " + id;
+            rows.add(new Row(id, fullName, "Specialization", "Experience"));
+        }
+
+        if (mode.equals("INDEX")) {
+            index = new TherapistNameIndex(null, Runnable::run);
+            index.replaceAll(rows);
+            return;
+        }
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:name-search;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, full_name VARCHAR(255) NOT NULL)");
+            statement.execute("CREATE TABLE therapists (id BIGINT PRIMARY KEY, user_id BIGINT REFERENCES users(id), "
+                    + "specialization VARCHAR(255), experience VARCHAR(255))");
+        }
+        try (PreparedStatement users = connection.prepareStatement("INSERT INTO users VALUES (?, ?)");
+             PreparedStatement therapists = connection.prepareStatement("INSERT INTO therapists VALUES (?, ?, ?, ?)")) {
+            for (Row row : rows) {
+                users.setLong(1, row.getId());
+                users.setString(2, row.getFullName());
+                users.addBatch();
+                therapists.setLong(1, row.getId());
+                therapists.setLong(2, row.getId());
+                therapists.setString(3, row.getSpecialization());
+                therapists.setString(4, row.getExperience());
+                therapists.addBatch();
+            }
+            users.executeBatch();
+            therapists.executeBatch();
+        }
+        likeQuery = connection.prepareStatement("SELECT t.id, u.full_name, t.specialization, t.experience "
+                + "FROM therapists t JOIN users u ON u.id = t.user_id "
+                + "WHERE LOWER(u.full_name) LIKE LOWER(CONCAT('%', ?, '%'))");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public int search() throws SQLException {
+        if (index != null) {
+            return index.search(query, 50).size();
+        }
+        likeQuery.setString(1, query);
+        int found = 0;
+        try (ResultSet resultSet = likeQuery.executeQuery()) {
+            while (resultSet.next()) {
+                resultSet.getString(2);
+                found++;
+            }
+        }
+        return found;
+    }
+}
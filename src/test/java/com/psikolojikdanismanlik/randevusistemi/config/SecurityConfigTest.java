@@ -0,0 +1,161 @@
+package com.psikolojikdanismanlik.randevusistemi.config;
+
+import com.psikolojikdanismanlik.randevusistemi.entity.Appointment;
+import com.psikolojikdanismanlik.randevusistemi.entity.Client;
+import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
+import com.psikolojikdanismanlik.randevusistemi.entity.User;
+import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import com.psikolojikdanismanlik.randevusistemi.enums.Status;
+import com.psikolojikdanismanlik.randevusistemi.repository.AppointmentRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.ClientRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.TherapistRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.UserRepository;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+
+import static com.psikolojikdanismanlik.randevusistemi.TestData.deleteAll;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newClient;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newTherapist;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newUser;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SecurityConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TherapistRepository therapistRepository;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Therapist therapist;
+    private Client client;
+    private Appointment appointment;
+    private AuthenticatedUser therapistPrincipal;
+    private AuthenticatedUser clientPrincipal;
+    private AuthenticatedUser adminPrincipal;
+
+    @BeforeEach
+    void setUp() {
+        User therapistUser = userRepository.save(newUser("rules-therapist@test.local", Role.THERAPIST));
+        therapist = therapistRepository.save(newTherapist(therapistUser));
+        therapistPrincipal = new AuthenticatedUser(therapistUser.getId(), therapistUser.getEmail(), "", Role.THERAPIST, null, therapist.getId());
+
+        User clientUser = userRepository.save(newUser("rules-client@test.local", Role.CLIENT));
+        client = clientRepository.save(newClient(clientUser));
+        clientPrincipal = new AuthenticatedUser(clientUser.getId(), clientUser.getEmail(), "", Role.CLIENT, client.getId(), null);
+
+        User adminUser = userRepository.save(newUser("rules-admin@test.local", Role.ADMIN));
+        adminPrincipal = new AuthenticatedUser(adminUser.getId(), adminUser.getEmail(), "", Role.ADMIN, null, null);
+
+        appointment = new Appointment();
+        appointment.setTherapist(therapist);
+        appointment.setClient(client);
+        appointment.setStatus(Status.PENDING);
+        appointment.setStartTime(LocalDateTime.now().plusDays(2).withNano(0));
+        appointment.setEndTime(appointment.getStartTime().plusHours(1));
+        appointment = appointmentRepository.save(appointment);
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void onlyClientsListAppointmentsByClient() throws Exception {
+        mockMvc.perform(get("/api/appointments/{id}", client.getId()).with(user(clientPrincipal)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/appointments/{id}", client.getId()).with(user(therapistPrincipal)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/appointments/{id}", client.getId()))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(get("/api/appointments/{id}/cursor", client.getId()).with(user(clientPrincipal)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/appointments/{id}/cursor", client.getId()).with(user(therapistPrincipal)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/appointments/{id}/cursor", client.getId()))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void therapistsAndAdminsUpdateStatusButClientsDoNot() throws Exception {
+        mockMvc.perform(statusUpdate(Status.SCHEDULED).with(user(clientPrincipal)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(statusUpdate(Status.SCHEDULED).with(user(therapistPrincipal)))
+                .andExpect(status().isOk());
+        mockMvc.perform(statusUpdate(Status.COMPLETED).with(user(adminPrincipal)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void onlyClientsRequestAReschedule() throws Exception {
+        mockMvc.perform(put("/api/appointments/{id}/reschedule", appointment.getId()).with(user(therapistPrincipal))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"newTime\":\"" + appointment.getStartTime().plusDays(1) + "\"}"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void publishingASlotNeedsATherapistWhileReadingSlotsStaysOpen() throws Exception {
+        String availabilities = "/api/therapists/" + therapist.getId() + "/availabilities";
+
+        mockMvc.perform(slot(availabilities))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(slot(availabilities).with(user(clientPrincipal)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(slot(availabilities).with(user(therapistPrincipal)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get(availabilities + "/rules"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void healthIsOpenWhileOtherActuatorEndpointsNeedAnAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/requesttraces"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/requesttraces").with(user(therapistPrincipal)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/requesttraces").with(user(adminPrincipal)))
+                .andExpect(status().isOk());
+    }
+
+    private MockHttpServletRequestBuilder statusUpdate(Status status) {
+        return put("/api/appointments/{id}/status", appointment.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"" + status + "\"}");
+    }
+
+    private MockHttpServletRequestBuilder slot(String availabilities) {
+        LocalDateTime start = LocalDateTime.now().plusDays(3).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        return post(availabilities)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"startTime\":\"" + start + "\",\"endTime\":\"" + start.plusMinutes(50) + "\"}");
+    }
+}
@@ -0,0 +1,342 @@
+package com.psikolojikdanismanlik.randevusistemi.controller;
+
+import com.psikolojikdanismanlik.randevusistemi.entity.Appointment;
+import com.psikolojikdanismanlik.randevusistemi.entity.Availability;
+import com.psikolojikdanismanlik.randevusistemi.entity.Client;
+import com.psikolojikdanismanlik.randevusistemi.entity.Feedback;
+import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
+import com.psikolojikdanismanlik.randevusistemi.entity.User;
+import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import com.psikolojikdanismanlik.randevusistemi.enums.Status;
+import com.psikolojikdanismanlik.randevusistemi.repository.AppointmentRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.AvailabilityRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.ClientRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.TherapistRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.UserRepository;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static com.psikolojikdanismanlik.randevusistemi.TestData.deleteAll;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newClient;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newTherapist;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newUser;
+import static org.assertj.core.api.Assertions.fail;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Calls each endpoint on a small fixture and compares the Hibernate statistics of the request (prepared statements,
+ * entity loads, collection fetches) with the budgets committed in {@value #BUDGETS}. Every endpoint is called once
+ * to warm up and once measured, with the Spring caches emptied before the measured call so the cold path is what
+ * counts. Statements run through JdbcTemplate are not in the Hibernate statistics. Wall time depends on the machine,
+ * so it is logged for each endpoint but never fails the test.
+ * <p>
+ * When an endpoint goes over budget the test fails with a diff of budget and measured values. After an intended
+ * change, {@code mvn test -Dtest=QueryBudgetTest -Dquery.budgets.update=true} rewrites the file with the measured
+ * values, to be reviewed with the change.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class QueryBudgetTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryBudgetTest.class);
+    private static final String BUDGETS = "query-budgets.txt";
+    private static final Path BUDGETS_SOURCE = Path.of("src", "test", "resources", BUDGETS);
+    private static final LocalDateTime NEXT_MONDAY = LocalDate.now().plusWeeks(1)
+            .with(DayOfWeek.MONDAY).atTime(9, 0);
+    private static final int CLIENTS = 3;
+    private static final int PASSES = 2;
+
+    record Usage(long statements, long entities, long collections, long millis) {
+
+        String format() {
+            return "statements=" + statements + " entities=" + entities + " collections=" + collections;
+        }
+    }
+
+    private record Endpoint(String name, IntFunction<RequestBuilder> request) {
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TherapistRepository therapistRepository;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private AvailabilityRepository availabilityRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Therapist therapist;
+    private final List<Client> clients = new ArrayList<>();
+    private final List<Availability> bookable = new ArrayList<>();
+    private AuthenticatedUser admin;
+
+    @BeforeEach
+    void setUp() {
+        User adminUser = account("budget-admin@test.local", "Budget Admin", Role.ADMIN);
+        admin = principal(adminUser, null, null);
+
+        therapist = newTherapist(account("budget-therapist@test.local", "Budget Therapist", Role.THERAPIST));
+        therapist.setSpecialization("Anxiety");
+        therapist = therapistRepository.save(therapist);
+
+        for (int c = 0; c < CLIENTS; c++) {
+            Client client = newClient(account("budget-client" + c + "@test.local", "Budget Client " + c, Role.CLIENT));
+            clients.add(clientRepository.save(client));
+        }
+        for (int day = 0; day < 4; day++) {
+            for (Client client : clients) {
+                boolean past = day < 2;
+                LocalDateTime start = NEXT_MONDAY.plusDays(past ? day - 14 : day).plusHours(clients.indexOf(client));
+                Availability slot = slot(start, true);
+                Appointment appointment = new Appointment();
+                appointment.setTherapist(therapist);
+                appointment.setClient(client);
+                appointment.setAvailability(slot);
+                appointment.setStatus(past ? Status.COMPLETED : Status.SCHEDULED);
+                appointment.setStartTime(start);
+                appointment.setEndTime(start.plusMinutes(50));
+                appointment.setCreatedAt(start.minusDays(7));
+                if (past) {
+                    Feedback feedback = new Feedback();
+                    feedback.setRating(4 + day % 2);
+                    feedback.setClient(client);
+                    feedback.setAppointment(appointment);
+                    appointment.setFeedback(feedback);
+                }
+                appointmentRepository.save(appointment);
+            }
+        }
+        for (int pass = 0; pass < PASSES; pass++) {
+            bookable.add(slot(NEXT_MONDAY.plusDays(7 + pass), false));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void endpointsStayWithinTheirQueryBudgets() throws Exception {
+        Client client = clients.get(0);
+        AuthenticatedUser clientPrincipal = principal(client.getUser(), client.getId(), null);
+        AuthenticatedUser therapistPrincipal = principal(therapist.getUser(), null, therapist.getId());
+        Long therapistId = therapist.getId();
+        String availabilities = "/api/therapists/" + therapistId + "/availabilities";
+
+        List<Endpoint> endpoints = List.of(
+                new Endpoint("POST /api/auth/login", pass -> post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"budget-client0@test.local\",\"password\":\"secret\"}")),
+                new Endpoint("POST /api/auth/register", pass -> post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"budget-new" + pass + "@test.local\",\"password\":\"secret\",\"fullName\":\"New Client\","
+                                + "\"role\":\"CLIENT\",\"birthDate\":\"1995-05-05\"}")),
+                new Endpoint("GET /api/users/{id}", pass -> get("/api/users/{id}", client.getUser().getId()).with(user(admin))),
+                new Endpoint("GET /api/users/list", pass -> get("/api/users/list").with(user(admin))),
+                new Endpoint("GET /api/users/role", pass -> get("/api/users/role").param("role", "CLIENT").with(user(admin))),
+                new Endpoint("GET /api/clients/user/{userId}", pass -> get("/api/clients/user/{userId}", client.getUser().getId())
+                        .with(user(clientPrincipal))),
+                new Endpoint("GET /api/therapists", pass -> get("/api/therapists")),
+                new Endpoint("GET /api/therapists/{id}", pass -> get("/api/therapists/{id}", therapistId)),
+                new Endpoint("GET /api/therapists/me", pass -> get("/api/therapists/me").with(user(therapistPrincipal))),
+                new Endpoint("GET /api/therapists/search", pass -> get("/api/therapists/search").param("name", "budget")),
+                new Endpoint("GET /api/therapists/clients", pass -> get("/api/therapists/clients").with(user(therapistPrincipal))),
+                new Endpoint("GET /api/therapists/my-appointments", pass -> get("/api/therapists/my-appointments")
+                        .with(user(therapistPrincipal))),
+                new Endpoint("GET /api/therapists/my-appointments/cursor", pass -> get("/api/therapists/my-appointments/cursor")
+                        .with(user(therapistPrincipal))),
+                new Endpoint("GET /api/therapists/available-slots", pass -> get("/api/therapists/available-slots")
+                        .param("from", NEXT_MONDAY.toString())),
+                new Endpoint("GET /api/appointments/{id}", pass -> get("/api/appointments/{id}", client.getId())
+                        .with(user(clientPrincipal))),
+                new Endpoint("GET /api/appointments/{id}/cursor", pass -> get("/api/appointments/{id}/cursor", client.getId())
+                        .with(user(clientPrincipal))),
+                new Endpoint("GET /api/appointments/clients/{clientId}/future", pass -> get("/api/appointments/clients/{clientId}/future",
+                        client.getId()).with(user(clientPrincipal))),
+                new Endpoint("GET /api/appointments/clients/{clientId}/past", pass -> get("/api/appointments/clients/{clientId}/past",
+                        client.getId()).with(user(clientPrincipal))),
+                new Endpoint("GET /api/appointments/therapists/{therapistId}/export", pass -> get(
+                        "/api/appointments/therapists/{therapistId}/export", therapistId).with(user(therapistPrincipal))),
+                new Endpoint("POST /api/appointments", pass -> post("/api/appointments").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"availabilityId\":" + bookable.get(pass).getId() + "}").with(user(clientPrincipal))),
+                new Endpoint("GET /api/therapists/{therapistId}/availabilities", pass -> get(availabilities)
+                        .with(user(clientPrincipal))),
+                new Endpoint("GET /api/therapists/{therapistId}/availabilities/cursor", pass -> get(availabilities + "/cursor")),
+                new Endpoint("GET /api/therapists/{therapistId}/availabilities/free-busy", pass -> get(availabilities + "/free-busy")
+                        .param("from", NEXT_MONDAY.toString()).param("to", NEXT_MONDAY.plusDays(7).toString())),
+                new Endpoint("GET /api/therapists/{therapistId}/availabilities/available-at", pass -> get(availabilities + "/available-at")
+                        .param("time", NEXT_MONDAY.plusDays(7).plusMinutes(10).toString()).with(user(clientPrincipal))),
+                new Endpoint("GET /api/therapists/{therapistId}/availabilities/rules", pass -> get(availabilities + "/rules")),
+                new Endpoint("GET /api/therapists/{therapistId}/availabilities/exceptions", pass -> get(availabilities + "/exceptions")),
+                new Endpoint("GET /api/feedbacks/therapists/{therapistId}/average-rating", pass -> get(
+                        "/api/feedbacks/therapists/{therapistId}/average-rating", therapistId).with(user(clientPrincipal))),
+                new Endpoint("GET /api/feedbacks/therapists/{therapistId}/rating-summary", pass -> get(
+                        "/api/feedbacks/therapists/{therapistId}/rating-summary", therapistId).with(user(clientPrincipal)))
+        );
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Usage> measured = new LinkedHashMap<>();
+        for (int pass = 0; pass < PASSES; pass++) {
+            for (Endpoint endpoint : endpoints) {
+                cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+                statistics.clear();
+                long began = System.nanoTime();
+                int status = mockMvc.perform(endpoint.request().apply(pass)).andReturn().getResponse().getStatus();
+                long millis = (System.nanoTime() - began) / 1_000_000;
+                if (status >= 300) {
+                    fail(endpoint.name() + " answered " + status + "; the fixture no longer fits the endpoint.");
+                }
+                measured.put(endpoint.name(), new Usage(statistics.getPrepareStatementCount(),
+                        statistics.getEntityLoadCount(), statistics.getCollectionFetchCount(), millis));
+            }
+        }
+
+        StringBuilder timings = new StringBuilder("Cold request times:");
+        measured.forEach((endpoint, usage) -> timings.append("\n  ").append(endpoint).append(": ").append(usage.millis()).append(" ms"));
+        logger.info(timings.toString());
+
+        if (Boolean.getBoolean("query.budgets.update")) {
+            write(measured);
+            return;
+        }
+        String report = compare(read(), measured);
+        if (!report.isEmpty()) {
+            fail("Query budgets in " + BUDGETS + " do not match (- budget, + measured):\n" + report
+                    + "Rerun with -Dquery.budgets.update=true to accept the measured values.");
+        }
+    }
+
+    static String compare(Map<String, Usage> budgets, Map<String, Usage> measured) {
+        StringBuilder report = new StringBuilder();
+        for (Map.Entry<String, Usage> entry : measured.entrySet()) {
+            Usage budget = budgets.get(entry.getKey());
+            Usage actual = entry.getValue();
+            if (budget == null) {
+                report.append("  ").append(entry.getKey()).append(": no budget\n")
+                        .append("+   ").append(actual.format()).append('\n');
+                continue;
+            }
+            List<String> over = new ArrayList<>();
+            check(over, "statements", budget.statements(), actual.statements());
+            check(over, "entities", budget.entities(), actual.entities());
+            check(over, "collections", budget.collections(), actual.collections());
+            if (!over.isEmpty()) {
+                report.append("  ").append(entry.getKey()).append(": ").append(String.join(", ", over)).append('\n')
+                        .append("-   ").append(budget.format()).append('\n')
+                        .append("+   ").append(actual.format()).append('\n');
+            }
+        }
+        for (String endpoint : budgets.keySet()) {
+            if (!measured.containsKey(endpoint)) {
+                report.append("  ").append(endpoint).append(": budgeted but not measured\n")
+                        .append("-   ").append(budgets.get(endpoint).format()).append('\n');
+            }
+        }
+        return report.toString();
+    }
+
+    private static void check(List<String> over, String metric, long budget, long actual) {
+        if (actual > budget) {
+            over.add(metric + " " + budget + " -> " + actual);
+        }
+    }
+
+    static Map<String, Usage> read() throws IOException {
+        Map<String, Usage> budgets = new LinkedHashMap<>();
+        InputStream in = QueryBudgetTest.class.getClassLoader().getResourceAsStream(BUDGETS);
+        if (in == null) {
+            return budgets;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                // <METHOD> <path> statements=N entities=N collections=N
+                String[] parts = line.split("\\s+");
+                Map<String, Long> values = new LinkedHashMap<>();
+                for (int i = 2; i < parts.length; i++) {
+                    String[] pair = parts[i].split("=", 2);
+                    values.put(pair[0], Long.parseLong(pair[1]));
+                }
+                budgets.put(parts[0] + " " + parts[1], new Usage(values.getOrDefault("statements", 0L),
+                        values.getOrDefault("entities", 0L), values.getOrDefault("collections", 0L), 0));
+            }
+        }
+        return budgets;
+    }
+
+    private static void write(Map<String, Usage> measured) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("# Per-endpoint budgets checked by QueryBudgetTest: Hibernate prepared statements, entity loads");
+        lines.add("# and collection fetches of one cold request on the test fixture.");
+        measured.forEach((endpoint, usage) -> lines.add(endpoint + " " + usage.format()));
+        Files.write(BUDGETS_SOURCE, lines, StandardCharsets.UTF_8);
+    }
+
+    private Availability slot(LocalDateTime start, boolean booked) {
+        Availability availability = new Availability();
+        availability.setTherapist(therapist);
+        availability.setStartTime(start);
+        availability.setEndTime(start.plusMinutes(50));
+        availability.setBooked(booked);
+        return availabilityRepository.save(availability);
+    }
+
+    private AuthenticatedUser principal(User user, Long clientId, Long therapistId) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), "", user.getRole(), clientId, therapistId);
+    }
+
+    private User account(String email, String fullName, Role role) {
+        User user = newUser(email, fullName, role);
+        user.setPassword(passwordEncoder.encode("secret"));
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,150 @@
+package com.psikolojikdanismanlik.randevusistemi.filter;
+
+import com.psikolojikdanismanlik.randevusistemi.entity.User;
+import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import com.psikolojikdanismanlik.randevusistemi.repository.UserRepository;
+import com.psikolojikdanismanlik.randevusistemi.util.JwtUtil;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Base64;
+import java.util.Date;
+
+import static com.psikolojikdanismanlik.randevusistemi.TestData.deleteAll;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newUser;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class JwtAuthenticationFilterTest {
+
+    // The key JwtUtil signs with, for tokens it would never issue itself.
+    private static final byte[] SECRET = "gizliAnahtarEnAz32KarakterUzunlugundaGizli".getBytes();
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtUtil jwtUtil;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User client;
+    private User admin;
+
+    @BeforeEach
+    void setUp() {
+        client = userRepository.save(newUser("jwt-client@test.local", Role.CLIENT));
+        admin = userRepository.save(newUser("jwt-admin@test.local", Role.ADMIN));
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void validTokenAuthenticatesFromItsClaims() throws Exception {
+        String token = jwtUtil.generateToken(client);
+
+        // The second request is answered from the verified token cache.
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/users/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.email").value(client.getEmail()));
+        }
+    }
+
+    @Test
+    void expiredTokenIsUnauthorized() throws Exception {
+        long now = System.currentTimeMillis();
+        String token = signed(Role.CLIENT.name(), new Date(now - 120_000), new Date(now - 60_000));
+
+        mockMvc.perform(get("/api/users/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void tamperedTokenIsUnauthorized() throws Exception {
+        String token = jwtUtil.generateToken(client);
+        String[] parts = token.split("\\.");
+        String forgedClaims = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                new String(Base64.getUrlDecoder().decode(parts[1])).replace("\"CLIENT\"", "\"ADMIN\"").getBytes());
+
+        mockMvc.perform(get("/api/users/me")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + parts[0] + "." + forgedClaims + "." + parts[2]))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void unknownRoleClaimIsUnauthorized() throws Exception {
+        long now = System.currentTimeMillis();
+        String token = signed("SUPERVISOR", new Date(now), new Date(now + 60_000));
+
+        mockMvc.perform(get("/api/users/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void roleChangeRevokesTokensIssuedBeforeIt() throws Exception {
+        String clientToken = jwtUtil.generateToken(client);
+        mockMvc.perform(get("/api/users/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + clientToken))
+                .andExpect(status().isOk());
+        // iat has whole seconds; the change has to land in a later second than the issue.
+        Thread.sleep(1_000);
+
+        mockMvc.perform(put("/api/users/{userId}/role", client.getId())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken(admin))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"newRole\":\"THERAPIST\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/users/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + clientToken))
+                .andExpect(status().isUnauthorized());
+        String renewed = jwtUtil.generateToken(userRepository.findById(client.getId()).orElseThrow());
+        mockMvc.perform(get("/api/users/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + renewed))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.role").value("THERAPIST"));
+    }
+
+    @Test
+    void deletedUsersTokenIsUnauthorized() throws Exception {
+        String clientToken = jwtUtil.generateToken(client);
+        mockMvc.perform(get("/api/users/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + clientToken))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/users/{id}", client.getId())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken(admin)))
+                .andExpect(status().is2xxSuccessful());
+
+        mockMvc.perform(get("/api/users/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + clientToken))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private String signed(String role, Date issuedAt, Date expiresAt) {
+        return Jwts.builder()
+                .setSubject(client.getEmail())
+                .claim("userId", client.getId())
+                .claim("userRole", role)
+                .setIssuedAt(issuedAt)
+                .setExpiration(expiresAt)
+                .signWith(Keys.hmacShaKeyFor(SECRET), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
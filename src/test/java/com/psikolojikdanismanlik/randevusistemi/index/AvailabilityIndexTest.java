@@ -0,0 +1,162 @@
+package com.psikolojikdanismanlik.randevusistemi.index;
+
+import com.psikolojikdanismanlik.randevusistemi.entity.Availability;
+import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
+import com.psikolojikdanismanlik.randevusistemi.repository.AvailabilityRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.projection.AvailabilitySlotView;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AvailabilityIndexTest {
+
+    private static final LocalDateTime MONDAY = LocalDate.now().plusWeeks(1).with(DayOfWeek.MONDAY).atStartOfDay();
+    private static final BooleanSupplier INDEXED = () -> {
+        throw new AssertionError("answered from the repository instead of the index");
+    };
+
+    private final Map<Long, List<AvailabilitySlotView>> slots = new HashMap<>();
+    private final List<Long> loads = new ArrayList<>();
+    private final AvailabilityIndex index = new AvailabilityIndex(repository(), Runnable::run, 2);
+
+    @Test
+    void freeSlotLookupNeedsOneUnbookedSlotCoveringTheWholeRange() {
+        slots.put(1L, List.of(
+                slot(1, at(8, 0), at(12, 0), false),
+                slot(2, at(9, 0), at(10, 0), true),
+                slot(3, at(13, 0), at(14, 0), false),
+                slot(4, at(13, 30), at(14, 0), true)));
+        load(1L);
+
+        assertThat(index.hasFreeSlotCovering(1L, at(10, 0), at(11, 0), INDEXED)).isTrue();
+        assertThat(index.hasFreeSlotCovering(1L, at(13, 0), at(14, 0), INDEXED)).isTrue();
+        assertThat(index.hasFreeSlotCovering(1L, at(13, 30), at(14, 30), INDEXED)).isFalse();
+        assertThat(index.hasFreeSlotCovering(1L, at(11, 30), at(13, 30), INDEXED)).isFalse();
+        assertThat(index.hasSlotStartingAt(1L, at(13, 30), INDEXED)).isTrue();
+        assertThat(index.hasSlotStartingAt(1L, at(13, 15), INDEXED)).isFalse();
+
+        index.slotBooked(1L, 1L, true);
+        assertThat(index.hasFreeSlotCovering(1L, at(10, 0), at(11, 0), INDEXED)).isFalse();
+        assertThat(index.hasFreeSlotCovering(1L, at(9, 0), at(10, 0), INDEXED)).isFalse();
+
+        index.slotBooked(1L, 2L, false);
+        assertThat(index.hasFreeSlotCovering(1L, at(9, 0), at(10, 0), INDEXED)).isTrue();
+    }
+
+    @Test
+    void overlapIsHalfOpenAndFollowsAddsAndRemovals() {
+        slots.put(1L, List.of(
+                slot(1, at(8, 0), at(12, 0), false),
+                slot(2, at(9, 0), at(10, 0), true),
+                slot(3, at(13, 0), at(14, 0), false)));
+        load(1L);
+
+        assertThat(index.overlapsAnySlot(1L, at(12, 0), at(13, 0), INDEXED)).isFalse();
+        assertThat(index.overlapsAnySlot(1L, at(11, 59), at(12, 30), INDEXED)).isTrue();
+        assertThat(index.overlapsAnySlot(1L, at(10, 30), at(10, 45), INDEXED)).isTrue();
+        assertThat(index.overlapsAnySlot(1L, at(14, 0), at(15, 0), INDEXED)).isFalse();
+
+        index.slotAdded(availability(5, 1L, at(14, 30), at(15, 0)));
+        assertThat(index.overlapsAnySlot(1L, at(14, 0), at(15, 0), INDEXED)).isTrue();
+
+        index.slotRemoved(1L, 1L);
+        assertThat(index.overlapsAnySlot(1L, at(11, 0), at(11, 30), INDEXED)).isFalse();
+        assertThat(index.overlapsAnySlot(1L, at(9, 30), at(11, 30), INDEXED)).isTrue();
+    }
+
+    @Test
+    void leastRecentlyUsedTherapistIsEvictedFirst() {
+        load(1L);
+        load(2L);
+        index.overlapsAnySlot(1L, at(9, 0), at(10, 0), INDEXED);
+        load(3L);
+
+        assertThat(index.overlapsAnySlot(1L, at(9, 0), at(10, 0), INDEXED)).isFalse();
+        assertThat(index.overlapsAnySlot(3L, at(9, 0), at(10, 0), INDEXED)).isFalse();
+        assertThat(index.overlapsAnySlot(2L, at(9, 0), at(10, 0), () -> true)).isTrue();
+        assertThat(loads).containsExactly(1L, 2L, 3L, 2L);
+    }
+
+    @Test
+    void onlyUpcomingSlotsAreLoadedSoEarlierQueriesUseTheFallback() {
+        LocalDateTime lastWeek = MONDAY.minusWeeks(2);
+        slots.put(1L, List.of(
+                slot(1, lastWeek.withHour(9), lastWeek.withHour(10), false),
+                slot(2, at(9, 0), at(10, 0), false)));
+        load(1L);
+
+        assertThat(index.hasSlotStartingAt(1L, at(9, 0), INDEXED)).isTrue();
+        assertThat(index.hasSlotStartingAt(1L, lastWeek.withHour(9), () -> true)).isTrue();
+        assertThat(index.overlapsAnySlot(1L, lastWeek.withHour(9), lastWeek.withHour(10), () -> true)).isTrue();
+        assertThat(index.hasFreeSlotCovering(1L, lastWeek.withHour(9), lastWeek.withHour(10), () -> false)).isFalse();
+    }
+
+    // The first query misses and loads on the calling thread, so every query after it is answered by the index.
+    private void load(Long therapistId) {
+        index.hasSlotStartingAt(therapistId, MONDAY, () -> false);
+    }
+
+    private AvailabilityRepository repository() {
+        return (AvailabilityRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{AvailabilityRepository.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("findSlotsByTherapistIdAndEndTimeAfterOrderByStartTimeAscIdAsc")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    Long therapistId = (Long) args[0];
+                    LocalDateTime endTime = (LocalDateTime) args[1];
+                    loads.add(therapistId);
+                    return slots.getOrDefault(therapistId, List.of()).stream()
+                            .filter(slot -> slot.getEndTime().isAfter(endTime))
+                            .toList();
+                });
+    }
+
+    private static LocalDateTime at(int hour, int minute) {
+        return MONDAY.withHour(hour).withMinute(minute);
+    }
+
+    private static AvailabilitySlotView slot(long id, LocalDateTime start, LocalDateTime end, boolean booked) {
+        return new AvailabilitySlotView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getStartTime() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEndTime() {
+                return end;
+            }
+
+            @Override
+            public boolean isBooked() {
+                return booked;
+            }
+        };
+    }
+
+    private static Availability availability(long id, Long therapistId, LocalDateTime start, LocalDateTime end) {
+        Therapist therapist = new Therapist();
+        therapist.setId(therapistId);
+        Availability availability = new Availability();
+        availability.setId(id);
+        availability.setTherapist(therapist);
+        availability.setStartTime(start);
+        availability.setEndTime(end);
+        return availability;
+    }
+}
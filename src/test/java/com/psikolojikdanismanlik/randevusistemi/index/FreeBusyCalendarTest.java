@@ -0,0 +1,104 @@
+package com.psikolojikdanismanlik.randevusistemi.index;
+
+import com.psikolojikdanismanlik.randevusistemi.entity.Appointment;
+import com.psikolojikdanismanlik.randevusistemi.entity.Availability;
+import com.psikolojikdanismanlik.randevusistemi.entity.Client;
+import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
+import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import com.psikolojikdanismanlik.randevusistemi.enums.Status;
+import com.psikolojikdanismanlik.randevusistemi.repository.AppointmentRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.AvailabilityRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.ClientRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.TherapistRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+import static com.psikolojikdanismanlik.randevusistemi.TestData.deleteAll;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newClient;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newTherapist;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newUser;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class FreeBusyCalendarTest {
+
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2025, 3, 10, 9, 0);
+
+    @Autowired
+    private FreeBusyCalendar freeBusyCalendar;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TherapistRepository therapistRepository;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private AvailabilityRepository availabilityRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Therapist therapist;
+
+    @BeforeEach
+    void setUp() {
+        therapist = therapistRepository.save(newTherapist(userRepository.save(newUser("freebusy-therapist@test.local", Role.THERAPIST))));
+
+        Client client = clientRepository.save(newClient(userRepository.save(newUser("freebusy-client@test.local", Role.CLIENT))));
+
+        slot(MONDAY, 50, false);
+        slot(MONDAY.plusHours(1), 50, true);
+        slot(MONDAY.plusHours(2), 60, false);
+        slot(MONDAY.withHour(23).withMinute(30), 60, false);
+
+        Appointment appointment = new Appointment();
+        appointment.setTherapist(therapist);
+        appointment.setClient(client);
+        appointment.setStatus(Status.SCHEDULED);
+        appointment.setStartTime(MONDAY.plusHours(2).plusMinutes(20));
+        appointment.setEndTime(MONDAY.plusHours(2).plusMinutes(30));
+        appointmentRepository.save(appointment);
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void freeRunsAlternateBusyAndFreeAcrossMidnight() {
+        int[] runs = freeBusyCalendar.freeRuns(therapist.getId(), MONDAY, MONDAY.plusHours(16), 15);
+
+        // 09:00-09:45 free, the booked 10:00 slot busy, 11:15 blocked by the appointment, 23:30-00:30 free.
+        assertThat(runs).containsExactly(0, 3, 5, 1, 1, 2, 46, 4, 2);
+    }
+
+    @Test
+    void cachedDaysAreRebuiltOnlyAfterInvalidation() {
+        LocalDateTime noon = MONDAY.withHour(12);
+        assertThat(freeBusyCalendar.freeRuns(therapist.getId(), noon, noon.plusMinutes(30), 5)).containsExactly(6);
+
+        slot(noon, 15, false);
+        assertThat(freeBusyCalendar.freeRuns(therapist.getId(), noon, noon.plusMinutes(30), 5)).containsExactly(6);
+
+        freeBusyCalendar.invalidate(therapist.getId(), noon, noon.plusMinutes(15));
+        assertThat(freeBusyCalendar.freeRuns(therapist.getId(), noon, noon.plusMinutes(30), 5)).containsExactly(0, 3, 3);
+    }
+
+    private void slot(LocalDateTime start, int minutes, boolean booked) {
+        Availability availability = new Availability();
+        availability.setTherapist(therapist);
+        availability.setStartTime(start);
+        availability.setEndTime(start.plusMinutes(minutes));
+        availability.setBooked(booked);
+        availabilityRepository.save(availability);
+    }
+}
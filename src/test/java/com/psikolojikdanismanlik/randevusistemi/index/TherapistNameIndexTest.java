@@ -0,0 +1,128 @@
+package com.psikolojikdanismanlik.randevusistemi.index;
+
+import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
+import com.psikolojikdanismanlik.randevusistemi.entity.User;
+import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import com.psikolojikdanismanlik.randevusistemi.repository.projection.TherapistDirectoryView;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TherapistNameIndexTest {
+
+    private final TherapistNameIndex index = new TherapistNameIndex(null, Runnable::run);
+
+    @Test
+    void turkishLettersFoldToTheirPlainForms() {
+        assertThat(TherapistNameIndex.fold("İlknur Şahin")).isEqualTo("ilknur sahin");
+        assertThat(TherapistNameIndex.fold("IŞIK Ağaoğlu")).isEqualTo("isik agaoglu");
+        assertThat(TherapistNameIndex.fold("  Çağrı-Özgür ")).isEqualTo("cagri ozgur");
+
+        index.replaceAll(List.of(row(1, "İlknur Şahin"), row(2, "Işık Ağaoğlu")));
+
+        assertThat(ids("ilknur sahin")).containsExactly(1L);
+        assertThat(ids("ŞAHİN")).containsExactly(1L);
+        assertThat(ids("IŞIK")).containsExactly(2L);
+        assertThat(ids("isik")).containsExactly(2L);
+        assertThat(ids("agaoglu")).containsExactly(2L);
+        assertThat(ids("ağaoğ")).containsExactly(2L);
+    }
+
+    @Test
+    void exactNameRanksBeforePrefixThenWordPrefixThenInfix() {
+        index.replaceAll(List.of(
+                row(1, "Deniz Aslan"),
+                row(2, "Aslan Yılmaz"),
+                row(3, "Kaplanaslan Er"),
+                row(4, "Aslan")));
+
+        assertThat(ids("aslan")).containsExactly(4L, 2L, 1L, 3L);
+        assertThat(index.search("aslan", 2)).extracting(TherapistNameIndex.Entry::id).containsExactly(4L, 2L);
+    }
+
+    @Test
+    void renameAndRemoveAreVisibleToTheNextSearch() {
+        index.replaceAll(List.of(row(1, "Gül Demir"), row(2, "Gülşen Demirel")));
+        assertThat(ids("demir")).containsExactly(1L, 2L);
+
+        index.put(therapist(1, "Gül Kara"));
+        assertThat(ids("demir")).containsExactly(2L);
+        assertThat(ids("kara")).containsExactly(1L);
+        assertThat(index.search("kara", 10)).singleElement()
+                .satisfies(entry -> assertThat(entry.fullName()).isEqualTo("Gül Kara"));
+
+        index.put(therapist(3, "Ayşe Demir"));
+        assertThat(ids("demir")).containsExactly(3L, 2L);
+
+        index.remove(2L);
+        assertThat(ids("demir")).containsExactly(3L);
+        assertThat(ids("gulsen")).isEmpty();
+    }
+
+    @Test
+    void writesBeforeTheInitialLoadAreReplayedOnTopOfIt() {
+        assertThat(index.search("demir", 10)).isNull();
+
+        index.put(therapist(1, "Gül Kara"));
+        index.remove(2L);
+        index.replaceAll(List.of(row(1, "Gül Demir"), row(2, "Gülşen Demirel")));
+
+        assertThat(ids("gul")).containsExactly(1L);
+        assertThat(ids("kara")).containsExactly(1L);
+    }
+
+    @Test
+    void onlyUsersWithTheTherapistRoleAreIndexed() {
+        index.replaceAll(List.of(row(1, "Gül Demir")));
+
+        index.put(therapist(2, "Ayşe Demir", Role.CLIENT));
+        assertThat(ids("demir")).containsExactly(1L);
+
+        index.put(therapist(1, "Gül Demir", Role.ADMIN));
+        assertThat(ids("demir")).isEmpty();
+    }
+
+    private List<Long> ids(String query) {
+        return index.search(query, 10).stream().map(TherapistNameIndex.Entry::id).toList();
+    }
+
+    private static Therapist therapist(long id, String fullName) {
+        return therapist(id, fullName, Role.THERAPIST);
+    }
+
+    private static Therapist therapist(long id, String fullName, Role role) {
+        User user = new User();
+        user.setFullName(fullName);
+        user.setRole(role);
+        Therapist therapist = new Therapist();
+        therapist.setId(id);
+        therapist.setUser(user);
+        return therapist;
+    }
+
+    private static TherapistDirectoryView row(long id, String fullName) {
+        return new TherapistDirectoryView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getFullName() {
+                return fullName;
+            }
+
+            @Override
+            public String getSpecialization() {
+                return null;
+            }
+
+            @Override
+            public String getExperience() {
+                return null;
+            }
+        };
+    }
+}
@@ -0,0 +1,105 @@
+package com.psikolojikdanismanlik.randevusistemi.metrics;
+
+import com.psikolojikdanismanlik.randevusistemi.dto.request.AppointmentRequest;
+import com.psikolojikdanismanlik.randevusistemi.entity.Availability;
+import com.psikolojikdanismanlik.randevusistemi.entity.Client;
+import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
+import com.psikolojikdanismanlik.randevusistemi.entity.User;
+import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import com.psikolojikdanismanlik.randevusistemi.exception.SlotAlreadyBookedException;
+import com.psikolojikdanismanlik.randevusistemi.repository.AvailabilityRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.ClientRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.TherapistRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.UserRepository;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
+import com.psikolojikdanismanlik.randevusistemi.service.AppointmentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.LocalDateTime;
+
+import static com.psikolojikdanismanlik.randevusistemi.TestData.deleteAll;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newClient;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newTherapist;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newUser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class BookingMetricsTest {
+
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TherapistRepository therapistRepository;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private AvailabilityRepository availabilityRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void bookingsAreTimedByOutcome() {
+        Therapist therapist = therapistRepository.save(newTherapist(userRepository.save(newUser("metrics-therapist@test.local", Role.THERAPIST))));
+
+        User clientUser = userRepository.save(newUser("metrics-client@test.local", Role.CLIENT));
+        Client client = clientRepository.save(newClient(clientUser));
+        AuthenticatedUser principal = new AuthenticatedUser(clientUser.getId(), clientUser.getEmail(), "", Role.CLIENT, client.getId(), null);
+
+        Availability slot = new Availability();
+        slot.setTherapist(therapist);
+        slot.setStartTime(LocalDateTime.now().plusDays(1).withNano(0));
+        slot.setEndTime(slot.getStartTime().plusMinutes(50));
+        slot = availabilityRepository.save(slot);
+        AppointmentRequest request = new AppointmentRequest();
+        request.setAvailabilityId(slot.getId());
+
+        long successes = booking("success").count();
+        long conflicts = booking("conflict").count();
+        appointmentService.createAppointment(request, principal);
+        assertThatThrownBy(() -> appointmentService.createAppointment(request, principal))
+                .isInstanceOf(SlotAlreadyBookedException.class);
+
+        assertThat(booking("success").count()).isEqualTo(successes + 1);
+        assertThat(booking("conflict").count()).isEqualTo(conflicts + 1);
+        assertThat(meterRegistry.get("repository.invocations")
+                .tag("repository", "AvailabilityRepository").tag("method", "claimIfFree").tag("outcome", "success")
+                .timer().count()).isPositive();
+    }
+
+    @Test
+    void passwordHashingIsTimed() {
+        long encodes = meterRegistry.get("auth.password.encode").timer().count();
+
+        String hash = passwordEncoder.encode("secret");
+        passwordEncoder.matches("secret", hash);
+        passwordEncoder.matches("wrong", hash);
+
+        assertThat(meterRegistry.get("auth.password.encode").timer().count()).isEqualTo(encodes + 1);
+        assertThat(meterRegistry.get("auth.password.matches").tag("outcome", "match").timer().count()).isPositive();
+        assertThat(meterRegistry.get("auth.password.matches").tag("outcome", "mismatch").timer().count()).isPositive();
+    }
+
+    private Timer booking(String outcome) {
+        return meterRegistry.get(BookingMetrics.NAME)
+                .tag("endpoint", "POST /api/appointments").tag("outcome", outcome).timer();
+    }
+}
@@ -0,0 +1,134 @@
+package com.psikolojikdanismanlik.randevusistemi.repository;
+
+import com.psikolojikdanismanlik.randevusistemi.config.MigrationConfig;
+import com.psikolojikdanismanlik.randevusistemi.entity.Appointment;
+import com.psikolojikdanismanlik.randevusistemi.entity.Client;
+import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
+import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import com.psikolojikdanismanlik.randevusistemi.enums.Status;
+import com.psikolojikdanismanlik.randevusistemi.repository.projection.AppointmentListView;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newClient;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newTherapist;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newUser;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(MigrationConfig.class)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class AppointmentRepositoryTest {
+
+    private static final int APPOINTMENTS_PER_CLIENT = 12;
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long therapistId;
+    private Long clientId;
+
+    @BeforeEach
+    void setUp() {
+        Therapist therapist = newTherapist(entityManager.persist(newUser("therapist@test.local", Role.THERAPIST)));
+        therapistId = entityManager.persist(therapist).getId();
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int c = 0; c < 3; c++) {
+            Client client = newClient(entityManager.persist(newUser("client" + c + "@test.local", Role.CLIENT)));
+            entityManager.persist(client);
+            if (c == 0) {
+                clientId = client.getId();
+            }
+            for (int i = 0; i < APPOINTMENTS_PER_CLIENT; i++) {
+                Appointment appointment = new Appointment();
+                appointment.setTherapist(therapist);
+                appointment.setClient(client);
+                appointment.setStatus(Status.PENDING);
+                appointment.setStartTime(now.plusDays(i - APPOINTMENTS_PER_CLIENT / 2));
+                appointment.setEndTime(appointment.getStartTime().plusHours(1));
+                entityManager.persist(appointment);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void clientPageIsOneSelectPlusCount() {
+        Page<AppointmentListView> page = appointmentRepository.findListByClientId(
+                clientId, PageRequest.of(0, 5, Sort.by("createdDate").descending()));
+
+        assertThat(page.getContent()).hasSize(5);
+        assertThat(page.getTotalElements()).isEqualTo(APPOINTMENTS_PER_CLIENT);
+        assertThat(page.getContent()).allSatisfy(view -> {
+            assertThat(view.getTherapistName()).isEqualTo("therapist@test.local");
+            assertThat(view.getClientName()).isEqualTo("client0@test.local");
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void therapistPageIsOneSelectPlusCount() {
+        Page<AppointmentListView> page = appointmentRepository.findListByTherapistId(
+                therapistId, PageRequest.of(1, 10, Sort.by("createdDate").descending()));
+
+        assertThat(page.getContent()).hasSize(10);
+        assertThat(page.getTotalElements()).isEqualTo(3L * APPOINTMENTS_PER_CLIENT);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void upcomingAndPastListsAreOneSelectEach() {
+        LocalDateTime now = LocalDateTime.now();
+        List<AppointmentListView> upcoming = appointmentRepository.findUpcomingListByClientId(clientId, now);
+        List<AppointmentListView> past = appointmentRepository.findPastListByClientId(clientId, now);
+
+        assertThat(upcoming).isNotEmpty().isSortedAccordingTo((a, b) -> a.getStartTime().compareTo(b.getStartTime()));
+        assertThat(past).isNotEmpty().isSortedAccordingTo((a, b) -> b.getStartTime().compareTo(a.getStartTime()));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void therapistTimelineWalksTiedStartTimesWithoutCountQueries() {
+        List<Long> seen = new ArrayList<>();
+        int pages = 0;
+        List<AppointmentListView> page = appointmentRepository.findTimelineByTherapistId(therapistId, Limit.of(5));
+        while (!page.isEmpty()) {
+            pages++;
+            page.forEach(view -> seen.add(view.getId()));
+            AppointmentListView last = page.get(page.size() - 1);
+            page = appointmentRepository.findTimelineByTherapistIdBefore(therapistId, last.getStartTime(), last.getId(), Limit.of(5));
+        }
+
+        assertThat(seen).hasSize(3 * APPOINTMENTS_PER_CLIENT).doesNotHaveDuplicates();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(pages + 1);
+    }
+}
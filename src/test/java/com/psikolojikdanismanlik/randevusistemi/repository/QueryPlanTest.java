@@ -0,0 +1,176 @@
+package com.psikolojikdanismanlik.randevusistemi.repository;
+
+import com.psikolojikdanismanlik.randevusistemi.benchmark.DatasetGenerator;
+import com.psikolojikdanismanlik.randevusistemi.config.MigrationConfig;
+import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every derived query of the repositories against a generated dataset, records the SQL Hibernate sends and
+ * fails if the database plans any of it as a full table scan. The H2 plan marks those as {@code .tableScan};
+ * PostgreSQL's would read {@code Seq Scan}.
+ */
+@Import(MigrationConfig.class)
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:plans;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.psikolojikdanismanlik.randevusistemi.repository.QueryPlanTest$Recorder"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class QueryPlanTest {
+
+    private static final DatasetGenerator.Spec SPEC =
+            new DatasetGenerator.Spec(11, 20, 200, LocalDate.of(2025, 3, 12), 4, 2, 6, 0.6, 0.55, 500);
+    private static final Pattern TABLE_SCAN = Pattern.compile("([\\w.]+)\\.tableScan|Seq Scan on (\\w+)");
+    private static final List<String> RECORDED = new ArrayList<>();
+
+    public static class Recorder implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            synchronized (RECORDED) {
+                RECORDED.add(sql);
+            }
+            return sql;
+        }
+    }
+
+    @Autowired
+    private ApplicationContext applicationContext;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void derivedQueriesUseIndexes() throws Exception {
+        new DatasetGenerator(dataSource, SPEC).generate();
+        jdbcTemplate.execute("ANALYZE");
+
+        Map<String, List<String>> statements = new LinkedHashMap<>();
+        Repositories repositories = new Repositories(applicationContext);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        for (Class<?> domainType : repositories) {
+            RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainType);
+            Object repository = repositories.getRepositoryFor(domainType).orElseThrow();
+            for (Method method : information.getQueryMethods()) {
+                if (!isDerivedRead(method)) {
+                    continue;
+                }
+                synchronized (RECORDED) {
+                    RECORDED.clear();
+                }
+                transactionTemplate.executeWithoutResult(status -> {
+                    try {
+                        method.invoke(repository, arguments(method));
+                    } catch (ReflectiveOperationException e) {
+                        throw new IllegalStateException(method.toGenericString(), e);
+                    }
+                });
+                synchronized (RECORDED) {
+                    statements.put(information.getRepositoryInterface().getSimpleName() + "." + method.getName()
+                            + "/" + method.getParameterCount(), List.copyOf(RECORDED));
+                }
+            }
+        }
+        assertThat(statements).isNotEmpty().allSatisfy((query, sql) -> assertThat(sql).as(query).isNotEmpty());
+
+        Map<String, String> scans = new LinkedHashMap<>();
+        try (Connection connection = dataSource.getConnection()) {
+            for (Map.Entry<String, List<String>> entry : statements.entrySet()) {
+                for (String sql : entry.getValue()) {
+                    String plan = explain(connection, sql);
+                    Matcher scan = TABLE_SCAN.matcher(plan);
+                    if (scan.find()) {
+                        scans.put(entry.getKey(), plan);
+                    }
+                }
+            }
+        }
+        assertThat(scans).as("derived queries planned with a full table scan").isEmpty();
+    }
+
+    private static boolean isDerivedRead(Method method) {
+        return !method.isAnnotationPresent(Query.class) && !method.isAnnotationPresent(Modifying.class)
+                && method.getName().matches("(find|read|get|query|search|stream|exists|count)\\p{Upper}.*|(find|exists|count)By.*");
+    }
+
+    private Object[] arguments(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        Object[] arguments = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            Class<?> type = types[i];
+            if (type == Long.class || type == long.class) {
+                arguments[i] = 1L;
+            } else if (type == LocalDateTime.class) {
+                arguments[i] = SPEC.anchor().atTime(12, 0);
+            } else if (type == LocalDate.class) {
+                arguments[i] = SPEC.anchor();
+            } else if (type == String.class) {
+                arguments[i] = "someone@test.local";
+            } else if (type == Role.class) {
+                arguments[i] = Role.ADMIN;
+            } else if (type == Limit.class) {
+                arguments[i] = Limit.of(10);
+            } else if (type == Pageable.class) {
+                arguments[i] = PageRequest.of(0, 10);
+            } else if (type.isAnnotationPresent(jakarta.persistence.Entity.class)) {
+                arguments[i] = entityManager.getReference(type, 1L);
+            } else {
+                throw new IllegalArgumentException("No sample value for " + type.getName() + " in " + method.toGenericString());
+            }
+        }
+        return arguments;
+    }
+
+    // Parameters stay unbound: the plan depends on the indexes that match the predicates, not on the values.
+    private static String explain(Connection connection, String sql) throws Exception {
+        StringBuilder plan = new StringBuilder();
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+             ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                plan.append(rows.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+}
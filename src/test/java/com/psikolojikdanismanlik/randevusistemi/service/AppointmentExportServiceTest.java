@@ -0,0 +1,167 @@
+package com.psikolojikdanismanlik.randevusistemi.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.psikolojikdanismanlik.randevusistemi.entity.Appointment;
+import com.psikolojikdanismanlik.randevusistemi.entity.Client;
+import com.psikolojikdanismanlik.randevusistemi.entity.Feedback;
+import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
+import com.psikolojikdanismanlik.randevusistemi.entity.User;
+import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import com.psikolojikdanismanlik.randevusistemi.enums.Status;
+import com.psikolojikdanismanlik.randevusistemi.repository.AppointmentRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.ClientRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.TherapistRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.UserRepository;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPInputStream;
+
+import static com.psikolojikdanismanlik.randevusistemi.TestData.deleteAll;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newClient;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newTherapist;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newUser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AppointmentExportServiceTest {
+
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2025, 3, 10, 9, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TherapistRepository therapistRepository;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Therapist therapist;
+    private Client client;
+
+    @BeforeEach
+    void setUp() {
+        therapist = therapistRepository.save(newTherapist(userRepository.save(newUser("export-therapist@test.local", "Yılmaz, \"Ayşe\"", Role.THERAPIST))));
+
+        client = clientRepository.save(newClient(userRepository.save(newUser("export-client@test.local", "Export Client", Role.CLIENT))));
+
+        for (int day = 0; day < 3; day++) {
+            Appointment appointment = new Appointment();
+            appointment.setTherapist(therapist);
+            appointment.setClient(client);
+            appointment.setStatus(day == 0 ? Status.COMPLETED : Status.SCHEDULED);
+            appointment.setStartTime(MONDAY.plusDays(day));
+            appointment.setEndTime(appointment.getStartTime().plusMinutes(50));
+            if (day == 0) {
+                Feedback feedback = new Feedback();
+                feedback.setRating(5);
+                feedback.setClient(client);
+                feedback.setAppointment(appointment);
+                appointment.setFeedback(feedback);
+            }
+            appointmentRepository.save(appointment);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void therapistExportsOwnAppointmentsAsCsvWithinRange() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/api/appointments/therapists/{id}/export", therapist.getId())
+                        .param("from", MONDAY.toString())
+                        .param("to", MONDAY.plusDays(2).toString())
+                        .with(user(principal(therapist.getUser(), null, therapist.getId()))))
+                .andReturn().getResponse();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentType()).startsWith("text/csv");
+        String[] lines = response.getContentAsString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).isEqualTo("id,startTime,endTime,status,therapistId,therapistName,clientId,clientName,clientEmail,createdAt,rating");
+        assertThat(lines[1]).contains(",2025-03-10T09:00,2025-03-10T09:50,COMPLETED,")
+                .contains(",\"Yılmaz, \"\"Ayşe\"\"\",")
+                .endsWith(",5");
+        assertThat(lines[2]).contains(",SCHEDULED,").endsWith(",");
+    }
+
+    @Test
+    void clientCannotExportAnotherClientsAppointments() throws Exception {
+        AuthenticatedUser stranger = new AuthenticatedUser(-1L, "stranger@test.local", "", Role.CLIENT, -1L, null);
+
+        int status = mockMvc.perform(get("/api/appointments/clients/{id}/export", client.getId()).with(user(stranger)))
+                .andReturn().getResponse().getStatus();
+
+        assertThat(status).isEqualTo(403);
+    }
+
+    @Test
+    void unknownFormatIsABadRequest() throws Exception {
+        int status = mockMvc.perform(get("/api/appointments/clients/{id}/export", client.getId())
+                        .param("format", "xlsx")
+                        .with(user(principal(client.getUser(), client.getId(), null))))
+                .andReturn().getResponse().getStatus();
+
+        assertThat(status).isEqualTo(400);
+    }
+
+    @Test
+    void adminExportIsNdjsonAndGzippedOnRequest() throws Exception {
+        AuthenticatedUser admin = new AuthenticatedUser(-2L, "admin@test.local", "", Role.ADMIN, null, null);
+
+        MockHttpServletResponse response = mockMvc.perform(get("/api/appointments/export")
+                        .param("format", "ndjson")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")
+                        .with(user(admin)))
+                .andReturn().getResponse();
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        String body;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(3);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("therapistName").asText()).isEqualTo("Yılmaz, \"Ayşe\"");
+        assertThat(first.get("rating").asInt()).isEqualTo(5);
+        assertThat(objectMapper.readTree(lines[1]).get("rating").isNull()).isTrue();
+    }
+
+    @Test
+    void onlyAdminsExportEverything() throws Exception {
+        int status = mockMvc.perform(get("/api/appointments/export").with(user(principal(client.getUser(), client.getId(), null))))
+                .andReturn().getResponse().getStatus();
+
+        assertThat(status).isEqualTo(403);
+    }
+
+    private AuthenticatedUser principal(User user, Long clientId, Long therapistId) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), "", user.getRole(), clientId, therapistId);
+    }
+}
@@ -0,0 +1,199 @@
+package com.psikolojikdanismanlik.randevusistemi.service;
+
+import com.psikolojikdanismanlik.randevusistemi.dto.request.AppointmentRequest;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.AppointmentResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.entity.Appointment;
+import com.psikolojikdanismanlik.randevusistemi.entity.Availability;
+import com.psikolojikdanismanlik.randevusistemi.entity.Client;
+import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
+import com.psikolojikdanismanlik.randevusistemi.entity.User;
+import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import com.psikolojikdanismanlik.randevusistemi.enums.Status;
+import com.psikolojikdanismanlik.randevusistemi.exception.SlotAlreadyBookedException;
+import com.psikolojikdanismanlik.randevusistemi.repository.AppointmentRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.AvailabilityRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.ClientRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.TherapistRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.UserRepository;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.psikolojikdanismanlik.randevusistemi.TestData.deleteAll;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newClient;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newTherapist;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newUser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class AppointmentServiceTest {
+
+    private static final int CLIENTS = 8;
+
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private AvailabilityService availabilityService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TherapistRepository therapistRepository;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private AvailabilityRepository availabilityRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Therapist therapist;
+    private AuthenticatedUser therapistPrincipal;
+    private final List<AuthenticatedUser> clients = new ArrayList<>();
+    private Availability slot;
+
+    @BeforeEach
+    void setUp() {
+        User therapistUser = userRepository.save(newUser("booking-therapist@test.local", Role.THERAPIST));
+        therapist = therapistRepository.save(newTherapist(therapistUser));
+        therapistPrincipal = new AuthenticatedUser(therapistUser.getId(), therapistUser.getEmail(), "", Role.THERAPIST, null, therapist.getId());
+
+        for (int i = 0; i < CLIENTS; i++) {
+            User user = userRepository.save(newUser("booking-client" + i + "@test.local", Role.CLIENT));
+            Client client = clientRepository.save(newClient(user));
+            clients.add(new AuthenticatedUser(user.getId(), user.getEmail(), "", Role.CLIENT, client.getId(), null));
+        }
+
+        slot = new Availability();
+        slot.setTherapist(therapist);
+        slot.setStartTime(LocalDateTime.now().plusDays(1).withNano(0));
+        slot.setEndTime(slot.getStartTime().plusMinutes(50));
+        slot = availabilityRepository.save(slot);
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void concurrentClaimsBookASlotOnce() throws Exception {
+        assertThat(race()).isEqualTo(1);
+        assertThat(appointmentRepository.findAll()).singleElement()
+                .satisfies(appointment -> assertThat(appointment.getAvailability().getId()).isEqualTo(slot.getId()));
+    }
+
+    @Test
+    void cancelledAppointmentKeepsItsSlotAndTheSlotCanBeBookedAgain() throws Exception {
+        AppointmentResponseDto first = appointmentService.createAppointment(request(), clients.get(0));
+        appointmentService.updateStatus(first.getId(), Status.CANCELLED_BY_THERAPIST, therapistPrincipal);
+
+        assertThat(appointmentRepository.findById(first.getId()).orElseThrow().getAvailability().getId()).isEqualTo(slot.getId());
+        assertThat(availabilityRepository.findById(slot.getId()).orElseThrow().isBooked()).isFalse();
+
+        assertThat(race()).isEqualTo(1);
+        assertThat(appointmentRepository.findAll())
+                .hasSize(2)
+                .allSatisfy(appointment -> assertThat(appointment.getAvailability().getId()).isEqualTo(slot.getId()));
+        assertThatThrownBy(() -> appointmentService.updateStatus(first.getId(), Status.SCHEDULED, therapistPrincipal))
+                .isInstanceOf(SlotAlreadyBookedException.class);
+    }
+
+    @Test
+    void failedReclaimGivesTheSlotBack() throws Exception {
+        AppointmentResponseDto first = appointmentService.createAppointment(request(), clients.get(0));
+        appointmentService.updateStatus(first.getId(), Status.CANCELLED_BY_THERAPIST, therapistPrincipal);
+        // A live appointment the slot's booked flag does not know about, so the claim succeeds and the save fails.
+        Client other = clientRepository.findById(clients.get(1).getClientId()).orElseThrow();
+        appointmentRepository.save(appointment(other, Status.SCHEDULED));
+
+        assertThatThrownBy(() -> appointmentService.updateStatus(first.getId(), Status.SCHEDULED, therapistPrincipal))
+                .isInstanceOf(SlotAlreadyBookedException.class);
+        assertThat(availabilityRepository.findById(slot.getId()).orElseThrow().isBooked()).isFalse();
+        assertThat(appointmentRepository.findById(first.getId()).orElseThrow().getStatus()).isEqualTo(Status.CANCELLED_BY_THERAPIST);
+    }
+
+    @Test
+    void databaseRejectsASecondLiveAppointmentForASlot() {
+        Client client = clientRepository.findById(clients.get(0).getClientId()).orElseThrow();
+        appointmentRepository.save(appointment(client, Status.CANCELLED_BY_CLIENT));
+        appointmentRepository.save(appointment(client, Status.PENDING));
+
+        assertThatThrownBy(() -> appointmentRepository.save(appointment(client, Status.SCHEDULED)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void bookedSlotIsNotDeletedUntilItsAppointmentIsCancelled() throws Exception {
+        AppointmentResponseDto booked = appointmentService.createAppointment(request(), clients.get(0));
+
+        assertThatThrownBy(() -> availabilityService.deleteAvailability(therapist.getId(), slot.getId(), therapistPrincipal))
+                .isInstanceOf(SlotAlreadyBookedException.class);
+        assertThatThrownBy(() -> jdbcTemplate.update("DELETE FROM availabilities WHERE id = ?", slot.getId()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(appointmentRepository.findById(booked.getId()).orElseThrow().getAvailability()).isNotNull();
+
+        appointmentService.updateStatus(booked.getId(), Status.CANCELLED_BY_THERAPIST, therapistPrincipal);
+        availabilityService.deleteAvailability(therapist.getId(), slot.getId(), therapistPrincipal);
+
+        assertThat(availabilityRepository.existsById(slot.getId())).isFalse();
+        assertThat(appointmentRepository.findById(booked.getId()).orElseThrow().getAvailability()).isNull();
+    }
+
+    private int race() throws Exception {
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+        for (AuthenticatedUser client : clients) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    appointmentService.createAppointment(request(), client);
+                    booked.incrementAndGet();
+                } catch (SlotAlreadyBookedException e) {
+                    // lost the race
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(errors.get()).isZero();
+        return booked.get();
+    }
+
+    private AppointmentRequest request() {
+        AppointmentRequest request = new AppointmentRequest();
+        request.setAvailabilityId(slot.getId());
+        return request;
+    }
+
+    private Appointment appointment(Client client, Status status) {
+        Appointment appointment = new Appointment();
+        appointment.setTherapist(therapist);
+        appointment.setClient(client);
+        appointment.setAvailability(slot);
+        appointment.setStartTime(slot.getStartTime());
+        appointment.setEndTime(slot.getEndTime());
+        appointment.setStatus(status);
+        return appointment;
+    }
+}
@@ -0,0 +1,223 @@
+package com.psikolojikdanismanlik.randevusistemi.service;
+
+import com.psikolojikdanismanlik.randevusistemi.dto.response.AvailabilityImportResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.AvailabilityResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.entity.Availability;
+import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
+import com.psikolojikdanismanlik.randevusistemi.entity.User;
+import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import com.psikolojikdanismanlik.randevusistemi.exception.InvalidCalendarFileException;
+import com.psikolojikdanismanlik.randevusistemi.exception.ScheduleChangedException;
+import com.psikolojikdanismanlik.randevusistemi.index.AvailabilityIndex;
+import com.psikolojikdanismanlik.randevusistemi.index.FreeBusyCalendar;
+import com.psikolojikdanismanlik.randevusistemi.mapper.AvailabilityMapper;
+import com.psikolojikdanismanlik.randevusistemi.repository.AvailabilityRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.IdAllocator;
+import com.psikolojikdanismanlik.randevusistemi.repository.TherapistRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.UserRepository;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
+import com.psikolojikdanismanlik.randevusistemi.stream.SlotEventHub;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static com.psikolojikdanismanlik.randevusistemi.TestData.deleteAll;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newTherapist;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newUser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class AvailabilityImportServiceTest {
+
+    private static final String CALENDAR = String.join("\r\n",
+            "BEGIN:VCALENDAR",
+            "VERSION:2.0",
+            "BEGIN:VTIMEZONE",
+            "TZID:Europe/Istanbul",
+            "BEGIN:STANDARD",
+            "DTSTART:19700101T000000",
+            "END:STANDARD",
+            "END:VTIMEZONE",
+            "BEGIN:VEVENT",
+            "DTSTART:20250310T090000",
+            "DTEND:20250310T095000",
+            "END:VEVENT",
+            "BEGIN:VEVENT",
+            "DTSTART:20250310T100000",
+            "DURATION:PT50M",
+            "SUMMARY:A folded",
+            "  summary",
+            "BEGIN:VALARM",
+            "TRIGGER:-PT15M",
+            "DTSTART:20250310T070000",
+            "END:VALARM",
+            "END:VEVENT",
+            "BEGIN:VEVENT",
+            "DTSTART;TZID=\"Europe/Istanbul\":20250311T090000",
+            "DTEND;TZID=\"Europe/Istanbul\":20250311T095000",
+            "END:VEVENT",
+            "BEGIN:VEVENT",
+            "DTSTART:20250312T060000Z",
+            "DTE",
+            " ND:20250312T065000Z",
+            "END:VEVENT",
+            "BEGIN:VEVENT",
+            "DTSTART;VALUE=DATE:20250313",
+            "DTEND;VALUE=DATE:20250314",
+            "END:VEVENT",
+            "BEGIN:VEVENT",
+            "DTSTART:20250310T090000",
+            "DTEND:20250310T095000",
+            "RRULE:FREQ=WEEKLY",
+            "END:VEVENT",
+            "BEGIN:VEVENT",
+            "DTSTART:20250310T103000",
+            "DTEND:20250310T112000",
+            "END:VEVENT",
+            "END:VCALENDAR", "");
+
+    @Autowired
+    private AvailabilityImportService availabilityImportService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TherapistRepository therapistRepository;
+    @Autowired
+    private AvailabilityRepository availabilityRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+    @Autowired
+    private FreeBusyCalendar freeBusyCalendar;
+    @Autowired
+    private SlotEventHub slotEventHub;
+    @Autowired
+    private AvailabilityMapper availabilityMapper;
+    @Autowired
+    private IdAllocator idAllocator;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Therapist therapist;
+    private AuthenticatedUser principal;
+
+    @BeforeEach
+    void setUp() {
+        User user = newUser("import-therapist@test.local", "Import Therapist", Role.THERAPIST);
+        therapist = therapistRepository.save(newTherapist(userRepository.save(user)));
+        principal = new AuthenticatedUser(user.getId(), user.getEmail(), "", Role.THERAPIST, null, therapist.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void calendarIsDiffedAgainstExistingSlots() throws Exception {
+        slot(LocalDateTime.of(2025, 3, 10, 9, 0), 50, false);
+        slot(LocalDateTime.of(2025, 3, 10, 11, 0), 50, true);
+        slot(LocalDateTime.of(2025, 3, 11, 14, 0), 50, false);
+        slot(LocalDateTime.of(2025, 3, 20, 9, 0), 50, false);
+
+        AvailabilityImportResponseDto result = availabilityImportService.importCalendar(therapist.getId(), file(CALENDAR), principal);
+
+        LocalDateTime istanbul = LocalDateTime.of(2025, 3, 11, 9, 0)
+                .atZone(ZoneId.of("Europe/Istanbul")).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        LocalDateTime utc = LocalDateTime.of(2025, 3, 12, 6, 0)
+                .atOffset(ZoneOffset.UTC).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        assertThat(result.getEvents()).isEqualTo(5);
+        assertThat(result.getIgnored()).isEqualTo(2);
+        assertThat(result.getUnchanged()).isEqualTo(1);
+        assertThat(result.getCreated()).isEqualTo(3);
+        assertThat(result.getDeleted()).isEqualTo(1);
+        assertThat(result.getRefused()).extracting(AvailabilityResponseDto::getStartTime)
+                .containsExactly(LocalDateTime.of(2025, 3, 10, 11, 0));
+        assertThat(result.getConflicts()).extracting(AvailabilityResponseDto::getStartTime)
+                .containsExactly(LocalDateTime.of(2025, 3, 10, 10, 30));
+        assertThat(availabilityRepository.findSlotsByTherapistIdOrderByStartTimeAscIdAsc(therapist.getId()))
+                .extracting(slot -> slot.getStartTime())
+                .containsExactlyInAnyOrder(LocalDateTime.of(2025, 3, 10, 9, 0), LocalDateTime.of(2025, 3, 10, 10, 0),
+                        LocalDateTime.of(2025, 3, 10, 11, 0), istanbul, utc, LocalDateTime.of(2025, 3, 20, 9, 0));
+
+        AvailabilityImportResponseDto again = availabilityImportService.importCalendar(therapist.getId(), file(CALENDAR), principal);
+
+        assertThat(again.getCreated()).isZero();
+        assertThat(again.getDeleted()).isZero();
+        assertThat(again.getUnchanged()).isEqualTo(4);
+    }
+
+    @Test
+    void nonCalendarFilesAreRejected() {
+        assertThatThrownBy(() -> availabilityImportService.importCalendar(therapist.getId(), file("hello: world"), principal))
+                .isInstanceOf(InvalidCalendarFileException.class);
+    }
+
+    @Test
+    void slotBookedWhileImportingAsksForARetryAndKeepsTheSchedule() {
+        slot(LocalDateTime.of(2025, 3, 10, 9, 0), 50, false);
+        slot(LocalDateTime.of(2025, 3, 10, 11, 0), 50, false);
+        // Books every slot right after the import has read them, so the planned delete finds the slot taken.
+        AvailabilityRepository bookingOnRead = (AvailabilityRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{AvailabilityRepository.class}, (proxy, method, args) -> {
+                    Object result;
+                    try {
+                        result = method.invoke(availabilityRepository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (method.getName().equals("findSlotsByTherapistIdAndStartTimeLessThanAndEndTimeGreaterThanOrderByStartTimeAsc")) {
+                        jdbcTemplate.update("UPDATE availabilities SET booked = TRUE WHERE therapist_id = ?", therapist.getId());
+                    }
+                    return result;
+                });
+        AvailabilityImportService racingImport = new AvailabilityImportService(therapistRepository, bookingOnRead,
+                availabilityIndex, freeBusyCalendar, slotEventHub, availabilityMapper, jdbcTemplate, idAllocator,
+                transactionManager, 20_000, 500);
+        String calendar = String.join("\r\n",
+                "BEGIN:VCALENDAR",
+                "BEGIN:VEVENT",
+                "DTSTART:20250310T090000",
+                "DTEND:20250310T095000",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "DTSTART:20250310T130000",
+                "DTEND:20250310T135000",
+                "END:VEVENT",
+                "END:VCALENDAR", "");
+
+        assertThatThrownBy(() -> racingImport.importCalendar(therapist.getId(), file(calendar), principal))
+                .isInstanceOf(ScheduleChangedException.class)
+                .hasMessageContaining("please retry");
+        assertThat(availabilityRepository.findSlotsByTherapistIdOrderByStartTimeAscIdAsc(therapist.getId()))
+                .extracting(slot -> slot.getStartTime())
+                .containsExactly(LocalDateTime.of(2025, 3, 10, 9, 0), LocalDateTime.of(2025, 3, 10, 11, 0));
+    }
+
+    private static MockMultipartFile file(String content) {
+        return new MockMultipartFile("file", "schedule.ics", "text/calendar", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void slot(LocalDateTime start, int minutes, boolean booked) {
+        Availability availability = new Availability();
+        availability.setTherapist(therapist);
+        availability.setStartTime(start);
+        availability.setEndTime(start.plusMinutes(minutes));
+        availability.setBooked(booked);
+        availabilityRepository.save(availability);
+    }
+}
@@ -0,0 +1,178 @@
+package com.psikolojikdanismanlik.randevusistemi.service;
+
+import com.psikolojikdanismanlik.randevusistemi.dto.request.AppointmentRequest;
+import com.psikolojikdanismanlik.randevusistemi.dto.request.AvailabilityExceptionRequest;
+import com.psikolojikdanismanlik.randevusistemi.dto.request.RecurringAvailabilityRequest;
+import com.psikolojikdanismanlik.randevusistemi.dto.request.WeeklyWindowRequest;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.AvailabilityRangeDeletionResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.AvailabilityResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.entity.Availability;
+import com.psikolojikdanismanlik.randevusistemi.entity.Client;
+import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
+import com.psikolojikdanismanlik.randevusistemi.entity.User;
+import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import com.psikolojikdanismanlik.randevusistemi.exception.SlotAlreadyBookedException;
+import com.psikolojikdanismanlik.randevusistemi.repository.AvailabilityRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.ClientRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.TherapistRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.UserRepository;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+import static com.psikolojikdanismanlik.randevusistemi.TestData.deleteAll;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newClient;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newTherapist;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newUser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class AvailabilityRuleServiceTest {
+
+    private static final LocalDate MONDAY = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+    @Autowired
+    private AvailabilityRuleService availabilityRuleService;
+    @Autowired
+    private AvailabilityService availabilityService;
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TherapistRepository therapistRepository;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private AvailabilityRepository availabilityRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Therapist therapist;
+    private AuthenticatedUser therapistPrincipal;
+    private AuthenticatedUser clientPrincipal;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        User therapistUser = userRepository.save(newUser("rules-therapist@test.local", Role.THERAPIST));
+        therapist = therapistRepository.save(newTherapist(therapistUser));
+        therapistPrincipal = new AuthenticatedUser(therapistUser.getId(), therapistUser.getEmail(), "", Role.THERAPIST, null, therapist.getId());
+
+        User clientUser = userRepository.save(newUser("rules-client@test.local", Role.CLIENT));
+        Client client = clientRepository.save(newClient(clientUser));
+        clientPrincipal = new AuthenticatedUser(clientUser.getId(), clientUser.getEmail(), "", Role.CLIENT, client.getId(), null);
+
+        RecurringAvailabilityRequest request = new RecurringAvailabilityRequest();
+        request.setStartDate(MONDAY);
+        request.setEndDate(MONDAY.plusDays(13));
+        WeeklyWindowRequest window = new WeeklyWindowRequest();
+        window.setDayOfWeek(DayOfWeek.MONDAY);
+        window.setStartTime(LocalTime.of(9, 0));
+        window.setEndTime(LocalTime.of(11, 0));
+        request.setWindows(List.of(window));
+        request.setSessionMinutes(50);
+        request.setBreakMinutes(10);
+        request.setExceptions(List.of(MONDAY.plusDays(7)));
+        availabilityRuleService.addRules(therapist.getId(), request, therapistPrincipal);
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void rulesAreExpandedAtReadTimeAndMergedWithRows() {
+        Availability row = new Availability();
+        row.setTherapist(therapist);
+        row.setStartTime(MONDAY.atTime(9, 30));
+        row.setEndTime(MONDAY.atTime(9, 45));
+        availabilityRepository.save(row);
+        row = new Availability();
+        row.setTherapist(therapist);
+        row.setStartTime(MONDAY.plusDays(1).atTime(12, 0));
+        row.setEndTime(MONDAY.plusDays(1).atTime(12, 50));
+        availabilityRepository.save(row);
+
+        Page<AvailabilityResponseDto> page = availabilityService.getAvailabilitiesForTherapist(therapist.getId(), PageRequest.of(0, 10));
+
+        // The 09:00 session is hidden by the 09:30 row, and the second Monday is an exception.
+        assertThat(page.getContent()).extracting(AvailabilityResponseDto::getStartTime).containsExactly(
+                MONDAY.atTime(9, 30), MONDAY.atTime(10, 0), MONDAY.plusDays(1).atTime(12, 0));
+        assertThat(page.getContent().get(1).getId()).isNull();
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(availabilityService.isTherapistAvailableOn(therapist.getId(), MONDAY.atTime(10, 0))).isTrue();
+        assertThat(availabilityService.isTherapistAvailableOn(therapist.getId(), MONDAY.plusDays(7).atTime(10, 0))).isFalse();
+    }
+
+    @Test
+    void bookingASessionMaterializesItOnce() {
+        AppointmentRequest request = new AppointmentRequest();
+        request.setTherapistId(therapist.getId());
+        request.setStartTime(MONDAY.atTime(10, 0));
+
+        appointmentService.createAppointment(request, clientPrincipal);
+
+        assertThat(availabilityRepository.findSlotsByTherapistIdOrderByStartTimeAscIdAsc(therapist.getId()))
+                .singleElement()
+                .satisfies(slot -> {
+                    assertThat(slot.getStartTime()).isEqualTo(MONDAY.atTime(10, 0));
+                    assertThat(slot.getEndTime()).isEqualTo(MONDAY.atTime(10, 50));
+                    assertThat(slot.isBooked()).isTrue();
+                });
+        assertThatThrownBy(() -> appointmentService.createAppointment(request, clientPrincipal))
+                .isInstanceOf(SlotAlreadyBookedException.class);
+    }
+
+    @Test
+    void blackoutsHideSlotsAndRangeDeletionKeepsBookedOnes() throws Exception {
+        slot(MONDAY.plusDays(1).atTime(9, 0), false);
+        slot(MONDAY.plusDays(1).atTime(10, 0), true);
+        slot(MONDAY.plusDays(2).atTime(9, 0), false);
+        slot(MONDAY.plusDays(3).atTime(9, 0), false);
+        AvailabilityExceptionRequest vacation = new AvailabilityExceptionRequest();
+        vacation.setStartTime(MONDAY.atStartOfDay());
+        vacation.setEndTime(MONDAY.plusDays(3).atStartOfDay());
+        vacation.setReason("Vacation");
+        availabilityRuleService.addException(therapist.getId(), vacation, therapistPrincipal);
+
+        assertThat(availabilityService.getAvailabilitiesForTherapist(therapist.getId(), PageRequest.of(0, 10)).getContent())
+                .extracting(AvailabilityResponseDto::getStartTime)
+                .containsExactly(MONDAY.plusDays(1).atTime(10, 0), MONDAY.plusDays(3).atTime(9, 0));
+        assertThat(availabilityService.isTherapistAvailableOn(therapist.getId(), MONDAY.plusDays(2).atTime(9, 0))).isFalse();
+        assertThat(availabilityService.isTherapistAvailableOn(therapist.getId(), MONDAY.atTime(10, 0))).isFalse();
+
+        AvailabilityRangeDeletionResponseDto result = availabilityService.deleteAvailabilitiesBetween(
+                therapist.getId(), MONDAY.atStartOfDay(), MONDAY.plusDays(3).atStartOfDay(), therapistPrincipal);
+
+        assertThat(result.getDeleted()).isEqualTo(2);
+        assertThat(result.getBooked()).extracting(AvailabilityResponseDto::getStartTime)
+                .containsExactly(MONDAY.plusDays(1).atTime(10, 0));
+        assertThat(availabilityRepository.findSlotsByTherapistIdOrderByStartTimeAscIdAsc(therapist.getId()))
+                .extracting(slot -> slot.getStartTime())
+                .containsExactly(MONDAY.plusDays(1).atTime(10, 0), MONDAY.plusDays(3).atTime(9, 0));
+    }
+
+    private void slot(LocalDateTime start, boolean booked) {
+        Availability availability = new Availability();
+        availability.setTherapist(therapist);
+        availability.setStartTime(start);
+        availability.setEndTime(start.plusMinutes(50));
+        availability.setBooked(booked);
+        availabilityRepository.save(availability);
+    }
+}
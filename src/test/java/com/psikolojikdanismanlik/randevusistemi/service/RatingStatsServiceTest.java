@@ -0,0 +1,186 @@
+package com.psikolojikdanismanlik.randevusistemi.service;
+
+import com.psikolojikdanismanlik.randevusistemi.dto.request.FeedbackRequestDto;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.RatingSummaryDto;
+import com.psikolojikdanismanlik.randevusistemi.entity.Appointment;
+import com.psikolojikdanismanlik.randevusistemi.entity.Client;
+import com.psikolojikdanismanlik.randevusistemi.entity.Feedback;
+import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
+import com.psikolojikdanismanlik.randevusistemi.entity.User;
+import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import com.psikolojikdanismanlik.randevusistemi.enums.Status;
+import com.psikolojikdanismanlik.randevusistemi.repository.AppointmentRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.ClientRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.TherapistRatingStatsRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.TherapistRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.UserRepository;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.psikolojikdanismanlik.randevusistemi.TestData.deleteAll;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newClient;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newTherapist;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newUser;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class RatingStatsServiceTest {
+
+    @Autowired
+    private RatingStatsService ratingStatsService;
+    @Autowired
+    private FeedbackService feedbackService;
+    @Autowired
+    private TherapistRatingStatsRepository ratingStatsRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TherapistRepository therapistRepository;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Therapist therapist;
+    private Long therapistId;
+    private Client client;
+    private AuthenticatedUser clientPrincipal;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        therapist = newTherapist(userRepository.save(newUser("rated-therapist@test.local", Role.THERAPIST)));
+        therapistId = therapistRepository.save(therapist).getId();
+
+        User clientUser = userRepository.save(newUser("rating-client@test.local", Role.CLIENT));
+        client = clientRepository.save(newClient(clientUser));
+        clientPrincipal = new AuthenticatedUser(clientUser.getId(), clientUser.getEmail(), "", Role.CLIENT, client.getId(), null);
+
+        int day = 1;
+        for (int rating : new int[]{5, 4, 4}) {
+            Appointment appointment = completedAppointment(day++);
+            Feedback feedback = new Feedback();
+            feedback.setRating(rating);
+            feedback.setClient(client);
+            feedback.setAppointment(appointment);
+            appointment.setFeedback(feedback);
+            appointmentRepository.save(appointment);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void reconcileRebuildsStatsFromFeedback() {
+        ratingStatsService.reconcile();
+
+        RatingSummaryDto summary = ratingStatsService.getRatingSummary(therapistId);
+        assertThat(summary.getRatingCount()).isEqualTo(3);
+        assertThat(summary.getAverageRating()).isEqualTo(4.3);
+        assertThat(summary.getHistogram()).containsExactly(0, 0, 0, 2, 1);
+    }
+
+    @Test
+    void deltasKeepStatsInStepWithFeedbackChanges() {
+        ratingStatsService.reconcile();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            ratingStatsService.recordChanged(therapistId, 5, 1);
+            ratingStatsService.recordAdded(therapistId, 3);
+            ratingStatsService.recordRemoved(therapistId, 4);
+        });
+
+        RatingSummaryDto summary = ratingStatsService.getRatingSummary(therapistId);
+        assertThat(summary.getRatingCount()).isEqualTo(3);
+        assertThat(summary.getAverageRating()).isEqualTo(2.7);
+        assertThat(summary.getHistogram()).containsExactly(1, 0, 1, 1, 0);
+    }
+
+    @Test
+    void reconcileRepairsDriftAndFirstDeltaCreatesTheRow() {
+        transactionTemplate.executeWithoutResult(status -> ratingStatsService.recordAdded(therapistId, 5));
+        assertThat(ratingStatsService.getRatingSummary(therapistId).getRatingCount()).isEqualTo(3);
+
+        transactionTemplate.executeWithoutResult(status -> ratingStatsRepository.applyDelta(therapistId, 7, 2, 0, 0, 0, 0, 9));
+        ratingStatsService.reconcile();
+
+        assertThat(ratingStatsService.getAverageRating(therapistId)).isEqualTo(4.3);
+        assertThat(ratingStatsService.getRatingSummary(therapistId).getHistogram()).containsExactly(0, 0, 0, 2, 1);
+    }
+
+    @Test
+    void concurrentFirstFeedbackAndReconcileCreateOneRowCountingEveryRating() throws Exception {
+        int writers = 6;
+        List<Long> appointmentIds = new ArrayList<>();
+        for (int i = 0; i < writers; i++) {
+            appointmentIds.add(appointmentRepository.save(completedAppointment(10 + i)).getId());
+        }
+
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(writers + 1);
+        pool.execute(() -> {
+            try {
+                start.await();
+                ratingStatsService.reconcile();
+            } catch (Exception e) {
+                errors.incrementAndGet();
+            }
+        });
+        for (Long appointmentId : appointmentIds) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    FeedbackRequestDto request = new FeedbackRequestDto();
+                    request.setRating(2);
+                    feedbackService.addFeedback(appointmentId, request, clientPrincipal);
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(errors.get()).isZero();
+        assertThat(ratingStatsRepository.count()).isEqualTo(1);
+        RatingSummaryDto summary = ratingStatsService.getRatingSummary(therapistId);
+        assertThat(summary.getRatingCount()).isEqualTo(3 + writers);
+        assertThat(summary.getHistogram()).containsExactly(0, writers, 0, 2, 1);
+    }
+
+    private Appointment completedAppointment(int daysAgo) {
+        Appointment appointment = new Appointment();
+        appointment.setTherapist(therapist);
+        appointment.setClient(client);
+        appointment.setStatus(Status.COMPLETED);
+        appointment.setStartTime(LocalDateTime.now().minusDays(daysAgo));
+        appointment.setEndTime(appointment.getStartTime().plusHours(1));
+        return appointment;
+    }
+}
@@ -0,0 +1,125 @@
+package com.psikolojikdanismanlik.randevusistemi.service;
+
+import com.psikolojikdanismanlik.randevusistemi.dto.request.RecurringAvailabilityRequest;
+import com.psikolojikdanismanlik.randevusistemi.dto.request.WeeklyWindowRequest;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.AvailabilityResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.RecurringAvailabilityResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.entity.Availability;
+import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
+import com.psikolojikdanismanlik.randevusistemi.entity.User;
+import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import com.psikolojikdanismanlik.randevusistemi.exception.InvalidRecurrenceException;
+import com.psikolojikdanismanlik.randevusistemi.repository.AvailabilityRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.TherapistRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.UserRepository;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static com.psikolojikdanismanlik.randevusistemi.TestData.deleteAll;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newTherapist;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newUser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class RecurringAvailabilityServiceTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2025, 3, 10);
+
+    @Autowired
+    private RecurringAvailabilityService recurringAvailabilityService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TherapistRepository therapistRepository;
+    @Autowired
+    private AvailabilityRepository availabilityRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Therapist therapist;
+    private AuthenticatedUser principal;
+
+    @BeforeEach
+    void setUp() {
+        User user = newUser("recurring-therapist@test.local", "Recurring Therapist", Role.THERAPIST);
+        therapist = therapistRepository.save(newTherapist(userRepository.save(user)));
+        principal = new AuthenticatedUser(user.getId(), user.getEmail(), "", Role.THERAPIST, null, therapist.getId());
+
+        slot(MONDAY.atTime(10, 0), 50);
+        slot(MONDAY.plusDays(2).atTime(9, 30), 30);
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void sessionsAreInsertedUnlessTheyAlreadyExistOrOverlap() throws Exception {
+        RecurringAvailabilityResponseDto first = recurringAvailabilityService.addRecurringAvailability(therapist.getId(), request(), principal);
+
+        assertThat(first.getCreated()).isEqualTo(3);
+        assertThat(first.getSkipped()).extracting(AvailabilityResponseDto::getStartTime).containsExactly(MONDAY.atTime(10, 0));
+        assertThat(first.getConflicts()).extracting(AvailabilityResponseDto::getStartTime).containsExactly(MONDAY.plusDays(2).atTime(9, 0));
+        assertThat(availabilityRepository.findSlotsByTherapistIdOrderByStartTimeAscIdAsc(therapist.getId()))
+                .extracting(slot -> slot.getStartTime().toString())
+                .containsExactly("2025-03-10T09:00", "2025-03-10T10:00", "2025-03-10T11:00", "2025-03-12T09:30", "2025-03-12T10:00");
+
+        RecurringAvailabilityResponseDto second = recurringAvailabilityService.addRecurringAvailability(therapist.getId(), request(), principal);
+
+        assertThat(second.getCreated()).isZero();
+        assertThat(second.getSkipped()).hasSize(4);
+        assertThat(second.getConflicts()).hasSize(1);
+    }
+
+    @Test
+    void invalidRecurrenceIsRejected() {
+        RecurringAvailabilityRequest request = request();
+        request.setSessionMinutes(0);
+
+        assertThatThrownBy(() -> recurringAvailabilityService.addRecurringAvailability(therapist.getId(), request, principal))
+                .isInstanceOf(InvalidRecurrenceException.class);
+    }
+
+    private RecurringAvailabilityRequest request() {
+        RecurringAvailabilityRequest request = new RecurringAvailabilityRequest();
+        request.setStartDate(MONDAY);
+        request.setEndDate(MONDAY.plusDays(6));
+        request.setWindows(List.of(
+                window(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(12, 0)),
+                window(DayOfWeek.WEDNESDAY, LocalTime.of(9, 0), LocalTime.of(11, 0)),
+                window(DayOfWeek.FRIDAY, LocalTime.of(9, 0), LocalTime.of(10, 0))));
+        request.setSessionMinutes(50);
+        request.setBreakMinutes(10);
+        request.setExceptions(List.of(MONDAY.plusDays(4)));
+        return request;
+    }
+
+    private static WeeklyWindowRequest window(DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime) {
+        WeeklyWindowRequest window = new WeeklyWindowRequest();
+        window.setDayOfWeek(dayOfWeek);
+        window.setStartTime(startTime);
+        window.setEndTime(endTime);
+        return window;
+    }
+
+    private void slot(LocalDateTime start, int minutes) {
+        Availability availability = new Availability();
+        availability.setTherapist(therapist);
+        availability.setStartTime(start);
+        availability.setEndTime(start.plusMinutes(minutes));
+        availabilityRepository.save(availability);
+    }
+}
@@ -0,0 +1,135 @@
+package com.psikolojikdanismanlik.randevusistemi.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.psikolojikdanismanlik.randevusistemi.entity.Availability;
+import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
+import com.psikolojikdanismanlik.randevusistemi.entity.TherapistRatingStats;
+import com.psikolojikdanismanlik.randevusistemi.entity.User;
+import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import com.psikolojikdanismanlik.randevusistemi.repository.AvailabilityRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.TherapistRatingStatsRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.TherapistRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.psikolojikdanismanlik.randevusistemi.TestData.deleteAll;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newTherapist;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newUser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SlotSearchTest {
+
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2025, 3, 10, 0, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TherapistRepository therapistRepository;
+    @Autowired
+    private TherapistRatingStatsRepository therapistRatingStatsRepository;
+    @Autowired
+    private AvailabilityRepository availabilityRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Therapist anxiety;
+    private Therapist anxietyLowRated;
+
+    @BeforeEach
+    void setUp() {
+        anxiety = therapist("search-anxiety@test.local", "Anxiety disorders", 9, 2);
+        anxietyLowRated = therapist("search-anxiety-low@test.local", "Anxiety", 5, 2);
+        Therapist depression = therapist("search-depression@test.local", "Depression", 10, 2);
+
+        slot(anxiety, MONDAY.withHour(10), false);
+        slot(anxiety, MONDAY.withHour(19), true);
+        slot(anxiety, MONDAY.plusDays(1).withHour(20), false);
+        slot(anxiety, MONDAY.plusDays(5).withHour(18), false);
+        slot(anxiety, MONDAY.plusDays(7).withHour(18).withMinute(30), false);
+        slot(anxietyLowRated, MONDAY.withHour(18), false);
+        slot(depression, MONDAY.withHour(18), false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void weekdayEveningSlotsOfWellRatedSpecialistsComeEarliestFirst() throws Exception {
+        JsonNode slots = search(get("/api/therapists/available-slots")
+                .param("specialization", "ANXIETY")
+                .param("from", MONDAY.toString())
+                .param("to", MONDAY.plusDays(14).toString())
+                .param("days", "MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY")
+                .param("timeFrom", "18:00")
+                .param("timeTo", "21:00")
+                .param("minRating", "4"));
+
+        assertThat(startTimes(slots)).containsExactly("2025-03-11T20:00:00", "2025-03-17T18:30:00");
+        assertThat(slots.get(0).get("therapistId").asLong()).isEqualTo(anxiety.getId());
+        assertThat(slots.get(0).get("averageRating").asDouble()).isEqualTo(4.5);
+    }
+
+    @Test
+    void withoutFiltersTheLimitKeepsTheEarliestFreeSlots() throws Exception {
+        JsonNode slots = search(get("/api/therapists/available-slots")
+                .param("from", MONDAY.toString())
+                .param("limit", "3"));
+
+        assertThat(startTimes(slots)).containsExactly("2025-03-10T10:00:00", "2025-03-10T18:00:00", "2025-03-10T18:00:00");
+    }
+
+    private JsonNode search(MockHttpServletRequestBuilder request) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(request).andReturn().getResponse().getContentAsString());
+    }
+
+    private static List<String> startTimes(JsonNode slots) {
+        List<String> startTimes = new ArrayList<>();
+        slots.forEach(slot -> startTimes.add(slot.get("startTime").asText()));
+        return startTimes;
+    }
+
+    private Therapist therapist(String email, String specialization, long ratingSum, long ratingCount) {
+        User user = newUser(email, "Search Therapist", Role.THERAPIST);
+        Therapist therapist = newTherapist(userRepository.save(user));
+        therapist.setSpecialization(specialization);
+        therapist = therapistRepository.save(therapist);
+
+        TherapistRatingStats stats = new TherapistRatingStats();
+        stats.setTherapistId(therapist.getId());
+        stats.setRatingCount(ratingCount);
+        stats.setRatingSum(ratingSum);
+        therapistRatingStatsRepository.save(stats);
+        return therapist;
+    }
+
+    private void slot(Therapist therapist, LocalDateTime start, boolean booked) {
+        Availability availability = new Availability();
+        availability.setTherapist(therapist);
+        availability.setStartTime(start);
+        availability.setEndTime(start.plusMinutes(50));
+        availability.setBooked(booked);
+        availabilityRepository.save(availability);
+    }
+}
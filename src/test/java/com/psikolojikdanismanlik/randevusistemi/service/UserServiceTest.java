@@ -0,0 +1,82 @@
+package com.psikolojikdanismanlik.randevusistemi.service;
+
+import com.psikolojikdanismanlik.randevusistemi.dto.request.UserRoleUpdateRequest;
+import com.psikolojikdanismanlik.randevusistemi.dto.response.TherapistResponseDto;
+import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
+import com.psikolojikdanismanlik.randevusistemi.entity.User;
+import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import com.psikolojikdanismanlik.randevusistemi.repository.TherapistRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.UserRepository;
+import com.psikolojikdanismanlik.randevusistemi.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static com.psikolojikdanismanlik.randevusistemi.TestData.deleteAll;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newTherapist;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newUser;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class UserServiceTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TherapistService therapistService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TherapistRepository therapistRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Therapist therapist;
+    private AuthenticatedUser admin;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(newUser("directory-therapist@test.local", "Directory Kaya", Role.THERAPIST));
+        therapist = therapistRepository.save(newTherapist(user));
+        therapistService.refreshInDirectory(therapist);
+
+        User adminUser = userRepository.save(newUser("directory-admin@test.local", Role.ADMIN));
+        admin = new AuthenticatedUser(adminUser.getId(), adminUser.getEmail(), "", Role.ADMIN, null, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void roleChangeMovesTheUserOutOfAndBackIntoTheTherapistDirectory() {
+        assertListed(true);
+
+        userService.updateUserRole(therapist.getUser().getId(), role(Role.CLIENT), admin);
+        assertListed(false);
+        assertThat(therapistService.getTherapistById(therapist.getId()).getFullName()).isEqualTo("Directory Kaya");
+
+        userService.updateUserRole(therapist.getUser().getId(), role(Role.THERAPIST), admin);
+        assertListed(true);
+    }
+
+    private void assertListed(boolean listed) {
+        assertThat(therapistService.getAllTherapists(PageRequest.of(0, 20)).getContent())
+                .extracting(TherapistResponseDto::getId)
+                .as("directory page").matches(ids -> ids.contains(therapist.getId()) == listed);
+        assertThat(therapistService.searchTherapistsByName("kaya"))
+                .extracting(TherapistResponseDto::getId)
+                .as("name search").matches(ids -> ids.contains(therapist.getId()) == listed);
+    }
+
+    private static UserRoleUpdateRequest role(Role role) {
+        UserRoleUpdateRequest request = new UserRoleUpdateRequest();
+        request.setNewRole(role);
+        return request;
+    }
+}
@@ -0,0 +1,122 @@
+package com.psikolojikdanismanlik.randevusistemi.stream;
+
+import com.psikolojikdanismanlik.randevusistemi.dto.response.SlotEventDto;
+import com.psikolojikdanismanlik.randevusistemi.entity.Availability;
+import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
+import com.psikolojikdanismanlik.randevusistemi.enums.SlotEventType;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class SlotEventHubTest {
+
+    private static final long THERAPIST_ID = 7L;
+
+    private final Queue<Runnable> drains = new ArrayDeque<>();
+    private final SlotEventHub hub = new SlotEventHub(drains::add, 4, 60_000);
+
+    @Test
+    void changesToOneSlotCoalesceWhileTheConsumerIsBehind() {
+        RecordingEmitter emitter = subscribe();
+
+        hub.slotAdded(slot(1, false));
+        hub.slotBooked(slot(1, true), true);
+        hub.slotAdded(slot(2, false));
+        hub.slotDeleted(THERAPIST_ID, 2L);
+        hub.slotBooked(slot(3, true), true);
+        hub.slotBooked(slot(3, false), false);
+        runDrains();
+
+        assertThat(emitter.events).extracting(SlotEventDto::getType, SlotEventDto::getAvailabilityId, SlotEventDto::isBooked)
+                .containsExactly(
+                        tuple(SlotEventType.ADDED, 1L, true),
+                        tuple(SlotEventType.RELEASED, 3L, false));
+        assertThat(emitter.events.get(0).getStartTime()).isEqualTo(start(1));
+    }
+
+    @Test
+    void slowConsumerOverflowingItsBufferGetsOneResync() {
+        RecordingEmitter emitter = subscribe();
+
+        for (long id = 1; id <= 50; id++) {
+            hub.slotAdded(slot(id, false));
+        }
+        runDrains();
+        hub.slotBooked(slot(60, true), true);
+        runDrains();
+
+        assertThat(emitter.events).extracting(SlotEventDto::getType, SlotEventDto::getAvailabilityId)
+                .containsExactly(
+                        tuple(SlotEventType.RESYNC, null),
+                        tuple(SlotEventType.BOOKED, 60L));
+    }
+
+    @Test
+    void failedSendDropsTheSubscriber() {
+        RecordingEmitter emitter = subscribe();
+        emitter.broken = true;
+
+        hub.slotAdded(slot(1, false));
+        runDrains();
+
+        assertThat(hub.subscriberCount(THERAPIST_ID)).isZero();
+        hub.slotAdded(slot(2, false));
+        assertThat(drains).isEmpty();
+    }
+
+    private RecordingEmitter subscribe() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        hub.register(THERAPIST_ID, emitter);
+        runDrains();
+        return emitter;
+    }
+
+    private void runDrains() {
+        while (!drains.isEmpty()) {
+            drains.poll().run();
+        }
+    }
+
+    private static Availability slot(long id, boolean booked) {
+        Therapist therapist = new Therapist();
+        therapist.setId(THERAPIST_ID);
+        Availability availability = new Availability();
+        availability.setId(id);
+        availability.setTherapist(therapist);
+        availability.setStartTime(start(id));
+        availability.setEndTime(start(id).plusMinutes(50));
+        availability.setBooked(booked);
+        return availability;
+    }
+
+    private static LocalDateTime start(long id) {
+        return LocalDateTime.of(2025, 3, 10, 9, 0).plusHours(id);
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<SlotEventDto> events = new ArrayList<>();
+        private boolean broken;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (broken) {
+                throw new IOException("Broken pipe");
+            }
+            for (DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof SlotEventDto event) {
+                    events.add(event);
+                }
+            }
+        }
+    }
+}
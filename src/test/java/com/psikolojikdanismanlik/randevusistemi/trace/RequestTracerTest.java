@@ -0,0 +1,149 @@
+package com.psikolojikdanismanlik.randevusistemi.trace;
+
+import com.psikolojikdanismanlik.randevusistemi.entity.Therapist;
+import com.psikolojikdanismanlik.randevusistemi.entity.User;
+import com.psikolojikdanismanlik.randevusistemi.enums.Role;
+import com.psikolojikdanismanlik.randevusistemi.repository.TherapistRepository;
+import com.psikolojikdanismanlik.randevusistemi.repository.UserRepository;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static com.psikolojikdanismanlik.randevusistemi.TestData.deleteAll;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newTherapist;
+import static com.psikolojikdanismanlik.randevusistemi.TestData.newUser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.trace.slow-threshold=0ms",
+        "app.trace.dump.directory=target/request-traces-test"
+})
+@AutoConfigureMockMvc
+class RequestTracerTest {
+
+    private static final Path DUMP_DIRECTORY = Path.of("target/request-traces-test");
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private RequestTraceEndpoint requestTraceEndpoint;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TherapistRepository therapistRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        deleteAll(jdbcTemplate);
+        FileSystemUtils.deleteRecursively(DUMP_DIRECTORY);
+    }
+
+    @Test
+    void slowRequestsKeepTheirStatementsAndCanBeDumped() throws Exception {
+        User user = newUser("trace-therapist@test.local", "Trace Therapist", Role.THERAPIST);
+        Therapist therapist = therapistRepository.save(newTherapist(userRepository.save(user)));
+
+        mockMvc.perform(get("/api/therapists/{id}", therapist.getId())).andExpect(status().isOk());
+
+        List<RequestTrace> traces = requestTraceEndpoint.traces();
+        assertThat(traces).first().satisfies(trace -> {
+            assertThat(trace.slow()).isTrue();
+            assertThat(trace.method()).isEqualTo("GET");
+            assertThat(trace.route()).isEqualTo("/api/therapists/{id}");
+            assertThat(trace.handler()).startsWith("TherapistController.");
+            assertThat(trace.status()).isEqualTo(200);
+            assertThat(trace.statements()).isNotEmpty().allSatisfy(statement -> {
+                assertThat(statement.sql()).containsIgnoringCase("select");
+                assertThat(statement.binds()).isPositive();
+            });
+        });
+
+        TraceFileWriter.Dump dump = requestTraceEndpoint.dump();
+        assertThat(dump.written()).isEqualTo(traces.size());
+        assertThat(Files.readAllLines(Path.of(dump.file()))).hasSize(traces.size())
+                .first().asString().contains("\"route\":\"/api/therapists/{id}\"");
+        assertThat(requestTraceEndpoint.dump().written()).isZero();
+    }
+
+    @Test
+    void ringBufferKeepsTheNewestItems() {
+        TraceRingBuffer<Integer> buffer = new TraceRingBuffer<>(3);
+        for (int i = 1; i <= 6; i++) {
+            buffer.add(i);
+        }
+
+        assertThat(buffer.capacity()).isEqualTo(4);
+        assertThat(buffer.newestFirst()).containsExactly(6, 5, 4, 3);
+    }
+
+    @Test
+    void fastRequestIsKeptOnlyWhenSampled() {
+        RequestTracer sampled = new RequestTracer(Duration.ofMinutes(1), 1.0, 8, 10);
+        request(sampled, 3);
+
+        assertThat(sampled.recent()).singleElement().satisfies(trace -> {
+            assertThat(trace.slow()).isFalse();
+            assertThat(trace.uri()).isEqualTo("/api/therapists");
+            assertThat(trace.statements()).hasSize(3)
+                    .extracting(RequestTrace.Statement::sql).containsExactly("select 0", "select 1", "select 2");
+            assertThat(trace.droppedStatements()).isZero();
+        });
+    }
+
+    @Test
+    void fastRequestIsDroppedWhenNotSampled() {
+        RequestTracer unsampled = new RequestTracer(Duration.ofMinutes(1), 0.0, 8, 10);
+        request(unsampled, 3);
+
+        assertThat(unsampled.recent()).isEmpty();
+    }
+
+    @Test
+    void statementsPastTheLimitAreCountedButNotKept() {
+        RequestTracer tracer = new RequestTracer(Duration.ZERO, 0.0, 8, 2);
+        request(tracer, 5);
+        request(tracer, 1);
+
+        assertThat(tracer.recent()).hasSize(2).satisfiesExactly(
+                latest -> {
+                    assertThat(latest.statements()).extracting(RequestTrace.Statement::sql).containsExactly("select 0");
+                    assertThat(latest.droppedStatements()).isZero();
+                },
+                first -> {
+                    assertThat(first.slow()).isTrue();
+                    assertThat(first.statements()).extracting(RequestTrace.Statement::sql).containsExactly("select 0", "select 1");
+                    assertThat(first.droppedStatements()).isEqualTo(3);
+                });
+    }
+
+    // Stands in for the filter and the datasource proxy: one request on this thread that runs the given statements.
+    private static void request(RequestTracer tracer, int statements) {
+        long started = System.nanoTime();
+        tracer.begin();
+        for (int i = 0; i < statements; i++) {
+            ExecutionInfo execution = new ExecutionInfo();
+            execution.setSuccess(true);
+            List<QueryInfo> queries = List.of(new QueryInfo("select " + i));
+            tracer.beforeQuery(execution, queries);
+            tracer.afterQuery(execution, queries);
+        }
+        tracer.end(new MockHttpServletRequest("GET", "/api/therapists"), 200, started);
+    }
+}